@@ -0,0 +1,50 @@
+package org.productivity.java.syslog4j.benchmark;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.productivity.java.syslog4j.server.SyslogServerEventIF;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEvent;
+
+/**
+* SyslogServerEventParseBenchmark compares parsing an RFC 3164 message
+* from a String, as SyslogServerEvent formerly did for every message,
+* against the byte parser with and without decoding the message.
+*
+* <p>Run with: ./gradlew jmh -PjmhIncludes=SyslogServerEventParseBenchmark</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SyslogServerEventParseBenchmark {
+	protected final byte[] message = "<14>Oct 18 14:45:41 localhost myapp[1234]: connection from 192.168.1.10 accepted".getBytes(StandardCharsets.UTF_8);
+	protected final InetAddress inetAddress = InetAddress.getLoopbackAddress();
+
+	@Benchmark
+	public SyslogServerEventIF stringParser() {
+		return new SyslogServerEvent(new String(this.message,StandardCharsets.UTF_8),this.inetAddress);
+	}
+
+	@Benchmark
+	public SyslogServerEventIF byteParser() {
+		return new SyslogServerEvent(this.message,this.message.length,this.inetAddress);
+	}
+
+	@Benchmark
+	public String byteParserWithMessage() {
+		return new SyslogServerEvent(this.message,this.message.length,this.inetAddress).getMessage();
+	}
+}
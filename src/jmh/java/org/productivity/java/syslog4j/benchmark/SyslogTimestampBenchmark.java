@@ -0,0 +1,100 @@
+package org.productivity.java.syslog4j.benchmark;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.productivity.java.syslog4j.SyslogCharSetIF;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.impl.message.processor.SyslogMessageProcessor;
+import org.productivity.java.syslog4j.impl.net.udp.UDPNetSyslogConfig;
+import org.productivity.java.syslog4j.util.SyslogEncodeBuffer;
+
+/**
+* SyslogTimestampBenchmark compares the per-message cost of the RFC 3164
+* header timestamp: the former SimpleDateFormat-per-message approach
+* against the per-second cached timestamp in AbstractSyslogMessageProcessor.
+*
+* <p>Run with: ./gradlew jmh -PjmhIncludes=SyslogTimestampBenchmark</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SyslogTimestampBenchmark {
+	protected final SyslogMessageProcessor messageProcessor = new SyslogMessageProcessor();
+	protected final SyslogCharSetIF charSet = new UDPNetSyslogConfig();
+
+	/**
+	 * Equivalent of the former AbstractSyslogMessageProcessor.appendLocalTimestamp(..).
+	 */
+	protected static void appendUncachedTimestamp(StringBuffer buffer) {
+		SimpleDateFormat dateFormat = new SimpleDateFormat(SyslogConstants.SYSLOG_DATEFORMAT,Locale.ENGLISH);
+
+		String datePrefix = dateFormat.format(new Date());
+
+		int pos = buffer.length() + 4;
+
+		buffer.append(datePrefix);
+
+		if (buffer.charAt(pos) == '0') {
+			buffer.setCharAt(pos,' ');
+		}
+	}
+
+	@Benchmark
+	public String uncachedTimestamp() {
+		StringBuffer buffer = new StringBuffer();
+
+		buffer.append("<14>");
+		appendUncachedTimestamp(buffer);
+		buffer.append("localhost ");
+
+		return buffer.toString();
+	}
+
+	@Benchmark
+	public String cachedTimestamp() {
+		return this.messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_USER,SyslogConstants.LEVEL_INFO,"localhost",true,true);
+	}
+
+	@Benchmark
+	public void cachedEncodedTimestamp(Blackhole blackhole) {
+		SyslogEncodeBuffer buffer = SyslogEncodeBuffer.acquire(this.charSet);
+
+		try {
+			this.messageProcessor.encodeSyslogHeader(buffer,SyslogConstants.FACILITY_USER,SyslogConstants.LEVEL_INFO,"localhost",true,true);
+
+			blackhole.consume(buffer.length());
+
+		} finally {
+			buffer.release();
+		}
+	}
+
+	@Benchmark
+	@Threads(8)
+	public String uncachedTimestampContended() {
+		return uncachedTimestamp();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public String cachedTimestampContended() {
+		return cachedTimestamp();
+	}
+}
@@ -0,0 +1,102 @@
+package org.productivity.java.syslog4j.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.impl.AbstractSyslog;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.net.tcp.pool.PooledTCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.pool.AbstractSyslogPoolFactory;
+import org.productivity.java.syslog4j.impl.pool.generic.GenericSyslogPoolFactory;
+import org.productivity.java.syslog4j.impl.pool.lockfree.LockFreeSyslogPoolFactory;
+
+/**
+* SyslogWriterPoolBenchmark compares the borrow/return cost of the writer
+* pools used by PooledTCPNetSyslog on every message: the GenericObjectPool
+* (GenericSyslogPoolFactory) against the LockFreeSyslogWriterPool
+* (LockFreeSyslogPoolFactory), with 1, 8 and 64 logging Threads sharing the
+* default maxActive writers.  A writer is held for a few CPU tokens, as a
+* stand-in for encoding and writing a message; no connection is made.
+*
+* <p>Run with: ./gradlew jmh -PjmhIncludes=SyslogWriterPoolBenchmark</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SyslogWriterPoolBenchmark {
+	@Param({"generic","lockfree"})
+	public String pool;
+
+	@Param({"100"})
+	public long holdTokens;
+
+	protected AbstractSyslogPoolFactory poolFactory = null;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		PooledTCPNetSyslogConfig config = new PooledTCPNetSyslogConfig("127.0.0.1",514);
+		config.setThreaded(false);
+		config.setPersistentConnection(false);
+		config.setMaxWait(0);
+
+		AbstractSyslog syslog = (AbstractSyslog) Syslog.createInstance("poolBenchmark",config);
+
+		this.poolFactory = "generic".equals(this.pool) ? new GenericSyslogPoolFactory() : new LockFreeSyslogPoolFactory();
+		this.poolFactory.initialize(syslog);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		this.poolFactory.close();
+
+		Syslog.destroyInstance("poolBenchmark");
+	}
+
+	protected void borrowAndReturn(Blackhole blackhole) throws Exception {
+		AbstractSyslogWriter writer = this.poolFactory.borrowSyslogWriter();
+
+		try {
+			Blackhole.consumeCPU(this.holdTokens);
+			blackhole.consume(writer);
+
+		} finally {
+			this.poolFactory.returnSyslogWriter(writer);
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void borrowReturn_1(Blackhole blackhole) throws Exception {
+		borrowAndReturn(blackhole);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void borrowReturn_8(Blackhole blackhole) throws Exception {
+		borrowAndReturn(blackhole);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public void borrowReturn_64(Blackhole blackhole) throws Exception {
+		borrowAndReturn(blackhole);
+	}
+}
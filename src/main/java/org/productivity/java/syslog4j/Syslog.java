@@ -7,7 +7,10 @@ import java.util.Map;
 import java.util.Set;
 
 import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.tcp.nio.NioTCPNetSyslogConfig;
 import org.productivity.java.syslog4j.impl.net.udp.UDPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.udp.mmsg.MmsgUDPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.udp.nio.NioUDPNetSyslogConfig;
 import org.productivity.java.syslog4j.impl.unix.UnixSyslogConfig;
 import org.productivity.java.syslog4j.impl.unix.socket.UnixSocketSyslogConfig;
 import org.productivity.java.syslog4j.util.OSDetectUtility;
@@ -92,7 +95,7 @@ public final class Syslog implements SyslogConstants {
 	/**
 	 * Use getInstance(protocol) as the starting point for Syslog4j.
 	 * 
-	 * @param protocol - the Syslog protocol to use, e.g. "udp", "tcp", "unix_syslog", "unix_socket", or a custom protocol
+	 * @param protocol - the Syslog protocol to use, e.g. "udp", "tcp", "nio_tcp", "nio_udp", "unix_syslog", "unix_socket", or a custom protocol
 	 * @return Returns an instance of SyslogIF.
 	 * @throws SyslogRuntimeException
 	 */
@@ -185,12 +188,15 @@ public final class Syslog implements SyslogConstants {
 	}
 
 	/**
-	 * initialize() sets up the default TCP and UDP Syslog protocols, as
+	 * initialize() sets up the default TCP, NIO_TCP, UDP, NIO_UDP and MMSG_UDP Syslog protocols, as
 	 * well as UNIX_SYSLOG and UNIX_SOCKET (if running on a Unix-based system).
 	 */
 	public synchronized static void initialize() {
 		createInstance(UDP,new UDPNetSyslogConfig());
 		createInstance(TCP,new TCPNetSyslogConfig());
+		createInstance(NIO_TCP,new NioTCPNetSyslogConfig());
+		createInstance(NIO_UDP,new NioUDPNetSyslogConfig());
+		createInstance(MMSG_UDP,new MmsgUDPNetSyslogConfig());
 		
 		if (OSDetectUtility.isUnix() && SyslogUtility.isClassExists(JNA_NATIVE_CLASS)) {
 			createInstance(UNIX_SYSLOG,new UnixSyslogConfig());
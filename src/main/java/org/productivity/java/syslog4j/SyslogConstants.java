@@ -39,15 +39,26 @@ public interface SyslogConstants extends Serializable {
 	boolean SEND_LOCAL_TIMESTAMP_DEFAULT = true;
 	boolean CACHE_HOST_ADDRESS_DEFAULT = true;
 	
+	byte DESTINATION_SELECTION_DEFAULT = 0;
+	long HEALTH_CHECK_INTERVAL_DEFAULT = 1000;
+	long RECONNECT_BACKOFF_MIN_DEFAULT = 500;
+	long RECONNECT_BACKOFF_MAX_DEFAULT = 30000;
+	
 	int MAX_MESSAGE_LENGTH_DEFAULT = 1024;
 	
 	boolean INCLUDE_IDENT_IN_MESSAGE_MODIFIER_DEFAULT = false;
 	boolean THROW_EXCEPTION_ON_INITIALIZE_DEFAULT = true;
 	boolean THROW_EXCEPTION_ON_WRITE_DEFAULT = false;
 	boolean USE_STRUCTURED_DATA_DEFAULT = false;
+	boolean USE_ENCODE_BUFFER_DEFAULT = false;
 	String STRUCTURED_DATA_APP_NAME_DEFAULT_VALUE = "unknown";
 	String STRUCTURED_DATA_PROCESS_ID_DEFAULT_VALUE = STRUCTURED_DATA_NILVALUE;
 	
+	long STRUCTURED_TIMESTAMP_GRANULARITY_NONE = 0;
+	long STRUCTURED_TIMESTAMP_GRANULARITY_MILLISECOND = 1;
+	long STRUCTURED_TIMESTAMP_GRANULARITY_SECOND = 1000;
+	long STRUCTURED_TIMESTAMP_GRANULARITY_DEFAULT = STRUCTURED_TIMESTAMP_GRANULARITY_SECOND;
+	
 	boolean USE_DAEMON_THREAD_DEFAULT = true;
 	int THREAD_PRIORITY_DEFAULT = -1;
 	
@@ -62,6 +73,9 @@ public interface SyslogConstants extends Serializable {
 	String UDP  = "udp";
 	String UNIX_SYSLOG = "unix_syslog";
 	String UNIX_SOCKET = "unix_socket";
+	String NIO_TCP = "nio_tcp";
+	String NIO_UDP = "nio_udp";
+	String MMSG_UDP = "mmsg_udp";
 	
 	boolean TCP_PERSISTENT_CONNECTION_DEFAULT = true;
 	boolean TCP_SO_LINGER_DEFAULT = true;
@@ -70,9 +84,32 @@ public interface SyslogConstants extends Serializable {
 	boolean TCP_REUSE_ADDRESS_DEFAULT = true;
 	boolean TCP_SET_BUFFER_SIZE_DEFAULT = true;
 	int TCP_FRESH_CONNECTION_INTERVAL_DEFAULT = -1;
+	int TCP_MAX_BATCH_BYTES_DEFAULT = 65536;
+	long TCP_MAX_LINGER_TIME_DEFAULT = 0;
+	byte TCP_FRAMING_DEFAULT = 0;
+	boolean TCP_COMPRESSION_DEFAULT = false;
+	int TCP_COMPRESSION_LEVEL_DEFAULT = 6;
+	byte TCP_COMPRESSION_FLUSH_DEFAULT = 0;
+	int TCP_CIRCUIT_BREAKER_THRESHOLD_DEFAULT = 0;
+	int TCP_SHARD_COUNT_DEFAULT = 4;
+	byte TCP_SHARD_SELECTION_DEFAULT = 0;
+	long TCP_NIO_CONNECT_TIMEOUT_DEFAULT = 5000;
+	long TCP_NIO_WRITE_TIMEOUT_DEFAULT = 10000;
+	long TCP_NIO_MAX_PENDING_BYTES_DEFAULT = 1024 * 1024;
+	
+	int UDP_NIO_CHANNEL_STRIPES_DEFAULT = 1;
+	int UDP_MMSG_SEND_BATCH_SIZE_DEFAULT = 64;
+	int UDP_RECEIVE_BATCH_SIZE_DEFAULT = 1;
+	int UDP_RECEIVE_THREADS_DEFAULT = 1;
+	int UDP_RECEIVE_BUFFER_SIZE_DEFAULT = 0;
+	int UDP_MAX_MESSAGE_LENGTH_DEFAULT = SYSLOG_BUFFER_SIZE;
+	int UDP_MAX_MESSAGE_LENGTH_LIMIT = 65535;
+	int UDP_EVENT_BUFFER_POOL_SIZE_DEFAULT = 64;
 	
 	int TCP_MAX_ACTIVE_SOCKETS_DEFAULT = 0;
+	int TCP_MAX_FRAME_LENGTH_DEFAULT = 1024 * 1024;
 	byte TCP_MAX_ACTIVE_SOCKETS_BEHAVIOR_DEFAULT = 0;
+	int TCP_NIO_SERVER_SELECTOR_THREADS_DEFAULT = 0;
 
 	int FACILITY_KERN     =  0;
 	int FACILITY_USER     =  1<<3;
@@ -108,6 +145,8 @@ public interface SyslogConstants extends Serializable {
 	int LEVEL_ALERT = 1;
 	int LEVEL_EMERGENCY = 0;
 	
+	int LEVEL_THRESHOLD_DEFAULT = LEVEL_DEBUG;
+	
 	int OPTION_NONE = 0;
 	int OPTION_LOG_CONS = 1;
 	int OPTION_LOG_NDELAY = 2;
@@ -125,9 +164,28 @@ public interface SyslogConstants extends Serializable {
 	int MAX_SHUTDOWN_WAIT_DEFAULT = 30000;
 	long SHUTDOWN_INTERVAL = 100;
 	int MAX_QUEUE_SIZE_DEFAULT = -1;
+	int QUEUE_CAPACITY_DEFAULT = 8192;
+	byte QUEUE_WAIT_STRATEGY_DEFAULT = 0;
+	byte QUEUE_OVERFLOW_POLICY_DEFAULT = 0;
+	long QUEUE_OVERFLOW_BLOCK_TIMEOUT_DEFAULT = 1000;
+	int QUEUE_OVERFLOW_HIGH_WATER_MARK_DEFAULT = 80;
+	int QUEUE_OVERFLOW_SEVERITY_LEVEL_DEFAULT = LEVEL_ERROR;
+	String QUEUE_SPILL_DIRECTORY_DEFAULT = null;
+	long QUEUE_SPILL_MAX_BYTES_DEFAULT = 64 * 1024 * 1024;
+	
+	int BACKLOG_JOURNAL_SEGMENT_SIZE_DEFAULT = 16 * 1024 * 1024;
+	int BACKLOG_JOURNAL_MAX_SEGMENTS_DEFAULT = 16;
+	int BACKLOG_JOURNAL_REPLAY_RATE_DEFAULT = 1000;
 	
 	long SERVER_SHUTDOWN_WAIT_DEFAULT = 500;
 	
+	boolean SERVER_REVERSE_LOOKUP_DEFAULT = true;
+	long SERVER_HOST_NAME_CACHE_TIME_DEFAULT = 5 * 60 * 1000;
+	long SERVER_HOST_NAME_NEGATIVE_CACHE_TIME_DEFAULT = 30 * 1000;
+	int SERVER_HOST_NAME_CACHE_MAX_SIZE_DEFAULT = 4096;
+	int SERVER_HOST_NAME_LOOKUP_THREADS = 4;
+	long SERVER_HOST_NAME_LOOKUP_KEEP_ALIVE = 60 * 1000;
+	
 	String SYSLOG_LIBRARY_DEFAULT = "c";
 	
 	int SYSLOG_SOCKET_TYPE_DEFAULT = SOCK_DGRAM;
@@ -157,7 +215,7 @@ public interface SyslogConstants extends Serializable {
 	int SYSLOG_POOL_CONFIG_MIN_IDLE_DEFAULT = 4;
 	int SYSLOG_POOL_CONFIG_MIN_EVICTABLE_IDLE_TIME_MILLIS_DEFAULT = 0;
 	int SYSLOG_POOL_CONFIG_SOFT_MIN_EVICTABLE_IDLE_TIME_MILLIS_DEFAULT = 0;
-	int SYSLOG_POOL_CONFIG_TIME_BETWEEN_EVICTION_RUNS_MILLIS_DEFAULT = 0;
+	int SYSLOG_POOL_CONFIG_TIME_BETWEEN_EVICTION_RUNS_MILLIS_DEFAULT = 30000;
 	boolean SYSLOG_POOL_CONFIG_TEST_ON_BORROW_DEFAULT = false;
 	boolean SYSLOG_POOL_CONFIG_TEST_ON_RETURN_DEFAULT = false;
 	boolean SYSLOG_POOL_CONFIG_TEST_WHILE_IDLE_DEFAULT = false;
@@ -0,0 +1,39 @@
+package org.productivity.java.syslog4j;
+
+/**
+* SyslogDeliveryResult is the outcome of a message logged with
+* SyslogIF.logAsync(..).
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public enum SyslogDeliveryResult {
+	/**
+	 * The message was written to the transport (for TCP: to the socket).
+	 */
+	WRITTEN,
+
+	/**
+	 * The message level is below the configured level threshold.
+	 */
+	FILTERED,
+
+	/**
+	 * The message was discarded by the queue overflow policy.
+	 */
+	DROPPED,
+
+	/**
+	 * The message was handed to the backLog handlers.
+	 */
+	BACKLOGGED,
+
+	/**
+	 * The message was written to the queue's spill file; it is written to
+	 * the transport later, without further notification.
+	 */
+	SPILLED
+}
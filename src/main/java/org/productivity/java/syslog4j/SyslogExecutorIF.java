@@ -0,0 +1,22 @@
+package org.productivity.java.syslog4j;
+
+/**
+* SyslogExecutorIF creates the Threads Syslog4j runs its writers, servers
+* and server sessions in.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public interface SyslogExecutorIF {
+	/**
+	 * @param runnable - the task the Thread runs
+	 * @param name - the Thread name
+	 * @param daemon - whether the Thread must not keep the JVM alive
+	 * @param priority - the Thread priority, or -1 for the default priority
+	 * @return Returns a new Thread, not started yet
+	 */
+	Thread createThread(Runnable runnable, String name, boolean daemon, int priority);
+}
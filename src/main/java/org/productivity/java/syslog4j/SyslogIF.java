@@ -1,5 +1,10 @@
 package org.productivity.java.syslog4j;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
 /**
 * SyslogIF provides a common interface for all Syslog4j client implementations.
 * 
@@ -19,8 +24,37 @@ public interface SyslogIF extends SyslogConstants {
 	void backLog(int level, String message, Throwable reasonThrowable);
 	void backLog(int level, String message, String reason);
 	
+	/**
+	 * @param level - syslog level (e.g. LEVEL_DEBUG)
+	 * @return Returns true if a message at the given level would be logged
+	 */
+	default boolean isEnabled(int level) {
+		return true;
+	}
+	
 	void log(int level, String message);
 	
+	/**
+	 * Logs the message produced by messageSupplier; the supplier is only
+	 * called if the level is enabled.
+	 */
+	default void logLazy(int level, Supplier<String> messageSupplier) {
+		if (isEnabled(level)) {
+			log(level,messageSupplier.get());
+		}
+	}
+	
+	/**
+	 * Logs a java.text.MessageFormat pattern (e.g. "user {0} failed {1} times").
+	 * Threaded implementations queue the pattern and arguments and format,
+	 * modify and encode the message on the writer thread.
+	 */
+	default void log(int level, String pattern, Object... args) {
+		if (isEnabled(level)) {
+			log(level,SyslogUtility.format(pattern,args));
+		}
+	}
+	
 	void debug(String message);
 	void info(String message);
 	void notice(String message);
@@ -32,6 +66,39 @@ public interface SyslogIF extends SyslogConstants {
 
 	void log(int level, SyslogMessageIF message);
 	
+	/**
+	 * Logs the message without waiting for a threaded writer.  The future
+	 * completes from the writer thread once the message is written to the
+	 * transport, or when it is dropped, spilled or backLogged instead.
+	 * 
+	 * <p>The default implementation logs synchronously and reports WRITTEN
+	 * unless the level is filtered.</p>
+	 * 
+	 * @return Returns the future delivery outcome of the message
+	 */
+	default CompletableFuture<SyslogDeliveryResult> logAsync(int level, SyslogMessageIF message) {
+		if (!isEnabled(level)) {
+			return CompletableFuture.completedFuture(SyslogDeliveryResult.FILTERED);
+		}
+		
+		log(level,message);
+		
+		return CompletableFuture.completedFuture(SyslogDeliveryResult.WRITTEN);
+	}
+	
+	/**
+	 * See logAsync(level,SyslogMessageIF).
+	 */
+	default CompletableFuture<SyslogDeliveryResult> logAsync(int level, String message) {
+		if (!isEnabled(level)) {
+			return CompletableFuture.completedFuture(SyslogDeliveryResult.FILTERED);
+		}
+		
+		log(level,message);
+		
+		return CompletableFuture.completedFuture(SyslogDeliveryResult.WRITTEN);
+	}
+	
 	void debug(SyslogMessageIF message);
 	void info(SyslogMessageIF message);
 	void notice(SyslogMessageIF message);
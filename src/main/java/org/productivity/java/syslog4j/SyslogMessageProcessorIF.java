@@ -2,6 +2,8 @@ package org.productivity.java.syslog4j;
 
 import java.io.Serializable;
 
+import org.productivity.java.syslog4j.util.SyslogEncodeBuffer;
+
 /**
 * SyslogMessageProcessorIF provides an extensible interface for writing custom
 * Syslog4j message processors.
@@ -21,6 +23,21 @@ public interface SyslogMessageProcessorIF extends Serializable {
             boolean sendLocalTimestamp,
             boolean sendLocalName);
 
+	/**
+	 * Encodes the syslog header directly into the given buffer; used when
+	 * AbstractSyslogConfigIF.isUseEncodeBuffer() is enabled.  The default
+	 * implementation encodes the result of createSyslogHeader(..).
+	 */
+	default void encodeSyslogHeader(
+            SyslogEncodeBuffer buffer,
+            int facility,
+            int level,
+            String localName,
+            boolean sendLocalTimestamp,
+            boolean sendLocalName) {
+		buffer.putString(createSyslogHeader(facility,level,localName,sendLocalTimestamp,sendLocalName));
+	}
+
 	byte[] createPacketData(byte[] header, byte[] message, int start, int length);
 
 	byte[] createPacketData(
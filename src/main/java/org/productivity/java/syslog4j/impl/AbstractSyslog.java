@@ -2,10 +2,13 @@ package org.productivity.java.syslog4j.impl;
 
 import java.io.Serial;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.productivity.java.syslog4j.SyslogBackLogHandlerIF;
 import org.productivity.java.syslog4j.SyslogConfigIF;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
 import org.productivity.java.syslog4j.SyslogIF;
 import org.productivity.java.syslog4j.SyslogMessageIF;
 import org.productivity.java.syslog4j.SyslogMessageModifierIF;
@@ -15,6 +18,7 @@ import org.productivity.java.syslog4j.impl.message.processor.SyslogMessageProces
 import org.productivity.java.syslog4j.impl.message.processor.structured.StructuredSyslogMessageProcessor;
 import org.productivity.java.syslog4j.impl.message.structured.StructuredSyslogMessage;
 import org.productivity.java.syslog4j.impl.message.structured.StructuredSyslogMessageIF;
+import org.productivity.java.syslog4j.util.SyslogEncodeBuffer;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
 /**
@@ -111,7 +115,15 @@ public abstract class AbstractSyslog implements SyslogIF {
         return this.syslogConfig;
     }
 
+    public boolean isEnabled(int level) {
+        return level <= this.syslogConfig.getLevelThreshold();
+    }
+
     public void log(int level, String message) {
+        if (!isEnabled(level)) {
+            return;
+        }
+
         if (this.syslogConfig.isUseStructuredData()) {
             StructuredSyslogMessageIF structuredMessage = new StructuredSyslogMessage(null, null, message);
 
@@ -121,7 +133,31 @@ public abstract class AbstractSyslog implements SyslogIF {
         }
     }
 
+    public void log(int level, String pattern, Object... args) {
+        if (!isEnabled(level)) {
+            return;
+        }
+
+        if (!queue(level, pattern, args)) {
+            log(level, SyslogUtility.format(pattern, args));
+        }
+    }
+
+    /**
+     * Hands a pattern and its arguments to a writer thread, which formats,
+     * modifies and encodes the message (see createPackets(..)).
+     *
+     * @return Returns false if the message must be formatted by the caller; the default implementation has no writer thread
+     */
+    protected boolean queue(int level, String pattern, Object[] args) {
+        return false;
+    }
+
     public void log(int level, SyslogMessageIF message) {
+        if (!isEnabled(level)) {
+            return;
+        }
+
         if (message instanceof StructuredSyslogMessageIF) {
             if (getMessageProcessor() instanceof StructuredSyslogMessageProcessor) {
                 log(getMessageProcessor(), level, message.createMessage());
@@ -133,6 +169,65 @@ public abstract class AbstractSyslog implements SyslogIF {
         }
     }
 
+    public CompletableFuture<SyslogDeliveryResult> logAsync(int level, String message) {
+        if (this.syslogConfig.isUseStructuredData()) {
+            return logAsync(level, new StructuredSyslogMessage(null, null, message));
+        }
+
+        return logAsync(level, (SyslogMessageIF) () -> message);
+    }
+
+    /**
+     * The message is modified and encoded by the caller; a threaded writer
+     * completes the future once it is written.  Without a writer thread, the
+     * message is written synchronously.
+     */
+    public CompletableFuture<SyslogDeliveryResult> logAsync(int level, SyslogMessageIF message) {
+        if (!isEnabled(level)) {
+            return CompletableFuture.completedFuture(SyslogDeliveryResult.FILTERED);
+        }
+
+        SyslogMessageProcessorIF messageProcessor = getMessageProcessor();
+
+        if (message instanceof StructuredSyslogMessageIF && !(messageProcessor instanceof StructuredSyslogMessageProcessor)) {
+            messageProcessor = getStructuredMessageProcessor();
+        }
+
+        String _message = prepareMessage(level, message.createMessage());
+
+        CompletableFuture<SyslogDeliveryResult> delivery = new CompletableFuture<>();
+
+        try {
+            List<byte[]> packets = new ArrayList<>(1);
+
+            write(messageProcessor, level, _message, packets);
+
+            if (!queue(level, packets, delivery)) {
+                for (byte[] packet : packets) {
+                    write(level, packet);
+                }
+
+                delivery.complete(SyslogDeliveryResult.WRITTEN);
+            }
+        } catch (SyslogRuntimeException sre) {
+            backLog(level, _message, sre.getCause() != null ? sre.getCause() : sre);
+
+            delivery.complete(SyslogDeliveryResult.BACKLOGGED);
+        }
+
+        return delivery;
+    }
+
+    /**
+     * Hands the encoded packets of one message to a writer thread, which
+     * completes delivery (see QueuedSyslogMessage.complete(..)).
+     *
+     * @return Returns false if the caller must write the packets; the default implementation has no writer thread
+     */
+    protected boolean queue(int level, List<byte[]> packets, CompletableFuture<SyslogDeliveryResult> delivery) {
+        return false;
+    }
+
     public void debug(String message) {
         log(LEVEL_DEBUG, message);
     }
@@ -204,16 +299,12 @@ public abstract class AbstractSyslog implements SyslogIF {
     }
 
     public void log(SyslogMessageProcessorIF messageProcessor, int level, String message) {
-        String _message;
-
-        if (this.syslogConfig.isIncludeIdentInMessageModifier()) {
-            _message = prefixMessage(message, IDENT_SUFFIX_DEFAULT);
-            _message = modifyMessage(level, _message);
-        } else {
-            _message = modifyMessage(level, message);
-            _message = prefixMessage(_message, IDENT_SUFFIX_DEFAULT);
+        if (!isEnabled(level)) {
+            return;
         }
 
+        String _message = prepareMessage(level, message);
+
         try {
             write(messageProcessor, level, _message);
         } catch (SyslogRuntimeException sre) {
@@ -229,8 +320,73 @@ public abstract class AbstractSyslog implements SyslogIF {
         }
     }
 
+    /**
+     * Applies the message modifiers and the ident prefix.
+     */
+    protected String prepareMessage(int level, String message) {
+        String _message;
+
+        if (this.syslogConfig.isIncludeIdentInMessageModifier()) {
+            _message = prefixMessage(message, IDENT_SUFFIX_DEFAULT);
+            _message = modifyMessage(level, _message);
+        } else {
+            _message = modifyMessage(level, message);
+            _message = prefixMessage(_message, IDENT_SUFFIX_DEFAULT);
+        }
+
+        return _message;
+    }
+
+    /**
+     * Formats a message queued by log(level,pattern,args), applies the message
+     * modifiers and encodes it; called on the writer thread.
+     *
+     * @return Returns the packets to write, in order
+     */
+    protected List<byte[]> createPackets(QueuedSyslogMessage queuedMessage) throws SyslogRuntimeException {
+        int level = queuedMessage.getLevel();
+
+        String message = queuedMessage.format();
+        SyslogMessageProcessorIF messageProcessor;
+
+        if (this.syslogConfig.isUseStructuredData()) {
+            StructuredSyslogMessageIF structuredMessage = new StructuredSyslogMessage(null, null, message);
+
+            message = structuredMessage.createMessage();
+            messageProcessor = getStructuredMessageProcessor();
+        } else {
+            messageProcessor = getMessageProcessor();
+        }
+
+        List<byte[]> packets = new ArrayList<>(1);
+
+        write(messageProcessor, level, prepareMessage(level, message), packets);
+
+        return packets;
+    }
+
     protected void write(SyslogMessageProcessorIF messageProcessor, int level, String message)
             throws SyslogRuntimeException {
+        write(messageProcessor, level, message, null);
+    }
+
+    /**
+     * @param packets - receives the packets instead of them being written, if not null
+     */
+    protected void write(SyslogMessageProcessorIF messageProcessor, int level, String message, List<byte[]> packets)
+            throws SyslogRuntimeException {
+        if (this.syslogConfig.isUseEncodeBuffer()) {
+            SyslogEncodeBuffer buffer = SyslogEncodeBuffer.acquire(this.syslogConfig);
+
+            try {
+                if (writeEncoded(buffer, messageProcessor, level, message, packets)) {
+                    return;
+                }
+            } finally {
+                buffer.release();
+            }
+        }
+
         String header = messageProcessor.createSyslogHeader(this.syslogConfig.getFacility(),
                 level,
                 this.syslogConfig.getLocalName(),
@@ -253,7 +409,11 @@ public abstract class AbstractSyslog implements SyslogIF {
         if (mLength <= availableLen) {
             byte[] data = messageProcessor.createPacketData(h, m, 0, mLength);
 
-            write(level, data);
+            if (packets != null) {
+                packets.add(data);
+            } else {
+                write(level, data);
+            }
         } else {
             byte[] splitBeginText = this.syslogConfig.getSplitMessageBeginText();
             byte[] splitEndText = this.syslogConfig.getSplitMessageEndText();
@@ -289,7 +449,11 @@ public abstract class AbstractSyslog implements SyslogIF {
                         doSplitBeginText ? splitBeginText : null,
                         doSplitEndText ? splitEndText : null);
 
-                write(level, data);
+                if (packets != null) {
+                    packets.add(data);
+                } else {
+                    write(level, data);
+                }
 
                 pos += actualAvailableLen;
                 left -= actualAvailableLen;
@@ -297,10 +461,69 @@ public abstract class AbstractSyslog implements SyslogIF {
         }
     }
 
+    /**
+     * Encodes the header and message into the buffer and writes the packet
+     * straight from it.
+     *
+     * @return Returns false if the message must be split or the character set is not an
+     * ASCII superset (header fields are put as pre-encoded ASCII); both are left to the String-based path
+     */
+    protected boolean writeEncoded(SyslogEncodeBuffer buffer, SyslogMessageProcessorIF messageProcessor, int level,
+            String message, List<byte[]> packets) throws SyslogRuntimeException {
+        if (!buffer.isAsciiCompatible()) {
+            return false;
+        }
+
+        messageProcessor.encodeSyslogHeader(buffer,
+                this.syslogConfig.getFacility(),
+                level,
+                this.syslogConfig.getLocalName(),
+                this.syslogConfig.isSendLocalTimestamp(),
+                this.syslogConfig.isSendLocalName());
+
+        int hLength = buffer.length();
+
+        buffer.putString(message);
+
+        int mLength = buffer.length() - hLength;
+
+        int availableLen = this.syslogConfig.getMaxMessageLength() - hLength;
+
+        if (this.syslogConfig.isTruncateMessage()) {
+            if (availableLen > 0 && mLength > availableLen) {
+                mLength = availableLen;
+            }
+        }
+
+        if (mLength > availableLen) {
+            return false;
+        }
+
+        if (packets != null) {
+            packets.add(Arrays.copyOf(buffer.getData(), hLength + mLength));
+        } else {
+            write(level, buffer.getData(), 0, hLength + mLength);
+        }
+
+        return true;
+    }
+
     protected abstract void initialize() throws SyslogRuntimeException;
 
     protected abstract void write(int level, byte[] message) throws SyslogRuntimeException;
 
+    /**
+     * Writes length bytes of message starting at offset.  The array may be a
+     * reused buffer, so implementations must not retain it after returning;
+     * the default implementation copies the range and calls write(level,message).
+     */
+    protected void write(int level, byte[] message, int offset, int length) throws SyslogRuntimeException {
+        byte[] data = new byte[length];
+        System.arraycopy(message, offset, data, 0, length);
+
+        write(level, data);
+    }
+
     protected String modifyMessage(int level, String message) {
         List<SyslogMessageModifierIF> _messageModifiers = this.syslogConfig.getMessageModifiers();
 
@@ -348,17 +571,54 @@ public abstract class AbstractSyslog implements SyslogIF {
         }
     }
 
+    /**
+     * Sends a message which was handed to the backLog handlers, e.g. by a
+     * journaling handler once this protocol is up again.  A message which
+     * already carries a syslog header ("&lt;PRI&gt;...") is written as is;
+     * any other message is encoded again, without applying the message
+     * modifiers a second time.
+     *
+     * @return Returns false if the message was handed to the backLog handlers again
+     */
+    public boolean replay(int level, String message) {
+        try {
+            if (isEncoded(message)) {
+                write(level, SyslogUtility.getBytes(this.syslogConfig, message));
+            } else {
+                write(getMessageProcessor(), level, message);
+            }
+
+            return true;
+        } catch (SyslogRuntimeException sre) {
+            backLog(level, message, sre.getCause() != null ? sre.getCause() : sre);
+
+            return false;
+        }
+    }
+
+    /**
+     * @return Returns true if the message starts with a syslog priority ("&lt;0&gt;" to "&lt;999&gt;")
+     */
+    protected static boolean isEncoded(String message) {
+        if (message == null || message.length() < 3 || message.charAt(0) != '<') {
+            return false;
+        }
+
+        int i = 1;
+
+        while (i < message.length() && i <= 3 && message.charAt(i) >= '0' && message.charAt(i) <= '9') {
+            i++;
+        }
+
+        return i > 1 && i < message.length() && message.charAt(i) == '>';
+    }
+
     public abstract AbstractSyslogWriter getWriter();
 
     public abstract void returnWriter(AbstractSyslogWriter syslogWriter);
 
     public Thread createWriterThread(AbstractSyslogWriter syslogWriter) {
-        Thread newWriterThread = new Thread(syslogWriter);
-        newWriterThread.setName("SyslogWriter: " + getProtocol());
-        newWriterThread.setDaemon(syslogConfig.isUseDaemonThread());
-        if (syslogConfig.getThreadPriority() > -1) {
-            newWriterThread.setPriority(syslogConfig.getThreadPriority());
-        }
+        Thread newWriterThread = syslogConfig.getExecutor().createThread(syslogWriter,"SyslogWriter: " + getProtocol(),syslogConfig.isUseDaemonThread(),syslogConfig.getThreadPriority());
         syslogWriter.setThread(newWriterThread);
         newWriterThread.start();
 
@@ -3,9 +3,11 @@ package org.productivity.java.syslog4j.impl;
 import org.productivity.java.syslog4j.impl.backlog.printstream.SystemErrSyslogBackLogHandler;
 import java.io.Serial;
 import org.productivity.java.syslog4j.SyslogBackLogHandlerIF;
+import org.productivity.java.syslog4j.SyslogExecutorIF;
 import org.productivity.java.syslog4j.SyslogIF;
 import org.productivity.java.syslog4j.SyslogMessageModifierIF;
 import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.executor.VirtualSyslogExecutor;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
 import java.util.ArrayList;
@@ -56,13 +58,24 @@ public abstract class AbstractSyslogConfig implements AbstractSyslogConfigIF {
     protected boolean threaded = THREADED_DEFAULT;
     protected boolean useDaemonThread = USE_DAEMON_THREAD_DEFAULT;
     protected int threadPriority = THREAD_PRIORITY_DEFAULT;
+    protected transient SyslogExecutorIF executor = null;
     protected long threadLoopInterval = THREAD_LOOP_INTERVAL_DEFAULT;
+    protected int queueCapacity = QUEUE_CAPACITY_DEFAULT;
+    protected byte queueWaitStrategy = QUEUE_WAIT_STRATEGY_DEFAULT;
+    protected byte queueOverflowPolicy = QUEUE_OVERFLOW_POLICY_DEFAULT;
+    protected long queueOverflowBlockTimeout = QUEUE_OVERFLOW_BLOCK_TIMEOUT_DEFAULT;
+    protected int queueOverflowHighWaterMark = QUEUE_OVERFLOW_HIGH_WATER_MARK_DEFAULT;
+    protected int queueOverflowSeverityLevel = QUEUE_OVERFLOW_SEVERITY_LEVEL_DEFAULT;
+    protected String queueSpillDirectory = QUEUE_SPILL_DIRECTORY_DEFAULT;
+    protected long queueSpillMaxBytes = QUEUE_SPILL_MAX_BYTES_DEFAULT;
 
     protected int writeRetries = WRITE_RETRIES_DEFAULT;
     protected long maxShutdownWait = MAX_SHUTDOWN_WAIT_DEFAULT;
 
     protected boolean truncateMessage = TRUNCATE_MESSAGE_DEFAULT;
     protected boolean useStructuredData = USE_STRUCTURED_DATA_DEFAULT;
+    protected boolean useEncodeBuffer = USE_ENCODE_BUFFER_DEFAULT;
+    protected int levelThreshold = LEVEL_THRESHOLD_DEFAULT;
 
     public abstract Class<? extends SyslogIF> getSyslogClass();
 
@@ -332,6 +345,14 @@ public abstract class AbstractSyslogConfig implements AbstractSyslogConfigIF {
         this.threadPriority = threadPriority;
     }
 
+    public SyslogExecutorIF getExecutor() {
+        return this.executor != null ? this.executor : VirtualSyslogExecutor.INSTANCE;
+    }
+
+    public void setExecutor(SyslogExecutorIF executor) {
+        this.executor = executor;
+    }
+
     public long getThreadLoopInterval() {
         return this.threadLoopInterval;
     }
@@ -340,6 +361,70 @@ public abstract class AbstractSyslogConfig implements AbstractSyslogConfigIF {
         this.threadLoopInterval = threadLoopInterval;
     }
 
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public byte getQueueWaitStrategy() {
+        return this.queueWaitStrategy;
+    }
+
+    public void setQueueWaitStrategy(byte queueWaitStrategy) {
+        this.queueWaitStrategy = queueWaitStrategy;
+    }
+
+    public byte getQueueOverflowPolicy() {
+        return this.queueOverflowPolicy;
+    }
+
+    public void setQueueOverflowPolicy(byte queueOverflowPolicy) {
+        this.queueOverflowPolicy = queueOverflowPolicy;
+    }
+
+    public long getQueueOverflowBlockTimeout() {
+        return this.queueOverflowBlockTimeout;
+    }
+
+    public void setQueueOverflowBlockTimeout(long queueOverflowBlockTimeout) {
+        this.queueOverflowBlockTimeout = queueOverflowBlockTimeout;
+    }
+
+    public int getQueueOverflowHighWaterMark() {
+        return this.queueOverflowHighWaterMark;
+    }
+
+    public void setQueueOverflowHighWaterMark(int queueOverflowHighWaterMark) {
+        this.queueOverflowHighWaterMark = queueOverflowHighWaterMark;
+    }
+
+    public int getQueueOverflowSeverityLevel() {
+        return this.queueOverflowSeverityLevel;
+    }
+
+    public void setQueueOverflowSeverityLevel(int queueOverflowSeverityLevel) {
+        this.queueOverflowSeverityLevel = queueOverflowSeverityLevel;
+    }
+
+    public String getQueueSpillDirectory() {
+        return this.queueSpillDirectory;
+    }
+
+    public void setQueueSpillDirectory(String queueSpillDirectory) {
+        this.queueSpillDirectory = queueSpillDirectory;
+    }
+
+    public long getQueueSpillMaxBytes() {
+        return this.queueSpillMaxBytes;
+    }
+
+    public void setQueueSpillMaxBytes(long queueSpillMaxBytes) {
+        this.queueSpillMaxBytes = queueSpillMaxBytes;
+    }
+
     public long getMaxShutdownWait() {
         return this.maxShutdownWait;
     }
@@ -372,6 +457,32 @@ public abstract class AbstractSyslogConfig implements AbstractSyslogConfigIF {
         this.useStructuredData = useStructuredData;
     }
 
+    public boolean isUseEncodeBuffer() {
+        return this.useEncodeBuffer;
+    }
+
+    public void setUseEncodeBuffer(boolean useEncodeBuffer) {
+        this.useEncodeBuffer = useEncodeBuffer;
+    }
+
+    public int getLevelThreshold() {
+        return this.levelThreshold;
+    }
+
+    public void setLevelThreshold(int levelThreshold) {
+        this.levelThreshold = levelThreshold;
+    }
+
+    public void setLevelThreshold(String levelName) {
+        int level = SyslogUtility.getLevel(levelName);
+
+        if (level < 0) {
+            throw new SyslogRuntimeException("Level \"" + levelName + "\" not recognized");
+        }
+
+        this.levelThreshold = level;
+    }
+
     public Class<? extends AbstractSyslogWriter> getSyslogWriterClass() {
         return null;
     }
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.productivity.java.syslog4j.SyslogBackLogHandlerIF;
 import org.productivity.java.syslog4j.SyslogConfigIF;
+import org.productivity.java.syslog4j.SyslogExecutorIF;
 import org.productivity.java.syslog4j.SyslogMessageModifierIF;
 
 /**
@@ -18,6 +19,17 @@ import org.productivity.java.syslog4j.SyslogMessageModifierIF;
 * @version $Id: AbstractSyslogConfigIF.java,v 1.7 2010/10/29 03:14:20 cvs Exp $
 */
 public interface AbstractSyslogConfigIF extends SyslogConfigIF {
+	byte QUEUE_WAIT_STRATEGY_BLOCKING = 0;
+	byte QUEUE_WAIT_STRATEGY_YIELDING = 1;
+	byte QUEUE_WAIT_STRATEGY_BUSY_SPIN = 2;
+	
+	byte QUEUE_OVERFLOW_POLICY_BACKLOG = 0;
+	byte QUEUE_OVERFLOW_POLICY_BLOCK = 1;
+	byte QUEUE_OVERFLOW_POLICY_DROP_NEWEST = 2;
+	byte QUEUE_OVERFLOW_POLICY_DROP_OLDEST = 3;
+	byte QUEUE_OVERFLOW_POLICY_DROP_BY_SEVERITY = 4;
+	byte QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK = 5;
+	
 	Class<? extends AbstractSyslogWriter> getSyslogWriterClass();
 	
 	List<SyslogBackLogHandlerIF> getBackLogHandlers();
@@ -30,6 +42,25 @@ public interface AbstractSyslogConfigIF extends SyslogConfigIF {
 	byte[] getSplitMessageEndText();
 	void setSplitMessageEndText(byte[] endText);
 
+	/**
+	 * When enabled, the syslog header and message are encoded straight into a
+	 * reusable per-thread buffer instead of through intermediate Strings.
+	 * 
+	 * @return Returns whether the encode buffer is used
+	 */
+	boolean isUseEncodeBuffer();
+	void setUseEncodeBuffer(boolean useEncodeBuffer);
+
+	/**
+	 * Messages with a level less severe (numerically greater) than the
+	 * threshold are discarded before any formatting or encoding is done.
+	 * 
+	 * @return Returns the least severe level that is logged
+	 */
+	int getLevelThreshold();
+	void setLevelThreshold(int levelThreshold);
+	void setLevelThreshold(String levelName);
+
 	boolean isThreaded();
 	void setThreaded(boolean threaded);
 	
@@ -39,9 +70,92 @@ public interface AbstractSyslogConfigIF extends SyslogConfigIF {
 	int getThreadPriority();
 	void setThreadPriority(int threadPriority);
 	
+	/**
+	 * @return Returns the executor which creates the writer Threads; defaults to
+	 *     virtual Threads where the JVM supports them
+	 */
+	SyslogExecutorIF getExecutor();
+	void setExecutor(SyslogExecutorIF executor);
+	
+	/**
+	 * With QUEUE_WAIT_STRATEGY_BLOCKING, the longest time (in milliseconds) an
+	 * idle writer thread parks before re-checking its queue; producers wake it
+	 * up as soon as a message is queued.
+	 */
 	long getThreadLoopInterval();
 	void setThreadLoopInterval(long threadLoopInterval);
 	
+	/**
+	 * @return Returns the number of slots of a writer thread's ring buffer when maxQueueSize
+	 *     is -1; further messages are kept in an unbounded overflow list, so producers never wait
+	 */
+	int getQueueCapacity();
+	void setQueueCapacity(int queueCapacity);
+	
+	/**
+	 * How an idle writer thread waits for messages (and a producer for a free
+	 * queue slot): QUEUE_WAIT_STRATEGY_BLOCKING (park/unpark),
+	 * QUEUE_WAIT_STRATEGY_YIELDING or QUEUE_WAIT_STRATEGY_BUSY_SPIN.
+	 * 
+	 * @return Returns the queue wait strategy
+	 */
+	byte getQueueWaitStrategy();
+	void setQueueWaitStrategy(byte queueWaitStrategy);
+	
+	/**
+	 * What happens to a message when the queue holds maxQueueSize messages
+	 * (a maxQueueSize of -1 never overflows, see getQueueCapacity()):
+	 * 
+	 * <ul>
+	 * <li>QUEUE_OVERFLOW_POLICY_BACKLOG (default) hands it to the backLog handlers</li>
+	 * <li>QUEUE_OVERFLOW_POLICY_BLOCK waits up to queueOverflowBlockTimeout for a free slot, then drops it</li>
+	 * <li>QUEUE_OVERFLOW_POLICY_DROP_NEWEST drops it</li>
+	 * <li>QUEUE_OVERFLOW_POLICY_DROP_OLDEST drops the oldest queued message instead</li>
+	 * <li>QUEUE_OVERFLOW_POLICY_DROP_BY_SEVERITY drops messages less severe than queueOverflowSeverityLevel
+	 *     as soon as the queue is queueOverflowHighWaterMark percent full; more severe ones are backlogged
+	 *     only when the queue is full</li>
+	 * <li>QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK appends it to a file in queueSpillDirectory, which the
+	 *     writer thread reads back whenever its queue is empty; until then, new messages are appended
+	 *     to the file as well</li>
+	 * </ul>
+	 * 
+	 * <p>Each outcome is counted by the writer, see AbstractSyslogWriter.getDroppedCount().</p>
+	 * 
+	 * @return Returns the queue overflow policy
+	 */
+	byte getQueueOverflowPolicy();
+	void setQueueOverflowPolicy(byte queueOverflowPolicy);
+	
+	long getQueueOverflowBlockTimeout();
+	void setQueueOverflowBlockTimeout(long queueOverflowBlockTimeout);
+	
+	/**
+	 * @return Returns the queue fill level (in percent of maxQueueSize) above which
+	 *     QUEUE_OVERFLOW_POLICY_DROP_BY_SEVERITY drops less severe messages
+	 */
+	int getQueueOverflowHighWaterMark();
+	void setQueueOverflowHighWaterMark(int queueOverflowHighWaterMark);
+	
+	/**
+	 * @return Returns the least severe level kept by QUEUE_OVERFLOW_POLICY_DROP_BY_SEVERITY
+	 *     above the high water mark (default: LEVEL_ERROR)
+	 */
+	int getQueueOverflowSeverityLevel();
+	void setQueueOverflowSeverityLevel(int queueOverflowSeverityLevel);
+	
+	/**
+	 * @return Returns the directory of QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK files;
+	 *     null uses the "java.io.tmpdir" directory
+	 */
+	String getQueueSpillDirectory();
+	void setQueueSpillDirectory(String queueSpillDirectory);
+	
+	/**
+	 * @return Returns the largest size of a spill file; further messages are dropped
+	 */
+	long getQueueSpillMaxBytes();
+	void setQueueSpillMaxBytes(long queueSpillMaxBytes);
+	
 	long getMaxShutdownWait();
 	void setMaxShutdownWait(long maxShutdownWait);
 	
@@ -1,12 +1,23 @@
 package org.productivity.java.syslog4j.impl;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
 import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.queue.SyslogRingBuffer;
+import org.productivity.java.syslog4j.impl.queue.SyslogSpillFile;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
 /**
@@ -14,7 +25,16 @@ import org.productivity.java.syslog4j.util.SyslogUtility;
 * syslog messages within a separate Thread or an object pool.
 * 
 * <p>When used in "threaded" mode (see TCPNetSyslogConfig for the option),
-* a queuing mechanism is used (via LinkedList).</p>
+* a queuing mechanism is used (via a bounded, lock-free SyslogRingBuffer).
+* The writer thread waits for messages according to the configured queue
+* wait strategy and is woken up as soon as a message is queued.  When the
+* queue holds maxQueueSize messages, the configured queue overflow policy
+* applies; its outcomes are counted per writer.</p>
+* 
+* <p>With the default maxQueueSize of -1, the queue is unbounded as before:
+* messages which do not fit into the queueCapacity slots of the ring buffer
+* are appended to an overflow list, so that producers never wait for the
+* writer thread.</p>
 * 
 * <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
 * of the LGPL license is available in the META-INF folder in all
@@ -26,15 +46,32 @@ import org.productivity.java.syslog4j.util.SyslogUtility;
 public abstract class AbstractSyslogWriter implements Runnable, Serializable {
 	@Serial private static final long serialVersionUID = 836468466009035847L;
 	
+	protected static final long PRODUCER_PARK_NANOS = 50000;
+	
 	protected AbstractSyslog syslog = null;
 
-	protected final List<byte[]> queuedMessages = new LinkedList<>();
+	protected transient SyslogRingBuffer<QueuedSyslogMessage> queuedMessages = null;
+	protected transient ConcurrentLinkedQueue<QueuedSyslogMessage> overflowMessages = null;
 
-    protected Thread thread = null;
+    protected volatile Thread thread = null;
 
 	protected AbstractSyslogConfigIF syslogConfig = null;
 
-	protected boolean shutdown = false;
+	protected volatile boolean shutdown = false;
+	
+	protected volatile boolean waiting = false;
+	
+	protected final ReentrantLock runLock = new ReentrantLock();
+	
+	protected transient volatile SyslogSpillFile spillFile = null;
+	protected final Object spillSyncObject = new Object();
+	
+	protected final LongAdder backLoggedCount = new LongAdder();
+	protected final LongAdder droppedNewestCount = new LongAdder();
+	protected final LongAdder droppedOldestCount = new LongAdder();
+	protected final LongAdder droppedBySeverityCount = new LongAdder();
+	protected final LongAdder blockTimeoutCount = new LongAdder();
+	protected final LongAdder spilledCount = new LongAdder();
 	
 	public void initialize(AbstractSyslog abstractSyslog) {
 		this.syslog = abstractSyslog;
@@ -47,59 +84,539 @@ public abstract class AbstractSyslogWriter implements Runnable, Serializable {
 		}
 	}
 	
+	protected SyslogRingBuffer<QueuedSyslogMessage> createQueue() {
+		int maxQueueSize = this.syslogConfig.getMaxQueueSize();
+		
+		int capacity = maxQueueSize > 0 ? maxQueueSize : this.syslogConfig.getQueueCapacity();
+		
+		return new SyslogRingBuffer<>(Math.max(1,capacity));
+	}
+	
 	public void queue(int level, byte[] message) {
-		synchronized(this.queuedMessages) {
-			if (this.syslogConfig.getMaxQueueSize() == -1 || this.queuedMessages.size() < this.syslogConfig.getMaxQueueSize()) {
-				this.queuedMessages.add(message);
+		queue(new QueuedSyslogMessage(level,message));
+	}
+	
+	public void queue(QueuedSyslogMessage message) {
+		int maxQueueSize = this.syslogConfig.getMaxQueueSize();
+		
+		if (maxQueueSize == -1) {
+			if (!offerUnbounded(message)) {
+				return;
+			}
+			
+		} else if (!offer(message,maxQueueSize)) {
+			return;
+		}
+		
+		if (this.waiting) {
+			wakeUp();
+		}
+	}
+	
+	/**
+	 * Queues the message in the ring buffer, or in the overflow list if the
+	 * ring buffer is full; while the overflow list is not empty, it takes all
+	 * new messages so that they are written in order.  While the writer
+	 * thread is paused, the overflow list does not grow; the message is
+	 * backLogged instead.
+	 * 
+	 * @return Returns true if the message was queued
+	 */
+	protected boolean offerUnbounded(QueuedSyslogMessage message) {
+		if (this.overflowMessages.isEmpty() && this.queuedMessages.offer(message)) {
+			return true;
+		}
+		
+		if (!hasThread()) {
+			backLog(message,"Writer thread is not running");
+			return false;
+		}
+		
+		if (isPaused()) {
+			backLog(message,"Writer thread is paused");
+			return false;
+		}
+		
+		this.overflowMessages.offer(message);
+		
+		return true;
+	}
+	
+	/**
+	 * Queues the message if the queue holds fewer than maxQueueSize messages,
+	 * otherwise applies the queue overflow policy.  While spilled messages
+	 * have not been read back, new messages are spilled as well, so that
+	 * they are written in order.
+	 * 
+	 * @return Returns true if the message was queued
+	 */
+	protected boolean offer(QueuedSyslogMessage message, int maxQueueSize) {
+		byte overflowPolicy = this.syslogConfig.getQueueOverflowPolicy();
+		
+		if (overflowPolicy == AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_DROP_BY_SEVERITY && message.getLevel() > this.syslogConfig.getQueueOverflowSeverityLevel()) {
+			long highWaterMark = (long) maxQueueSize * this.syslogConfig.getQueueOverflowHighWaterMark() / 100;
+			
+			if (this.queuedMessages.size() >= highWaterMark) {
+				drop(message,this.droppedBySeverityCount);
+				return false;
+			}
+		}
+		
+		if (overflowPolicy == AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK && hasSpilledMessages()) {
+			spill(message);
+			return false;
+		}
+		
+		if (this.queuedMessages.size() < maxQueueSize && this.queuedMessages.offer(message)) {
+			return true;
+		}
+		
+		switch (overflowPolicy) {
+			case AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_BLOCK:
+				return offerBlocking(message,maxQueueSize);
 				
-			} else {
-				this.syslog.backLog(level,SyslogUtility.newString(syslogConfig,message),"MaxQueueSize (" + this.syslogConfig.getMaxQueueSize() + ") reached");
+			case AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_DROP_NEWEST:
+				drop(message,this.droppedNewestCount);
+				return false;
+				
+			case AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_DROP_OLDEST:
+				return offerDroppingOldest(message);
+				
+			case AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK:
+				spill(message);
+				return false;
+				
+			default:
+				backLog(message,"MaxQueueSize (" + maxQueueSize + ") reached");
+				return false;
+		}
+	}
+	
+	/**
+	 * Waits for a free slot unless the writer thread is paused, as it would
+	 * not make room in the meantime; the message is then backLogged at once.
+	 */
+	protected boolean offerBlocking(QueuedSyslogMessage message, int maxQueueSize) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.syslogConfig.getQueueOverflowBlockTimeout());
+		
+		while (hasThread() && deadline - System.nanoTime() > 0) {
+			if (isPaused()) {
+				backLog(message,"Writer thread is paused");
+				return false;
+			}
+			
+			waitForCapacity();
+			
+			if (this.queuedMessages.size() < maxQueueSize && this.queuedMessages.offer(message)) {
+				return true;
+			}
+		}
+		
+		drop(message,this.blockTimeoutCount);
+		
+		return false;
+	}
+	
+	/**
+	 * The queue's capacity is maxQueueSize, so a free slot is made by removing
+	 * the oldest message.
+	 */
+	protected boolean offerDroppingOldest(QueuedSyslogMessage message) {
+		while (!this.queuedMessages.offer(message)) {
+			QueuedSyslogMessage oldest = this.queuedMessages.poll();
+			
+			if (oldest != null) {
+				drop(oldest,this.droppedOldestCount);
+			}
+		}
+		
+		return true;
+	}
+	
+	protected void spill(QueuedSyslogMessage message) {
+		try {
+			SyslogSpillFile _spillFile = getSpillFile();
+			
+			List<byte[]> packets = message.isDeferred() ? createPackets(message) : Collections.singletonList(message.getData());
+			
+			for (byte[] packet : packets) {
+				if (!_spillFile.append(message.getLevel(),packet)) {
+					drop(message,this.droppedNewestCount);
+					return;
+				}
+			}
+			
+			this.spilledCount.increment();
+			message.complete(SyslogDeliveryResult.SPILLED);
+			
+		} catch (RuntimeException re) {
+			backLog(message,re.toString());
+		}
+	}
+	
+	protected SyslogSpillFile getSpillFile() throws SyslogRuntimeException {
+		SyslogSpillFile _spillFile = this.spillFile;
+		
+		if (_spillFile == null) {
+			synchronized(this.spillSyncObject) {
+				if (this.spillFile == null) {
+					this.spillFile = createSpillFile();
+				}
+				
+				_spillFile = this.spillFile;
+			}
+		}
+		
+		return _spillFile;
+	}
+	
+	protected SyslogSpillFile createSpillFile() throws SyslogRuntimeException {
+		String directory = this.syslogConfig.getQueueSpillDirectory();
+		
+		try {
+			File file = File.createTempFile("syslog4j-" + this.syslog.getProtocol() + "-",".spill",new File(directory != null ? directory : System.getProperty("java.io.tmpdir")));
+			
+			return new SyslogSpillFile(file,this.syslogConfig.getQueueSpillMaxBytes());
+			
+		} catch (IOException ioe) {
+			throw new SyslogRuntimeException(ioe);
+		}
+	}
+	
+	protected boolean hasSpilledMessages() {
+		SyslogSpillFile _spillFile = this.spillFile;
+		
+		return _spillFile != null && !_spillFile.isEmpty();
+	}
+	
+	protected void closeSpillFile() {
+		synchronized(this.spillSyncObject) {
+			if (this.spillFile != null) {
+				this.spillFile.close();
+				this.spillFile = null;
+			}
+		}
+	}
+	
+	protected void drop(QueuedSyslogMessage message, LongAdder counter) {
+		counter.increment();
+		
+		message.complete(SyslogDeliveryResult.DROPPED);
+	}
+	
+	protected void backLog(QueuedSyslogMessage message, String reason) {
+		this.backLoggedCount.increment();
+		
+		this.syslog.backLog(message.getLevel(),getMessageText(message),reason);
+		
+		message.complete(SyslogDeliveryResult.BACKLOGGED);
+	}
+	
+	/**
+	 * @return Returns the number of messages handed to the backLog handlers because the queue was full
+	 */
+	public long getBackLoggedCount() {
+		return this.backLoggedCount.sum();
+	}
+	
+	public long getDroppedNewestCount() {
+		return this.droppedNewestCount.sum();
+	}
+	
+	public long getDroppedOldestCount() {
+		return this.droppedOldestCount.sum();
+	}
+	
+	public long getDroppedBySeverityCount() {
+		return this.droppedBySeverityCount.sum();
+	}
+	
+	/**
+	 * @return Returns the number of messages dropped after waiting queueOverflowBlockTimeout
+	 */
+	public long getBlockTimeoutCount() {
+		return this.blockTimeoutCount.sum();
+	}
+	
+	public long getSpilledCount() {
+		return this.spilledCount.sum();
+	}
+	
+	/**
+	 * @return Returns the number of messages dropped by any queue overflow policy
+	 */
+	public long getDroppedCount() {
+		return getDroppedNewestCount() + getDroppedOldestCount() + getDroppedBySeverityCount() + getBlockTimeoutCount();
+	}
+	
+	protected String getMessageText(QueuedSyslogMessage message) {
+		if (message.isDeferred()) {
+			try {
+				return message.format();
+				
+			} catch (RuntimeException re) {
+				return message.getPattern();
 			}
 		}
+		
+		return SyslogUtility.newString(this.syslogConfig,message.getData());
 	}
 	
 	public void setThread(Thread thread) {
+		if (this.queuedMessages == null) {
+			this.queuedMessages = createQueue();
+			this.overflowMessages = new ConcurrentLinkedQueue<>();
+		}
+		
 		this.thread = thread;
 	}
 	
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+	
 	public boolean hasThread() {
-		return this.thread != null && this.thread.isAlive();
+		Thread _thread = this.thread;
+		
+		return _thread != null && _thread.isAlive();
+	}
+	
+	/**
+	 * Unparks the writer thread, e.g. after a message was queued or on shutdown.
+	 */
+	protected void wakeUp() {
+		Thread _thread = this.thread;
+		
+		if (_thread != null) {
+			LockSupport.unpark(_thread);
+		}
+	}
+	
+	/**
+	 * Called by the writer thread when its queue is empty.
+	 */
+	protected void waitForMessages() {
+		waitForMessages(TimeUnit.MILLISECONDS.toNanos(Math.max(1,this.syslogConfig.getThreadLoopInterval())));
+	}
+	
+	protected void waitForMessages(long maxWaitNanos) {
+		switch (this.syslogConfig.getQueueWaitStrategy()) {
+			case AbstractSyslogConfigIF.QUEUE_WAIT_STRATEGY_BUSY_SPIN:
+				Thread.onSpinWait();
+				break;
+				
+			case AbstractSyslogConfigIF.QUEUE_WAIT_STRATEGY_YIELDING:
+				Thread.yield();
+				break;
+				
+			default:
+				this.waiting = true;
+				
+				if (!hasQueuedMessages() && !this.shutdown) {
+					LockSupport.parkNanos(this,maxWaitNanos);
+				}
+				
+				this.waiting = false;
+		}
+	}
+	
+	/**
+	 * Called by a producer thread when the queue is full.
+	 */
+	protected void waitForCapacity() {
+		switch (this.syslogConfig.getQueueWaitStrategy()) {
+			case AbstractSyslogConfigIF.QUEUE_WAIT_STRATEGY_BUSY_SPIN:
+				Thread.onSpinWait();
+				break;
+				
+			case AbstractSyslogConfigIF.QUEUE_WAIT_STRATEGY_YIELDING:
+				Thread.yield();
+				break;
+				
+			default:
+				LockSupport.parkNanos(this,PRODUCER_PARK_NANOS);
+		}
 	}
 
 	public abstract void write(byte[] message);
 	
+	/**
+	 * Writes length bytes of message starting at offset; the array must not be
+	 * retained after returning.  The default implementation copies the range
+	 * (when needed) and calls write(message).
+	 */
+	public void write(byte[] message, int offset, int length) {
+		if (offset == 0 && length == message.length) {
+			write(message);
+			
+		} else {
+			byte[] data = new byte[length];
+			System.arraycopy(message,offset,data,0,length);
+			
+			write(data);
+		}
+	}
+	
 	public abstract void flush();
 	
 	public abstract void shutdown();
 	
 	protected abstract void runCompleted();
+	
+	/**
+	 * Writes the messages drained from the queue in one pass; implementations
+	 * may buffer them and write later (see getFlushDeadline()).
+	 */
+	protected void writeQueued(List<QueuedSyslogMessage> messages) {
+		for (QueuedSyslogMessage message : messages) {
+			writeQueued(message);
+		}
+	}
+	
+	/**
+	 * @return Returns the System.nanoTime() by which buffered messages must be written
+	 *     even if no further messages are queued, or 0 if nothing is buffered
+	 */
+	protected long getFlushDeadline() {
+		return 0;
+	}
+	
+	/**
+	 * Writes any messages buffered by writeQueued(..).
+	 */
+	protected void flushQueued() {
+		//
+	}
+	
+	/**
+	 * Formats, modifies and encodes a message queued by SyslogIF.log(level,pattern,args).
+	 */
+	protected List<byte[]> createPackets(QueuedSyslogMessage message) throws SyslogRuntimeException {
+		return this.syslog.createPackets(message);
+	}
+	
+	protected void writeQueued(QueuedSyslogMessage message) {
+		try {
+			if (message.isDeferred()) {
+				for (byte[] packet : createPackets(message)) {
+					write(packet);
+				}
+				
+			} else {
+				write(message.getData());
+			}
+			
+			this.syslog.setBackLogStatus(false);
+			
+			message.complete(SyslogDeliveryResult.WRITTEN);
+			
+		} catch (RuntimeException re) {
+			this.syslog.backLog(message.getLevel(),getMessageText(message),re);
+			
+			message.complete(SyslogDeliveryResult.BACKLOGGED);
+		}
+	}
 
+	/**
+	 * The queue has a single consumer; a writer thread started by flush()
+	 * while the previous one is still draining waits for it to finish.
+	 */
 	public void run() {
-		while(!this.shutdown || !this.queuedMessages.isEmpty()) {
-			List<byte[]> queuedMessagesCopy;
+		this.runLock.lock();
+		
+		try {
+			runQueue();
 			
-			synchronized(this.queuedMessages) {
-				queuedMessagesCopy = new LinkedList<>(this.queuedMessages);
-				this.queuedMessages.clear();
+		} finally {
+			this.runLock.unlock();
+		}
+	}
+	
+	protected void runQueue() {
+		List<QueuedSyslogMessage> batch = new ArrayList<>();
+		
+		while(!this.shutdown || hasQueuedMessages() || hasSpilledMessages()) {
+			if (!this.shutdown && isPaused()) {
+				LockSupport.parkNanos(this,TimeUnit.MILLISECONDS.toNanos(Math.max(1,this.syslogConfig.getThreadLoopInterval())));
+				continue;
+			}
+			
+			if (drainTo(batch) > 0) {
+				writeQueued(batch);
+				batch.clear();
+				continue;
+			}
+			
+			long flushDeadline = getFlushDeadline();
+			
+			if (flushDeadline == 0) {
+				waitForMessages();
+				
+			} else {
+				long remaining = flushDeadline - System.nanoTime();
+				
+				if (remaining > 0 && !this.shutdown) {
+					waitForMessages(remaining);
+					
+				} else {
+					flushQueued();
+				}
 			}
-
-            while (!queuedMessagesCopy.isEmpty()) {
-                byte[] message = queuedMessagesCopy.remove(0);
-
-                try {
-                    write(message);
-
-                    this.syslog.setBackLogStatus(false);
-                } catch (SyslogRuntimeException sre) {
-                    this.syslog.backLog(SyslogConstants.LEVEL_INFO,
-                            SyslogUtility.newString(this.syslog.getConfig(), message),
-                            sre);
-                }
-            }
-
-            SyslogUtility.sleep(this.syslogConfig.getThreadLoopInterval());
+		}
+		
+		flushQueued();
+		
+		if (!hasSpilledMessages()) {
+			closeSpillFile();
 		}
 		
 		runCompleted();
 	}
+	
+	/**
+	 * @return Returns true while the writer thread should leave the queued
+	 *     messages in the queue (e.g. while the destination is known to be
+	 *     down); once the queue is full, the queue overflow policy applies
+	 *     to new messages without waiting for a free slot, and with a
+	 *     maxQueueSize of -1 they are backLogged
+	 */
+	protected boolean isPaused() {
+		return false;
+	}
+	
+	protected boolean hasQueuedMessages() {
+		return !this.queuedMessages.isEmpty() || !this.overflowMessages.isEmpty();
+	}
+	
+	/**
+	 * The overflow list is drained after the ring buffer; spilled messages are
+	 * read back only when the queue is empty.
+	 */
+	protected int drainTo(List<QueuedSyslogMessage> batch) {
+		int capacity = this.queuedMessages.capacity();
+		
+		int count = this.queuedMessages.drainTo(batch,capacity);
+		
+		QueuedSyslogMessage overflowMessage;
+		
+		while (count < capacity && (overflowMessage = this.overflowMessages.poll()) != null) {
+			batch.add(overflowMessage);
+			count++;
+		}
+		
+		SyslogSpillFile _spillFile = this.spillFile;
+		
+		if (count == 0 && _spillFile != null && !_spillFile.isEmpty()) {
+			try {
+				count = _spillFile.drainTo(batch,capacity);
+				
+			} catch (SyslogRuntimeException sre) {
+				this.syslog.backLog(SyslogConstants.LEVEL_WARN,"Spill file could not be read",sre);
+				
+				closeSpillFile();
+			}
+		}
+		
+		return count;
+	}
 }
@@ -0,0 +1,114 @@
+package org.productivity.java.syslog4j.impl;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+/**
+* QueuedSyslogMessage is an entry in the queue of a threaded AbstractSyslogWriter.
+*
+* <p>It either holds an encoded packet, or a pattern and its arguments queued
+* by SyslogIF.log(level,pattern,args); the latter is formatted, modified and
+* encoded on the writer thread.  A packet logged by SyslogIF.logAsync(..)
+* also carries the future of its delivery outcome.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class QueuedSyslogMessage {
+	protected final int level;
+	protected final byte[] data;
+	protected final String pattern;
+	protected final Object[] args;
+	protected final CompletableFuture<SyslogDeliveryResult> delivery;
+	protected final boolean lastPacket;
+
+	public QueuedSyslogMessage(int level, byte[] data) {
+		this(level,data,null,true);
+	}
+
+	/**
+	 * @param delivery - completed by complete(..); shared by the packets of a split message
+	 * @param lastPacket - whether this is the last packet of its message
+	 */
+	public QueuedSyslogMessage(int level, byte[] data, CompletableFuture<SyslogDeliveryResult> delivery, boolean lastPacket) {
+		this.level = level;
+		this.data = data;
+		this.pattern = null;
+		this.args = null;
+		this.delivery = delivery;
+		this.lastPacket = lastPacket;
+	}
+
+	/**
+	 * The arguments are captured by reference, except for java.util.Date
+	 * instances which are copied; other mutable arguments must not be
+	 * changed after they are logged.
+	 */
+	public QueuedSyslogMessage(int level, String pattern, Object[] args) {
+		this.level = level;
+		this.data = null;
+		this.pattern = pattern;
+		this.args = snapshot(args);
+		this.delivery = null;
+		this.lastPacket = true;
+	}
+
+	protected static Object[] snapshot(Object[] args) {
+		if (args == null || args.length == 0) {
+			return args;
+		}
+
+		Object[] _args = args.clone();
+
+		for(int i=0; i<_args.length; i++) {
+			if (_args[i] instanceof Date) {
+				_args[i] = ((Date) _args[i]).clone();
+			}
+		}
+
+		return _args;
+	}
+
+	public int getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * @return Returns true if the message still needs to be formatted and encoded
+	 */
+	public boolean isDeferred() {
+		return this.data == null;
+	}
+
+	public byte[] getData() {
+		return this.data;
+	}
+
+	public String getPattern() {
+		return this.pattern;
+	}
+
+	public Object[] getArgs() {
+		return this.args;
+	}
+
+	/**
+	 * Completes the delivery future, if any: with WRITTEN only once the last
+	 * packet is written, with any other result as soon as one packet has it.
+	 */
+	public void complete(SyslogDeliveryResult result) {
+		if (this.delivery != null && (this.lastPacket || result != SyslogDeliveryResult.WRITTEN)) {
+			this.delivery.complete(result);
+		}
+	}
+
+	public String format() {
+		return SyslogUtility.format(this.pattern,this.args);
+	}
+}
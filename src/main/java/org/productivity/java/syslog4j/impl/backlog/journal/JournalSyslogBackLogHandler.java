@@ -0,0 +1,213 @@
+package org.productivity.java.syslog4j.impl.backlog.journal;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.productivity.java.syslog4j.SyslogBackLogHandlerIF;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslog;
+import org.productivity.java.syslog4j.impl.AbstractSyslogConfigIF;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+/**
+* JournalSyslogBackLogHandler keeps backLogged messages in a memory-mapped
+* SyslogJournal on disk instead of losing them, and replays them in order
+* at up to replayRate messages per second once the syslog protocol is up
+* again.
+*
+* <p>Messages logged while the journal is replayed are sent right away, so
+* they may arrive before older journaled ones.  A replayed message which
+* fails again is journaled again (at the end) and the replay stops until
+* the next up(..).  When the journal is full (maxSegments segments of
+* segmentSize bytes), log(..) throws so that the next backLog handler in
+* the chain takes over.</p>
+*
+* <p>Use one handler (and journal directory/name) per syslog protocol.
+* Records left over from an earlier run are sent by calling replay(syslog)
+* explicitly.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class JournalSyslogBackLogHandler implements SyslogBackLogHandlerIF {
+	public static final String JOURNAL_NAME_DEFAULT = "syslog4j-backlog";
+
+	protected final File directory;
+	protected final String name;
+
+	protected int segmentSize = SyslogConstants.BACKLOG_JOURNAL_SEGMENT_SIZE_DEFAULT;
+	protected int maxSegments = SyslogConstants.BACKLOG_JOURNAL_MAX_SEGMENTS_DEFAULT;
+	protected int replayRate = SyslogConstants.BACKLOG_JOURNAL_REPLAY_RATE_DEFAULT;
+
+	protected SyslogJournal journal = null;
+
+	protected volatile boolean replaying = false;
+	protected Thread replayThread = null;
+
+	public JournalSyslogBackLogHandler(String directory) {
+		this(new File(directory),JOURNAL_NAME_DEFAULT);
+	}
+
+	public JournalSyslogBackLogHandler(File directory, String name) {
+		this.directory = directory;
+		this.name = name;
+	}
+
+	public synchronized void initialize() throws SyslogRuntimeException {
+		if (this.journal != null) {
+			return;
+		}
+
+		SyslogJournal _journal = new SyslogJournal(this.directory,this.name,this.segmentSize,this.maxSegments);
+		_journal.open();
+
+		this.journal = _journal;
+	}
+
+	public void log(SyslogIF syslog, int level, String message, String reason) throws SyslogRuntimeException {
+		if (message == null) {
+			return;
+		}
+
+		if (!getJournal().append(level,SyslogUtility.getBytes(syslog.getConfig(),message))) {
+			throw new SyslogRuntimeException("Journal \"" + this.name + "\" is full");
+		}
+	}
+
+	public void down(SyslogIF syslog, String reason) {
+		this.replaying = false;
+	}
+
+	public void up(SyslogIF syslog) {
+		replay(syslog);
+	}
+
+	/**
+	 * Starts sending the journaled messages through syslog in a separate
+	 * Thread, unless a replay is already running.
+	 */
+	public synchronized void replay(final SyslogIF syslog) {
+		if (!(syslog instanceof AbstractSyslog) || getJournal().isEmpty()) {
+			return;
+		}
+
+		this.replaying = true;
+
+		if (this.replayThread != null) {
+			return;
+		}
+
+		AbstractSyslogConfigIF config = (AbstractSyslogConfigIF) syslog.getConfig();
+
+		this.replayThread = config.getExecutor().createThread(() -> runReplay((AbstractSyslog) syslog),"SyslogBackLogReplay: " + syslog.getProtocol(),true,-1);
+		this.replayThread.start();
+	}
+
+	protected void runReplay(AbstractSyslog syslog) {
+		SyslogJournal _journal = getJournal();
+
+		long interval = this.replayRate > 0 ? TimeUnit.SECONDS.toNanos(1) / this.replayRate : 0;
+		long next = System.nanoTime();
+
+		while (true) {
+			QueuedSyslogMessage message = this.replaying ? _journal.poll() : null;
+
+			if (message == null) {
+				synchronized(this) {
+					if (!this.replaying || _journal.isEmpty()) {
+						this.replaying = false;
+						this.replayThread = null;
+						return;
+					}
+				}
+
+				continue;
+			}
+
+			if (!syslog.replay(message.getLevel(),SyslogUtility.newString(syslog.getConfig(),message.getData()))) {
+				this.replaying = false;
+				continue;
+			}
+
+			if (interval > 0) {
+				next += interval;
+
+				long wait = next - System.nanoTime();
+
+				if (wait > 0) {
+					LockSupport.parkNanos(this,wait);
+
+				} else if (wait < -TimeUnit.SECONDS.toNanos(1)) {
+					next = System.nanoTime();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Returns true while journaled messages are being replayed
+	 */
+	public boolean isReplaying() {
+		return this.replaying;
+	}
+
+	protected synchronized SyslogJournal getJournal() {
+		if (this.journal == null) {
+			initialize();
+		}
+
+		return this.journal;
+	}
+
+	/**
+	 * Stops a running replay and releases the journal; journaled messages are kept on disk.
+	 */
+	public synchronized void close() {
+		this.replaying = false;
+
+		if (this.journal != null) {
+			this.journal.close();
+			this.journal = null;
+		}
+	}
+
+	public int getSegmentSize() {
+		return this.segmentSize;
+	}
+
+	/**
+	 * Takes effect when the journal is initialized.
+	 */
+	public void setSegmentSize(int segmentSize) {
+		this.segmentSize = segmentSize;
+	}
+
+	public int getMaxSegments() {
+		return this.maxSegments;
+	}
+
+	/**
+	 * Takes effect when the journal is initialized.
+	 */
+	public void setMaxSegments(int maxSegments) {
+		this.maxSegments = maxSegments;
+	}
+
+	public int getReplayRate() {
+		return this.replayRate;
+	}
+
+	/**
+	 * @param replayRate - the most messages replayed per second; 0 replays as fast as possible
+	 */
+	public void setReplayRate(int replayRate) {
+		this.replayRate = replayRate;
+	}
+}
@@ -0,0 +1,277 @@
+package org.productivity.java.syslog4j.impl.backlog.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+
+/**
+* SyslogJournal is an append-only journal of encoded messages, stored in
+* memory-mapped segment files of a fixed size.
+*
+* <p>Each record is its length, the message level and the message bytes.
+* A record read back by poll() is marked consumed by negating its length in
+* place, so a journal re-opened after a restart continues with the first
+* record not read yet.  A segment is deleted as soon as all of its records
+* are consumed and a newer segment exists.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class SyslogJournal {
+	protected static final int RECORD_HEADER_LENGTH = 8;
+	protected static final String SEGMENT_SUFFIX = ".journal";
+
+	protected static class Segment {
+		protected final long sequence;
+		protected final File file;
+		protected MappedByteBuffer buffer;
+
+		protected int readPosition = 0;
+		protected int writePosition = 0;
+
+		protected Segment(long sequence, File file, int size) throws IOException {
+			this.sequence = sequence;
+			this.file = file;
+
+			try (FileChannel channel = FileChannel.open(file.toPath(),StandardOpenOption.CREATE,StandardOpenOption.READ,StandardOpenOption.WRITE)) {
+				this.buffer = channel.map(FileChannel.MapMode.READ_WRITE,0,Math.max(size,channel.size()));
+			}
+		}
+
+		protected boolean isConsumed() {
+			return this.readPosition == this.writePosition;
+		}
+
+		/**
+		 * Finds the end of the written records and the first record not consumed yet.
+		 */
+		protected void recover() {
+			int position = 0;
+			boolean consumed = true;
+
+			while (position + RECORD_HEADER_LENGTH <= this.buffer.capacity()) {
+				int length = this.buffer.getInt(position);
+
+				if (length == 0 || position + RECORD_HEADER_LENGTH + Math.abs(length) > this.buffer.capacity()) {
+					break;
+				}
+
+				if (length > 0) {
+					consumed = false;
+
+				} else if (consumed) {
+					this.readPosition = position + RECORD_HEADER_LENGTH - length;
+				}
+
+				position += RECORD_HEADER_LENGTH + Math.abs(length);
+			}
+
+			this.writePosition = position;
+		}
+
+		protected void close(boolean delete) {
+			if (this.buffer != null) {
+				this.buffer.force();
+				this.buffer = null;
+			}
+
+			if (delete) {
+				this.file.delete();
+			}
+		}
+	}
+
+	protected final File directory;
+	protected final String name;
+	protected final int segmentSize;
+	protected final int maxSegments;
+
+	protected final Deque<Segment> segments = new ArrayDeque<>();
+	protected long nextSequence = 0;
+
+	/**
+	 * @param maxSegments - the most segment files kept; append(..) fails when they are full
+	 */
+	public SyslogJournal(File directory, String name, int segmentSize, int maxSegments) {
+		if (segmentSize <= RECORD_HEADER_LENGTH) {
+			throw new SyslogRuntimeException("segmentSize must be greater than " + RECORD_HEADER_LENGTH);
+		}
+
+		this.directory = directory;
+		this.name = name;
+		this.segmentSize = segmentSize;
+		this.maxSegments = Math.max(1,maxSegments);
+	}
+
+	/**
+	 * Opens the segments left by an earlier instance, oldest first.
+	 */
+	public synchronized void open() throws SyslogRuntimeException {
+		if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+			throw new SyslogRuntimeException("Cannot create journal directory " + this.directory);
+		}
+
+		File[] files = this.directory.listFiles();
+		List<Long> sequences = new ArrayList<>();
+
+		if (files != null) {
+			for (File file : files) {
+				long sequence = parseSequence(file.getName());
+
+				if (sequence >= 0) {
+					sequences.add(sequence);
+				}
+			}
+		}
+
+		Collections.sort(sequences);
+
+		try {
+			for (long sequence : sequences) {
+				Segment segment = new Segment(sequence,getSegmentFile(sequence),this.segmentSize);
+				segment.recover();
+
+				this.segments.addLast(segment);
+				this.nextSequence = sequence + 1;
+			}
+
+		} catch (IOException ioe) {
+			throw new SyslogRuntimeException(ioe);
+		}
+
+		while (this.segments.size() > 1 && this.segments.peekFirst().isConsumed()) {
+			this.segments.removeFirst().close(true);
+		}
+	}
+
+	protected long parseSequence(String fileName) {
+		String prefix = this.name + "-";
+
+		if (!fileName.startsWith(prefix) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+			return -1;
+		}
+
+		try {
+			return Long.parseLong(fileName.substring(prefix.length(),fileName.length() - SEGMENT_SUFFIX.length()));
+
+		} catch (NumberFormatException nfe) {
+			return -1;
+		}
+	}
+
+	protected File getSegmentFile(long sequence) {
+		return new File(this.directory,this.name + "-" + String.format("%020d",sequence) + SEGMENT_SUFFIX);
+	}
+
+	/**
+	 * @return Returns false if the record does not fit into the journal
+	 */
+	public synchronized boolean append(int level, byte[] data) throws SyslogRuntimeException {
+		int recordLength = RECORD_HEADER_LENGTH + data.length;
+
+		if (data.length == 0 || recordLength > this.segmentSize) {
+			return false;
+		}
+
+		Segment segment = this.segments.peekLast();
+
+		if (segment == null || segment.writePosition + recordLength > segment.buffer.capacity()) {
+			if (this.segments.size() >= this.maxSegments) {
+				return false;
+			}
+
+			if (segment != null) {
+				segment.buffer.force();
+			}
+
+			try {
+				segment = new Segment(this.nextSequence,getSegmentFile(this.nextSequence),this.segmentSize);
+				this.nextSequence++;
+
+			} catch (IOException ioe) {
+				throw new SyslogRuntimeException(ioe);
+			}
+
+			this.segments.addLast(segment);
+		}
+
+		int position = segment.writePosition;
+
+		segment.buffer.putInt(position + 4,level);
+		segment.buffer.put(position + RECORD_HEADER_LENGTH,data);
+		segment.buffer.putInt(position,data.length);
+
+		segment.writePosition += recordLength;
+
+		return true;
+	}
+
+	/**
+	 * @return Returns the oldest record not consumed yet, or null if there is none
+	 */
+	public synchronized QueuedSyslogMessage poll() {
+		Segment segment = this.segments.peekFirst();
+
+		while (segment != null && segment.isConsumed() && this.segments.size() > 1) {
+			this.segments.removeFirst().close(true);
+			segment = this.segments.peekFirst();
+		}
+
+		if (segment == null || segment.isConsumed()) {
+			return null;
+		}
+
+		int position = segment.readPosition;
+		int length = segment.buffer.getInt(position);
+		int level = segment.buffer.getInt(position + 4);
+
+		byte[] data = new byte[length];
+		segment.buffer.get(position + RECORD_HEADER_LENGTH,data);
+
+		segment.buffer.putInt(position,-length);
+		segment.readPosition += RECORD_HEADER_LENGTH + length;
+
+		return new QueuedSyslogMessage(level,data);
+	}
+
+	public synchronized boolean isEmpty() {
+		for (Segment segment : this.segments) {
+			if (!segment.isConsumed()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return Returns the number of segment files in use
+	 */
+	public synchronized int getSegmentCount() {
+		return this.segments.size();
+	}
+
+	/**
+	 * Writes all segments to disk and releases them; the records are kept.
+	 */
+	public synchronized void close() {
+		for (Segment segment : this.segments) {
+			segment.close(false);
+		}
+
+		this.segments.clear();
+	}
+}
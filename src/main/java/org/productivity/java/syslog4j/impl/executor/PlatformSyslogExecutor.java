@@ -0,0 +1,29 @@
+package org.productivity.java.syslog4j.impl.executor;
+
+import org.productivity.java.syslog4j.SyslogExecutorIF;
+
+/**
+* PlatformSyslogExecutor is an implementation of SyslogExecutorIF which
+* creates regular (platform) Threads.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class PlatformSyslogExecutor implements SyslogExecutorIF {
+	public static final PlatformSyslogExecutor INSTANCE = new PlatformSyslogExecutor();
+	
+	public Thread createThread(Runnable runnable, String name, boolean daemon, int priority) {
+		Thread thread = new Thread(runnable);
+		thread.setName(name);
+		thread.setDaemon(daemon);
+		
+		if (priority > -1) {
+			thread.setPriority(priority);
+		}
+		
+		return thread;
+	}
+}
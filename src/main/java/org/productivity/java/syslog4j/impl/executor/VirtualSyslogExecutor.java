@@ -0,0 +1,98 @@
+package org.productivity.java.syslog4j.impl.executor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.productivity.java.syslog4j.SyslogExecutorIF;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+
+/**
+* VirtualSyslogExecutor is an implementation of SyslogExecutorIF which
+* creates virtual Threads when running on Java 21 or later.
+* 
+* <p>Virtual Threads are always daemon Threads and have a fixed priority,
+* so a Thread which must be non-daemon or has a priority set is created as
+* a platform Thread; on older JVMs all Threads are platform Threads.  The
+* virtual Thread API is looked up by reflection, as Syslog4j is built for
+* Java 17.</p>
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class VirtualSyslogExecutor implements SyslogExecutorIF {
+	public static final VirtualSyslogExecutor INSTANCE = new VirtualSyslogExecutor();
+	
+	protected static final Method OF_VIRTUAL;
+	protected static final Method NAME;
+	protected static final Method UNSTARTED;
+	protected static final Method IS_VIRTUAL;
+	
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method unstarted = null;
+		Method isVirtual = null;
+		
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = builderClass.getMethod("name",String.class);
+			unstarted = builderClass.getMethod("unstarted",Runnable.class);
+			isVirtual = Thread.class.getMethod("isVirtual");
+			
+		} catch (ReflectiveOperationException roe) {
+			ofVirtual = null;
+			isVirtual = null;
+		}
+		
+		OF_VIRTUAL = ofVirtual;
+		NAME = name;
+		UNSTARTED = unstarted;
+		IS_VIRTUAL = isVirtual;
+	}
+	
+	/**
+	 * @return Returns true if the JVM supports virtual Threads
+	 */
+	public static boolean isAvailable() {
+		return OF_VIRTUAL != null;
+	}
+	
+	/**
+	 * @return Returns true if thread is a virtual Thread
+	 */
+	public static boolean isVirtual(Thread thread) {
+		if (IS_VIRTUAL == null) {
+			return false;
+		}
+		
+		try {
+			return (Boolean) IS_VIRTUAL.invoke(thread);
+			
+		} catch (ReflectiveOperationException roe) {
+			return false;
+		}
+	}
+	
+	public Thread createThread(Runnable runnable, String name, boolean daemon, int priority) {
+		if (!isAvailable() || !daemon || priority > -1) {
+			return PlatformSyslogExecutor.INSTANCE.createThread(runnable,name,daemon,priority);
+		}
+		
+		try {
+			Object builder = NAME.invoke(OF_VIRTUAL.invoke(null),name);
+			
+			return (Thread) UNSTARTED.invoke(builder,runnable);
+			
+		} catch (IllegalAccessException iae) {
+			throw new SyslogRuntimeException(iae);
+			
+		} catch (InvocationTargetException ite) {
+			throw new SyslogRuntimeException(ite.getCause());
+		}
+	}
+}
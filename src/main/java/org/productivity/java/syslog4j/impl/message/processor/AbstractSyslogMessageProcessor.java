@@ -1,12 +1,14 @@
 package org.productivity.java.syslog4j.impl.message.processor;
 
 import java.io.Serial;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 
 import org.productivity.java.syslog4j.SyslogConstants;
 import org.productivity.java.syslog4j.SyslogMessageProcessorIF;
+import org.productivity.java.syslog4j.util.SyslogEncodeBuffer;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
 /**
@@ -23,6 +25,25 @@ import org.productivity.java.syslog4j.util.SyslogUtility;
 */
 public abstract class AbstractSyslogMessageProcessor implements SyslogMessageProcessorIF, SyslogConstants {
 	@Serial private static final long serialVersionUID = -5413127301924500938L;
+	
+	/**
+	 * LocalTimestamp is an immutable RFC 3164 timestamp ("MMM dd HH:mm:ss ")
+	 * for one wall-clock second, in String and pre-encoded (ASCII) form.
+	 */
+	protected static final class LocalTimestamp {
+		public final long second;
+		public final String text;
+		public final byte[] bytes;
+		
+		protected LocalTimestamp(long second, String text) {
+			this.second = second;
+			this.text = text;
+			this.bytes = text.getBytes(StandardCharsets.US_ASCII);
+		}
+	}
+	
+	private static volatile LocalTimestamp cachedLocalTimestamp = null;
+	
 	protected final String localName;
 	
 	public AbstractSyslogMessageProcessor() {
@@ -67,6 +88,38 @@ public abstract class AbstractSyslogMessageProcessor implements SyslogMessagePro
 		return data;
 	}
 
+	protected static String formatLocalTimestamp(long timeMillis) {
+		SimpleDateFormat dateFormat = new SimpleDateFormat(SYSLOG_DATEFORMAT,Locale.ENGLISH);
+		
+		char[] datePrefix = dateFormat.format(new Date(timeMillis)).toCharArray();
+		
+		//  RFC 3164 requires leading space for days 1-9
+		if (datePrefix[4] == '0') {
+			datePrefix[4] = ' ';
+		}
+		
+		return new String(datePrefix);
+	}
+	
+	/**
+	 * Returns the timestamp for the current second.  It is formatted at most once
+	 * per second and shared by all processors; racing threads may each format the
+	 * same second, which is harmless since the holder is immutable.
+	 */
+	protected static LocalTimestamp getLocalTimestamp() {
+		long now = System.currentTimeMillis();
+		long second = Math.floorDiv(now,1000L);
+		
+		LocalTimestamp localTimestamp = cachedLocalTimestamp;
+		
+		if (localTimestamp == null || localTimestamp.second != second) {
+			localTimestamp = new LocalTimestamp(second,formatLocalTimestamp(now));
+			cachedLocalTimestamp = localTimestamp;
+		}
+		
+		return localTimestamp;
+	}
+
 	protected void appendPriority(StringBuffer buffer, int facility, int level) {
 		int priority = facility | level;
 
@@ -75,19 +128,20 @@ public abstract class AbstractSyslogMessageProcessor implements SyslogMessagePro
 		buffer.append(">");
 	}
 	
+	protected void appendPriority(SyslogEncodeBuffer buffer, int facility, int level) {
+		int priority = facility | level;
+
+		buffer.put((byte) '<');
+		buffer.putNumber(priority);
+		buffer.put((byte) '>');
+	}
+	
 	protected void appendLocalTimestamp(StringBuffer buffer) {
-		SimpleDateFormat dateFormat = new SimpleDateFormat(SYSLOG_DATEFORMAT,Locale.ENGLISH);
-		
-		String datePrefix = dateFormat.format(new Date());
-		
-		int pos = buffer.length() + 4;
-		
-		buffer.append(datePrefix);
+		buffer.append(getLocalTimestamp().text);
+	}
 	
-		//  RFC 3164 requires leading space for days 1-9
-		if (buffer.charAt(pos) == '0') {
-			buffer.setCharAt(pos,' ');
-		}		
+	protected void appendLocalTimestamp(SyslogEncodeBuffer buffer) {
+		buffer.put(getLocalTimestamp().bytes);
 	}
 	
 	protected void appendLocalName(StringBuffer buffer, String localName) {
@@ -101,6 +155,11 @@ public abstract class AbstractSyslogMessageProcessor implements SyslogMessagePro
 		buffer.append(' ');
 	}
 
+	protected void appendLocalName(SyslogEncodeBuffer buffer, String localName) {
+		buffer.putString(localName != null ? localName : this.localName);
+		buffer.put((byte) ' ');
+	}
+
 	public String createSyslogHeader(int facility, int level, String localName, boolean sendLocalTimestamp, boolean sendLocalName) {
 		StringBuffer buffer = new StringBuffer();
 		
@@ -116,4 +175,20 @@ public abstract class AbstractSyslogMessageProcessor implements SyslogMessagePro
 		
 		return buffer.toString();
 	}
+
+	/**
+	 * Byte-level equivalent of createSyslogHeader(..).  Subclasses that override
+	 * createSyslogHeader(..) should override this method as well.
+	 */
+	public void encodeSyslogHeader(SyslogEncodeBuffer buffer, int facility, int level, String localName, boolean sendLocalTimestamp, boolean sendLocalName) {
+		appendPriority(buffer,facility,level);
+		
+		if (sendLocalTimestamp) {
+			appendLocalTimestamp(buffer);
+		}
+		
+		if (sendLocalName) {
+			appendLocalName(buffer,localName);
+		}
+	}
 }
@@ -3,8 +3,11 @@ package org.productivity.java.syslog4j.impl.message.processor.structured;
 import java.io.Serial;
 import org.productivity.java.syslog4j.impl.message.processor.AbstractSyslogMessageProcessor;
 import org.productivity.java.syslog4j.impl.message.structured.StructuredSyslogMessage;
+import org.productivity.java.syslog4j.util.SyslogEncodeBuffer;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -21,6 +24,11 @@ import java.time.format.DateTimeFormatter;
  * instance via the SyslogIF.setStructuredMessageProcessor(..) method or set it globally
  * via the StructuredSyslogMessageProcessor.setDefault(..) method.</p>
  * 
+ * <p>The "&lt;PRI&gt;1 " prefixes for all facility/level combinations are
+ * computed once, the "HOSTNAME APP-NAME PROCID " tail is cached until one
+ * of its parts changes, and the timestamp is cached per timestamp
+ * granularity (one second by default; see setTimestampGranularity(..)).</p>
+ * 
  * <p>
  * Syslog4j is licensed under the Lesser GNU Public License v2.1. A copy of the
  * LGPL license is available in the META-INF folder in all distributions of
@@ -35,6 +43,34 @@ public class StructuredSyslogMessageProcessor extends AbstractSyslogMessageProce
 	
 	public static final String VERSION = "1";
 
+	private static final String[] PRIORITY_PREFIXES = new String[(FACILITY_LOCAL7 | LEVEL_DEBUG) + 1];
+	private static final byte[][] PRIORITY_PREFIX_BYTES = new byte[PRIORITY_PREFIXES.length][];
+	
+	static {
+		for (int priority = 0; priority < PRIORITY_PREFIXES.length; priority++) {
+			PRIORITY_PREFIXES[priority] = "<" + priority + ">" + VERSION + " ";
+			PRIORITY_PREFIX_BYTES[priority] = SyslogEncodeBuffer.toAsciiBytes(PRIORITY_PREFIXES[priority]);
+		}
+	}
+	
+	/**
+	 * CachedText is an immutable piece of header text together with the key
+	 * it was computed for and its ASCII bytes (null if not pure ASCII).
+	 */
+	protected static final class CachedText {
+		public final long key;
+		public final String name;
+		public final String text;
+		public final byte[] asciiBytes;
+		
+		protected CachedText(long key, String name, String text) {
+			this.key = key;
+			this.name = name;
+			this.text = text;
+			this.asciiBytes = SyslogEncodeBuffer.toAsciiBytes(text);
+		}
+	}
+
 	private static final StructuredSyslogMessageProcessor INSTANCE = new StructuredSyslogMessageProcessor();
 	protected static StructuredSyslogMessageProcessor defaultInstance = INSTANCE;
 	
@@ -42,6 +78,10 @@ public class StructuredSyslogMessageProcessor extends AbstractSyslogMessageProce
 	private String processId = STRUCTURED_DATA_PROCESS_ID_DEFAULT_VALUE;
 	
 	private DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss[xxx]");
+	private long timestampGranularity = STRUCTURED_TIMESTAMP_GRANULARITY_DEFAULT;
+	
+	private transient volatile CachedText cachedTimestamp = null;
+	private transient volatile CachedText cachedHeaderTail = null;
 
 	public static void setDefault(StructuredSyslogMessageProcessor messageProcessor) {
 		if (messageProcessor != null) {
@@ -66,8 +106,26 @@ public class StructuredSyslogMessageProcessor extends AbstractSyslogMessageProce
 		return dateTimeFormatter;
 	}
 
+	/**
+	 * When the formatter prints fractions of a second, the timestamp granularity
+	 * should be lowered accordingly (e.g. to STRUCTURED_TIMESTAMP_GRANULARITY_MILLISECOND).
+	 */
 	public void setDateTimeFormatter(DateTimeFormatter dateTimeFormatter) {
 		this.dateTimeFormatter = dateTimeFormatter;
+		this.cachedTimestamp = null;
+	}
+
+	public long getTimestampGranularity() {
+		return this.timestampGranularity;
+	}
+
+	/**
+	 * @param timestampGranularity - milliseconds for which a formatted timestamp is reused;
+	 *     STRUCTURED_TIMESTAMP_GRANULARITY_NONE (or less) formats the timestamp for every message
+	 */
+	public void setTimestampGranularity(long timestampGranularity) {
+		this.timestampGranularity = timestampGranularity;
+		this.cachedTimestamp = null;
 	}
 
 	public String getApplicationName() {
@@ -76,6 +134,7 @@ public class StructuredSyslogMessageProcessor extends AbstractSyslogMessageProce
 
 	public void setApplicationName(String applicationName) {
 		this.applicationName = applicationName;
+		this.cachedHeaderTail = null;
 	}
 
 	public String getProcessId() {
@@ -84,25 +143,85 @@ public class StructuredSyslogMessageProcessor extends AbstractSyslogMessageProce
 
 	public void setProcessId(String processId) {
 		this.processId = processId;
+		this.cachedHeaderTail = null;
 	}
 
-	public String createSyslogHeader(final int facility, final int level, String localName, final boolean sendLocalTimestamp, final boolean sendLocalName) {
-		final StringBuffer buffer = new StringBuffer();
+	protected static int getPriorityIndex(final int facility, final int level) {
+		int priority = facility | level;
+		
+		if (priority < 0 || priority >= PRIORITY_PREFIXES.length) {
+			return -1;
+		}
+		
+		return priority;
+	}
 
-		appendPriority(buffer,facility,level);
-		buffer.append(VERSION);
-		buffer.append(' ');
+	protected String getPriorityPrefix(final int facility, final int level) {
+		int index = getPriorityIndex(facility,level);
+		
+		if (index < 0) {
+			return "<" + (facility | level) + ">" + VERSION + " ";
+		}
+		
+		return PRIORITY_PREFIXES[index];
+	}
 
-		getDateTimeFormatter().formatTo(OffsetDateTime.now(), buffer);
-		buffer.append(' ');
+	protected CachedText getTimestamp() {
+		final long granularity = this.timestampGranularity;
+		
+		if (granularity <= STRUCTURED_TIMESTAMP_GRANULARITY_NONE) {
+			return new CachedText(0,null,getDateTimeFormatter().format(OffsetDateTime.now()) + ' ');
+		}
+		
+		final long key = Math.floorDiv(System.currentTimeMillis(),granularity);
+		
+		CachedText timestamp = this.cachedTimestamp;
+		
+		if (timestamp == null || timestamp.key != key) {
+			OffsetDateTime dateTime = OffsetDateTime.ofInstant(Instant.ofEpochMilli(key * granularity),ZoneId.systemDefault());
+			
+			timestamp = new CachedText(key,null,getDateTimeFormatter().format(dateTime) + ' ');
+			this.cachedTimestamp = timestamp;
+		}
+		
+		return timestamp;
+	}
 
-		appendLocalName(buffer,localName);
+	protected CachedText getHeaderTail(final String localName) {
+		final String name = localName != null ? localName : this.localName;
+		
+		CachedText headerTail = this.cachedHeaderTail;
+		
+		if (headerTail == null || !headerTail.name.equals(name)) {
+			String text = name + ' ' +
+				StructuredSyslogMessage.nilProtect(this.applicationName) + ' ' +
+				StructuredSyslogMessage.nilProtect(this.processId) + ' ';
+			
+			headerTail = new CachedText(0,name,text);
+			this.cachedHeaderTail = headerTail;
+		}
+		
+		return headerTail;
+	}
 
-		buffer.append(StructuredSyslogMessage.nilProtect(this.applicationName))
-				.append(' ');
+	public String createSyslogHeader(final int facility, final int level, String localName, final boolean sendLocalTimestamp, final boolean sendLocalName) {
+		return getPriorityPrefix(facility,level) + getTimestamp().text + getHeaderTail(localName).text;
+	}
 
-		buffer.append(StructuredSyslogMessage.nilProtect(this.processId)).append(' ');
+	public void encodeSyslogHeader(final SyslogEncodeBuffer buffer, final int facility, final int level, String localName, final boolean sendLocalTimestamp, final boolean sendLocalName) {
+		int index = getPriorityIndex(facility,level);
 		
-		return buffer.toString();
+		if (index < 0) {
+			buffer.putString(getPriorityPrefix(facility,level));
+			
+		} else {
+			buffer.putString(PRIORITY_PREFIXES[index],PRIORITY_PREFIX_BYTES[index]);
+		}
+
+		CachedText timestamp = getTimestamp();
+		buffer.putString(timestamp.text,timestamp.asciiBytes);
+
+		CachedText headerTail = getHeaderTail(localName);
+		buffer.putString(headerTail.text,headerTail.asciiBytes);
 	}
 }
@@ -1,9 +1,15 @@
 package org.productivity.java.syslog4j.impl.multiple;
 
 import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 import org.productivity.java.syslog4j.Syslog;
 import org.productivity.java.syslog4j.SyslogConfigIF;
 import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
 import org.productivity.java.syslog4j.SyslogIF;
 import org.productivity.java.syslog4j.SyslogMessageIF;
 import org.productivity.java.syslog4j.SyslogMessageProcessorIF;
@@ -105,6 +111,23 @@ public class MultipleSyslog implements SyslogIF {
 		log(SyslogConstants.LEVEL_WARN,message);
 	}
 
+	/**
+	 * @return Returns true if at least one of the underlying Syslog instances logs the given level
+	 */
+	public boolean isEnabled(int level) {
+		for(int i=0; i<this.multipleSyslogConfig.getProtocols().size(); i++) {
+			String protocol = this.multipleSyslogConfig.getProtocols().get(i);
+			
+			SyslogIF syslog = Syslog.getInstance(protocol);
+			
+			if (syslog.isEnabled(level)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+
 	public void log(int level, String message) {
 		for(int i=0; i<this.multipleSyslogConfig.getProtocols().size(); i++) {
 			String protocol = this.multipleSyslogConfig.getProtocols().get(i);
@@ -115,6 +138,16 @@ public class MultipleSyslog implements SyslogIF {
 		}
 	}
 
+	public void log(int level, String pattern, Object... args) {
+		for(int i=0; i<this.multipleSyslogConfig.getProtocols().size(); i++) {
+			String protocol = this.multipleSyslogConfig.getProtocols().get(i);
+			
+			SyslogIF syslog = Syslog.getInstance(protocol);
+			
+			syslog.log(level,pattern,args);
+		}
+	}
+
 	public void log(int level, SyslogMessageIF message) {
 		for(int i=0; i<this.multipleSyslogConfig.getProtocols().size(); i++) {
 			String protocol = this.multipleSyslogConfig.getProtocols().get(i);
@@ -125,6 +158,48 @@ public class MultipleSyslog implements SyslogIF {
 		}
 	}
 
+	/**
+	 * Completes once every protocol's delivery is complete: FILTERED if all
+	 * protocols filtered the message, otherwise WRITTEN unless a protocol
+	 * dropped, backLogged or spilled it.
+	 */
+	public CompletableFuture<SyslogDeliveryResult> logAsync(int level, SyslogMessageIF message) {
+		return logAsync(syslog -> syslog.logAsync(level,message));
+	}
+	
+	public CompletableFuture<SyslogDeliveryResult> logAsync(int level, String message) {
+		return logAsync(syslog -> syslog.logAsync(level,message));
+	}
+	
+	protected CompletableFuture<SyslogDeliveryResult> logAsync(Function<SyslogIF,CompletableFuture<SyslogDeliveryResult>> logger) {
+		List<CompletableFuture<SyslogDeliveryResult>> deliveries = new ArrayList<>();
+		
+		for(int i=0; i<this.multipleSyslogConfig.getProtocols().size(); i++) {
+			String protocol = this.multipleSyslogConfig.getProtocols().get(i);
+			
+			SyslogIF syslog = Syslog.getInstance(protocol);
+			
+			deliveries.add(logger.apply(syslog));
+		}
+		
+		return CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+			SyslogDeliveryResult result = SyslogDeliveryResult.FILTERED;
+			
+			for (CompletableFuture<SyslogDeliveryResult> delivery : deliveries) {
+				SyslogDeliveryResult _result = delivery.join();
+				
+				if (_result == SyslogDeliveryResult.WRITTEN && result == SyslogDeliveryResult.FILTERED) {
+					result = _result;
+					
+				} else if (_result != SyslogDeliveryResult.WRITTEN && _result != SyslogDeliveryResult.FILTERED) {
+					return _result;
+				}
+			}
+			
+			return result;
+		});
+	}
+
 	public void flush() throws SyslogRuntimeException {
 		for(int i=0; i<this.multipleSyslogConfig.getProtocols().size(); i++) {
 			String protocol = this.multipleSyslogConfig.getProtocols().get(i);
@@ -2,6 +2,7 @@ package org.productivity.java.syslog4j.impl.net;
 
 import java.io.Serial;
 import java.net.InetAddress;
+import java.util.List;
 
 import org.productivity.java.syslog4j.SyslogRuntimeException;
 import org.productivity.java.syslog4j.impl.AbstractSyslog;
@@ -27,6 +28,8 @@ public abstract class AbstractNetSyslog extends AbstractSyslog {
 	
 	protected AbstractNetSyslogConfigIF netSyslogConfig = null;
 	
+	protected volatile NetSyslogDestinations destinations = null;
+	
 	protected void initialize() throws SyslogRuntimeException {
 		try {
 			this.netSyslogConfig = (AbstractNetSyslogConfigIF) this.syslogConfig;
@@ -59,4 +62,61 @@ public abstract class AbstractNetSyslog extends AbstractSyslog {
 		
 		return hostAddress;
 	}
+	
+	/**
+	 * Drops the cached host address, so that it is resolved again (e.g. after a connection failed).
+	 */
+	public void invalidateHostAddress() {
+		this.cachedHostAddress = null;
+	}
+	
+	/**
+	 * @return Returns the destinations, or null if none are configured and host and port are used
+	 */
+	public NetSyslogDestinations getDestinations() {
+		NetSyslogDestinations _destinations = this.destinations;
+		
+		if (_destinations != null) {
+			return _destinations;
+		}
+		
+		List<String> configured = this.netSyslogConfig.getDestinations();
+		
+		if (configured == null || configured.isEmpty()) {
+			return null;
+		}
+		
+		return createDestinations();
+	}
+	
+	protected synchronized NetSyslogDestinations createDestinations() {
+		if (this.destinations == null) {
+			NetSyslogDestinations _destinations = new NetSyslogDestinations(this.netSyslogConfig);
+			
+			if (isHealthCheckSupported()) {
+				_destinations.startHealthCheck(this.syslogConfig.getExecutor(),"SyslogHealthCheck: " + getProtocol());
+			}
+			
+			this.destinations = _destinations;
+		}
+		
+		return this.destinations;
+	}
+	
+	/**
+	 * @return Returns true if destinations which are down can be probed with a TCP connection
+	 */
+	protected boolean isHealthCheckSupported() {
+		return true;
+	}
+	
+	/**
+	 * Stops the health check; the destinations are created again when the next message is sent.
+	 */
+	protected synchronized void shutdownDestinations() {
+		if (this.destinations != null) {
+			this.destinations.shutdown();
+			this.destinations = null;
+		}
+	}
 }
@@ -1,6 +1,9 @@
 package org.productivity.java.syslog4j.impl.net;
 
 import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.productivity.java.syslog4j.impl.AbstractSyslogConfig;
 
 /**
@@ -24,6 +27,13 @@ public abstract class AbstractNetSyslogConfig extends AbstractSyslogConfig imple
 	
 	protected int maxQueueSize = MAX_QUEUE_SIZE_DEFAULT;
 	
+	protected List<String> destinations = new ArrayList<>();
+	protected byte destinationSelection = DESTINATION_SELECTION_DEFAULT;
+	
+	protected long healthCheckInterval = HEALTH_CHECK_INTERVAL_DEFAULT;
+	protected long reconnectBackoffMin = RECONNECT_BACKOFF_MIN_DEFAULT;
+	protected long reconnectBackoffMax = RECONNECT_BACKOFF_MAX_DEFAULT;
+	
 	public AbstractNetSyslogConfig() {
 		//
 	}
@@ -83,4 +93,52 @@ public abstract class AbstractNetSyslogConfig extends AbstractSyslogConfig imple
 	public void setMaxQueueSize(int maxQueueSize) {
 		this.maxQueueSize = maxQueueSize;
 	}
+
+	public List<String> getDestinations() {
+		return this.destinations;
+	}
+
+	public void setDestinations(List<String> destinations) {
+		this.destinations = destinations != null ? destinations : new ArrayList<>();
+	}
+
+	public void addDestination(String destination) {
+		this.destinations.add(destination);
+	}
+
+	public void removeAllDestinations() {
+		this.destinations.clear();
+	}
+
+	public byte getDestinationSelection() {
+		return this.destinationSelection;
+	}
+
+	public void setDestinationSelection(byte destinationSelection) {
+		this.destinationSelection = destinationSelection;
+	}
+
+	public long getHealthCheckInterval() {
+		return this.healthCheckInterval;
+	}
+
+	public void setHealthCheckInterval(long healthCheckInterval) {
+		this.healthCheckInterval = healthCheckInterval;
+	}
+
+	public long getReconnectBackoffMin() {
+		return this.reconnectBackoffMin;
+	}
+
+	public void setReconnectBackoffMin(long reconnectBackoffMin) {
+		this.reconnectBackoffMin = reconnectBackoffMin;
+	}
+
+	public long getReconnectBackoffMax() {
+		return this.reconnectBackoffMax;
+	}
+
+	public void setReconnectBackoffMax(long reconnectBackoffMax) {
+		this.reconnectBackoffMax = reconnectBackoffMax;
+	}
 }
@@ -1,5 +1,7 @@
 package org.productivity.java.syslog4j.impl.net;
 
+import java.util.List;
+
 import org.productivity.java.syslog4j.impl.AbstractSyslogConfigIF;
 
 /**
@@ -14,6 +16,54 @@ import org.productivity.java.syslog4j.impl.AbstractSyslogConfigIF;
 * @version $Id: AbstractNetSyslogConfigIF.java,v 1.4 2009/06/06 19:11:02 cvs Exp $
 */
 public interface AbstractNetSyslogConfigIF extends AbstractSyslogConfigIF {
+	/**
+	 * The first available destination is used; a connection fails back to
+	 * an earlier destination as soon as it is up again.
+	 */
+	byte DESTINATION_SELECTION_FAILOVER					= 0;
+	
+	/**
+	 * Each new connection (each message with UDP) uses the next available destination.
+	 */
+	byte DESTINATION_SELECTION_ROUND_ROBIN				= 1;
+	
+	/**
+	 * Each new connection uses the available destination with the fewest bytes
+	 * being written, then the fewest connections.
+	 */
+	byte DESTINATION_SELECTION_LEAST_OUTSTANDING_BYTES	= 2;
+	
 	boolean isCacheHostAddress();
 	void setCacheHostAddress(boolean cacheHostAddress);
+	
+	/**
+	 * @return Returns the destinations ("host" or "host:port", "[address]:port"
+	 *     for IPv6) which replace host and port when not empty; the list is read
+	 *     when the first message is sent
+	 */
+	List<String> getDestinations();
+	void setDestinations(List<String> destinations);
+	void addDestination(String destination);
+	void removeAllDestinations();
+	
+	byte getDestinationSelection();
+	void setDestinationSelection(byte destinationSelection);
+	
+	/**
+	 * @return Returns the interval (in milliseconds) at which destinations that
+	 *     are down are probed in the background; 0 or less disables probing
+	 */
+	long getHealthCheckInterval();
+	void setHealthCheckInterval(long healthCheckInterval);
+	
+	/**
+	 * @return Returns the delay (in milliseconds) before a failed destination
+	 *     is tried again; it doubles with every further failure up to
+	 *     reconnectBackoffMax
+	 */
+	long getReconnectBackoffMin();
+	void setReconnectBackoffMin(long reconnectBackoffMin);
+	
+	long getReconnectBackoffMax();
+	void setReconnectBackoffMax(long reconnectBackoffMax);
 }
@@ -0,0 +1,100 @@
+package org.productivity.java.syslog4j.impl.net;
+
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+/**
+* NetSyslogCircuitBreaker tracks the failed writes of a network syslog
+* writer.
+*
+* <p>The circuit is closed while writes succeed.  After failureThreshold
+* consecutive failed writes it opens: no writes are attempted, and a
+* background reconnect probes the destination with a jittered exponential
+* backoff.  Once the probe succeeds the circuit is half-open, and the next
+* write decides: success closes the circuit, failure opens it again.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NetSyslogCircuitBreaker {
+	public static final byte STATE_CLOSED		= 0;
+	public static final byte STATE_OPEN			= 1;
+	public static final byte STATE_HALF_OPEN	= 2;
+
+	protected final int failureThreshold;
+
+	protected byte state = STATE_CLOSED;
+	protected int failures = 0;
+	protected int reconnectAttempts = 0;
+	protected boolean reconnecting = false;
+
+	public NetSyslogCircuitBreaker(int failureThreshold) {
+		this.failureThreshold = Math.max(1,failureThreshold);
+	}
+
+	public synchronized byte getState() {
+		return this.state;
+	}
+
+	/**
+	 * @return Returns false while the circuit is open
+	 */
+	public synchronized boolean allowRequest() {
+		return this.state != STATE_OPEN;
+	}
+
+	public synchronized void recordSuccess() {
+		this.state = STATE_CLOSED;
+		this.failures = 0;
+		this.reconnectAttempts = 0;
+	}
+
+	/**
+	 * @return Returns true if the circuit is open after this failure
+	 */
+	public synchronized boolean recordFailure() {
+		this.failures++;
+
+		if (this.state == STATE_HALF_OPEN || this.failures >= this.failureThreshold) {
+			this.state = STATE_OPEN;
+		}
+
+		return this.state == STATE_OPEN;
+	}
+
+	/**
+	 * Called when a background reconnect succeeded.
+	 */
+	public synchronized void halfOpen() {
+		if (this.state == STATE_OPEN) {
+			this.state = STATE_HALF_OPEN;
+		}
+	}
+
+	/**
+	 * @return Returns the delay before the next reconnect attempt (see SyslogUtility.getBackoff(..))
+	 */
+	public synchronized long nextReconnectBackoff(long backoffMin, long backoffMax) {
+		return SyslogUtility.getBackoff(backoffMin,backoffMax,this.reconnectAttempts++);
+	}
+
+	/**
+	 * @return Returns true if the caller should start the background
+	 *     reconnect, i.e. the circuit is open and no reconnect is running
+	 */
+	public synchronized boolean startReconnect() {
+		if (this.state != STATE_OPEN || this.reconnecting) {
+			return false;
+		}
+
+		this.reconnecting = true;
+
+		return true;
+	}
+
+	public synchronized void reconnectCompleted() {
+		this.reconnecting = false;
+	}
+}
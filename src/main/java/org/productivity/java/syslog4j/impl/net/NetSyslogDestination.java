@@ -0,0 +1,172 @@
+package org.productivity.java.syslog4j.impl.net;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+/**
+* NetSyslogDestination is one host and port of a multi-destination network
+* syslog client, along with its health and load.
+*
+* <p>A destination which fails is down until its backoff has passed; every
+* further failure doubles the backoff up to reconnectBackoffMax (with jitter,
+* see SyslogUtility.getBackoff(..)).  The host address is resolved again
+* after a failure.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NetSyslogDestination {
+	protected final String host;
+	protected final int port;
+
+	protected volatile InetAddress cachedHostAddress = null;
+
+	protected volatile boolean up = true;
+	protected volatile long nextAttemptTime = 0;
+	protected int failures = 0;
+
+	protected final AtomicLong outstandingBytes = new AtomicLong();
+	protected final AtomicInteger connections = new AtomicInteger();
+
+	public NetSyslogDestination(String host, int port) {
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * @param destination "host", "host:port" or "[address]:port"
+	 * @param defaultPort the port if destination has none
+	 */
+	public static NetSyslogDestination parse(String destination, int defaultPort) throws SyslogRuntimeException {
+		if (destination == null || destination.trim().isEmpty()) {
+			throw new SyslogRuntimeException("Destination must not be empty");
+		}
+
+		String trimmed = destination.trim();
+
+		String host = trimmed;
+		String port = null;
+
+		if (trimmed.startsWith("[")) {
+			int end = trimmed.indexOf(']');
+
+			if (end < 0) {
+				throw new SyslogRuntimeException("Invalid destination: " + destination);
+			}
+
+			host = trimmed.substring(1,end);
+
+			if (end + 1 < trimmed.length()) {
+				if (trimmed.charAt(end + 1) != ':') {
+					throw new SyslogRuntimeException("Invalid destination: " + destination);
+				}
+
+				port = trimmed.substring(end + 2);
+			}
+
+		} else if (trimmed.indexOf(':') == trimmed.lastIndexOf(':') && trimmed.indexOf(':') > 0) {
+			host = trimmed.substring(0,trimmed.indexOf(':'));
+			port = trimmed.substring(trimmed.indexOf(':') + 1);
+		}
+
+		if (port == null) {
+			return new NetSyslogDestination(host,defaultPort);
+		}
+
+		try {
+			return new NetSyslogDestination(host,Integer.parseInt(port));
+
+		} catch (NumberFormatException nfe) {
+			throw new SyslogRuntimeException("Invalid destination: " + destination);
+		}
+	}
+
+	public String getHost() {
+		return this.host;
+	}
+
+	public int getPort() {
+		return this.port;
+	}
+
+	public InetAddress getHostAddress(boolean cache) {
+		if (!cache) {
+			return SyslogUtility.getInetAddress(this.host);
+		}
+
+		InetAddress hostAddress = this.cachedHostAddress;
+
+		if (hostAddress == null) {
+			hostAddress = SyslogUtility.getInetAddress(this.host);
+			this.cachedHostAddress = hostAddress;
+		}
+
+		return hostAddress;
+	}
+
+	public boolean isUp() {
+		return this.up;
+	}
+
+	/**
+	 * @return Returns true if the destination is up, or its backoff has passed
+	 */
+	public boolean isAvailable(long currentTimeMs) {
+		return this.up || currentTimeMs >= this.nextAttemptTime;
+	}
+
+	public long getNextAttemptTime() {
+		return this.nextAttemptTime;
+	}
+
+	public synchronized int getFailures() {
+		return this.failures;
+	}
+
+	public synchronized void markDown(long backoffMin, long backoffMax) {
+		long backoff = SyslogUtility.getBackoff(backoffMin,backoffMax,this.failures);
+
+		this.failures++;
+		this.nextAttemptTime = System.currentTimeMillis() + backoff;
+		this.up = false;
+
+		this.cachedHostAddress = null;
+	}
+
+	public synchronized void markUp() {
+		this.failures = 0;
+		this.nextAttemptTime = 0;
+		this.up = true;
+	}
+
+	public long getOutstandingBytes() {
+		return this.outstandingBytes.get();
+	}
+
+	public void addOutstandingBytes(long bytes) {
+		this.outstandingBytes.addAndGet(bytes);
+	}
+
+	public int getConnections() {
+		return this.connections.get();
+	}
+
+	public void connectionOpened() {
+		this.connections.incrementAndGet();
+	}
+
+	public void connectionClosed() {
+		this.connections.decrementAndGet();
+	}
+
+	public String toString() {
+		return (this.host.indexOf(':') >= 0 ? "[" + this.host + "]" : this.host) + ":" + this.port;
+	}
+}
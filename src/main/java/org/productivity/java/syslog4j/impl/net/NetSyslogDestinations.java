@@ -0,0 +1,208 @@
+package org.productivity.java.syslog4j.impl.net;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.productivity.java.syslog4j.SyslogExecutorIF;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+/**
+* NetSyslogDestinations selects the destination of a network syslog client
+* configured with more than one (see AbstractNetSyslogConfigIF.getDestinations()).
+*
+* <p>Writers call select() whenever they open a connection, failed(..) when
+* a connection or write fails (the message is then retried on the next
+* destination), and isPreferred(..) to find out whether an open connection
+* should move to another destination.</p>
+*
+* <p>When started with a health check interval, a background Thread probes
+* the destinations which are down by opening a TCP connection once their
+* backoff has passed, and marks them up again.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NetSyslogDestinations implements Runnable {
+	protected final AbstractNetSyslogConfigIF netSyslogConfig;
+
+	protected final NetSyslogDestination[] destinations;
+
+	protected final AtomicInteger nextDestination = new AtomicInteger();
+
+	protected volatile Thread healthCheckThread = null;
+	protected volatile boolean shutdown = false;
+
+	public NetSyslogDestinations(AbstractNetSyslogConfigIF netSyslogConfig) throws SyslogRuntimeException {
+		this.netSyslogConfig = netSyslogConfig;
+
+		List<String> configured = netSyslogConfig.getDestinations();
+
+		if (configured == null || configured.isEmpty()) {
+			throw new SyslogRuntimeException("No destinations configured");
+		}
+
+		this.destinations = new NetSyslogDestination[configured.size()];
+
+		for(int i=0; i<this.destinations.length; i++) {
+			this.destinations[i] = NetSyslogDestination.parse(configured.get(i),netSyslogConfig.getPort());
+		}
+	}
+
+	public NetSyslogDestination[] getDestinations() {
+		return this.destinations;
+	}
+
+	/**
+	 * @return Returns the destination for a new connection according to
+	 *     destinationSelection, or null if all destinations are down
+	 */
+	public NetSyslogDestination select() {
+		long now = System.currentTimeMillis();
+
+		byte selection = this.netSyslogConfig.getDestinationSelection();
+
+		if (selection == AbstractNetSyslogConfigIF.DESTINATION_SELECTION_ROUND_ROBIN) {
+			int start = this.nextDestination.getAndIncrement();
+
+			for(int i=0; i<this.destinations.length; i++) {
+				NetSyslogDestination destination = this.destinations[Math.floorMod(start + i,this.destinations.length)];
+
+				if (destination.isAvailable(now)) {
+					return destination;
+				}
+			}
+
+			return null;
+		}
+
+		NetSyslogDestination selected = null;
+
+		for (NetSyslogDestination destination : this.destinations) {
+			if (!destination.isAvailable(now)) {
+				continue;
+			}
+
+			if (selection != AbstractNetSyslogConfigIF.DESTINATION_SELECTION_LEAST_OUTSTANDING_BYTES) {
+				return destination;
+			}
+
+			if (selected == null || isLessLoaded(destination,selected)) {
+				selected = destination;
+			}
+		}
+
+		return selected;
+	}
+
+	protected static boolean isLessLoaded(NetSyslogDestination destination, NetSyslogDestination other) {
+		if (destination.getOutstandingBytes() != other.getOutstandingBytes()) {
+			return destination.getOutstandingBytes() < other.getOutstandingBytes();
+		}
+
+		return destination.getConnections() < other.getConnections();
+	}
+
+	/**
+	 * @return Returns false if a connection to current should be closed and
+	 *     opened again: current is down, or (with failover) an earlier
+	 *     destination is up again
+	 */
+	public boolean isPreferred(NetSyslogDestination current) {
+		if (!current.isUp()) {
+			return false;
+		}
+
+		if (this.netSyslogConfig.getDestinationSelection() != AbstractNetSyslogConfigIF.DESTINATION_SELECTION_FAILOVER) {
+			return true;
+		}
+
+		for (NetSyslogDestination destination : this.destinations) {
+			if (destination == current) {
+				return true;
+			}
+
+			if (destination.isUp()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public void failed(NetSyslogDestination destination) {
+		destination.markDown(this.netSyslogConfig.getReconnectBackoffMin(),this.netSyslogConfig.getReconnectBackoffMax());
+	}
+
+	public void succeeded(NetSyslogDestination destination) {
+		if (!destination.isUp()) {
+			destination.markUp();
+		}
+	}
+
+	public void startHealthCheck(SyslogExecutorIF executor, String name) {
+		if (this.netSyslogConfig.getHealthCheckInterval() <= 0 || this.healthCheckThread != null) {
+			return;
+		}
+
+		this.healthCheckThread = executor.createThread(this,name,true,-1);
+		this.healthCheckThread.start();
+	}
+
+	public void run() {
+		while(!this.shutdown) {
+			long interval = this.netSyslogConfig.getHealthCheckInterval();
+
+			synchronized(this) {
+				try {
+					if (!this.shutdown) {
+						wait(Math.max(1,interval));
+					}
+
+				} catch (InterruptedException ie) {
+					return;
+				}
+			}
+
+			long now = System.currentTimeMillis();
+
+			for(int i=0; i<this.destinations.length && !this.shutdown; i++) {
+				NetSyslogDestination destination = this.destinations[i];
+
+				if (!destination.isUp() && destination.isAvailable(now)) {
+					if (probe(destination,(int) Math.min(Integer.MAX_VALUE,Math.max(1,interval)))) {
+						destination.markUp();
+
+					} else {
+						failed(destination);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Returns true if a TCP connection to destination could be opened within timeout milliseconds
+	 */
+	public static boolean probe(NetSyslogDestination destination, int timeout) {
+		try {
+			return SyslogUtility.isReachable(destination.getHostAddress(false),destination.getPort(),timeout);
+
+		} catch (SyslogRuntimeException sre) {
+			return false;
+		}
+	}
+
+	public void shutdown() {
+		this.shutdown = true;
+
+		synchronized(this) {
+			notifyAll();
+		}
+
+		this.healthCheckThread = null;
+	}
+}
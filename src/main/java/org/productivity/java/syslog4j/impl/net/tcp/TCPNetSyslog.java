@@ -1,8 +1,14 @@
 package org.productivity.java.syslog4j.impl.net.tcp;
 
 import java.io.Serial;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
 import org.productivity.java.syslog4j.SyslogRuntimeException;
 import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
 import org.productivity.java.syslog4j.impl.net.AbstractNetSyslog;
 
 /**
@@ -70,6 +76,67 @@ public class TCPNetSyslog extends AbstractNetSyslog {
 		}
 	}
 
+	protected void write(int level, byte[] message, int offset, int length) throws SyslogRuntimeException {
+		AbstractSyslogWriter syslogWriter = getWriter();
+		
+		try {
+			if (syslogWriter.hasThread()) {
+				syslogWriter.queue(level,Arrays.copyOfRange(message,offset,offset + length));
+				
+			} else {
+				synchronized(syslogWriter) {
+					syslogWriter.write(message,offset,length);
+				}
+			}
+			
+		} finally {
+			returnWriter(syslogWriter);
+		}
+	}
+
+	protected boolean queue(int level, String pattern, Object[] args) {
+		if (!this.tcpNetSyslogConfig.isThreaded()) {
+			return false;
+		}
+		
+		AbstractSyslogWriter syslogWriter = getWriter();
+		
+		try {
+			if (syslogWriter.hasThread()) {
+				syslogWriter.queue(new QueuedSyslogMessage(level,pattern,args));
+				return true;
+			}
+			
+			return false;
+			
+		} finally {
+			returnWriter(syslogWriter);
+		}
+	}
+
+	protected boolean queue(int level, List<byte[]> packets, CompletableFuture<SyslogDeliveryResult> delivery) {
+		if (!this.tcpNetSyslogConfig.isThreaded()) {
+			return false;
+		}
+		
+		AbstractSyslogWriter syslogWriter = getWriter();
+		
+		try {
+			if (syslogWriter.hasThread()) {
+				for(int i=0; i<packets.size(); i++) {
+					syslogWriter.queue(new QueuedSyslogMessage(level,packets.get(i),delivery,i == packets.size() - 1));
+				}
+				
+				return true;
+			}
+			
+			return false;
+			
+		} finally {
+			returnWriter(syslogWriter);
+		}
+	}
+
 	public void flush() throws SyslogRuntimeException {
 		AbstractSyslogWriter syslogWriter = getWriter(false);
 		
@@ -84,6 +151,8 @@ public class TCPNetSyslog extends AbstractNetSyslog {
 		if (syslogWriter != null) {
 			syslogWriter.shutdown();
 		}
+		
+		shutdownDestinations();
 	}
 
 	public void returnWriter(AbstractSyslogWriter syslogWriter) {
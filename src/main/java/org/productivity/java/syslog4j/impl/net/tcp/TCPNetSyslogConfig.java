@@ -48,6 +48,17 @@ public class TCPNetSyslogConfig extends AbstractNetSyslogConfig implements TCPNe
 
     protected int freshConnectionInterval = TCP_FRESH_CONNECTION_INTERVAL_DEFAULT;
 
+    protected int maxBatchBytes = TCP_MAX_BATCH_BYTES_DEFAULT;
+    protected long maxLingerTime = TCP_MAX_LINGER_TIME_DEFAULT;
+
+    protected byte framing = TCP_FRAMING_DEFAULT;
+
+    protected boolean compression = TCP_COMPRESSION_DEFAULT;
+    protected int compressionLevel = TCP_COMPRESSION_LEVEL_DEFAULT;
+    protected byte compressionFlush = TCP_COMPRESSION_FLUSH_DEFAULT;
+
+    protected int circuitBreakerThreshold = TCP_CIRCUIT_BREAKER_THRESHOLD_DEFAULT;
+
     public TCPNetSyslogConfig() {
         initialize();
     }
@@ -153,6 +164,62 @@ public class TCPNetSyslogConfig extends AbstractNetSyslogConfig implements TCPNe
         this.freshConnectionInterval = freshConnectionInterval;
     }
 
+    public int getMaxBatchBytes() {
+        return this.maxBatchBytes;
+    }
+
+    public void setMaxBatchBytes(int maxBatchBytes) {
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    public long getMaxLingerTime() {
+        return this.maxLingerTime;
+    }
+
+    public void setMaxLingerTime(long maxLingerTime) {
+        this.maxLingerTime = maxLingerTime;
+    }
+
+    public byte getFraming() {
+        return this.framing;
+    }
+
+    public void setFraming(byte framing) {
+        this.framing = framing;
+    }
+
+    public boolean isCompression() {
+        return this.compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public int getCompressionLevel() {
+        return this.compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public byte getCompressionFlush() {
+        return this.compressionFlush;
+    }
+
+    public void setCompressionFlush(byte compressionFlush) {
+        this.compressionFlush = compressionFlush;
+    }
+
+    public int getCircuitBreakerThreshold() {
+        return this.circuitBreakerThreshold;
+    }
+
+    public void setCircuitBreakerThreshold(int circuitBreakerThreshold) {
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+    }
+
     public Class<? extends AbstractSyslogWriter> getSyslogWriterClass() {
         return TCPNetSyslogWriter.class;
     }
@@ -14,6 +14,28 @@ import org.productivity.java.syslog4j.impl.net.AbstractNetSyslogConfigIF;
 * @version $Id: TCPNetSyslogConfigIF.java,v 1.6 2010/10/29 03:14:12 cvs Exp $
 */
 public interface TCPNetSyslogConfigIF extends AbstractNetSyslogConfigIF {
+	/**
+	 * Each message is followed by the delimiterSequence (RFC 6587 non-transparent framing).
+	 */
+	byte FRAMING_NON_TRANSPARENT	= 0;
+	
+	/**
+	 * Each message is preceded by its length in bytes and a space (RFC 6587 octet counting);
+	 * the delimiterSequence is not used.
+	 */
+	byte FRAMING_OCTET_COUNTING		= 1;
+	
+	/**
+	 * The compressed stream is sync-flushed after each write (message or batch).
+	 */
+	byte COMPRESSION_FLUSH_SYNC		= 0;
+	
+	/**
+	 * The compressed stream is full-flushed after each write; the dictionary is
+	 * reset, which costs ratio but lets a reader start at any write.
+	 */
+	byte COMPRESSION_FLUSH_FULL		= 1;
+	
 	byte[] getDelimiterSequence();
 	void setDelimiterSequence(byte[] delimiterSequence);
 
@@ -32,9 +54,53 @@ public interface TCPNetSyslogConfigIF extends AbstractNetSyslogConfigIF {
 	boolean isReuseAddress();
 	void setReuseAddress(boolean reuseAddress);
 	
+	/**
+	 * When enabled, the socket send buffer is sized to maxBatchBytes once,
+	 * when the socket is created.
+	 */
 	boolean isSetBufferSize();
 	void setSetBufferSize(boolean setBufferSize);
 
 	int getFreshConnectionInterval();
 	void setFreshConnectionInterval(int interval);
+	
+	/**
+	 * @return Returns the most bytes (messages and delimiters) the writer thread combines into one socket write
+	 */
+	int getMaxBatchBytes();
+	void setMaxBatchBytes(int maxBatchBytes);
+	
+	/**
+	 * @return Returns the longest time (in milliseconds) the writer thread holds back a
+	 *     partially filled batch waiting for further messages; 0 writes each drained batch at once
+	 */
+	long getMaxLingerTime();
+	void setMaxLingerTime(long maxLingerTime);
+	
+	byte getFraming();
+	void setFraming(byte framing);
+	
+	/**
+	 * @return Returns true if the connection is a deflate (zlib) stream; the
+	 *     server must have compression enabled as well
+	 */
+	boolean isCompression();
+	void setCompression(boolean compression);
+	
+	/**
+	 * @return Returns the Deflater level (0-9)
+	 */
+	int getCompressionLevel();
+	void setCompressionLevel(int compressionLevel);
+	
+	byte getCompressionFlush();
+	void setCompressionFlush(byte compressionFlush);
+	
+	/**
+	 * @return Returns the number of consecutive failed writes which open the
+	 *     circuit breaker (see NetSyslogCircuitBreaker); 0 disables it, and
+	 *     each write is retried writeRetries times instead
+	 */
+	int getCircuitBreakerThreshold();
+	void setCircuitBreakerThreshold(int circuitBreakerThreshold);
 }
@@ -5,13 +5,23 @@ import java.io.OutputStream;
 import java.io.Serial;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Deflater;
 
 import javax.net.SocketFactory;
 
 import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
 import org.productivity.java.syslog4j.SyslogRuntimeException;
 import org.productivity.java.syslog4j.impl.AbstractSyslog;
 import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+import org.productivity.java.syslog4j.impl.net.NetSyslogCircuitBreaker;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestination;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestinations;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
 /**
@@ -19,7 +29,23 @@ import org.productivity.java.syslog4j.util.SyslogUtility;
 * TCP-based messages within a separate Thread.
 * 
 * <p>When used in "threaded" mode (see TCPNetSyslogConfig for the option),
-* a queuing mechanism is used (via LinkedList).</p>
+* the queued messages are framed (message and delimiter) into one buffer
+* and written with a single socket write per batch of up to maxBatchBytes;
+* see also maxLingerTime.</p>
+* 
+* <p>With compression enabled, the connection is one deflate (zlib) stream
+* which is flushed (see compressionFlush) after each message or batch, so
+* that the server can inflate every write without waiting for the next.</p>
+* 
+* <p>With several destinations configured, each connection is opened to the
+* destination chosen by NetSyslogDestinations; a failed connection or write
+* marks the destination down and the data is retried on the next one.</p>
+* 
+* <p>With a circuitBreakerThreshold, failed writes open a circuit breaker
+* (see NetSyslogCircuitBreaker) instead of being retried inline: while it is
+* open the writer Thread leaves the messages queued, non-threaded writes are
+* backLogged at once, and a background Thread reconnects.  Once the queue is
+* full, new messages are not waited for (see AbstractSyslogWriter.isPaused()).</p>
 * 
 * <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
 * of the LGPL license is available in the META-INF folder in all
@@ -30,6 +56,10 @@ import org.productivity.java.syslog4j.util.SyslogUtility;
 */
 public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 	@Serial private static final long serialVersionUID = -6388813866108482855L;
+	
+	protected static final long RECONNECT_PROBE_TIMEOUT = 5000;
+	
+	protected static final long DEAD_PEER_CHECK_INTERVAL = 1000;
 
 	protected TCPNetSyslog tcpNetSyslog = null;
 	
@@ -39,6 +69,24 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 	
 	protected long lastSocketCreationTimeMs = 0;
 	
+	protected transient long lastWriteNanos = 0;
+	
+	protected transient NetSyslogDestination socketDestination = null;
+	
+	protected transient NetSyslogCircuitBreaker circuitBreaker = null;
+	protected transient volatile Thread reconnectThread = null;
+	
+	protected transient byte[] frameBuffer = null;
+	
+	protected transient byte[] batchBuffer = null;
+	protected transient int batchLength = 0;
+	protected transient long batchStartNanos = 0;
+	protected transient List<QueuedSyslogMessage> batchMessages = new ArrayList<>();
+	
+	protected transient Deflater deflater = null;
+	protected transient Socket deflaterSocket = null;
+	protected transient byte[] compressBuffer = null;
+	
 	public TCPNetSyslogWriter() {
 		//
 	}
@@ -49,6 +97,10 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 		this.tcpNetSyslog = (TCPNetSyslog) abstractSyslog;
 		
 		this.tcpNetSyslogConfig = (TCPNetSyslogConfigIF) this.tcpNetSyslog.getConfig();
+		
+		if (this.tcpNetSyslogConfig.getCircuitBreakerThreshold() > 0) {
+			this.circuitBreaker = new NetSyslogCircuitBreaker(this.tcpNetSyslogConfig.getCircuitBreakerThreshold());
+		}
 	}
 	
 	protected SocketFactory obtainSocketFactory() {
@@ -72,6 +124,10 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 			newSocket.setReuseAddress(true);
 		}
 		
+		if (this.tcpNetSyslogConfig.isSetBufferSize() && this.tcpNetSyslogConfig.getMaxBatchBytes() > newSocket.getSendBufferSize()) {
+			newSocket.setSendBufferSize(this.tcpNetSyslogConfig.getMaxBatchBytes());
+		}
+		
 		return newSocket;
 	}
 	
@@ -79,7 +135,12 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 		if (this.socket != null && this.socket.isConnected()) {
 			int freshConnectionInterval = this.tcpNetSyslogConfig.getFreshConnectionInterval();
 			
-			if (freshConnectionInterval > 0) {
+			NetSyslogDestinations destinations = this.socketDestination != null ? this.tcpNetSyslog.getDestinations() : null;
+			
+			if (destinations != null && !destinations.isPreferred(this.socketDestination)) {
+				closeSocket(this.socket);
+				
+			} else if (freshConnectionInterval > 0) {
 				long currentTimeMs = System.currentTimeMillis();
 				
 				if ((currentTimeMs - lastSocketCreationTimeMs) >= freshConnectionInterval) {
@@ -94,13 +155,22 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 		if (this.socket == null) {
 			lastSocketCreationTimeMs = 0;
 			
+			NetSyslogDestinations destinations = this.tcpNetSyslog.getDestinations();
+			
+			if (destinations != null) {
+				return connect(destinations);
+			}
+			
 			try {
 				InetAddress hostAddress = this.tcpNetSyslog.getHostAddress();
 				
 				this.socket = createSocket(hostAddress,this.syslog.getConfig().getPort(),this.tcpNetSyslogConfig.isPersistentConnection());
 				lastSocketCreationTimeMs = System.currentTimeMillis();				
+				this.lastWriteNanos = System.nanoTime();
 				
 			} catch (IOException ioe) {
+				this.tcpNetSyslog.invalidateHostAddress();
+				
 				throw new SyslogRuntimeException(ioe);
 			}
 		}
@@ -108,12 +178,69 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 		return this.socket;
 	}
 	
+	/**
+	 * Opens the persistent connection ahead of the first write (e.g. for a
+	 * pooled writer); a failure is left to the first write to handle.
+	 */
+	public synchronized void open() {
+		if (!this.tcpNetSyslogConfig.isPersistentConnection()) {
+			return;
+		}
+		
+		try {
+			getSocket();
+			
+		} catch (SyslogRuntimeException sre) {
+			//
+		}
+	}
+	
+	/**
+	 * Connects to the selected destination, moving on to the next one while connecting fails.
+	 */
+	protected Socket connect(NetSyslogDestinations destinations) throws SyslogRuntimeException {
+		Exception lastException = null;
+		
+		NetSyslogDestination destination = destinations.select();
+		
+		while (destination != null) {
+			try {
+				this.socket = createSocket(destination.getHostAddress(this.tcpNetSyslogConfig.isCacheHostAddress()),destination.getPort(),this.tcpNetSyslogConfig.isPersistentConnection());
+				lastSocketCreationTimeMs = System.currentTimeMillis();
+				this.lastWriteNanos = System.nanoTime();
+				
+				destinations.succeeded(destination);
+				destination.connectionOpened();
+				this.socketDestination = destination;
+				
+				return this.socket;
+				
+			} catch (IOException | SyslogRuntimeException e) {
+				lastException = e;
+				
+				destinations.failed(destination);
+			}
+			
+			destination = destinations.select();
+		}
+		
+		if (lastException != null) {
+			throw new SyslogRuntimeException(lastException);
+		}
+		
+		throw new SyslogRuntimeException("No destination available");
+	}
+	
 	protected void closeSocket(Socket socketToClose) {
 		if (socketToClose == null) {
 			return;
 		}
 		
 		try {
+			if (socketToClose == this.deflaterSocket) {
+				finishCompression();
+			}
+			
 			socketToClose.close();
 			
 		} catch (IOException ioe) {
@@ -124,15 +251,235 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 		} finally {
 			if (socketToClose == this.socket) {
 				this.socket = null;
+				
+				if (this.socketDestination != null) {
+					this.socketDestination.connectionClosed();
+					this.socketDestination = null;
+				}
 			}
 		}
 	}
 	
 	public void write(byte[] message) throws SyslogRuntimeException {
+		write(message,0,message.length);
+	}
+	
+	protected boolean isOctetCounting() {
+		return this.tcpNetSyslogConfig.getFraming() == TCPNetSyslogConfigIF.FRAMING_OCTET_COUNTING;
+	}
+	
+	/**
+	 * @return Returns the length of a message of length bytes once framed
+	 *     (see TCPNetSyslogConfigIF.getFraming())
+	 */
+	protected int getFrameLength(int length) {
+		if (isOctetCounting()) {
+			return SyslogUtility.getOctetCountingHeaderLength(length) + length;
+		}
+		
+		byte[] delimiterSequence = this.tcpNetSyslogConfig.getDelimiterSequence();
+		
+		return length + (delimiterSequence != null ? delimiterSequence.length : 0);
+	}
+	
+	/**
+	 * Copies the framed message into target.
+	 * 
+	 * @return Returns the length of the frame
+	 */
+	protected int putFrame(byte[] message, int offset, int length, byte[] target, int targetOffset) {
+		int position = targetOffset;
+		
+		if (isOctetCounting()) {
+			position += SyslogUtility.putOctetCountingHeader(length,target,position);
+		}
+		
+		System.arraycopy(message,offset,target,position,length);
+		position += length;
+		
+		byte[] delimiterSequence = this.tcpNetSyslogConfig.getDelimiterSequence();
+		
+		if (!isOctetCounting() && delimiterSequence != null) {
+			System.arraycopy(delimiterSequence,0,target,position,delimiterSequence.length);
+			position += delimiterSequence.length;
+		}
+		
+		return position - targetOffset;
+	}
+	
+	/**
+	 * @return Returns the number of bytes at the end of a frame which writeData(..) writes
+	 *     separately when a dead peer check is due
+	 */
+	protected int getTrailerLength() {
+		if (isOctetCounting()) {
+			return 1;
+		}
+		
+		byte[] delimiterSequence = this.tcpNetSyslogConfig.getDelimiterSequence();
+		
+		return delimiterSequence != null ? delimiterSequence.length : 0;
+	}
+	
+	protected boolean isCompression() {
+		return this.tcpNetSyslogConfig.isCompression();
+	}
+	
+	/**
+	 * @return Returns the Deflater of currentSocket; a new connection starts a new deflate stream
+	 */
+	protected Deflater getDeflater(Socket currentSocket) {
+		if (this.deflater != null && this.deflaterSocket != currentSocket) {
+			endCompression();
+		}
+		
+		if (this.deflater == null) {
+			this.deflater = new Deflater(this.tcpNetSyslogConfig.getCompressionLevel());
+			this.deflaterSocket = currentSocket;
+		}
+		
+		return this.deflater;
+	}
+	
+	/**
+	 * Compresses and flushes data into compressBuffer.
+	 * 
+	 * @return Returns the compressed length
+	 */
+	protected int compress(Deflater currentDeflater, byte[] data, int offset, int length) {
+		int flush = this.tcpNetSyslogConfig.getCompressionFlush() == TCPNetSyslogConfigIF.COMPRESSION_FLUSH_FULL ? Deflater.FULL_FLUSH : Deflater.SYNC_FLUSH;
+		
+		if (this.compressBuffer == null) {
+			this.compressBuffer = new byte[SyslogConstants.SYSLOG_BUFFER_SIZE];
+		}
+		
+		currentDeflater.setInput(data,offset,length);
+		
+		int compressedLength = 0;
+		
+		while(true) {
+			compressedLength += currentDeflater.deflate(this.compressBuffer,compressedLength,this.compressBuffer.length - compressedLength,flush);
+			
+			if (compressedLength < this.compressBuffer.length) {
+				return compressedLength;
+			}
+			
+			byte[] newBuffer = new byte[this.compressBuffer.length << 1];
+			System.arraycopy(this.compressBuffer,0,newBuffer,0,compressedLength);
+			this.compressBuffer = newBuffer;
+		}
+	}
+	
+	/**
+	 * Ends the deflate stream of deflaterSocket, so that the server sees a
+	 * complete stream; write errors are ignored as the socket is closed anyway.
+	 */
+	protected void finishCompression() {
+		if (this.deflater == null) {
+			return;
+		}
+		
+		try {
+			this.deflater.finish();
+			
+			OutputStream os = this.deflaterSocket.getOutputStream();
+			
+			byte[] tail = new byte[64];
+			
+			while (!this.deflater.finished()) {
+				int length = this.deflater.deflate(tail);
+				
+				os.write(tail,0,length);
+			}
+			
+			os.flush();
+			
+		} catch (IOException ioe) {
+			//
+			
+		} finally {
+			endCompression();
+		}
+	}
+	
+	protected void endCompression() {
+		if (this.deflater != null) {
+			this.deflater.end();
+		}
+		
+		this.deflater = null;
+		this.deflaterSocket = null;
+	}
+	
+	/**
+	 * Writes one message; the message is framed into one buffer (see
+	 * writeData(..)).
+	 */
+	public void write(byte[] message, int offset, int length) throws SyslogRuntimeException {
+		int frameLength = getFrameLength(length);
+		
+		if (frameLength == length) {
+			writeData(message,offset,length);
+			return;
+		}
+		
+		if (this.frameBuffer == null || this.frameBuffer.length < frameLength) {
+			this.frameBuffer = new byte[Math.max(frameLength,SyslogConstants.SYSLOG_BUFFER_SIZE)];
+		}
+		
+		putFrame(message,offset,length,this.frameBuffer,0);
+		
+		writeData(this.frameBuffer,0,frameLength);
+	}
+	
+	/**
+	 * Writes already framed data with a single socket write, reconnecting and
+	 * retrying up to writeRetries times.
+	 * 
+	 * <p>A write to a persistent connection already closed by the peer is
+	 * accepted locally, and only the next write fails.  When the connection
+	 * has been idle for DEAD_PEER_CHECK_INTERVAL, the trailing delimiter (with
+	 * octet counting: the last byte) is therefore written separately, so that
+	 * the whole frame or batch is retried on a new connection.  With
+	 * compression, the compressed write is split the same way.</p>
+	 * 
+	 * <p>With a circuit breaker, a write fails at once while the circuit is
+	 * open, and is otherwise retried only once (for a connection closed by
+	 * the peer in the meantime).</p>
+	 */
+	protected void writeData(byte[] data, int offset, int length) throws SyslogRuntimeException {
+		NetSyslogCircuitBreaker breaker = this.circuitBreaker;
+		
+		if (breaker == null) {
+			writeData(data,offset,length,this.tcpNetSyslogConfig.getWriteRetries() + 1);
+			return;
+		}
+		
+		if (!breaker.allowRequest()) {
+			startReconnect();
+			
+			throw new SyslogRuntimeException("Circuit breaker is open");
+		}
+		
+		try {
+			writeData(data,offset,length,2);
+			
+		} catch (SyslogRuntimeException sre) {
+			if (breaker.recordFailure()) {
+				startReconnect();
+			}
+			
+			throw sre;
+		}
+		
+		breaker.recordSuccess();
+	}
+	
+	protected void writeData(byte[] data, int offset, int length, int maxAttempts) throws SyslogRuntimeException {
 		Socket currentSocket = null;
 		
 		int attempts = 0;
-		while(attempts != -1 && attempts < (this.tcpNetSyslogConfig.getWriteRetries() + 1)) {
+		while(attempts != -1 && attempts < maxAttempts) {
 	        try {
 	    		currentSocket = getSocket();
 	    		
@@ -142,17 +489,44 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 	            
 	        	OutputStream os = currentSocket.getOutputStream();
 	        	
-	        	if (this.tcpNetSyslogConfig.isSetBufferSize()) {
-	        		currentSocket.setSendBufferSize(message.length);
+	        	byte[] output = data;
+	        	int outputOffset = offset;
+	        	int outputLength = length;
+	        	
+	        	boolean deadPeerCheck = this.tcpNetSyslogConfig.isPersistentConnection() && isDeadPeerCheckDue();
+	        	
+	        	int trailerLength = deadPeerCheck ? getTrailerLength() : 0;
+	        	
+	        	if (isCompression()) {
+	        		outputLength = compress(getDeflater(currentSocket),data,offset,length);
+	        		output = this.compressBuffer;
+	        		outputOffset = 0;
+	        		trailerLength = deadPeerCheck ? 1 : 0;
 	        	}
 	        	
-	        	os.write(message);
+	        	NetSyslogDestination destination = this.socketDestination;
+	        	
+	        	if (destination != null) {
+	        		destination.addOutstandingBytes(outputLength);
+	        	}
 	        	
-	        	byte[] delimiterSequence = this.tcpNetSyslogConfig.getDelimiterSequence();
-	        	if (delimiterSequence != null && delimiterSequence.length > 0) {
-	        		os.write(delimiterSequence);
+	        	try {
+		        	if (trailerLength > 0 && outputLength > trailerLength) {
+		        		os.write(output,outputOffset,outputLength - trailerLength);
+		        		os.write(output,outputOffset + outputLength - trailerLength,trailerLength);
+		        		
+		        	} else {
+		        		os.write(output,outputOffset,outputLength);
+		        	}
+		        	
+	        	} finally {
+	        		if (destination != null) {
+	        			destination.addOutstandingBytes(-outputLength);
+	        		}
 	        	}
 	        	
+	        	this.lastWriteNanos = System.nanoTime();
+	        	
 				this.syslog.setBackLogStatus(false);
 
 	        	attempts = -1;
@@ -163,14 +537,238 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 	            
 	        } catch (IOException ioe) {
 	        	attempts++;
+	        	
+	        	NetSyslogDestinations destinations = this.tcpNetSyslog.getDestinations();
+
+	        	if (destinations != null && this.socketDestination != null && currentSocket == this.socket) {
+	        		destinations.failed(this.socketDestination);
+	        		
+	        	} else {
+	        		this.tcpNetSyslog.invalidateHostAddress();
+	        	}
+	        	
 	        	closeSocket(currentSocket);
 	        	
-	        	if (attempts >= (this.tcpNetSyslogConfig.getWriteRetries() + 1)) {
+	        	if (attempts >= maxAttempts) {
 	        		throw new SyslogRuntimeException(ioe);
 	        	}
 	        }
 		}
 	}
+	
+	/**
+	 * @return Returns true if the connection has been idle for DEAD_PEER_CHECK_INTERVAL,
+	 *     so that the peer may have closed it in the meantime
+	 */
+	protected boolean isDeadPeerCheckDue() {
+		return System.nanoTime() - this.lastWriteNanos >= TimeUnit.MILLISECONDS.toNanos(DEAD_PEER_CHECK_INTERVAL);
+	}
+	
+	/**
+	 * The writer thread leaves messages queued while the circuit breaker is open.
+	 */
+	protected boolean isPaused() {
+		NetSyslogCircuitBreaker breaker = this.circuitBreaker;
+		
+		if (breaker == null || breaker.allowRequest()) {
+			return false;
+		}
+		
+		startReconnect();
+		
+		return true;
+	}
+	
+	public NetSyslogCircuitBreaker getCircuitBreaker() {
+		return this.circuitBreaker;
+	}
+	
+	/**
+	 * Starts the background reconnect unless it is already running.
+	 */
+	protected void startReconnect() {
+		if (this.circuitBreaker.startReconnect()) {
+			try {
+				this.reconnectThread = this.syslogConfig.getExecutor().createThread(this::reconnect,"SyslogReconnect: " + this.syslog.getProtocol(),true,-1);
+				this.reconnectThread.start();
+				
+			} catch (RuntimeException re) {
+				this.circuitBreaker.reconnectCompleted();
+				
+				throw re;
+			}
+		}
+	}
+	
+	/**
+	 * Probes the destination after each backoff until it accepts a
+	 * connection, then half-opens the circuit and wakes up the writer thread.
+	 */
+	protected void reconnect() {
+		try {
+			while (!this.shutdown && !this.circuitBreaker.allowRequest()) {
+				long backoff = this.circuitBreaker.nextReconnectBackoff(this.tcpNetSyslogConfig.getReconnectBackoffMin(),this.tcpNetSyslogConfig.getReconnectBackoffMax());
+				
+				LockSupport.parkNanos(this,TimeUnit.MILLISECONDS.toNanos(backoff));
+				
+				if (!this.shutdown && probe()) {
+					this.circuitBreaker.halfOpen();
+					
+					wakeUp();
+				}
+			}
+			
+		} finally {
+			this.reconnectThread = null;
+			this.circuitBreaker.reconnectCompleted();
+		}
+	}
+	
+	/**
+	 * @return Returns true if the destination (or, with several, the selected one) accepts a TCP connection
+	 */
+	protected boolean probe() {
+		int timeout = (int) Math.max(1,Math.min(RECONNECT_PROBE_TIMEOUT,this.tcpNetSyslogConfig.getReconnectBackoffMax()));
+		
+		NetSyslogDestinations destinations = this.tcpNetSyslog.getDestinations();
+		
+		if (destinations != null) {
+			NetSyslogDestination destination = destinations.select();
+			
+			if (destination == null) {
+				return false;
+			}
+			
+			if (NetSyslogDestinations.probe(destination,timeout)) {
+				destinations.succeeded(destination);
+				return true;
+			}
+			
+			destinations.failed(destination);
+			return false;
+		}
+		
+		try {
+			if (SyslogUtility.isReachable(this.tcpNetSyslog.getHostAddress(),this.syslogConfig.getPort(),timeout)) {
+				return true;
+			}
+			
+		} catch (SyslogRuntimeException sre) {
+			//
+		}
+		
+		this.tcpNetSyslog.invalidateHostAddress();
+		
+		return false;
+	}
+	
+	protected void writeQueued(List<QueuedSyslogMessage> messages) {
+		for (QueuedSyslogMessage message : messages) {
+			appendQueued(message);
+		}
+		
+		if (this.tcpNetSyslogConfig.getMaxLingerTime() <= 0 || System.nanoTime() >= getFlushDeadline()) {
+			flushQueued();
+		}
+	}
+	
+	protected void appendQueued(QueuedSyslogMessage message) {
+		if (message.isDeferred()) {
+			List<byte[]> packets;
+			
+			try {
+				packets = createPackets(message);
+				
+			} catch (RuntimeException re) {
+				this.syslog.backLog(message.getLevel(),getMessageText(message),re);
+				message.complete(SyslogDeliveryResult.BACKLOGGED);
+				return;
+			}
+			
+			this.batchMessages.add(message);
+			
+			for (byte[] packet : packets) {
+				appendFrame(packet);
+			}
+			
+		} else {
+			this.batchMessages.add(message);
+			
+			appendFrame(message.getData());
+		}
+	}
+	
+	protected void appendFrame(byte[] message) {
+		int frameLength = getFrameLength(message.length);
+		
+		if (this.batchLength > 0 && this.batchLength + frameLength > this.tcpNetSyslogConfig.getMaxBatchBytes()) {
+			QueuedSyslogMessage current = this.batchMessages.remove(this.batchMessages.size() - 1);
+			
+			flushQueued();
+			
+			this.batchMessages.add(current);
+		}
+		
+		int required = this.batchLength + frameLength;
+		
+		if (this.batchBuffer == null || this.batchBuffer.length < required) {
+			int capacity = this.batchBuffer == null ? SyslogConstants.SYSLOG_BUFFER_SIZE : this.batchBuffer.length;
+			
+			while (capacity < required) {
+				capacity <<= 1;
+			}
+			
+			byte[] newBuffer = new byte[capacity];
+			
+			if (this.batchLength > 0) {
+				System.arraycopy(this.batchBuffer,0,newBuffer,0,this.batchLength);
+			}
+			
+			this.batchBuffer = newBuffer;
+		}
+		
+		if (this.batchLength == 0) {
+			this.batchStartNanos = System.nanoTime();
+		}
+		
+		this.batchLength += putFrame(message,0,message.length,this.batchBuffer,this.batchLength);
+	}
+	
+	protected long getFlushDeadline() {
+		if (this.batchLength == 0) {
+			return 0;
+		}
+		
+		return this.batchStartNanos + TimeUnit.MILLISECONDS.toNanos(this.tcpNetSyslogConfig.getMaxLingerTime());
+	}
+	
+	protected void flushQueued() {
+		if (this.batchLength == 0) {
+			return;
+		}
+		
+		try {
+			writeData(this.batchBuffer,0,this.batchLength);
+			
+			for (QueuedSyslogMessage message : this.batchMessages) {
+				message.complete(SyslogDeliveryResult.WRITTEN);
+			}
+			
+		} catch (SyslogRuntimeException sre) {
+			for (QueuedSyslogMessage message : this.batchMessages) {
+				this.syslog.backLog(message.getLevel(),getMessageText(message),sre);
+				message.complete(SyslogDeliveryResult.BACKLOGGED);
+			}
+			
+		} finally {
+			this.batchLength = 0;
+			this.batchMessages.clear();
+			
+			if (this.batchBuffer.length > (this.tcpNetSyslogConfig.getMaxBatchBytes() << 1)) {
+				this.batchBuffer = null;
+			}
+		}
+	}
 
 	public synchronized void flush() throws SyslogRuntimeException {
 		if (this.socket == null) {
@@ -179,6 +777,7 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 		
 		if (this.syslogConfig.isThreaded()) {
 			this.shutdown();
+			this.shutdown = false;
 			this.syslog.createWriterThread(this);
 			
 		} else {
@@ -189,12 +788,20 @@ public class TCPNetSyslogWriter extends AbstractSyslogWriter {
 	public synchronized void shutdown() throws SyslogRuntimeException {
 		this.shutdown = true;
 		
+		Thread _reconnectThread = this.reconnectThread;
+		
+		if (_reconnectThread != null) {
+			LockSupport.unpark(_reconnectThread);
+		}
+		
 		if (this.syslogConfig.isThreaded()) {
+			wakeUp();
+			
 			long timeStart = System.currentTimeMillis();
 			boolean done = false;
 			
 			while(!done) {
-				if (this.socket == null || this.socket.isClosed()) {
+				if (!hasThread() && (this.socket == null || this.socket.isClosed())) {
 					done = true;
 					
 				} else {
@@ -0,0 +1,246 @@
+package org.productivity.java.syslog4j.impl.net.tcp.nio;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.executor.PlatformSyslogExecutor;
+
+/**
+* NioSyslogEventLoop is the single selector Thread shared by all
+* NioTCPNetSyslogWriter instances of the JVM.
+*
+* <p>All channel operations (connect, write, close) happen in this Thread;
+* other Threads hand work over with execute(..).  After every select the
+* loop lets each registered writer check its connect and write timeouts.</p>
+*
+* <p>The Thread is started by execute(..) and ends once no channel has been
+* registered and no work handed over for IDLE_TIMEOUT.  If select() fails,
+* the selector is replaced and the writers of all registered channels fail
+* (see NioTCPNetSyslogWriter.fail(..)); any other unexpected exception is
+* handed to the Thread's UncaughtExceptionHandler, and the loop goes on.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NioSyslogEventLoop implements Runnable {
+	protected static final long SELECT_TIMEOUT = 100;
+	protected static final long IDLE_TIMEOUT = 60000;
+
+	private static NioSyslogEventLoop instance = null;
+
+	protected volatile Selector selector;
+	protected final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+	protected volatile Thread thread = null;
+
+	public static synchronized NioSyslogEventLoop getInstance() throws SyslogRuntimeException {
+		if (instance == null) {
+			instance = new NioSyslogEventLoop();
+		}
+
+		return instance;
+	}
+
+	protected NioSyslogEventLoop() throws SyslogRuntimeException {
+		try {
+			this.selector = Selector.open();
+
+		} catch (IOException ioe) {
+			throw new SyslogRuntimeException(ioe);
+		}
+	}
+
+	/**
+	 * The selector Thread always is a platform Thread, as it blocks in select().
+	 */
+	protected synchronized void start() {
+		if (this.thread == null) {
+			this.thread = PlatformSyslogExecutor.INSTANCE.createThread(this,"SyslogEventLoop",true,-1);
+			this.thread.start();
+		}
+	}
+
+	/**
+	 * @return Returns true if the Thread may end, as no work was handed over in the meantime
+	 */
+	protected synchronized boolean stopIfIdle() {
+		if (!this.tasks.isEmpty()) {
+			return false;
+		}
+
+		this.thread = null;
+
+		return true;
+	}
+
+	public boolean isRunning() {
+		return this.thread != null;
+	}
+
+	public Selector getSelector() {
+		return this.selector;
+	}
+
+	public boolean inEventLoop() {
+		return Thread.currentThread() == this.thread;
+	}
+
+	/**
+	 * Runs task in the event loop Thread.
+	 */
+	public void execute(Runnable task) {
+		this.tasks.offer(task);
+
+		if (!inEventLoop()) {
+			start();
+
+			this.selector.wakeup();
+		}
+	}
+
+	public void run() {
+		long idleSinceNanos = System.nanoTime();
+
+		while(true) {
+			if (runTasks() > 0) {
+				idleSinceNanos = System.nanoTime();
+			}
+
+			Selector currentSelector = this.selector;
+
+			try {
+				currentSelector.select(SELECT_TIMEOUT);
+
+			} catch (IOException | ClosedSelectorException e) {
+				replaceSelector(currentSelector,e);
+				continue;
+			}
+
+			Iterator<SelectionKey> selectedKeys = currentSelector.selectedKeys().iterator();
+
+			while (selectedKeys.hasNext()) {
+				SelectionKey key = selectedKeys.next();
+				selectedKeys.remove();
+
+				try {
+					if (key.isValid()) {
+						((NioTCPNetSyslogWriter) key.attachment()).ready(key);
+					}
+
+				} catch (RuntimeException re) {
+					report(re);
+				}
+			}
+
+			long now = System.nanoTime();
+
+			for (SelectionKey key : new ArrayList<>(currentSelector.keys())) {
+				try {
+					if (key.isValid()) {
+						((NioTCPNetSyslogWriter) key.attachment()).checkTimeout(now);
+					}
+
+				} catch (RuntimeException re) {
+					report(re);
+				}
+			}
+
+			if (!currentSelector.keys().isEmpty()) {
+				idleSinceNanos = now;
+
+			} else if (now - idleSinceNanos > TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT) && stopIfIdle()) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Opens a new selector, then fails the writers of the channels registered
+	 * with failedSelector, so that they reconnect with the new one or backLog
+	 * their messages.
+	 */
+	protected void replaceSelector(Selector failedSelector, Exception exception) {
+		try {
+			this.selector = Selector.open();
+
+		} catch (IOException ioe) {
+			report(new SyslogRuntimeException(ioe));
+
+			LockSupport.parkNanos(this,TimeUnit.MILLISECONDS.toNanos(SELECT_TIMEOUT));
+			return;
+		}
+
+		List<SelectionKey> keys;
+
+		try {
+			keys = new ArrayList<>(failedSelector.keys());
+
+		} catch (ClosedSelectorException cse) {
+			keys = Collections.emptyList();
+		}
+
+		for (SelectionKey key : keys) {
+			try {
+				((NioTCPNetSyslogWriter) key.attachment()).fail(exception);
+
+			} catch (RuntimeException re) {
+				report(re);
+			}
+		}
+
+		try {
+			failedSelector.close();
+
+		} catch (IOException ioe) {
+			//
+		}
+	}
+
+	/**
+	 * @return Returns the number of tasks run
+	 */
+	protected int runTasks() {
+		int count = 0;
+
+		Runnable task = this.tasks.poll();
+
+		while (task != null) {
+			try {
+				task.run();
+
+			} catch (RuntimeException re) {
+				report(re);
+			}
+
+			count++;
+
+			task = this.tasks.poll();
+		}
+
+		return count;
+	}
+
+	/**
+	 * Hands an unexpected exception to the UncaughtExceptionHandler of the
+	 * event loop Thread without ending it.
+	 */
+	protected void report(RuntimeException exception) {
+		Thread currentThread = Thread.currentThread();
+
+		currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread,exception);
+	}
+}
@@ -0,0 +1,94 @@
+package org.productivity.java.syslog4j.impl.net.tcp.nio;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+import org.productivity.java.syslog4j.impl.net.AbstractNetSyslog;
+
+/**
+* NioTCPNetSyslog is an extension of AbstractNetSyslog that provides support
+* for TCP/IP-based syslog clients over a non-blocking SocketChannel.
+*
+* <p>All NioTCPNetSyslog instances of the JVM share the single Thread of
+* the NioSyslogEventLoop instead of using a writer Thread each; logging
+* never blocks on the network.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NioTCPNetSyslog extends AbstractNetSyslog {
+	@Serial private static final long serialVersionUID = -5276215458311389453L;
+
+	protected NioTCPNetSyslogWriter writer = null;
+
+	protected NioTCPNetSyslogConfigIF nioTcpNetSyslogConfig = null;
+
+	protected void initialize() throws SyslogRuntimeException {
+		super.initialize();
+
+		try {
+			this.nioTcpNetSyslogConfig = (NioTCPNetSyslogConfigIF) this.syslogConfig;
+
+		} catch (ClassCastException cce) {
+			throw new SyslogRuntimeException("config must implement interface NioTCPNetSyslogConfigIF");
+		}
+	}
+
+	public AbstractSyslogWriter getWriter() {
+		return getWriter(true);
+	}
+
+	public synchronized AbstractSyslogWriter getWriter(boolean create) {
+		if (this.writer != null || !create) {
+			return this.writer;
+		}
+
+		this.writer = (NioTCPNetSyslogWriter) createWriter();
+
+		return this.writer;
+	}
+
+	protected void write(int level, byte[] message) throws SyslogRuntimeException {
+		((NioTCPNetSyslogWriter) getWriter()).write(level,message);
+	}
+
+	protected boolean queue(int level, List<byte[]> packets, CompletableFuture<SyslogDeliveryResult> delivery) {
+		NioTCPNetSyslogWriter nioWriter = (NioTCPNetSyslogWriter) getWriter();
+
+		for(int i=0; i<packets.size(); i++) {
+			nioWriter.send(new QueuedSyslogMessage(level,packets.get(i),delivery,i == packets.size() - 1));
+		}
+
+		return true;
+	}
+
+	public void flush() throws SyslogRuntimeException {
+		AbstractSyslogWriter syslogWriter = getWriter(false);
+
+		if (syslogWriter != null) {
+			syslogWriter.flush();
+		}
+	}
+
+	public void shutdown() throws SyslogRuntimeException {
+		AbstractSyslogWriter syslogWriter = getWriter(false);
+
+		if (syslogWriter != null) {
+			syslogWriter.shutdown();
+		}
+
+		shutdownDestinations();
+	}
+
+	public void returnWriter(AbstractSyslogWriter syslogWriter) {
+		//
+	}
+}
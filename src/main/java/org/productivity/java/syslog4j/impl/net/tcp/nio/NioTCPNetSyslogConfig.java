@@ -0,0 +1,84 @@
+package org.productivity.java.syslog4j.impl.net.tcp.nio;
+
+import java.io.Serial;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+
+/**
+* NioTCPNetSyslogConfig is an extension of TCPNetSyslogConfig that provides
+* configuration support for NioTCPNetSyslog.
+* 
+* <p>The connection is always persistent and never uses a writer Thread of
+* its own, so the threaded, persistentConnection, soLinger and queue
+* settings do not apply.</p>
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NioTCPNetSyslogConfig extends TCPNetSyslogConfig implements NioTCPNetSyslogConfigIF {
+	@Serial private static final long serialVersionUID = 7415950834162386127L;
+	
+	protected long connectTimeout = TCP_NIO_CONNECT_TIMEOUT_DEFAULT;
+	protected long writeTimeout = TCP_NIO_WRITE_TIMEOUT_DEFAULT;
+	protected long maxPendingBytes = TCP_NIO_MAX_PENDING_BYTES_DEFAULT;
+	
+	public NioTCPNetSyslogConfig() {
+		//
+	}
+
+	public NioTCPNetSyslogConfig(int facility, String host, int port) {
+		super(facility, host, port);
+	}
+
+	public NioTCPNetSyslogConfig(int facility, String host) {
+		super(facility, host);
+	}
+
+	public NioTCPNetSyslogConfig(int facility) {
+		super(facility);
+	}
+
+	public NioTCPNetSyslogConfig(String host, int port) {
+		super(host, port);
+	}
+
+	public NioTCPNetSyslogConfig(String host) {
+		super(host);
+	}
+	
+	public long getConnectTimeout() {
+		return this.connectTimeout;
+	}
+
+	public void setConnectTimeout(long connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	public long getWriteTimeout() {
+		return this.writeTimeout;
+	}
+
+	public void setWriteTimeout(long writeTimeout) {
+		this.writeTimeout = writeTimeout;
+	}
+
+	public long getMaxPendingBytes() {
+		return this.maxPendingBytes;
+	}
+
+	public void setMaxPendingBytes(long maxPendingBytes) {
+		this.maxPendingBytes = maxPendingBytes;
+	}
+
+	public Class<? extends SyslogIF> getSyslogClass() {
+		return NioTCPNetSyslog.class;
+	}
+
+	public Class<? extends AbstractSyslogWriter> getSyslogWriterClass() {
+		return NioTCPNetSyslogWriter.class;
+	}
+}
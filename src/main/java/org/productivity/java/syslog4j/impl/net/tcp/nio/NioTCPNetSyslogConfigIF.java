@@ -0,0 +1,35 @@
+package org.productivity.java.syslog4j.impl.net.tcp.nio;
+
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfigIF;
+
+/**
+* NioTCPNetSyslogConfigIF is a configuration interface supporting the
+* non-blocking TCP/IP-based Syslog implementation.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public interface NioTCPNetSyslogConfigIF extends TCPNetSyslogConfigIF {
+	/**
+	 * @return Returns the longest time (in milliseconds) a connection attempt may take
+	 */
+	long getConnectTimeout();
+	void setConnectTimeout(long connectTimeout);
+	
+	/**
+	 * @return Returns the longest time (in milliseconds) pending data may wait for the
+	 *     connection to accept further bytes before the connection is given up
+	 */
+	long getWriteTimeout();
+	void setWriteTimeout(long writeTimeout);
+	
+	/**
+	 * @return Returns the most bytes (messages and delimiters) waiting to be written;
+	 *     further messages are backLogged
+	 */
+	long getMaxPendingBytes();
+	void setMaxPendingBytes(long maxPendingBytes);
+}
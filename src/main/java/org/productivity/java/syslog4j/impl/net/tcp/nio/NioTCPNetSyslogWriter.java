@@ -0,0 +1,557 @@
+package org.productivity.java.syslog4j.impl.net.tcp.nio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serial;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslog;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestination;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestinations;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+/**
+* NioTCPNetSyslogWriter sends TCP-based messages through a non-blocking
+* SocketChannel driven by the shared NioSyslogEventLoop.
+*
+* <p>send(..) only adds the message to a lock-free list of pending messages
+* and, if none is scheduled yet, hands a write request to the event loop.
+* The event loop connects, frames the pending messages into one buffer of
+* up to maxBatchBytes and writes as much as the channel accepts; the rest is
+* written when the channel becomes writable again.  A connection closed by
+* the peer is noticed as soon as it happens.</p>
+*
+* <p>When a connect or write does not finish within connectTimeout or
+* writeTimeout, or fails, the current batch is retried on a new connection
+* up to writeRetries times; after that all pending messages are backLogged.
+* With several destinations configured, the new connection goes to the next
+* available destination.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NioTCPNetSyslogWriter extends AbstractSyslogWriter {
+	@Serial private static final long serialVersionUID = 3016286351837164473L;
+
+	protected static final int READ_BUFFER_SIZE = 256;
+
+	protected NioTCPNetSyslog nioTcpNetSyslog = null;
+
+	protected NioTCPNetSyslogConfigIF nioTcpNetSyslogConfig = null;
+
+	protected transient NioSyslogEventLoop eventLoop = null;
+
+	protected transient Queue<QueuedSyslogMessage> pendingMessages = new ConcurrentLinkedQueue<>();
+	protected final AtomicLong pendingBytes = new AtomicLong();
+	protected final AtomicBoolean writeRequested = new AtomicBoolean();
+
+	// the following fields are only used by the event loop Thread
+
+	protected transient SocketChannel channel = null;
+	protected transient NetSyslogDestination destination = null;
+	protected transient SelectionKey key = null;
+	protected transient boolean connected = false;
+	protected transient long deadlineNanos = 0;
+	protected transient int attempts = 0;
+
+	protected transient ByteBuffer batchBuffer = null;
+	protected transient ByteBuffer readBuffer = null;
+	protected transient byte[] headerBuffer = null;
+	protected transient ByteBuffer buffer = null;
+	protected transient List<QueuedSyslogMessage> batchMessages = new ArrayList<>();
+	protected transient long batchBytes = 0;
+
+	public void initialize(AbstractSyslog abstractSyslog) {
+		super.initialize(abstractSyslog);
+
+		this.nioTcpNetSyslog = (NioTCPNetSyslog) abstractSyslog;
+
+		this.nioTcpNetSyslogConfig = (NioTCPNetSyslogConfigIF) this.nioTcpNetSyslog.getConfig();
+
+		if (this.nioTcpNetSyslogConfig.isCompression()) {
+			throw new SyslogRuntimeException("nio_tcp does not support compression");
+		}
+
+		this.eventLoop = NioSyslogEventLoop.getInstance();
+	}
+
+	protected boolean isOctetCounting() {
+		return this.nioTcpNetSyslogConfig.getFraming() == NioTCPNetSyslogConfigIF.FRAMING_OCTET_COUNTING;
+	}
+
+	protected int getFrameLength(QueuedSyslogMessage message) {
+		int length = message.getData().length;
+
+		if (isOctetCounting()) {
+			return SyslogUtility.getOctetCountingHeaderLength(length) + length;
+		}
+
+		byte[] delimiterSequence = this.nioTcpNetSyslogConfig.getDelimiterSequence();
+
+		return length + (delimiterSequence != null ? delimiterSequence.length : 0);
+	}
+
+	/**
+	 * Adds message to the pending messages; it is backLogged right away if
+	 * maxPendingBytes would be exceeded.
+	 */
+	public void send(QueuedSyslogMessage message) {
+		int frameLength = getFrameLength(message);
+
+		if (this.pendingBytes.addAndGet(frameLength) > this.nioTcpNetSyslogConfig.getMaxPendingBytes()) {
+			this.pendingBytes.addAndGet(-frameLength);
+
+			backLog(message,"MaxPendingBytes (" + this.nioTcpNetSyslogConfig.getMaxPendingBytes() + ") reached");
+			return;
+		}
+
+		this.pendingMessages.offer(message);
+
+		if (this.writeRequested.compareAndSet(false,true)) {
+			this.eventLoop.execute(this::writeRequested);
+		}
+	}
+
+	/**
+	 * The level is taken from the priority of the encoded message ("&lt;PRI&gt;..."),
+	 * as it is only needed if the message has to be backLogged.
+	 */
+	public void write(byte[] message) throws SyslogRuntimeException {
+		write(getLevel(message),message);
+	}
+
+	public void write(int level, byte[] message) throws SyslogRuntimeException {
+		send(new QueuedSyslogMessage(level,message));
+	}
+
+	/**
+	 * @return Returns the level of the priority at the start of message, or LEVEL_INFO
+	 */
+	protected static int getLevel(byte[] message) {
+		int priority = 0;
+
+		for(int i=1; i<message.length && i<=4 && message[0] == '<'; i++) {
+			byte b = message[i];
+
+			if (b == '>' && i > 1) {
+				return priority & 0x07;
+			}
+
+			if (b < '0' || b > '9') {
+				break;
+			}
+
+			priority = priority * 10 + (b - '0');
+		}
+
+		return SyslogConstants.LEVEL_INFO;
+	}
+
+	/**
+	 * @return Returns the number of bytes (messages and delimiters) not written yet
+	 */
+	public long getPendingBytes() {
+		return this.pendingBytes.get();
+	}
+
+	protected void writeRequested() {
+		this.writeRequested.set(false);
+
+		try {
+			if (this.channel == null) {
+				connect();
+
+			} else if (this.connected) {
+				writePending();
+			}
+
+		} catch (IOException | RuntimeException e) {
+			fail(e);
+		}
+	}
+
+	protected void connect() {
+		try {
+			InetSocketAddress address;
+
+			NetSyslogDestinations destinations = this.nioTcpNetSyslog.getDestinations();
+
+			if (destinations != null) {
+				this.destination = destinations.select();
+
+				if (this.destination == null) {
+					throw new SyslogRuntimeException("No destination available");
+				}
+
+				this.destination.connectionOpened();
+
+				address = new InetSocketAddress(this.destination.getHostAddress(this.nioTcpNetSyslogConfig.isCacheHostAddress()),this.destination.getPort());
+
+			} else {
+				address = new InetSocketAddress(this.nioTcpNetSyslog.getHostAddress(),this.syslogConfig.getPort());
+			}
+
+			this.channel = SocketChannel.open();
+			this.channel.configureBlocking(false);
+
+			configureChannel(this.channel);
+
+			this.connected = false;
+			this.key = this.channel.register(this.eventLoop.getSelector(),0,this);
+
+			if (this.channel.connect(address)) {
+				connected();
+
+			} else {
+				this.key.interestOps(SelectionKey.OP_CONNECT);
+				this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.nioTcpNetSyslogConfig.getConnectTimeout());
+			}
+
+		} catch (IOException | SyslogRuntimeException e) {
+			fail(e);
+		}
+	}
+
+	protected void configureChannel(SocketChannel newChannel) throws IOException {
+		if (this.nioTcpNetSyslogConfig.isKeepAlive()) {
+			newChannel.setOption(StandardSocketOptions.SO_KEEPALIVE,Boolean.TRUE);
+		}
+
+		if (this.nioTcpNetSyslogConfig.isReuseAddress()) {
+			newChannel.setOption(StandardSocketOptions.SO_REUSEADDR,Boolean.TRUE);
+		}
+
+		if (this.nioTcpNetSyslogConfig.isSetBufferSize() && this.nioTcpNetSyslogConfig.getMaxBatchBytes() > newChannel.getOption(StandardSocketOptions.SO_SNDBUF)) {
+			newChannel.setOption(StandardSocketOptions.SO_SNDBUF,this.nioTcpNetSyslogConfig.getMaxBatchBytes());
+		}
+	}
+
+	protected void connected() throws IOException {
+		this.connected = true;
+		this.deadlineNanos = 0;
+
+		NetSyslogDestinations destinations = this.nioTcpNetSyslog.getDestinations();
+
+		if (destinations != null && this.destination != null) {
+			destinations.succeeded(this.destination);
+		}
+
+		writePending();
+	}
+
+	/**
+	 * Called by the event loop for a selected key.
+	 */
+	protected void ready(SelectionKey readyKey) {
+		try {
+			if (readyKey.isConnectable()) {
+				if (this.channel.finishConnect()) {
+					connected();
+				}
+
+				return;
+			}
+
+			if (readyKey.isReadable()) {
+				if (this.readBuffer == null) {
+					this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+				}
+
+				this.readBuffer.clear();
+
+				if (this.channel.read(this.readBuffer) < 0) {
+					throw new EOFException("Connection closed by peer");
+				}
+			}
+
+			if (readyKey.isValid() && readyKey.isWritable()) {
+				writePending();
+			}
+
+		} catch (IOException | RuntimeException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Writes the current batch and the following ones until the channel
+	 * does not accept more bytes or no messages are pending.
+	 */
+	protected void writePending() throws IOException {
+		while(true) {
+			if (this.buffer == null || !this.buffer.hasRemaining()) {
+				completeBatch();
+
+				if (!isPreferred()) {
+					this.buffer = null;
+
+					closeChannel();
+					connect();
+					return;
+				}
+
+				if (!fillBatch()) {
+					this.key.interestOps(SelectionKey.OP_READ);
+					this.deadlineNanos = 0;
+					return;
+				}
+
+				this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.nioTcpNetSyslogConfig.getWriteTimeout());
+			}
+
+			if (this.channel.write(this.buffer) > 0) {
+				this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.nioTcpNetSyslogConfig.getWriteTimeout());
+			}
+
+			if (this.buffer.hasRemaining()) {
+				this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return Returns false if the connection should move to another destination
+	 *     (see NetSyslogDestinations.isPreferred(..))
+	 */
+	protected boolean isPreferred() {
+		if (this.destination == null || this.pendingMessages.isEmpty()) {
+			return true;
+		}
+
+		NetSyslogDestinations destinations = this.nioTcpNetSyslog.getDestinations();
+
+		return destinations == null || destinations.isPreferred(this.destination);
+	}
+
+	/**
+	 * Frames as many pending messages as fit into the batch buffer; a single
+	 * message larger than maxBatchBytes gets a buffer of its own.
+	 *
+	 * @return Returns false if no messages are pending
+	 */
+	protected boolean fillBatch() {
+		QueuedSyslogMessage message = this.pendingMessages.peek();
+
+		if (message == null) {
+			return false;
+		}
+
+		boolean octetCounting = isOctetCounting();
+
+		byte[] delimiterSequence = octetCounting ? null : this.nioTcpNetSyslogConfig.getDelimiterSequence();
+
+		if (octetCounting && this.headerBuffer == null) {
+			this.headerBuffer = new byte[12];
+		}
+
+		int maxBatchBytes = Math.max(1,this.nioTcpNetSyslogConfig.getMaxBatchBytes());
+
+		if (this.batchBuffer == null || this.batchBuffer.capacity() != maxBatchBytes) {
+			this.batchBuffer = ByteBuffer.allocateDirect(maxBatchBytes);
+		}
+
+		int frameLength = getFrameLength(message);
+
+		this.buffer = frameLength > maxBatchBytes ? ByteBuffer.allocate(frameLength) : this.batchBuffer;
+		this.buffer.clear();
+
+		while (message != null && frameLength <= this.buffer.remaining()) {
+			this.pendingMessages.poll();
+
+			if (octetCounting) {
+				this.buffer.put(this.headerBuffer,0,SyslogUtility.putOctetCountingHeader(message.getData().length,this.headerBuffer,0));
+			}
+
+			this.buffer.put(message.getData());
+
+			if (delimiterSequence != null) {
+				this.buffer.put(delimiterSequence);
+			}
+
+			this.batchMessages.add(message);
+			this.batchBytes += frameLength;
+
+			message = this.pendingMessages.peek();
+			frameLength = message != null ? getFrameLength(message) : 0;
+		}
+
+		this.buffer.flip();
+
+		return true;
+	}
+
+	protected void completeBatch() {
+		if (this.batchMessages.isEmpty()) {
+			return;
+		}
+
+		for (QueuedSyslogMessage message : this.batchMessages) {
+			message.complete(SyslogDeliveryResult.WRITTEN);
+		}
+
+		this.pendingBytes.addAndGet(-this.batchBytes);
+
+		this.batchMessages.clear();
+		this.batchBytes = 0;
+		this.attempts = 0;
+
+		this.syslog.setBackLogStatus(false);
+	}
+
+	/**
+	 * Called by the event loop after every select.
+	 */
+	protected void checkTimeout(long now) {
+		if (this.deadlineNanos != 0 && now - this.deadlineNanos > 0) {
+			fail(new SocketTimeoutException(this.connected ? "Write timed out" : "Connect timed out"));
+		}
+	}
+
+	/**
+	 * Closes the connection and retries the current batch on a new one, or
+	 * backLogs all pending messages once writeRetries is exhausted.  Also
+	 * called by the event loop if its selector fails.
+	 */
+	protected void fail(Exception exception) {
+		NetSyslogDestinations destinations = this.destination != null ? this.nioTcpNetSyslog.getDestinations() : null;
+
+		if (destinations != null) {
+			destinations.failed(this.destination);
+
+		} else {
+			this.nioTcpNetSyslog.invalidateHostAddress();
+		}
+
+		closeChannel();
+
+		boolean pending = !this.batchMessages.isEmpty() || !this.pendingMessages.isEmpty();
+
+		if (pending && this.attempts < this.syslogConfig.getWriteRetries()) {
+			this.attempts++;
+
+			if (this.batchMessages.isEmpty()) {
+				this.buffer = null;
+
+			} else {
+				this.buffer.rewind();
+			}
+
+			connect();
+			return;
+		}
+
+		this.attempts = 0;
+		this.buffer = null;
+
+		String reason = exception.toString();
+
+		for (QueuedSyslogMessage message : this.batchMessages) {
+			backLog(message,reason);
+		}
+
+		this.pendingBytes.addAndGet(-this.batchBytes);
+
+		this.batchMessages.clear();
+		this.batchBytes = 0;
+
+		QueuedSyslogMessage message = this.pendingMessages.poll();
+
+		while (message != null) {
+			this.pendingBytes.addAndGet(-getFrameLength(message));
+
+			backLog(message,reason);
+
+			message = this.pendingMessages.poll();
+		}
+	}
+
+	protected void closeChannel() {
+		if (this.key != null) {
+			this.key.cancel();
+			this.key = null;
+		}
+
+		if (this.channel != null) {
+			try {
+				this.channel.close();
+
+			} catch (IOException ioe) {
+				//
+			}
+
+			this.channel = null;
+		}
+
+		if (this.destination != null) {
+			this.destination.connectionClosed();
+			this.destination = null;
+		}
+
+		this.connected = false;
+		this.deadlineNanos = 0;
+	}
+
+	/**
+	 * Waits up to maxShutdownWait until all pending messages are written or backLogged.
+	 */
+	public void flush() throws SyslogRuntimeException {
+		long timeStart = System.currentTimeMillis();
+
+		while (this.pendingBytes.get() > 0 && System.currentTimeMillis() - timeStart < this.syslogConfig.getMaxShutdownWait()) {
+			SyslogUtility.sleep(SyslogConstants.SHUTDOWN_INTERVAL);
+		}
+	}
+
+	/**
+	 * Flushes the pending messages and closes the connection; a later
+	 * message opens a new one.
+	 */
+	public void shutdown() throws SyslogRuntimeException {
+		flush();
+
+		CompletableFuture<Void> closed = new CompletableFuture<>();
+
+		this.eventLoop.execute(() -> {
+			closeChannel();
+			closed.complete(null);
+		});
+
+		try {
+			closed.get(this.syslogConfig.getMaxShutdownWait(),TimeUnit.MILLISECONDS);
+
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+
+		} catch (ExecutionException | TimeoutException e) {
+			//
+		}
+	}
+
+	protected void runCompleted() {
+		//
+	}
+}
@@ -5,12 +5,16 @@ import org.productivity.java.syslog4j.SyslogRuntimeException;
 import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
 import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslog;
 import org.productivity.java.syslog4j.impl.pool.AbstractSyslogPoolFactory;
-import org.productivity.java.syslog4j.impl.pool.generic.GenericSyslogPoolFactory;
+import org.productivity.java.syslog4j.impl.pool.lockfree.LockFreeSyslogPoolFactory;
 
 /**
 * PooledTCPNetSyslog is an extension of TCPNetSyslog which provides support
 * for Apache Commons Pool.
 * 
+* <p>The writers are pooled by a LockFreeSyslogPoolFactory; override
+* createSyslogPoolFactory() to return a GenericSyslogPoolFactory for the
+* former GenericObjectPool.</p>
+* 
 * <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
 * of the LGPL license is available in the META-INF folder in all
 * distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
@@ -33,7 +37,11 @@ public class PooledTCPNetSyslog extends TCPNetSyslog {
 	
 	protected AbstractSyslogPoolFactory createSyslogPoolFactory() {
 
-        return new GenericSyslogPoolFactory();
+        return new LockFreeSyslogPoolFactory();
+	}
+
+	public AbstractSyslogPoolFactory getPoolFactory() {
+		return this.poolFactory;
 	}
 
 	public AbstractSyslogWriter getWriter() {
@@ -71,5 +79,7 @@ public class PooledTCPNetSyslog extends TCPNetSyslog {
 		} catch (Exception e) {
 			//
 		}
+		
+		shutdownDestinations();
 	}
 }
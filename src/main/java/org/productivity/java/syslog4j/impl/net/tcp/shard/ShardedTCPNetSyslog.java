@@ -0,0 +1,121 @@
+package org.productivity.java.syslog4j.impl.net.tcp.shard;
+
+import java.io.Serial;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslog;
+
+/**
+* ShardedTCPNetSyslog is an extension of TCPNetSyslog which spreads messages
+* over shardCount writers, each with its own connection, queue and (when
+* threaded) writer Thread.
+*
+* <p>A shard is picked per message without locking: by the id of the
+* logging Thread (SHARD_SELECTION_THREAD_AFFINITY), or by a shared counter
+* (SHARD_SELECTION_ROUND_ROBIN).  Messages are only ordered within a shard,
+* so with round robin even the messages of a single Thread may arrive out of
+* order.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class ShardedTCPNetSyslog extends TCPNetSyslog {
+	@Serial private static final long serialVersionUID = 6215880365245467397L;
+
+	protected ShardedTCPNetSyslogConfigIF shardedTcpNetSyslogConfig = null;
+
+	protected volatile AbstractSyslogWriter[] writers = null;
+
+	protected final AtomicInteger nextShard = new AtomicInteger();
+
+	public void initialize() throws SyslogRuntimeException {
+		super.initialize();
+
+		try {
+			this.shardedTcpNetSyslogConfig = (ShardedTCPNetSyslogConfigIF) this.syslogConfig;
+
+		} catch (ClassCastException cce) {
+			throw new SyslogRuntimeException("config must implement interface ShardedTCPNetSyslogConfigIF");
+		}
+	}
+
+	public AbstractSyslogWriter getWriter(boolean create) {
+		AbstractSyslogWriter[] _writers = this.writers;
+
+		if (_writers == null) {
+			if (!create) {
+				return null;
+			}
+
+			_writers = createWriters();
+		}
+
+		return _writers[selectShard(_writers.length)];
+	}
+
+	protected synchronized AbstractSyslogWriter[] createWriters() {
+		if (this.writers != null) {
+			return this.writers;
+		}
+
+		AbstractSyslogWriter[] _writers = new AbstractSyslogWriter[Math.max(1,this.shardedTcpNetSyslogConfig.getShardCount())];
+
+		for(int i=0; i<_writers.length; i++) {
+			_writers[i] = createWriter();
+
+			if (this.shardedTcpNetSyslogConfig.isThreaded()) {
+				createWriterThread(_writers[i]).setName("SyslogWriter: " + getProtocol() + "-" + i);
+			}
+		}
+
+		this.writers = _writers;
+
+		return _writers;
+	}
+
+	protected int selectShard(int shardCount) {
+		if (shardCount == 1) {
+			return 0;
+		}
+
+		if (this.shardedTcpNetSyslogConfig.getShardSelection() == ShardedTCPNetSyslogConfigIF.SHARD_SELECTION_ROUND_ROBIN) {
+			return Math.floorMod(this.nextShard.getAndIncrement(),shardCount);
+		}
+
+		return (int) Math.floorMod(Thread.currentThread().getId(),(long) shardCount);
+	}
+
+	/**
+	 * @return Returns the writers (one per shard), or null if no message was written yet
+	 */
+	public AbstractSyslogWriter[] getWriters() {
+		return this.writers;
+	}
+
+	public void flush() throws SyslogRuntimeException {
+		AbstractSyslogWriter[] _writers = this.writers;
+
+		if (_writers != null) {
+			for (AbstractSyslogWriter syslogWriter : _writers) {
+				syslogWriter.flush();
+			}
+		}
+	}
+
+	public void shutdown() throws SyslogRuntimeException {
+		AbstractSyslogWriter[] _writers = this.writers;
+
+		if (_writers != null) {
+			for (AbstractSyslogWriter syslogWriter : _writers) {
+				syslogWriter.shutdown();
+			}
+		}
+		
+		shutdownDestinations();
+	}
+}
@@ -0,0 +1,72 @@
+package org.productivity.java.syslog4j.impl.net.tcp.shard;
+
+import java.io.Serial;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+
+/**
+* ShardedTCPNetSyslogConfig is an extension of TCPNetSyslogConfig which
+* provides configuration support for ShardedTCPNetSyslog.
+* 
+* <p>The queue settings (maxQueueSize, queueOverflowPolicy, ...) apply to
+* each shard separately.</p>
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class ShardedTCPNetSyslogConfig extends TCPNetSyslogConfig implements ShardedTCPNetSyslogConfigIF {
+	@Serial private static final long serialVersionUID = -3614482709273625614L;
+	
+	protected int shardCount = TCP_SHARD_COUNT_DEFAULT;
+	protected byte shardSelection = TCP_SHARD_SELECTION_DEFAULT;
+	
+	public ShardedTCPNetSyslogConfig() {
+		//
+	}
+
+	public ShardedTCPNetSyslogConfig(int facility, String host, int port) {
+		super(facility, host, port);
+	}
+
+	public ShardedTCPNetSyslogConfig(int facility, String host) {
+		super(facility, host);
+	}
+
+	public ShardedTCPNetSyslogConfig(int facility) {
+		super(facility);
+	}
+
+	public ShardedTCPNetSyslogConfig(String host, int port) {
+		super(host, port);
+	}
+
+	public ShardedTCPNetSyslogConfig(String host) {
+		super(host);
+	}
+	
+	public int getShardCount() {
+		return this.shardCount;
+	}
+
+	/**
+	 * Takes effect when the first message is written.
+	 */
+	public void setShardCount(int shardCount) {
+		this.shardCount = shardCount;
+	}
+
+	public byte getShardSelection() {
+		return this.shardSelection;
+	}
+
+	public void setShardSelection(byte shardSelection) {
+		this.shardSelection = shardSelection;
+	}
+
+	public Class<? extends SyslogIF> getSyslogClass() {
+		return ShardedTCPNetSyslog.class;
+	}
+}
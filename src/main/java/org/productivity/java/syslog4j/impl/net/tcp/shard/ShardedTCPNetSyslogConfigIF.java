@@ -0,0 +1,35 @@
+package org.productivity.java.syslog4j.impl.net.tcp.shard;
+
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfigIF;
+
+/**
+* ShardedTCPNetSyslogConfigIF is a configuration interface supporting
+* TCP/IP-based Syslog implementations which spread messages over several
+* connections.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public interface ShardedTCPNetSyslogConfigIF extends TCPNetSyslogConfigIF {
+	/**
+	 * Each thread always uses the same shard, so the messages of one thread stay in order.
+	 */
+	byte SHARD_SELECTION_THREAD_AFFINITY	= 0;
+	
+	/**
+	 * Successive messages go to successive shards, regardless of the logging thread.
+	 */
+	byte SHARD_SELECTION_ROUND_ROBIN		= 1;
+	
+	/**
+	 * @return Returns the number of writers, each with its own connection and queue
+	 */
+	int getShardCount();
+	void setShardCount(int shardCount);
+	
+	byte getShardSelection();
+	void setShardSelection(byte shardSelection);
+}
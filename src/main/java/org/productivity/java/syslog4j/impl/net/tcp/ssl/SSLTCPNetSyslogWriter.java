@@ -1,6 +1,9 @@
 package org.productivity.java.syslog4j.impl.net.tcp.ssl;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serial;
+import java.net.Socket;
 import javax.net.SocketFactory;
 import javax.net.ssl.SSLSocketFactory;
 
@@ -26,4 +29,33 @@ public class SSLTCPNetSyslogWriter extends TCPNetSyslogWriter {
 	protected SocketFactory obtainSocketFactory() {
 		return SSLSocketFactory.getDefault();
 	}
+	
+	/**
+	 * Closing a TLS connection with unread records (e.g. session tickets)
+	 * resets it, and the server may then discard batched messages it has not
+	 * read yet; the connection is therefore half-closed and drained for up to
+	 * soLingerSeconds before it is closed.
+	 */
+	protected void runCompleted() {
+		Socket socketToClose = this.socket;
+		
+		if (socketToClose != null && !socketToClose.isClosed() && this.tcpNetSyslogConfig.isSoLinger()) {
+			try {
+				socketToClose.setSoTimeout(Math.max(1,this.tcpNetSyslogConfig.getSoLingerSeconds()) * 1000);
+				socketToClose.shutdownOutput();
+				
+				InputStream is = socketToClose.getInputStream();
+				byte[] buffer = new byte[256];
+				
+				while(is.read(buffer) != -1) {
+					//
+				}
+				
+			} catch (IOException | UnsupportedOperationException e) {
+				//
+			}
+		}
+		
+		super.runCompleted();
+	}
 }
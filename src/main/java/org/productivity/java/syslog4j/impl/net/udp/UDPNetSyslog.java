@@ -4,17 +4,27 @@ import java.io.IOException;
 import java.io.Serial;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
-import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketException;
 
 import org.productivity.java.syslog4j.SyslogRuntimeException;
 import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
 import org.productivity.java.syslog4j.impl.net.AbstractNetSyslog;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestination;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestinations;
 
 /**
 * UDPNetSyslog is an extension of AbstractSyslog that provides support for
 * UDP/IP-based syslog clients.
 * 
+* <p>UDP gives no feedback on delivery, so with several destinations
+* configured only DESTINATION_SELECTION_ROUND_ROBIN spreads the messages;
+* the other selections always send to the first destination.</p>
+* 
+* <p>See NioUDPNetSyslog for a client sending through connected
+* DatagramChannels, and MmsgUDPNetSyslog for one sending batches with
+* sendmmsg(2) on Linux.</p>
+* 
 * <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
 * of the LGPL license is available in the META-INF folder in all
 * distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
@@ -54,17 +64,42 @@ public class UDPNetSyslog extends AbstractNetSyslog {
 	}
 
 	protected void write(int level, byte[] message) throws SyslogRuntimeException {
+		write(level,message,0,message.length);
+	}
+
+	protected void write(int level, byte[] message, int offset, int length) throws SyslogRuntimeException {
+		send(message,offset,length);
+	}
+
+	/**
+	 * @return Returns the address of the next datagram: the selected destination, or host and port
+	 */
+	protected InetSocketAddress selectAddress() throws SyslogRuntimeException {
+		NetSyslogDestinations destinations = getDestinations();
+		
+		if (destinations != null) {
+			NetSyslogDestination destination = destinations.select();
+			
+			if (destination == null) {
+				throw new SyslogRuntimeException("No destination available");
+			}
+			
+			return new InetSocketAddress(destination.getHostAddress(this.netSyslogConfig.isCacheHostAddress()),destination.getPort());
+		}
+		
+		return new InetSocketAddress(getHostAddress(),this.syslogConfig.getPort());
+	}
+
+	protected void send(byte[] message, int offset, int length) throws SyslogRuntimeException {
     	if (this.socket == null) {
    			createDatagramSocket(false);
     	}
     	
-		InetAddress hostAddress = getHostAddress();
-		
         DatagramPacket packet = new DatagramPacket(
         	message,
-        	message.length,
-        	hostAddress,
-        	this.syslogConfig.getPort()
+        	offset,
+        	length,
+        	selectAddress()
         );
 
         int attempts = 0;
@@ -75,6 +110,8 @@ public class UDPNetSyslog extends AbstractNetSyslog {
 	        	attempts = -1;
 	        	
 	        } catch (IOException ioe) {
+	        	attempts++;
+	        	
 	        	if (attempts == (this.netSyslogConfig.getWriteRetries() + 1)) {
 	        		throw new SyslogRuntimeException(ioe);
 	        	}
@@ -95,6 +132,10 @@ public class UDPNetSyslog extends AbstractNetSyslog {
 		}
 	}
 
+	protected boolean isHealthCheckSupported() {
+		return false;
+	}
+
 	public AbstractSyslogWriter getWriter() {
 		return null;
 	}
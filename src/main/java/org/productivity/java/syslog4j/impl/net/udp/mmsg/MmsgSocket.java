@@ -0,0 +1,450 @@
+package org.productivity.java.syslog4j.impl.net.udp.mmsg;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import com.sun.jna.Library;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+
+/**
+* MmsgSocket is a UDP socket created through JNA, which sends and receives
+* up to batchSize datagrams per system call using the Linux sendmmsg(2) and
+* recvmmsg(2) calls.
+*
+* <p>Only 64-bit Linux is supported (see isSupported()), as the struct
+* mmsghdr is laid out by hand.  The socket is an IPv6 socket accepting
+* IPv4-mapped addresses, or an IPv4 socket where IPv6 is not available.
+* An instance is not thread-safe.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class MmsgSocket {
+	public static final int MAX_BATCH_SIZE = 1024;
+
+	protected static final int AF_INET = 2;
+	protected static final int AF_INET6 = 10;
+	protected static final int SOCK_DGRAM = 2;
+	protected static final int SOL_SOCKET = 1;
+	protected static final int SO_RCVBUF = 8;
+	protected static final int SO_REUSEPORT = 15;
+	protected static final int SO_RCVTIMEO = 20;
+	protected static final int IPPROTO_IPV6 = 41;
+	protected static final int IPV6_V6ONLY = 26;
+	protected static final int SHUT_RD = 0;
+	protected static final int MSG_WAITFORONE = 0x10000;
+	protected static final int EINTR = 4;
+	protected static final int EAGAIN = 11;
+
+	// struct mmsghdr, struct iovec and struct sockaddr_storage on 64-bit Linux
+	protected static final int MMSGHDR_SIZE = 64;
+	protected static final int MSG_NAME_OFFSET = 0;
+	protected static final int MSG_NAMELEN_OFFSET = 8;
+	protected static final int MSG_IOV_OFFSET = 16;
+	protected static final int MSG_IOVLEN_OFFSET = 24;
+	protected static final int MSG_LEN_OFFSET = 56;
+	protected static final int IOVEC_SIZE = 16;
+	protected static final int SOCKADDR_SIZE = 128;
+	protected static final int SOCKADDR_IN_SIZE = 16;
+	protected static final int SOCKADDR_IN6_SIZE = 28;
+
+	protected interface CLibrary extends Library {
+		int socket(int domain, int type, int protocol);
+		int bind(int sockfd, Pointer addr, int addrlen);
+		int setsockopt(int sockfd, int level, int optname, Pointer optval, int optlen);
+		int sendmmsg(int sockfd, Pointer msgvec, int vlen, int flags);
+		int recvmmsg(int sockfd, Pointer msgvec, int vlen, int flags, Pointer timeout);
+		int shutdown(int sockfd, int how);
+		int close(int fd);
+		String strerror(int errno);
+	}
+
+	protected static CLibrary libraryInstance = null;
+	protected static Boolean supported = null;
+
+	protected final int fd;
+	protected final int family;
+	protected final int batchSize;
+
+	protected final Memory vector;
+	protected Memory data = null;
+	protected int bufferSize = 0;
+
+	protected volatile boolean closed = false;
+	protected boolean open = true;
+
+	/**
+	 * @return Returns true on 64-bit Linux with a C library providing sendmmsg(2) and recvmmsg(2)
+	 */
+	public static synchronized boolean isSupported() {
+		if (supported == null) {
+			boolean _supported = false;
+
+			try {
+				if (Platform.isLinux() && Native.POINTER_SIZE == 8) {
+					NativeLibrary library = NativeLibrary.getInstance(Platform.C_LIBRARY_NAME);
+
+					library.getFunction("sendmmsg");
+					library.getFunction("recvmmsg");
+
+					libraryInstance = Native.load(Platform.C_LIBRARY_NAME,CLibrary.class);
+					_supported = true;
+				}
+
+			} catch (UnsatisfiedLinkError | NoClassDefFoundError e) {
+				//
+			}
+
+			supported = _supported;
+		}
+
+		return supported;
+	}
+
+	/**
+	 * @param batchSize the most datagrams sent or received per system call (at most MAX_BATCH_SIZE)
+	 */
+	public MmsgSocket(int batchSize) throws IOException {
+		if (!isSupported()) {
+			throw new IOException("sendmmsg/recvmmsg not supported on this platform");
+		}
+
+		this.batchSize = Math.max(1,Math.min(batchSize,MAX_BATCH_SIZE));
+
+		int _family = AF_INET6;
+		int _fd = libraryInstance.socket(AF_INET6,SOCK_DGRAM,0);
+
+		if (_fd < 0) {
+			_family = AF_INET;
+			_fd = libraryInstance.socket(AF_INET,SOCK_DGRAM,0);
+		}
+
+		if (_fd < 0) {
+			throw newIOException("socket");
+		}
+
+		this.fd = _fd;
+		this.family = _family;
+
+		if (this.family == AF_INET6) {
+			try {
+				setIntOption(IPPROTO_IPV6,IPV6_V6ONLY,0);
+
+			} catch (IOException ioe) {
+				close();
+
+				throw ioe;
+			}
+		}
+
+		this.vector = new Memory((long) this.batchSize * (MMSGHDR_SIZE + IOVEC_SIZE + SOCKADDR_SIZE));
+		this.vector.clear();
+
+		for(int i=0; i<this.batchSize; i++) {
+			long header = (long) i * MMSGHDR_SIZE;
+
+			this.vector.setPointer(header + MSG_NAME_OFFSET,this.vector.share(getNameOffset(i)));
+			this.vector.setPointer(header + MSG_IOV_OFFSET,this.vector.share(getIovecOffset(i)));
+			this.vector.setLong(header + MSG_IOVLEN_OFFSET,1);
+		}
+	}
+
+	protected long getIovecOffset(int index) {
+		return (long) this.batchSize * MMSGHDR_SIZE + (long) index * IOVEC_SIZE;
+	}
+
+	protected long getNameOffset(int index) {
+		return (long) this.batchSize * (MMSGHDR_SIZE + IOVEC_SIZE) + (long) index * SOCKADDR_SIZE;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	protected IOException newIOException(String call) {
+		int errno = Native.getLastError();
+
+		return new IOException(call + ": " + libraryInstance.strerror(errno) + " (errno " + errno + ")");
+	}
+
+	protected void setIntOption(int level, int option, int value) throws IOException {
+		Memory optval = new Memory(4);
+		optval.setInt(0,value);
+
+		if (libraryInstance.setsockopt(this.fd,level,option,optval,4) < 0) {
+			throw newIOException("setsockopt");
+		}
+	}
+
+	/**
+	 * Must be called before bind(..) on every socket sharing the port; the
+	 * kernel then distributes the datagrams among them.
+	 */
+	public void setReusePort(boolean reusePort) throws IOException {
+		setIntOption(SOL_SOCKET,SO_REUSEPORT,reusePort ? 1 : 0);
+	}
+
+	/**
+	 * @param receiveBufferSize the size of the kernel receive buffer (SO_RCVBUF)
+	 */
+	public void setReceiveBufferSize(int receiveBufferSize) throws IOException {
+		setIntOption(SOL_SOCKET,SO_RCVBUF,receiveBufferSize);
+	}
+
+	/**
+	 * @param timeout the most milliseconds receive() waits for a datagram, or 0 to wait indefinitely
+	 */
+	public void setReceiveTimeout(int timeout) throws IOException {
+		Memory timeval = new Memory(16);
+		timeval.setLong(0,timeout / 1000);
+		timeval.setLong(8,(timeout % 1000) * 1000L);
+
+		if (libraryInstance.setsockopt(this.fd,SOL_SOCKET,SO_RCVTIMEO,timeval,16) < 0) {
+			throw newIOException("setsockopt");
+		}
+	}
+
+	/**
+	 * @param address the local address, or null for the wildcard address
+	 */
+	public void bind(InetAddress address, int port) throws IOException {
+		Memory sockaddr = new Memory(SOCKADDR_SIZE);
+		sockaddr.clear();
+
+		int length = writeSockAddr(sockaddr,0,new InetSocketAddress(address,port));
+
+		if (libraryInstance.bind(this.fd,sockaddr,length) < 0) {
+			throw newIOException("bind");
+		}
+	}
+
+	/**
+	 * @return Returns the length of the sockaddr written at offset
+	 */
+	protected int writeSockAddr(Memory memory, long offset, InetSocketAddress socketAddress) throws IOException {
+		InetAddress address = socketAddress.getAddress();
+
+		if (address == null) {
+			throw new IOException("Unresolved address: " + socketAddress);
+		}
+
+		byte[] addressBytes = address.getAddress();
+		int port = socketAddress.getPort();
+
+		memory.setShort(offset,(short) this.family);
+		memory.setByte(offset + 2,(byte) (port >> 8));
+		memory.setByte(offset + 3,(byte) port);
+
+		if (this.family == AF_INET) {
+			if (!(address instanceof Inet4Address)) {
+				throw new IOException("IPv6 is not available: " + socketAddress);
+			}
+
+			memory.write(offset + 4,addressBytes,0,4);
+			memory.setLong(offset + 8,0);
+
+			return SOCKADDR_IN_SIZE;
+		}
+
+		memory.setInt(offset + 4,0);
+
+		if (address.isAnyLocalAddress()) {
+			memory.setLong(offset + 8,0);
+			memory.setLong(offset + 16,0);
+
+		} else if (address instanceof Inet4Address) {
+			// IPv4-mapped address ::ffff:a.b.c.d
+			memory.setLong(offset + 8,0);
+			memory.setShort(offset + 16,(short) 0);
+			memory.setShort(offset + 18,(short) 0xffff);
+			memory.write(offset + 20,addressBytes,0,4);
+
+		} else {
+			memory.write(offset + 8,addressBytes,0,16);
+		}
+
+		memory.setInt(offset + 24,0);
+
+		return SOCKADDR_IN6_SIZE;
+	}
+
+	protected Memory getData(long size) {
+		if (this.data == null || this.data.size() < size) {
+			long previousSize = this.data != null ? this.data.size() : 0;
+
+			this.data = new Memory(Math.max(size,previousSize * 2));
+		}
+
+		return this.data;
+	}
+
+	/**
+	 * Sends packets offset to offset + count - 1 (count at most batchSize)
+	 * in one sendmmsg(2) call.
+	 *
+	 * @return Returns the number of packets sent, which is at least 1
+	 */
+	public int send(List<byte[]> packets, List<InetSocketAddress> addresses, int offset, int count) throws IOException {
+		int _count = Math.min(count,this.batchSize);
+
+		long size = 0;
+
+		for(int i=0; i<_count; i++) {
+			size += packets.get(offset + i).length;
+		}
+
+		Memory _data = getData(Math.max(1,size));
+
+		long position = 0;
+
+		for(int i=0; i<_count; i++) {
+			byte[] packet = packets.get(offset + i);
+
+			_data.write(position,packet,0,packet.length);
+
+			long header = (long) i * MMSGHDR_SIZE;
+			long iovec = getIovecOffset(i);
+
+			this.vector.setPointer(iovec,_data.share(position));
+			this.vector.setLong(iovec + 8,packet.length);
+			this.vector.setInt(header + MSG_NAMELEN_OFFSET,writeSockAddr(this.vector,getNameOffset(i),addresses.get(offset + i)));
+
+			position += packet.length;
+		}
+
+		while(true) {
+			int sent = libraryInstance.sendmmsg(this.fd,this.vector,_count,0);
+
+			if (sent > 0) {
+				return sent;
+			}
+
+			if (sent < 0 && Native.getLastError() != EINTR) {
+				throw newIOException("sendmmsg");
+			}
+		}
+	}
+
+	/**
+	 * Waits for at least one datagram, then receives up to batchSize
+	 * datagrams which are already queued, in one recvmmsg(2) call.
+	 *
+	 * @param bufferSize the most bytes received per datagram; longer datagrams are truncated
+	 * @return Returns the number of datagrams received, or 0 if the receive
+	 *     timeout passed or the socket was shut down
+	 */
+	public int receive(int bufferSize) throws IOException {
+		if (this.bufferSize != bufferSize || this.data == null) {
+			this.bufferSize = bufferSize;
+			this.data = null;
+
+			Memory _data = getData((long) this.batchSize * bufferSize);
+
+			for(int i=0; i<this.batchSize; i++) {
+				long iovec = getIovecOffset(i);
+
+				this.vector.setPointer(iovec,_data.share((long) i * bufferSize));
+				this.vector.setLong(iovec + 8,bufferSize);
+			}
+		}
+
+		for(int i=0; i<this.batchSize; i++) {
+			this.vector.setInt((long) i * MMSGHDR_SIZE + MSG_NAMELEN_OFFSET,SOCKADDR_SIZE);
+		}
+
+		while(true) {
+			int received = libraryInstance.recvmmsg(this.fd,this.vector,this.batchSize,MSG_WAITFORONE,null);
+
+			if (this.closed) {
+				// after shutdownInput(), an empty datagram is reported
+				return 0;
+			}
+
+			if (received >= 0) {
+				return received;
+			}
+
+			int errno = Native.getLastError();
+
+			if (errno == EAGAIN) {
+				return 0;
+			}
+
+			if (errno != EINTR) {
+				throw newIOException("recvmmsg");
+			}
+		}
+	}
+
+	/**
+	 * @return Returns the length of received datagram index
+	 */
+	public int getLength(int index) {
+		return this.vector.getInt((long) index * MMSGHDR_SIZE + MSG_LEN_OFFSET);
+	}
+
+	/**
+	 * Copies received datagram index into buffer.
+	 *
+	 * @return Returns the number of bytes copied
+	 */
+	public int read(int index, byte[] buffer) {
+		int length = Math.min(getLength(index),buffer.length);
+
+		this.data.read((long) index * this.bufferSize,buffer,0,length);
+
+		return length;
+	}
+
+	/**
+	 * @return Returns the source address and port of received datagram index
+	 */
+	public InetSocketAddress getSocketAddress(int index) {
+		long offset = getNameOffset(index);
+
+		int port = ((this.vector.getByte(offset + 2) & 0xff) << 8) | (this.vector.getByte(offset + 3) & 0xff);
+
+		try {
+			if (this.vector.getShort(offset) == AF_INET6) {
+				return new InetSocketAddress(InetAddress.getByAddress(this.vector.getByteArray(offset + 8,16)),port);
+			}
+
+			return new InetSocketAddress(InetAddress.getByAddress(this.vector.getByteArray(offset + 4,4)),port);
+
+		} catch (UnknownHostException uhe) {
+			return null;
+		}
+	}
+
+	/**
+	 * Wakes up a thread blocked in receive(); close() must still be called.
+	 */
+	public synchronized void shutdownInput() {
+		this.closed = true;
+
+		if (this.open) {
+			libraryInstance.shutdown(this.fd,SHUT_RD);
+		}
+	}
+
+	public synchronized void close() {
+		this.closed = true;
+
+		if (this.open) {
+			this.open = false;
+
+			libraryInstance.close(this.fd);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package org.productivity.java.syslog4j.impl.net.udp.mmsg;
+
+import java.io.Serial;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+import org.productivity.java.syslog4j.impl.net.udp.UDPNetSyslog;
+
+/**
+* MmsgUDPNetSyslog is an extension of UDPNetSyslog whose writer Thread sends
+* the messages drained from its queue with one sendmmsg(2) call per
+* sendBatchSize datagrams.
+*
+* <p>sendmmsg(2) is called through JNA on 64-bit Linux only (see
+* MmsgSocket.isSupported()).  Elsewhere, or if the native socket cannot be
+* created, the writer Thread sends every datagram through the
+* DatagramSocket of UDPNetSyslog.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class MmsgUDPNetSyslog extends UDPNetSyslog {
+	@Serial private static final long serialVersionUID = -1486935624096143358L;
+
+	protected MmsgUDPNetSyslogWriter writer = null;
+
+	protected MmsgUDPNetSyslogConfigIF mmsgUdpNetSyslogConfig = null;
+
+	public void initialize() throws SyslogRuntimeException {
+		super.initialize();
+
+		try {
+			this.mmsgUdpNetSyslogConfig = (MmsgUDPNetSyslogConfigIF) this.syslogConfig;
+
+		} catch (ClassCastException cce) {
+			throw new SyslogRuntimeException("config must implement interface MmsgUDPNetSyslogConfigIF");
+		}
+	}
+
+	public AbstractSyslogWriter getWriter() {
+		return getWriter(true);
+	}
+
+	public synchronized AbstractSyslogWriter getWriter(boolean create) {
+		if (this.writer != null || !create || !this.syslogConfig.isThreaded()) {
+			return this.writer;
+		}
+
+		this.writer = (MmsgUDPNetSyslogWriter) createWriter();
+
+		createWriterThread(this.writer);
+
+		return this.writer;
+	}
+
+	protected void write(int level, byte[] message) throws SyslogRuntimeException {
+		AbstractSyslogWriter syslogWriter = getWriter();
+
+		if (syslogWriter != null && syslogWriter.hasThread()) {
+			syslogWriter.queue(level,message);
+
+		} else {
+			send(message,0,message.length);
+		}
+	}
+
+	protected void write(int level, byte[] message, int offset, int length) throws SyslogRuntimeException {
+		AbstractSyslogWriter syslogWriter = getWriter();
+
+		if (syslogWriter != null && syslogWriter.hasThread()) {
+			syslogWriter.queue(level,Arrays.copyOfRange(message,offset,offset + length));
+
+		} else {
+			send(message,offset,length);
+		}
+	}
+
+	protected boolean queue(int level, String pattern, Object[] args) {
+		AbstractSyslogWriter syslogWriter = getWriter();
+
+		if (syslogWriter != null && syslogWriter.hasThread()) {
+			syslogWriter.queue(new QueuedSyslogMessage(level,pattern,args));
+			return true;
+		}
+
+		return false;
+	}
+
+	protected boolean queue(int level, List<byte[]> packets, CompletableFuture<SyslogDeliveryResult> delivery) {
+		AbstractSyslogWriter syslogWriter = getWriter();
+
+		if (syslogWriter != null && syslogWriter.hasThread()) {
+			for(int i=0; i<packets.size(); i++) {
+				syslogWriter.queue(new QueuedSyslogMessage(level,packets.get(i),delivery,i == packets.size() - 1));
+			}
+
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Overridden so that MmsgUDPNetSyslogWriter may call it, as is send(..).
+	 */
+	protected InetSocketAddress selectAddress() throws SyslogRuntimeException {
+		return super.selectAddress();
+	}
+
+	protected void send(byte[] message, int offset, int length) throws SyslogRuntimeException {
+		super.send(message,offset,length);
+	}
+
+	/**
+	 * Sends the queued messages; the writer Thread is started again by the next message.
+	 */
+	public void flush() throws SyslogRuntimeException {
+		MmsgUDPNetSyslogWriter syslogWriter = (MmsgUDPNetSyslogWriter) getWriter(false);
+
+		if (syslogWriter != null) {
+			syslogWriter.shutdown();
+
+			synchronized(this) {
+				this.writer = null;
+			}
+		}
+
+		super.flush();
+	}
+
+	public void shutdown() throws SyslogRuntimeException {
+		MmsgUDPNetSyslogWriter syslogWriter = (MmsgUDPNetSyslogWriter) getWriter(false);
+
+		if (syslogWriter != null) {
+			syslogWriter.shutdown();
+		}
+
+		super.shutdown();
+	}
+}
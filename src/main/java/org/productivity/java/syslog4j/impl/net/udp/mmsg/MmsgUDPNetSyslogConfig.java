@@ -0,0 +1,65 @@
+package org.productivity.java.syslog4j.impl.net.udp.mmsg;
+
+import java.io.Serial;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.net.udp.UDPNetSyslogConfig;
+
+/**
+* MmsgUDPNetSyslogConfig is an extension of UDPNetSyslogConfig that provides
+* configuration support for MmsgUDPNetSyslog.
+* 
+* <p>Messages are batched only in "threaded" mode (the default); otherwise
+* every message is sent as by UDPNetSyslog.</p>
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class MmsgUDPNetSyslogConfig extends UDPNetSyslogConfig implements MmsgUDPNetSyslogConfigIF {
+	@Serial private static final long serialVersionUID = 6054021937712844105L;
+	
+	protected int sendBatchSize = UDP_MMSG_SEND_BATCH_SIZE_DEFAULT;
+	
+	public MmsgUDPNetSyslogConfig() {
+		super();
+	}
+
+	public MmsgUDPNetSyslogConfig(int facility, String host, int port) {
+		super(facility,host,port);
+	}
+
+	public MmsgUDPNetSyslogConfig(int facility, String host) {
+		super(facility,host);
+	}
+
+	public MmsgUDPNetSyslogConfig(int facility) {
+		super(facility);
+	}
+
+	public MmsgUDPNetSyslogConfig(String host, int port) {
+		super(host,port);
+	}
+
+	public MmsgUDPNetSyslogConfig(String host) {
+		super(host);
+	}
+	
+	public int getSendBatchSize() {
+		return this.sendBatchSize;
+	}
+
+	public void setSendBatchSize(int sendBatchSize) {
+		this.sendBatchSize = sendBatchSize;
+	}
+
+	public Class<? extends SyslogIF> getSyslogClass() {
+		return MmsgUDPNetSyslog.class;
+	}
+
+	public Class<? extends AbstractSyslogWriter> getSyslogWriterClass() {
+		return MmsgUDPNetSyslogWriter.class;
+	}
+}
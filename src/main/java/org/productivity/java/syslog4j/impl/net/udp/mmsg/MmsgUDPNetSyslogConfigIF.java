@@ -0,0 +1,22 @@
+package org.productivity.java.syslog4j.impl.net.udp.mmsg;
+
+import org.productivity.java.syslog4j.impl.net.AbstractNetSyslogConfigIF;
+
+/**
+* MmsgUDPNetSyslogConfigIF is a configuration interface supporting the
+* sendmmsg(2)-based UDP/IP Syslog implementation.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public interface MmsgUDPNetSyslogConfigIF extends AbstractNetSyslogConfigIF {
+	/**
+	 * @return Returns the most datagrams the writer Thread sends per
+	 *     sendmmsg(2) call (at most MmsgSocket.MAX_BATCH_SIZE)
+	 */
+	int getSendBatchSize();
+	void setSendBatchSize(int sendBatchSize);
+}
@@ -0,0 +1,235 @@
+package org.productivity.java.syslog4j.impl.net.udp.mmsg;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslog;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+import org.productivity.java.syslog4j.util.OSDetectUtility;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+/**
+* MmsgUDPNetSyslogWriter is an implementation of AbstractSyslogWriter that
+* sends the messages drained from its queue through a MmsgSocket.
+*
+* <p>If sendmmsg(2) is not supported, or fails for a datagram more than
+* writeRetries times, the message of that datagram is sent (or backlogged)
+* through the DatagramSocket of UDPNetSyslog instead.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class MmsgUDPNetSyslogWriter extends AbstractSyslogWriter {
+	@Serial private static final long serialVersionUID = -4406513826624419376L;
+
+	protected MmsgUDPNetSyslog mmsgUdpNetSyslog = null;
+	protected MmsgUDPNetSyslogConfigIF mmsgUdpNetSyslogConfig = null;
+
+	protected transient MmsgSocket socket = null;
+	protected transient boolean socketUnavailable = false;
+
+	protected transient List<byte[]> packets = null;
+	protected transient List<InetSocketAddress> addresses = null;
+	protected transient List<QueuedSyslogMessage> packetMessages = null;
+
+	protected final LongAdder sendCallCount = new LongAdder();
+
+	public void initialize(AbstractSyslog abstractSyslog) {
+		super.initialize(abstractSyslog);
+
+		try {
+			this.mmsgUdpNetSyslog = (MmsgUDPNetSyslog) abstractSyslog;
+			this.mmsgUdpNetSyslogConfig = (MmsgUDPNetSyslogConfigIF) this.syslogConfig;
+
+		} catch (ClassCastException cce) {
+			throw new SyslogRuntimeException("config must implement interface MmsgUDPNetSyslogConfigIF");
+		}
+	}
+
+	/**
+	 * @return Returns the number of sendmmsg(2) calls made
+	 */
+	public long getSendCallCount() {
+		return this.sendCallCount.sum();
+	}
+
+	/**
+	 * @return Returns the socket, or null if sendmmsg(2) is not supported
+	 */
+	protected MmsgSocket getSocket() {
+		if (this.socket == null && !this.socketUnavailable) {
+			if (OSDetectUtility.isLinux() && SyslogUtility.isClassExists(SyslogConstants.JNA_NATIVE_CLASS) && MmsgSocket.isSupported()) {
+				try {
+					this.socket = new MmsgSocket(this.mmsgUdpNetSyslogConfig.getSendBatchSize());
+
+				} catch (IOException ioe) {
+					this.socketUnavailable = true;
+				}
+
+			} else {
+				this.socketUnavailable = true;
+			}
+		}
+
+		return this.socket;
+	}
+
+	public void write(byte[] message) {
+		this.mmsgUdpNetSyslog.send(message,0,message.length);
+	}
+
+	public void write(byte[] message, int offset, int length) {
+		this.mmsgUdpNetSyslog.send(message,offset,length);
+	}
+
+	protected void writeQueued(List<QueuedSyslogMessage> messages) {
+		MmsgSocket _socket = getSocket();
+
+		if (_socket == null) {
+			super.writeQueued(messages);
+			return;
+		}
+
+		if (this.packets == null) {
+			this.packets = new ArrayList<>();
+			this.addresses = new ArrayList<>();
+			this.packetMessages = new ArrayList<>();
+		}
+
+		for (QueuedSyslogMessage message : messages) {
+			try {
+				List<byte[]> messagePackets = message.isDeferred() ? createPackets(message) : Collections.singletonList(message.getData());
+				InetSocketAddress address = this.mmsgUdpNetSyslog.selectAddress();
+
+				for (byte[] packet : messagePackets) {
+					this.packets.add(packet);
+					this.addresses.add(address);
+					this.packetMessages.add(message);
+				}
+
+			} catch (RuntimeException re) {
+				this.syslog.backLog(message.getLevel(),getMessageText(message),re);
+
+				message.complete(SyslogDeliveryResult.BACKLOGGED);
+			}
+		}
+
+		try {
+			send(_socket);
+
+		} finally {
+			this.packets.clear();
+			this.addresses.clear();
+			this.packetMessages.clear();
+		}
+	}
+
+	protected void send(MmsgSocket _socket) {
+		int sent = 0;
+		int attempts = 0;
+
+		while(sent < this.packets.size()) {
+			try {
+				sent += _socket.send(this.packets,this.addresses,sent,this.packets.size() - sent);
+				this.sendCallCount.increment();
+
+				attempts = 0;
+
+			} catch (IOException ioe) {
+				attempts++;
+
+				if (attempts > this.syslogConfig.getWriteRetries()) {
+					sent = fallBack(sent);
+					attempts = 0;
+				}
+			}
+		}
+
+		QueuedSyslogMessage previous = null;
+
+		for (QueuedSyslogMessage message : this.packetMessages) {
+			if (message != previous && message != null) {
+				message.complete(SyslogDeliveryResult.WRITTEN);
+				previous = message;
+			}
+		}
+
+		if (previous != null) {
+			this.syslog.setBackLogStatus(false);
+		}
+	}
+
+	/**
+	 * Writes the message of packet index through the DatagramSocket.
+	 *
+	 * @return Returns the index of the first packet of the next message
+	 */
+	protected int fallBack(int index) {
+		QueuedSyslogMessage message = this.packetMessages.get(index);
+
+		this.mmsgUdpNetSyslog.invalidateHostAddress();
+
+		for(int i=index - 1; i >= 0 && this.packetMessages.get(i) == message; i--) {
+			this.packetMessages.set(i,null);
+		}
+
+		int next = index;
+
+		while (next < this.packets.size() && this.packetMessages.get(next) == message) {
+			this.packetMessages.set(next,null);
+			next++;
+		}
+
+		try {
+			for(int i=index; i<next; i++) {
+				write(this.packets.get(i));
+			}
+
+			this.syslog.setBackLogStatus(false);
+
+			message.complete(SyslogDeliveryResult.WRITTEN);
+
+		} catch (SyslogRuntimeException sre) {
+			this.syslog.backLog(message.getLevel(),getMessageText(message),sre);
+
+			message.complete(SyslogDeliveryResult.BACKLOGGED);
+		}
+
+		return next;
+	}
+
+	public void flush() {
+		//
+	}
+
+	public synchronized void shutdown() throws SyslogRuntimeException {
+		this.shutdown = true;
+
+		wakeUp();
+
+		long timeStart = System.currentTimeMillis();
+
+		while(hasThread() && System.currentTimeMillis() < timeStart + this.syslogConfig.getMaxShutdownWait()) {
+			SyslogUtility.sleep(SyslogConstants.SHUTDOWN_INTERVAL);
+		}
+	}
+
+	protected void runCompleted() {
+		if (this.socket != null) {
+			this.socket.close();
+			this.socket = null;
+		}
+	}
+}
@@ -0,0 +1,295 @@
+package org.productivity.java.syslog4j.impl.net.udp.nio;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.net.AbstractNetSyslog;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestination;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestinations;
+
+/**
+* NioUDPNetSyslog is an extension of AbstractNetSyslog that provides support
+* for UDP/IP-based syslog clients over connected DatagramChannels.
+*
+* <p>The channel is connected once, so the host address is resolved when
+* the channel is opened (and after a failed send, or flush()) instead of
+* per message, and sending skips the per-packet address checks of an
+* unconnected DatagramSocket.  Each message is copied into a reusable direct
+* ByteBuffer, which the channel sends without a further copy.</p>
+*
+* <p>With channelStripes greater than 1, logging Threads are spread by
+* Thread id over that many channels and buffers, so that concurrent
+* Threads rarely wait for each other.  With several destinations, every
+* stripe connects one channel per destination.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NioUDPNetSyslog extends AbstractNetSyslog {
+	@Serial private static final long serialVersionUID = 3346781906624618442L;
+
+	protected static class ChannelStripe {
+		protected final ReentrantLock lock = new ReentrantLock();
+
+		protected DatagramChannel channel = null;
+		protected DatagramChannel[] destinationChannels = null;
+
+		protected ByteBuffer buffer = null;
+
+		protected ByteBuffer getBuffer(int length) {
+			if (this.buffer == null || this.buffer.capacity() < length) {
+				this.buffer = ByteBuffer.allocateDirect(Math.max(length,SyslogConstants.SYSLOG_BUFFER_SIZE));
+			}
+
+			this.buffer.clear();
+
+			return this.buffer;
+		}
+
+		protected void close() {
+			closeChannel(this.channel);
+			this.channel = null;
+
+			if (this.destinationChannels != null) {
+				for (DatagramChannel destinationChannel : this.destinationChannels) {
+					closeChannel(destinationChannel);
+				}
+
+				this.destinationChannels = null;
+			}
+		}
+	}
+
+	protected NioUDPNetSyslogConfigIF nioUdpNetSyslogConfig = null;
+
+	protected transient volatile ChannelStripe[] stripes = null;
+
+	protected void initialize() throws SyslogRuntimeException {
+		super.initialize();
+
+		try {
+			this.nioUdpNetSyslogConfig = (NioUDPNetSyslogConfigIF) this.syslogConfig;
+
+		} catch (ClassCastException cce) {
+			throw new SyslogRuntimeException("config must implement interface NioUDPNetSyslogConfigIF");
+		}
+	}
+
+	protected ChannelStripe getStripe() {
+		ChannelStripe[] _stripes = this.stripes;
+
+		if (_stripes == null) {
+			_stripes = createStripes();
+		}
+
+		if (_stripes.length == 1) {
+			return _stripes[0];
+		}
+
+		return _stripes[(int) Math.floorMod(Thread.currentThread().getId(),(long) _stripes.length)];
+	}
+
+	protected synchronized ChannelStripe[] createStripes() {
+		if (this.stripes == null) {
+			ChannelStripe[] _stripes = new ChannelStripe[Math.max(1,this.nioUdpNetSyslogConfig.getChannelStripes())];
+
+			for(int i=0; i<_stripes.length; i++) {
+				_stripes[i] = new ChannelStripe();
+			}
+
+			this.stripes = _stripes;
+		}
+
+		return this.stripes;
+	}
+
+	protected DatagramChannel openChannel(InetAddress hostAddress, int port) throws IOException {
+		DatagramChannel newChannel = DatagramChannel.open();
+
+		try {
+			newChannel.connect(new InetSocketAddress(hostAddress,port));
+
+		} catch (IOException ioe) {
+			closeChannel(newChannel);
+
+			throw ioe;
+		}
+
+		return newChannel;
+	}
+
+	protected static void closeChannel(DatagramChannel channelToClose) {
+		if (channelToClose == null) {
+			return;
+		}
+
+		try {
+			channelToClose.close();
+
+		} catch (IOException ioe) {
+			//
+		}
+	}
+
+	/**
+	 * @return Returns the index of destination, for ChannelStripe.destinationChannels
+	 */
+	protected static int indexOf(NetSyslogDestination[] destinations, NetSyslogDestination destination) {
+		for(int i=0; i<destinations.length; i++) {
+			if (destinations[i] == destination) {
+				return i;
+			}
+		}
+
+		throw new SyslogRuntimeException("Unknown destination: " + destination);
+	}
+
+	/**
+	 * @return Returns the connected channel of stripe for destination (or, if null, for host and port)
+	 */
+	protected DatagramChannel getChannel(ChannelStripe stripe, NetSyslogDestinations destinations, NetSyslogDestination destination) throws IOException {
+		if (destination == null) {
+			if (stripe.channel == null || !stripe.channel.isOpen()) {
+				stripe.channel = openChannel(getHostAddress(),this.syslogConfig.getPort());
+			}
+
+			return stripe.channel;
+		}
+
+		NetSyslogDestination[] _destinations = destinations.getDestinations();
+
+		if (stripe.destinationChannels == null) {
+			stripe.destinationChannels = new DatagramChannel[_destinations.length];
+		}
+
+		int index = indexOf(_destinations,destination);
+
+		DatagramChannel destinationChannel = stripe.destinationChannels[index];
+
+		if (destinationChannel == null || !destinationChannel.isOpen()) {
+			destinationChannel = openChannel(destination.getHostAddress(this.netSyslogConfig.isCacheHostAddress()),destination.getPort());
+			stripe.destinationChannels[index] = destinationChannel;
+		}
+
+		return destinationChannel;
+	}
+
+	protected void write(int level, byte[] message) throws SyslogRuntimeException {
+		write(level,message,0,message.length);
+	}
+
+	protected void write(int level, byte[] message, int offset, int length) throws SyslogRuntimeException {
+		NetSyslogDestinations destinations = getDestinations();
+		NetSyslogDestination destination = null;
+
+		if (destinations != null) {
+			destination = destinations.select();
+
+			if (destination == null) {
+				throw new SyslogRuntimeException("No destination available");
+			}
+		}
+
+		ChannelStripe stripe = getStripe();
+
+		stripe.lock.lock();
+
+		try {
+			ByteBuffer buffer = stripe.getBuffer(length);
+
+			buffer.put(message,offset,length);
+			buffer.flip();
+
+			int attempts = 0;
+
+			while(true) {
+				DatagramChannel currentChannel = null;
+
+				try {
+					currentChannel = getChannel(stripe,destinations,destination);
+
+					buffer.rewind();
+					currentChannel.write(buffer);
+
+					return;
+
+				} catch (PortUnreachableException pue) {
+					// reported for an earlier datagram; the channel is still usable
+					attempts++;
+
+					if (attempts > this.netSyslogConfig.getWriteRetries()) {
+						throw new SyslogRuntimeException(pue);
+					}
+
+				} catch (IOException ioe) {
+					attempts++;
+
+					closeChannel(currentChannel);
+
+					if (destination == null) {
+						invalidateHostAddress();
+					}
+
+					if (attempts > this.netSyslogConfig.getWriteRetries()) {
+						throw new SyslogRuntimeException(ioe);
+					}
+				}
+			}
+
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the channels; they are opened (and host addresses resolved) again by the next message.
+	 */
+	public void flush() throws SyslogRuntimeException {
+		ChannelStripe[] _stripes = this.stripes;
+
+		if (_stripes == null) {
+			return;
+		}
+
+		for (ChannelStripe stripe : _stripes) {
+			stripe.lock.lock();
+
+			try {
+				stripe.close();
+
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+	}
+
+	public void shutdown() throws SyslogRuntimeException {
+		flush();
+
+		shutdownDestinations();
+	}
+
+	protected boolean isHealthCheckSupported() {
+		return false;
+	}
+
+	public AbstractSyslogWriter getWriter() {
+		return null;
+	}
+
+	public void returnWriter(AbstractSyslogWriter syslogWriter) {
+		//
+	}
+}
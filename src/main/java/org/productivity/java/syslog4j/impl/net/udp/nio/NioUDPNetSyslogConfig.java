@@ -0,0 +1,57 @@
+package org.productivity.java.syslog4j.impl.net.udp.nio;
+
+import java.io.Serial;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.impl.net.udp.UDPNetSyslogConfig;
+
+/**
+* NioUDPNetSyslogConfig is an extension of UDPNetSyslogConfig that provides
+* configuration support for NioUDPNetSyslog.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NioUDPNetSyslogConfig extends UDPNetSyslogConfig implements NioUDPNetSyslogConfigIF {
+	@Serial private static final long serialVersionUID = -2911254389041753621L;
+	
+	protected int channelStripes = UDP_NIO_CHANNEL_STRIPES_DEFAULT;
+	
+	public NioUDPNetSyslogConfig() {
+		super();
+	}
+
+	public NioUDPNetSyslogConfig(int facility, String host, int port) {
+		super(facility,host,port);
+	}
+
+	public NioUDPNetSyslogConfig(int facility, String host) {
+		super(facility,host);
+	}
+
+	public NioUDPNetSyslogConfig(int facility) {
+		super(facility);
+	}
+
+	public NioUDPNetSyslogConfig(String host, int port) {
+		super(host,port);
+	}
+
+	public NioUDPNetSyslogConfig(String host) {
+		super(host);
+	}
+	
+	public int getChannelStripes() {
+		return this.channelStripes;
+	}
+
+	public void setChannelStripes(int channelStripes) {
+		this.channelStripes = channelStripes;
+	}
+
+	public Class<? extends SyslogIF> getSyslogClass() {
+		return NioUDPNetSyslog.class;
+	}
+}
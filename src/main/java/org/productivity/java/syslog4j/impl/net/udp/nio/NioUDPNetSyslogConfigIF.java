@@ -0,0 +1,22 @@
+package org.productivity.java.syslog4j.impl.net.udp.nio;
+
+import org.productivity.java.syslog4j.impl.net.AbstractNetSyslogConfigIF;
+
+/**
+* NioUDPNetSyslogConfigIF is a configuration interface supporting the
+* DatagramChannel-based UDP/IP Syslog implementation.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public interface NioUDPNetSyslogConfigIF extends AbstractNetSyslogConfigIF {
+	/**
+	 * @return Returns the number of channels (each with its own send buffer);
+	 *     logging Threads are spread over them by Thread id
+	 */
+	int getChannelStripes();
+	void setChannelStripes(int channelStripes);
+}
@@ -18,6 +18,7 @@ import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
 * @author &lt;syslog4j@productivity.org&gt;
 * @version $Id: AbstractSyslogPoolFactory.java,v 1.5 2008/12/10 04:15:11 cvs Exp $
 * @see org.productivity.java.syslog4j.impl.pool.generic.GenericSyslogPoolFactory
+* @see org.productivity.java.syslog4j.impl.pool.lockfree.LockFreeSyslogPoolFactory
 */
 public abstract class AbstractSyslogPoolFactory extends BasePoolableObjectFactory<AbstractSyslogWriter> {
 	protected AbstractSyslog syslog = null;
@@ -52,6 +53,17 @@ public abstract class AbstractSyslogPoolFactory extends BasePoolableObjectFactor
 		return syslogWriter;
 	}
 
+	/**
+	 * @return Returns false if the writer was shut down, or its writer Thread is gone
+	 */
+	public boolean validateObject(AbstractSyslogWriter writer) {
+		if (writer.isShutdown()) {
+			return false;
+		}
+		
+		return !this.syslogConfig.isThreaded() || writer.hasThread();
+	}
+
 	public void destroyObject(AbstractSyslogWriter writer) throws Exception {
 
 		writer.shutdown();
@@ -0,0 +1,59 @@
+package org.productivity.java.syslog4j.impl.pool.lockfree;
+
+import org.apache.commons.pool.ObjectPool;
+import org.productivity.java.syslog4j.SyslogPoolConfigIF;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogWriter;
+import org.productivity.java.syslog4j.impl.pool.AbstractSyslogPoolFactory;
+
+/**
+* LockFreeSyslogPoolFactory is an implementation of AbstractSyslogPoolFactory
+* using a LockFreeSyslogWriterPool.  TCP writers are connected when they are
+* created, so that minIdle writers are ready before the first message.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class LockFreeSyslogPoolFactory extends AbstractSyslogPoolFactory {
+	public AbstractSyslogWriter makeObject() {
+		AbstractSyslogWriter syslogWriter = this.syslog.createWriter();
+		
+		if (syslogWriter instanceof TCPNetSyslogWriter) {
+			((TCPNetSyslogWriter) syslogWriter).open();
+		}
+		
+		if (this.syslogConfig.isThreaded()) {
+			this.syslog.createWriterThread(syslogWriter);
+		}
+		
+		return syslogWriter;
+	}
+	
+	public ObjectPool<AbstractSyslogWriter> createPool() throws SyslogRuntimeException {
+		SyslogPoolConfigIF poolConfig;
+		
+		try {
+			poolConfig = (SyslogPoolConfigIF) this.syslog.getConfig();
+			
+		} catch (ClassCastException cce) {
+			throw new SyslogRuntimeException("config must implement interface SyslogPoolConfigIF");
+		}
+		
+		LockFreeSyslogWriterPool writerPool = new LockFreeSyslogWriterPool(this,poolConfig);
+		
+		writerPool.startMaintenance(this.syslogConfig.getExecutor(),"SyslogPool: " + this.syslog.getProtocol());
+		
+		return writerPool;
+	}
+	
+	/**
+	 * @return Returns the pool, e.g. for its borrow wait time metrics
+	 */
+	public LockFreeSyslogWriterPool getWriterPool() {
+		return (LockFreeSyslogWriterPool) this.pool;
+	}
+}
@@ -0,0 +1,517 @@
+package org.productivity.java.syslog4j.impl.pool.lockfree;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.pool.BaseObjectPool;
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogExecutorIF;
+import org.productivity.java.syslog4j.SyslogPoolConfigIF;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.pool.AbstractSyslogPoolFactory;
+
+/**
+* LockFreeSyslogWriterPool is a pool of syslog writers which borrows and
+* returns without locking.
+*
+* <p>Idle writers are kept in a fixed array of slots, each on its own cache
+* line.  A Thread first tries the slot derived from its id, so that it
+* usually gets back the writer (and connection) it returned last, then scans
+* the other slots; a slot is taken or filled with a single compare-and-set,
+* and no other shared counter is written.  Only a Thread which finds the
+* pool exhausted (maxActive writers borrowed) blocks, according to
+* whenExhaustedAction and maxWait.  At most maxIdle slots are used.</p>
+*
+* <p>A maintenance Thread creates minIdle writers in advance and then, every
+* timeBetweenEvictionRunsMillis, validates the idle writers and evicts those
+* idle for longer than minEvictableIdleTimeMillis (or
+* softMinEvictableIdleTimeMillis, keeping minIdle).  numTestsPerEvictionRun
+* is not used: every idle writer is validated on each run.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class LockFreeSyslogWriterPool extends BaseObjectPool<AbstractSyslogWriter> implements Runnable {
+	/**
+	 * Array elements between two slots, so that each slot is on its own cache line.
+	 */
+	protected static final int SLOT_STRIDE = 16;
+
+	protected final AbstractSyslogPoolFactory factory;
+	protected final SyslogPoolConfigIF poolConfig;
+
+	protected final int slotCount;
+	protected final AtomicReferenceArray<AbstractSyslogWriter> idleWriters;
+	protected final AtomicLongArray idleSince;
+
+	protected final AtomicInteger totalCount = new AtomicInteger();
+
+	protected final AtomicInteger waiting = new AtomicInteger();
+	protected final ReentrantLock waitLock = new ReentrantLock();
+	protected final Condition available = this.waitLock.newCondition();
+
+	protected final LongAdder borrowCount = new LongAdder();
+	protected final LongAdder borrowWaitCount = new LongAdder();
+	protected final LongAdder borrowWaitTimeNanos = new LongAdder();
+	protected final AtomicLong maxBorrowWaitTimeNanos = new AtomicLong();
+	protected final LongAdder exhaustedCount = new LongAdder();
+
+	protected volatile Thread maintenanceThread = null;
+
+	public LockFreeSyslogWriterPool(AbstractSyslogPoolFactory factory, SyslogPoolConfigIF poolConfig) {
+		this.factory = factory;
+		this.poolConfig = poolConfig;
+
+		int slots = poolConfig.getMaxActive();
+
+		if (slots <= 0) {
+			slots = poolConfig.getMaxIdle() > 0 ? poolConfig.getMaxIdle() : SyslogConstants.SYSLOG_POOL_CONFIG_MAX_ACTIVE_DEFAULT;
+		}
+
+		this.slotCount = slots;
+		this.idleWriters = new AtomicReferenceArray<>(slots * SLOT_STRIDE);
+		this.idleSince = new AtomicLongArray(slots * SLOT_STRIDE);
+	}
+
+	/**
+	 * @return Returns the number of slots idle writers may use (at most maxIdle)
+	 */
+	protected int getIdleSlotCount() {
+		int maxIdle = this.poolConfig.getMaxIdle();
+
+		return maxIdle < 0 ? this.slotCount : Math.min(maxIdle,this.slotCount);
+	}
+
+	protected static int getHomeSlot(int slots) {
+		return (int) Math.floorMod(Thread.currentThread().getId(),(long) slots);
+	}
+
+	public AbstractSyslogWriter borrowObject() throws Exception {
+		long waitStart = 0;
+		boolean waited = false;
+
+		while(true) {
+			assertOpen();
+
+			AbstractSyslogWriter writer = poll();
+
+			if (writer == null) {
+				writer = create();
+			}
+
+			if (writer == null) {
+				if (!waited) {
+					waited = true;
+					waitStart = System.nanoTime();
+				}
+
+				writer = await(waitStart);
+			}
+
+			if (this.poolConfig.isTestOnBorrow() && !this.factory.validateObject(writer)) {
+				destroy(writer);
+				continue;
+			}
+
+			this.borrowCount.increment();
+
+			if (waited) {
+				recordWait(System.nanoTime() - waitStart);
+			}
+
+			return writer;
+		}
+	}
+
+	protected void recordWait(long waitTimeNanos) {
+		this.borrowWaitCount.increment();
+		this.borrowWaitTimeNanos.add(waitTimeNanos);
+		this.maxBorrowWaitTimeNanos.accumulateAndGet(waitTimeNanos,Math::max);
+	}
+
+	/**
+	 * @return Returns an idle writer, or null if there is none
+	 */
+	protected AbstractSyslogWriter poll() {
+		int slots = this.slotCount;
+		int slot = getHomeSlot(Math.max(1,getIdleSlotCount()));
+
+		for(int i=0; i<slots; i++) {
+			int index = slot * SLOT_STRIDE;
+
+			AbstractSyslogWriter writer = this.idleWriters.get(index);
+
+			if (writer != null && this.idleWriters.compareAndSet(index,writer,null)) {
+				return writer;
+			}
+
+			if (++slot == slots) {
+				slot = 0;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return Returns false if the writer could not be kept idle (maxIdle reached)
+	 */
+	protected boolean offer(AbstractSyslogWriter writer) {
+		int slots = getIdleSlotCount();
+
+		if (slots <= 0) {
+			return false;
+		}
+
+		boolean timestamp = this.poolConfig.getMinEvictableIdleTimeMillis() > 0 || this.poolConfig.getSoftMinEvictableIdleTimeMillis() > 0;
+
+		int slot = getHomeSlot(slots);
+
+		for(int i=0; i<slots; i++) {
+			int index = slot * SLOT_STRIDE;
+
+			if (this.idleWriters.get(index) == null && this.idleWriters.compareAndSet(index,null,writer)) {
+				if (timestamp) {
+					this.idleSince.lazySet(index,System.currentTimeMillis());
+				}
+
+				signal();
+
+				return true;
+			}
+
+			if (++slot == slots) {
+				slot = 0;
+			}
+		}
+
+		return false;
+	}
+
+	protected boolean hasIdle() {
+		for(int i=0; i<this.slotCount; i++) {
+			if (this.idleWriters.get(i * SLOT_STRIDE) != null) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return Returns a new writer, or null if maxActive writers exist
+	 */
+	protected AbstractSyslogWriter create() throws Exception {
+		int maxActive = this.poolConfig.getMaxActive();
+		boolean grow = maxActive < 0 || this.poolConfig.getWhenExhaustedAction() == GenericObjectPool.WHEN_EXHAUSTED_GROW;
+
+		while(true) {
+			int total = this.totalCount.get();
+
+			if (!grow && total >= maxActive) {
+				return null;
+			}
+
+			if (this.totalCount.compareAndSet(total,total + 1)) {
+				break;
+			}
+		}
+
+		try {
+			return this.factory.makeObject();
+
+		} catch (Exception e) {
+			this.totalCount.decrementAndGet();
+			signal();
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Blocks until a writer is returned or may be created.  The lock is only
+	 * held to wait, so that returning a writer never waits for a new writer
+	 * to connect.
+	 */
+	protected AbstractSyslogWriter await(long waitStart) throws Exception {
+		if (this.poolConfig.getWhenExhaustedAction() == GenericObjectPool.WHEN_EXHAUSTED_FAIL) {
+			this.exhaustedCount.increment();
+
+			throw new NoSuchElementException("Pool exhausted");
+		}
+
+		long maxWait = this.poolConfig.getMaxWait();
+		long deadline = maxWait > 0 ? waitStart + TimeUnit.MILLISECONDS.toNanos(maxWait) : 0;
+
+		this.waiting.incrementAndGet();
+
+		try {
+			while(true) {
+				assertOpen();
+
+				AbstractSyslogWriter writer = poll();
+
+				if (writer == null) {
+					writer = create();
+				}
+
+				if (writer != null) {
+					return writer;
+				}
+
+				this.waitLock.lock();
+
+				try {
+					if (isClosed() || hasIdle() || this.totalCount.get() < this.poolConfig.getMaxActive()) {
+						continue;
+					}
+
+					if (deadline == 0) {
+						this.available.await();
+
+					} else {
+						long remaining = deadline - System.nanoTime();
+
+						if (remaining <= 0) {
+							this.exhaustedCount.increment();
+
+							throw new NoSuchElementException("Timeout waiting for idle object");
+						}
+
+						this.available.awaitNanos(remaining);
+					}
+
+				} finally {
+					this.waitLock.unlock();
+				}
+			}
+
+		} finally {
+			this.waiting.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Wakes up a Thread waiting in await(..), if any.
+	 */
+	protected void signal() {
+		if (this.waiting.get() > 0) {
+			this.waitLock.lock();
+
+			try {
+				this.available.signal();
+
+			} finally {
+				this.waitLock.unlock();
+			}
+		}
+	}
+
+	protected void destroy(AbstractSyslogWriter writer) {
+		this.totalCount.decrementAndGet();
+
+		signal();
+
+		try {
+			this.factory.destroyObject(writer);
+
+		} catch (Exception e) {
+			//
+		}
+	}
+
+	public void returnObject(AbstractSyslogWriter writer) throws Exception {
+		if (isClosed() || (this.poolConfig.isTestOnReturn() && !this.factory.validateObject(writer)) || !offer(writer)) {
+			destroy(writer);
+		}
+	}
+
+	public void invalidateObject(AbstractSyslogWriter writer) throws Exception {
+		destroy(writer);
+	}
+
+	public void addObject() throws Exception {
+		assertOpen();
+
+		AbstractSyslogWriter writer = create();
+
+		if (writer == null) {
+			throw new IllegalStateException("Pool exhausted");
+		}
+
+		if (!offer(writer)) {
+			destroy(writer);
+		}
+	}
+
+	public int getNumIdle() {
+		int idle = 0;
+
+		for(int i=0; i<this.slotCount; i++) {
+			if (this.idleWriters.get(i * SLOT_STRIDE) != null) {
+				idle++;
+			}
+		}
+
+		return idle;
+	}
+
+	/**
+	 * @return Returns the number of borrowed writers (approximate while writers are borrowed or returned)
+	 */
+	public int getNumActive() {
+		return Math.max(0,this.totalCount.get() - getNumIdle());
+	}
+
+	public long getBorrowCount() {
+		return this.borrowCount.sum();
+	}
+
+	/**
+	 * @return Returns the number of borrows which found the pool exhausted and had to wait
+	 */
+	public long getBorrowWaitCount() {
+		return this.borrowWaitCount.sum();
+	}
+
+	/**
+	 * @return Returns the total time borrows spent waiting for a writer, in nanoseconds
+	 */
+	public long getBorrowWaitTimeNanos() {
+		return this.borrowWaitTimeNanos.sum();
+	}
+
+	public long getMaxBorrowWaitTimeNanos() {
+		return this.maxBorrowWaitTimeNanos.get();
+	}
+
+	/**
+	 * @return Returns the number of borrows which failed because the pool was exhausted
+	 */
+	public long getExhaustedCount() {
+		return this.exhaustedCount.sum();
+	}
+
+	public void clear() throws Exception {
+		for(int i=0; i<this.slotCount; i++) {
+			AbstractSyslogWriter writer = this.idleWriters.getAndSet(i * SLOT_STRIDE,null);
+
+			if (writer != null) {
+				destroy(writer);
+			}
+		}
+	}
+
+	public void close() throws Exception {
+		super.close();
+
+		Thread _maintenanceThread = this.maintenanceThread;
+
+		if (_maintenanceThread != null) {
+			LockSupport.unpark(_maintenanceThread);
+		}
+
+		clear();
+
+		this.waitLock.lock();
+
+		try {
+			this.available.signalAll();
+
+		} finally {
+			this.waitLock.unlock();
+		}
+	}
+
+	public void startMaintenance(SyslogExecutorIF executor, String name) {
+		this.maintenanceThread = executor.createThread(this,name,true,-1);
+		this.maintenanceThread.start();
+	}
+
+	public void run() {
+		try {
+			ensureMinIdle();
+
+			while(!isClosed() && this.poolConfig.getTimeBetweenEvictionRunsMillis() > 0) {
+				LockSupport.parkNanos(this,TimeUnit.MILLISECONDS.toNanos(this.poolConfig.getTimeBetweenEvictionRunsMillis()));
+
+				if (!isClosed()) {
+					evict();
+					ensureMinIdle();
+				}
+			}
+
+		} catch (Exception e) {
+			//
+
+		} finally {
+			this.maintenanceThread = null;
+		}
+	}
+
+	/**
+	 * Takes each idle writer out of its slot, and puts it back unless it is
+	 * invalid or idle for too long.
+	 */
+	protected void evict() {
+		long now = System.currentTimeMillis();
+
+		long minEvictableIdleTime = this.poolConfig.getMinEvictableIdleTimeMillis();
+		long softMinEvictableIdleTime = this.poolConfig.getSoftMinEvictableIdleTimeMillis();
+
+		for(int i=0; i<this.slotCount && !isClosed(); i++) {
+			int index = i * SLOT_STRIDE;
+
+			AbstractSyslogWriter writer = this.idleWriters.get(index);
+
+			if (writer == null || !this.idleWriters.compareAndSet(index,writer,null)) {
+				continue;
+			}
+
+			long idleTime = now - this.idleSince.get(index);
+
+			boolean evict = minEvictableIdleTime > 0 && idleTime > minEvictableIdleTime;
+
+			if (!evict && softMinEvictableIdleTime > 0 && idleTime > softMinEvictableIdleTime) {
+				evict = getNumIdle() >= this.poolConfig.getMinIdle();
+			}
+
+			if (evict || !this.factory.validateObject(writer)) {
+				destroy(writer);
+
+			} else if (this.idleWriters.compareAndSet(index,null,writer)) {
+				signal();
+
+			} else if (!offer(writer)) {
+				destroy(writer);
+			}
+		}
+	}
+
+	protected void ensureMinIdle() throws Exception {
+		while(!isClosed() && getNumIdle() < this.poolConfig.getMinIdle()) {
+			AbstractSyslogWriter writer = create();
+
+			if (writer == null) {
+				return;
+			}
+
+			if (!offer(writer)) {
+				destroy(writer);
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package org.productivity.java.syslog4j.impl.queue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+* SyslogRingBuffer is a bounded, lock-free multi-producer/multi-consumer queue.
+*
+* <p>Each slot carries a sequence number (after D. Vyukov's bounded queue):
+* a producer claims a slot with one CAS on the tail and publishes it by
+* advancing the slot's sequence; a consumer claims a published slot with one
+* CAS on the head.  The writer thread is the only regular consumer; producers
+* poll() only to discard the oldest element when the queue overflows.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public final class SyslogRingBuffer<E> {
+	private final int capacity;
+	private final int limit;
+	private final Object[] slots;
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+
+	public SyslogRingBuffer(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be at least 1");
+		}
+
+		// with a single slot a free and a published sequence would be equal
+		this.capacity = Math.max(2,capacity);
+		this.limit = capacity;
+		this.slots = new Object[this.capacity];
+		this.sequences = new AtomicLongArray(this.capacity);
+
+		for(int i=0; i<this.capacity; i++) {
+			this.sequences.set(i,i);
+		}
+	}
+
+	/**
+	 * @return Returns false if the buffer is full
+	 */
+	public boolean offer(E element) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+
+		long position = this.tail.get();
+		int index;
+
+		while(true) {
+			index = (int) (position % this.capacity);
+
+			long difference = this.sequences.get(index) - position;
+
+			if (difference == 0) {
+				if (this.limit < this.capacity && position - this.head.get() >= this.limit) {
+					return false;
+				}
+
+				if (this.tail.compareAndSet(position,position + 1)) {
+					break;
+				}
+
+				position = this.tail.get();
+
+			} else if (difference < 0) {
+				return false;
+
+			} else {
+				position = this.tail.get();
+			}
+		}
+
+		this.slots[index] = element;
+		this.sequences.set(index,position + 1);
+
+		return true;
+	}
+
+	/**
+	 * @return Returns the oldest published element, or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long position = this.head.get();
+		int index;
+
+		while(true) {
+			index = (int) (position % this.capacity);
+
+			long difference = this.sequences.get(index) - (position + 1);
+
+			if (difference == 0) {
+				if (this.head.compareAndSet(position,position + 1)) {
+					break;
+				}
+
+				position = this.head.get();
+
+			} else if (difference < 0) {
+				return null;
+
+			} else {
+				position = this.head.get();
+			}
+		}
+
+		E element = (E) this.slots[index];
+		this.slots[index] = null;
+
+		this.sequences.set(index,position + this.capacity);
+
+		return element;
+	}
+
+	/**
+	 * @return Returns the number of elements moved into the list
+	 */
+	public int drainTo(List<? super E> list, int maxElements) {
+		int count = 0;
+
+		while(count < maxElements) {
+			E element = poll();
+
+			if (element == null) {
+				break;
+			}
+
+			list.add(element);
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * @return Returns the number of claimed slots, including ones still being published
+	 */
+	public int size() {
+		long size = this.tail.get() - this.head.get();
+
+		return (int) Math.max(0,Math.min(size,this.limit));
+	}
+
+	public boolean isEmpty() {
+		return this.tail.get() == this.head.get();
+	}
+
+	public int capacity() {
+		return this.limit;
+	}
+}
@@ -0,0 +1,247 @@
+package org.productivity.java.syslog4j.impl.queue;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+
+/**
+* SyslogSpillFile holds encoded messages which did not fit into a writer
+* thread's queue (see AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK)
+* until the writer thread has caught up.
+*
+* <p>Each record is the message level, the length and the encoded bytes.
+* Records are appended to a buffer which is written to the file when it is
+* full or before records are read back, and are read back in chunks of
+* BUFFER_SIZE bytes.  The file is truncated whenever all records have been
+* read back.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class SyslogSpillFile {
+	protected static final int RECORD_HEADER_LENGTH = 8;
+	protected static final int BUFFER_SIZE = 65536;
+
+	protected final File file;
+	protected final long maxBytes;
+
+	protected RandomAccessFile randomAccessFile = null;
+	protected FileChannel channel = null;
+
+	protected final ByteBuffer writeBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+	protected ByteBuffer readBuffer = null;
+
+	protected volatile long readPosition = 0;
+	protected volatile long writePosition = 0;
+
+	public SyslogSpillFile(File file, long maxBytes) throws SyslogRuntimeException {
+		this.file = file;
+		this.maxBytes = maxBytes;
+
+		try {
+			this.randomAccessFile = new RandomAccessFile(file,"rw");
+			this.randomAccessFile.setLength(0);
+
+			this.channel = this.randomAccessFile.getChannel();
+
+		} catch (IOException ioe) {
+			throw new SyslogRuntimeException(ioe);
+		}
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * @return Returns false if the record would make the file exceed maxBytes
+	 */
+	public synchronized boolean append(int level, byte[] data) throws SyslogRuntimeException {
+		if (this.channel == null) {
+			throw new SyslogRuntimeException("Spill file " + this.file + " is closed");
+		}
+
+		int recordLength = RECORD_HEADER_LENGTH + data.length;
+
+		if (this.maxBytes > 0 && this.writePosition + recordLength > this.maxBytes) {
+			return false;
+		}
+
+		try {
+			if (recordLength > this.writeBuffer.remaining()) {
+				flushWrites();
+			}
+
+			if (recordLength > this.writeBuffer.capacity()) {
+				ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_LENGTH).putInt(level).putInt(data.length).flip();
+				ByteBuffer[] record = new ByteBuffer[] { header, ByteBuffer.wrap(data) };
+
+				while (record[1].hasRemaining()) {
+					this.channel.write(record);
+				}
+
+			} else {
+				this.writeBuffer.putInt(level).putInt(data.length).put(data);
+			}
+
+			this.writePosition += recordLength;
+
+		} catch (IOException ioe) {
+			throw new SyslogRuntimeException(ioe);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Writes the buffered records to the end of the file.
+	 */
+	protected void flushWrites() throws IOException {
+		this.writeBuffer.flip();
+
+		while (this.writeBuffer.hasRemaining()) {
+			this.channel.write(this.writeBuffer);
+		}
+
+		this.writeBuffer.clear();
+	}
+
+	/**
+	 * @return Returns the number of records moved into the list
+	 */
+	public synchronized int drainTo(List<? super QueuedSyslogMessage> list, int maxElements) throws SyslogRuntimeException {
+		if (this.channel == null || this.readPosition == this.writePosition) {
+			return 0;
+		}
+
+		int count = 0;
+
+		try {
+			flushWrites();
+
+			if (this.readBuffer == null) {
+				this.readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+			}
+
+			ByteBuffer buffer = this.readBuffer;
+			buffer.clear().limit(0);
+
+			long filePosition = this.readPosition;
+
+			while(count < maxElements && this.readPosition < this.writePosition) {
+				if (buffer.remaining() < RECORD_HEADER_LENGTH) {
+					filePosition = fill(buffer,filePosition);
+				}
+
+				int level = buffer.getInt();
+				byte[] data = new byte[buffer.getInt()];
+
+				int buffered = Math.min(data.length,buffer.remaining());
+				buffer.get(data,0,buffered);
+
+				if (buffered < data.length) {
+					filePosition = readFully(ByteBuffer.wrap(data,buffered,data.length - buffered),filePosition);
+				}
+
+				this.readPosition += RECORD_HEADER_LENGTH + data.length;
+
+				list.add(new QueuedSyslogMessage(level,data));
+				count++;
+			}
+
+			if (this.readPosition == this.writePosition) {
+				this.channel.truncate(0);
+				this.readPosition = 0;
+				this.writePosition = 0;
+			}
+
+		} catch (IOException ioe) {
+			throw new SyslogRuntimeException(ioe);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Reads the next chunk of the file into buffer, keeping its remaining bytes.
+	 *
+	 * @return Returns the file position following the bytes read
+	 */
+	protected long fill(ByteBuffer buffer, long filePosition) throws IOException {
+		buffer.compact();
+
+		long position = filePosition;
+
+		while (buffer.position() < RECORD_HEADER_LENGTH) {
+			int length = this.channel.read(buffer,position);
+
+			if (length < 0) {
+				throw new EOFException("Spill file " + this.file + " is truncated");
+			}
+
+			position += length;
+		}
+
+		buffer.flip();
+
+		return position;
+	}
+
+	protected long readFully(ByteBuffer target, long filePosition) throws IOException {
+		long position = filePosition;
+
+		while (target.hasRemaining()) {
+			int length = this.channel.read(target,position);
+
+			if (length < 0) {
+				throw new EOFException("Spill file " + this.file + " is truncated");
+			}
+
+			position += length;
+		}
+
+		return position;
+	}
+
+	public boolean isEmpty() {
+		return this.readPosition == this.writePosition;
+	}
+
+	/**
+	 * @return Returns the number of bytes not read back yet
+	 */
+	public synchronized long length() {
+		return this.writePosition - this.readPosition;
+	}
+
+	/**
+	 * Closes and deletes the file; records not read back yet are lost.
+	 */
+	public synchronized void close() {
+		if (this.channel == null) {
+			return;
+		}
+
+		try {
+			this.randomAccessFile.close();
+
+		} catch (IOException ioe) {
+			//
+		}
+
+		this.randomAccessFile = null;
+		this.channel = null;
+
+		this.file.delete();
+	}
+}
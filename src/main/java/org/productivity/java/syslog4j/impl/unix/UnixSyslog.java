@@ -4,6 +4,10 @@ import com.sun.jna.Library;
 import com.sun.jna.Memory;
 import com.sun.jna.Native;
 import java.io.Serial;
+import java.util.concurrent.CompletableFuture;
+
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.SyslogMessageIF;
 import org.productivity.java.syslog4j.SyslogMessageProcessorIF;
 import org.productivity.java.syslog4j.SyslogRuntimeException;
 import org.productivity.java.syslog4j.impl.AbstractSyslog;
@@ -101,9 +105,47 @@ public class UnixSyslog extends AbstractSyslog {
 	}
 
 	public void log(SyslogMessageProcessorIF messageProcessor, int level, String message) {
+		if (!isEnabled(level)) {
+			return;
+		}
+		
 		write(level,message,this.unixSyslogConfig);
 	}
 	
+	/**
+	 * Messages are not written as packets (see write(level,byte[])), so the
+	 * message is sent through log(..); syslog(3) reports no failures.
+	 */
+	public CompletableFuture<SyslogDeliveryResult> logAsync(int level, SyslogMessageIF message) {
+		if (!isEnabled(level)) {
+			return CompletableFuture.completedFuture(SyslogDeliveryResult.FILTERED);
+		}
+		
+		try {
+			log(level,message);
+			
+			return CompletableFuture.completedFuture(SyslogDeliveryResult.WRITTEN);
+			
+		} catch (SyslogRuntimeException sre) {
+			backLog(level,message.createMessage(),sre.getCause() != null ? sre.getCause() : sre);
+			
+			return CompletableFuture.completedFuture(SyslogDeliveryResult.BACKLOGGED);
+		}
+	}
+	
+	public boolean replay(int level, String message) {
+		try {
+			write(level,message,this.unixSyslogConfig);
+			
+			return true;
+			
+		} catch (SyslogRuntimeException sre) {
+			backLog(level,message,sre.getCause() != null ? sre.getCause() : sre);
+			
+			return false;
+		}
+	}
+	
 	public void flush() throws SyslogRuntimeException {
 		synchronized(libraryInstance) {
 			libraryInstance.closelog();
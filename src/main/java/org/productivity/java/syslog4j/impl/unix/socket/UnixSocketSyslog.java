@@ -109,6 +109,10 @@ public class UnixSocketSyslog extends AbstractSyslog {
 	}
 
 	protected void write(int level, byte[] message) throws SyslogRuntimeException {
+		write(level,message,0,message.length);
+	}
+
+	protected void write(int level, byte[] message, int offset, int length) throws SyslogRuntimeException {
 		if (this.fd == -1) {
 			connect();
 		}
@@ -117,9 +121,9 @@ public class UnixSocketSyslog extends AbstractSyslog {
 			return;
 		}
 		
-		ByteBuffer byteBuffer = ByteBuffer.wrap(message);
+		ByteBuffer byteBuffer = ByteBuffer.wrap(message,offset,length);
 		
-		this.libraryInstance.write(this.fd,byteBuffer,message.length);
+		this.libraryInstance.write(this.fd,byteBuffer,length);
 	}
 
 	public void flush() throws SyslogRuntimeException {
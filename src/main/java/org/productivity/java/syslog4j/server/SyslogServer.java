@@ -7,6 +7,7 @@ import org.productivity.java.syslog4j.Syslog4jVersion;
 import org.productivity.java.syslog4j.SyslogConstants;
 import org.productivity.java.syslog4j.SyslogRuntimeException;
 import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfig;
+import org.productivity.java.syslog4j.server.impl.net.tcp.nio.NioTCPNetSyslogServerConfig;
 import org.productivity.java.syslog4j.server.impl.net.udp.UDPNetSyslogServerConfig;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
@@ -88,12 +89,9 @@ public class SyslogServer implements SyslogConstants {
 		SyslogServerIF server = getInstance(protocol);
 
 		if (server.getThread() == null) {
-			Thread thread = new Thread(server);
-			thread.setName("SyslogServer: " + protocol);
-			thread.setDaemon(server.getConfig().isUseDaemonThread());
-			if (server.getConfig().getThreadPriority() > -1) {
-				thread.setPriority(server.getConfig().getThreadPriority());
-			}
+			SyslogServerConfigIF config = server.getConfig();
+			
+			Thread thread = config.getExecutor().createThread(server,"SyslogServer: " + protocol,config.isUseDaemonThread(),config.getThreadPriority());
 			
 			server.setThread(thread);
 			thread.start();
@@ -203,6 +201,7 @@ public class SyslogServer implements SyslogConstants {
 	public synchronized static void initialize() {
 		createInstance(UDP,new UDPNetSyslogServerConfig());
 		createInstance(TCP,new TCPNetSyslogServerConfig());
+		createInstance(NIO_TCP,new NioTCPNetSyslogServerConfig());
 	}
 	
 	public synchronized static void shutdown() throws SyslogRuntimeException {
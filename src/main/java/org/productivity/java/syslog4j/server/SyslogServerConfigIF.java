@@ -4,7 +4,9 @@ import java.util.List;
 
 import org.productivity.java.syslog4j.SyslogCharSetIF;
 import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogExecutorIF;
 import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerHostNameCache;
 
 /**
 * SyslogServerConfigIF provides a common, extensible configuration interface for all
@@ -32,6 +34,13 @@ public interface SyslogServerConfigIF extends SyslogConstants, SyslogCharSetIF {
 	int getThreadPriority();
 	void setThreadPriority(int threadPriority);
 	
+	/**
+	 * @return Returns the executor which creates the server and session Threads; defaults to
+	 *     virtual Threads where the JVM supports them
+	 */
+	SyslogExecutorIF getExecutor();
+	void setExecutor(SyslogExecutorIF executor);
+	
 	List<SyslogServerEventHandlerIF> getEventHandlers();
 	
 	long getShutdownWait();
@@ -47,4 +56,33 @@ public interface SyslogServerConfigIF extends SyslogConstants, SyslogCharSetIF {
 	
 	Object getDateTimeFormatter();
 	void setDateTimeFormatter(Object dateTimeFormatter);
+	
+	/**
+	 * @return Returns false if the host field of an event is only compared with the
+	 *     address of the client, without reverse DNS lookups
+	 */
+	boolean isReverseLookup();
+	void setReverseLookup(boolean reverseLookup);
+	
+	/**
+	 * @return Returns the milliseconds a host name is cached before it is looked up
+	 *     again; 0 looks it up for every event on the receiving Thread
+	 */
+	long getHostNameCacheTime();
+	void setHostNameCacheTime(long hostNameCacheTime);
+	
+	/**
+	 * @return Returns the milliseconds an address without a host name is cached
+	 */
+	long getHostNameNegativeCacheTime();
+	void setHostNameNegativeCacheTime(long hostNameNegativeCacheTime);
+	
+	int getHostNameCacheMaxSize();
+	void setHostNameCacheMaxSize(int hostNameCacheMaxSize);
+	
+	/**
+	 * @return Returns the host name cache of this configuration, or null if host
+	 *     names are looked up for every event
+	 */
+	SyslogServerHostNameCache getHostNameCache();
 }
@@ -23,6 +23,26 @@ public interface SyslogServerEventIF extends SyslogCharSetIF {
 	 */
     byte[] getRaw();
 	
+	/**
+	 * Keeps the raw data of an event received into a pooled buffer valid after the
+	 * event handlers return, e.g. to handle the event on another Thread; each
+	 * call must be followed by a release().
+	 * 
+	 * @return Returns this event
+	 */
+	default SyslogServerEventIF retain() {
+		return this;
+	}
+	
+	/**
+	 * Releases a reference taken by the server or by retain(); the raw data of an
+	 * event received into a pooled buffer is then no longer available unless getRaw()
+	 * was called before.
+	 */
+	default void release() {
+		//
+	}
+	
 	int getFacility();
 	void setFacility(int facility);
 
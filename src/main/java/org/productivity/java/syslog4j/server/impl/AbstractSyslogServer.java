@@ -19,6 +19,7 @@ import org.productivity.java.syslog4j.server.SyslogServerIF;
 import org.productivity.java.syslog4j.server.SyslogServerSessionEventHandlerIF;
 import org.productivity.java.syslog4j.server.SyslogServerSessionlessEventHandlerIF;
 import org.productivity.java.syslog4j.server.impl.event.SyslogServerEvent;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEventBuffer;
 import org.productivity.java.syslog4j.server.impl.event.structured.StructuredSyslogServerEvent;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
@@ -139,6 +140,20 @@ public abstract class AbstractSyslogServer implements SyslogServerIF {
         return isStructuredMessage(syslogCharSet, receiveDataString);
     }
 
+    /**
+     * Checks the first length bytes only, without decoding them.
+     */
+    protected static boolean isStructuredMessage(byte[] receiveData, int length) {
+        for (int i = 0; i < length; i++) {
+            if (receiveData[i] == '>') {
+                // If there's a numerical VERSION field after the <priority>, return true.
+                return length > i + 1 && receiveData[i + 1] >= '0' && receiveData[i + 1] <= '9';
+            }
+        }
+
+        return false;
+    }
+
     protected static boolean isStructuredMessage(SyslogCharSetIF syslogCharSet, String receiveData) {
         int idx = receiveData.indexOf('>');
 
@@ -157,19 +172,35 @@ public abstract class AbstractSyslogServer implements SyslogServerIF {
             InetAddress inetAddr) {
         SyslogServerEventIF event;
 
-        if (serverConfig.isUseStructuredData() && AbstractSyslogServer.isStructuredMessage(serverConfig, lineBytes)) {
+        if (serverConfig.isUseStructuredData() && AbstractSyslogServer.isStructuredMessage(lineBytes, lineBytesLength)) {
             event = new StructuredSyslogServerEvent(lineBytes, lineBytesLength, inetAddr);
 
             if (serverConfig.getDateTimeFormatter() != null) {
                 ((StructuredSyslogServerEvent) event).setDateTimeFormatter(serverConfig.getDateTimeFormatter());
             }
         } else {
-            event = new SyslogServerEvent(lineBytes, lineBytesLength, inetAddr);
+            event = new SyslogServerEvent(lineBytes, lineBytesLength, inetAddr, serverConfig.getHostNameCache());
         }
 
         return event;
     }
 
+    /**
+     * Creates the event from the data of buffer; the event takes over the
+     * reference to buffer and must be released after the event handlers return.
+     */
+    protected static SyslogServerEventIF createEvent(
+            SyslogServerConfigIF serverConfig,
+            SyslogServerEventBuffer buffer,
+            int length,
+            InetAddress inetAddr) {
+        SyslogServerEventIF event = createEvent(serverConfig, buffer.getData(), length, inetAddr);
+
+        ((SyslogServerEvent) event).setBuffer(buffer);
+
+        return event;
+    }
+
     protected static SyslogServerEventIF createEvent(
             SyslogServerConfigIF serverConfig,
             String line,
@@ -179,7 +210,7 @@ public abstract class AbstractSyslogServer implements SyslogServerIF {
         if (serverConfig.isUseStructuredData() && AbstractSyslogServer.isStructuredMessage(serverConfig, line)) {
             event = new StructuredSyslogServerEvent(line, inetAddr);
         } else {
-            event = new SyslogServerEvent(line, inetAddr);
+            event = new SyslogServerEvent(line, inetAddr, serverConfig.getHostNameCache());
         }
 
         return event;
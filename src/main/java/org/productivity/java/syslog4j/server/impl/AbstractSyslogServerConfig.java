@@ -5,9 +5,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogExecutorIF;
+import org.productivity.java.syslog4j.impl.executor.VirtualSyslogExecutor;
 import org.productivity.java.syslog4j.server.SyslogServerConfigIF;
 import org.productivity.java.syslog4j.server.SyslogServerEventHandlerIF;
 import org.productivity.java.syslog4j.server.SyslogServerIF;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerHostNameCache;
 
 /**
 * AbstractSyslogServerConfig provides a base abstract implementation of the SyslogServerConfigIF
@@ -37,6 +40,13 @@ public abstract class AbstractSyslogServerConfig implements SyslogServerConfigIF
 	
 	protected boolean useDaemonThread = USE_DAEMON_THREAD_DEFAULT;
 	protected int threadPriority = THREAD_PRIORITY_DEFAULT;
+	protected transient SyslogExecutorIF executor = null;
+	
+	protected boolean reverseLookup = SERVER_REVERSE_LOOKUP_DEFAULT;
+	protected long hostNameCacheTime = SERVER_HOST_NAME_CACHE_TIME_DEFAULT;
+	protected long hostNameNegativeCacheTime = SERVER_HOST_NAME_NEGATIVE_CACHE_TIME_DEFAULT;
+	protected int hostNameCacheMaxSize = SERVER_HOST_NAME_CACHE_MAX_SIZE_DEFAULT;
+	protected transient volatile SyslogServerHostNameCache hostNameCache = null;
 
 	public String getCharSet() {
 		return this.charSet;
@@ -105,4 +115,70 @@ public abstract class AbstractSyslogServerConfig implements SyslogServerConfigIF
 	public void setThreadPriority(int threadPriority) {
 		this.threadPriority = threadPriority;
 	}
+
+	public SyslogExecutorIF getExecutor() {
+		return this.executor != null ? this.executor : VirtualSyslogExecutor.INSTANCE;
+	}
+
+	public void setExecutor(SyslogExecutorIF executor) {
+		this.executor = executor;
+	}
+
+	public boolean isReverseLookup() {
+		return this.reverseLookup;
+	}
+
+	public synchronized void setReverseLookup(boolean reverseLookup) {
+		this.reverseLookup = reverseLookup;
+		this.hostNameCache = null;
+	}
+
+	public long getHostNameCacheTime() {
+		return this.hostNameCacheTime;
+	}
+
+	public synchronized void setHostNameCacheTime(long hostNameCacheTime) {
+		this.hostNameCacheTime = hostNameCacheTime;
+		this.hostNameCache = null;
+	}
+
+	public long getHostNameNegativeCacheTime() {
+		return this.hostNameNegativeCacheTime;
+	}
+
+	public synchronized void setHostNameNegativeCacheTime(long hostNameNegativeCacheTime) {
+		this.hostNameNegativeCacheTime = hostNameNegativeCacheTime;
+		this.hostNameCache = null;
+	}
+
+	public int getHostNameCacheMaxSize() {
+		return this.hostNameCacheMaxSize;
+	}
+
+	public synchronized void setHostNameCacheMaxSize(int hostNameCacheMaxSize) {
+		this.hostNameCacheMaxSize = hostNameCacheMaxSize;
+		this.hostNameCache = null;
+	}
+
+	public SyslogServerHostNameCache getHostNameCache() {
+		SyslogServerHostNameCache _hostNameCache = this.hostNameCache;
+		
+		if (_hostNameCache == null) {
+			_hostNameCache = createHostNameCache();
+		}
+		
+		return _hostNameCache;
+	}
+	
+	protected synchronized SyslogServerHostNameCache createHostNameCache() {
+		if (this.reverseLookup && this.hostNameCacheTime <= 0) {
+			return null;
+		}
+		
+		if (this.hostNameCache == null) {
+			this.hostNameCache = new SyslogServerHostNameCache(this.reverseLookup,this.hostNameCacheTime,this.hostNameNegativeCacheTime,this.hostNameCacheMaxSize,getExecutor());
+		}
+		
+		return this.hostNameCache;
+	}
 }
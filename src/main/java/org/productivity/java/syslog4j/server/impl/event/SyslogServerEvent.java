@@ -2,19 +2,34 @@ package org.productivity.java.syslog4j.server.impl.event;
 
 import java.io.Serial;
 import java.net.InetAddress;
+import java.nio.charset.Charset;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
 import org.productivity.java.syslog4j.server.SyslogServerEventIF;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
 /**
 * SyslogServerEvent provides an implementation of the SyslogServerEventIF interface.
 * 
+* <p>An event created from bytes in an ASCII-compatible charSet is parsed
+* in place: the priority, an RFC 3164 timestamp and the host are read from
+* the bytes, and the message is decoded when getMessage() is first called.
+* Headers the byte parser does not recognize are parsed from a String as
+* before.</p>
+* 
 * <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
 * of the LGPL license is available in the META-INF folder in all
 * distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
@@ -27,6 +42,24 @@ public class SyslogServerEvent implements SyslogServerEventIF {
 	
 	public static final String DATE_FORMAT = "MMM dd HH:mm:ss yyyy";
 	
+	protected static final String[] MONTHS = { "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec" };
+	
+	protected static final Map<String,Boolean> ASCII_COMPATIBLE_CHAR_SETS = new ConcurrentHashMap<>();
+	
+	protected static final class CurrentYear {
+		protected final ZoneId zone;
+		protected final int year;
+		protected final long until;
+		
+		protected CurrentYear(ZoneId zone) {
+			this.zone = zone;
+			this.year = LocalDate.now(zone).getYear();
+			this.until = LocalDate.of(this.year + 1,1,1).atStartOfDay(zone).toInstant().toEpochMilli();
+		}
+	}
+	
+	protected static volatile CurrentYear currentYear = null;
+	
 	protected String charSet = SyslogConstants.CHAR_SET_DEFAULT;
 	protected String rawString = null;
 	protected byte[] rawBytes = null;
@@ -39,18 +72,50 @@ public class SyslogServerEvent implements SyslogServerEventIF {
 	protected String message = null;
 	protected InetAddress inetAddress = null;
 	
+	protected byte[] messageBytes = null;
+	protected int messageOffset = 0;
+	protected int messageEnd = 0;
+	
+	protected transient SyslogServerEventBuffer buffer = null;
+	protected transient SyslogServerHostNameCache hostNameCache = null;
+	
 	protected SyslogServerEvent() { }
 	
 	public SyslogServerEvent(final String message, InetAddress inetAddress) {
+		this(message,inetAddress,null);
+	}
+	
+	/**
+	 * @param hostNameCache - the cache the host name of inetAddress is taken from,
+	 *     or null to look it up
+	 */
+	public SyslogServerEvent(final String message, InetAddress inetAddress, SyslogServerHostNameCache hostNameCache) {
+		this.hostNameCache = hostNameCache;
+		
 		initialize(message,inetAddress);
 		
 		parse();
 	}
 	
 	public SyslogServerEvent(final byte[] message, int length, InetAddress inetAddress) {
+		this(message,length,inetAddress,null);
+	}
+	
+	/**
+	 * @param hostNameCache - the cache the host name of inetAddress is taken from,
+	 *     or null to look it up
+	 */
+	public SyslogServerEvent(final byte[] message, int length, InetAddress inetAddress, SyslogServerHostNameCache hostNameCache) {
+		this.hostNameCache = hostNameCache;
+		
 		initialize(message,length,inetAddress);
 		
-		parse();
+		if (isAsciiCompatible(this.charSet)) {
+			parseBytes();
+			
+		} else {
+			parse();
+		}
 	}
 	
 	protected void initialize(final String message, InetAddress inetAddress) {
@@ -67,6 +132,14 @@ public class SyslogServerEvent implements SyslogServerEventIF {
 		this.inetAddress = inetAddress;
 	}
 
+	protected SyslogServerHostNameCache.HostName lookupHostName() {
+		if (this.hostNameCache != null) {
+			return this.hostNameCache.getHostName(this.inetAddress);
+		}
+		
+		return new SyslogServerHostNameCache.HostName(this.inetAddress.getHostName());
+	}
+
 	protected void parseHost() {
 		int i = this.message.indexOf(' ');
 		
@@ -85,7 +158,8 @@ public class SyslogServerEvent implements SyslogServerEventIF {
 			}
 
 			if (this.host == null) {
-				hostName = this.inetAddress.getHostName();
+				SyslogServerHostNameCache.HostName lookedUpHostName = lookupHostName();
+				hostName = lookedUpHostName.getName();
 				
 				if (!hostName.equalsIgnoreCase(hostAddress)) {
 					if (providedHost.equalsIgnoreCase(hostName)) {
@@ -95,11 +169,7 @@ public class SyslogServerEvent implements SyslogServerEventIF {
 					}
 					
 					if (this.host == null) {
-						int j = hostName.indexOf('.');
-						
-						if (j > -1) {
-							hostName = hostName.substring(0,j);
-						}
+						hostName = lookedUpHostName.getShortName();
 		
 						if (providedHost.equalsIgnoreCase(hostName)) {
 							this.host = hostName;
@@ -170,6 +240,299 @@ public class SyslogServerEvent implements SyslogServerEventIF {
 		parsePriority();
 	}
 	
+	/**
+	 * @return Returns true if every ASCII character is encoded as the same
+	 *     single byte, and no other character contains such a byte
+	 */
+	protected static boolean isAsciiCompatible(String charSet) {
+		Boolean asciiCompatible = ASCII_COMPATIBLE_CHAR_SETS.get(charSet);
+		
+		if (asciiCompatible == null) {
+			String name;
+			
+			try {
+				name = Charset.forName(charSet).name();
+				
+			} catch (IllegalArgumentException iae) {
+				name = "";
+			}
+			
+			asciiCompatible = name.equals("UTF-8") || name.equals("US-ASCII") || name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+			
+			ASCII_COMPATIBLE_CHAR_SETS.put(charSet,asciiCompatible);
+		}
+		
+		return asciiCompatible;
+	}
+	
+	protected static CurrentYear getCurrentYear() {
+		ZoneId zone = ZoneId.systemDefault();
+		
+		CurrentYear _currentYear = currentYear;
+		
+		if (_currentYear == null || System.currentTimeMillis() >= _currentYear.until || !_currentYear.zone.equals(zone)) {
+			_currentYear = new CurrentYear(zone);
+			currentYear = _currentYear;
+		}
+		
+		return _currentYear;
+	}
+	
+	protected static int digit(byte b) {
+		return b >= '0' && b <= '9' ? b - '0' : -1;
+	}
+	
+	protected static int twoDigits(byte[] bytes, int offset) {
+		int high = digit(bytes[offset]);
+		int low = digit(bytes[offset + 1]);
+		
+		return high < 0 || low < 0 ? -1 : high * 10 + low;
+	}
+	
+	protected static boolean isAscii(byte[] bytes, int offset, int end) {
+		for(int i=offset; i<end; i++) {
+			if (bytes[i] < 0) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	protected void parseBytes() {
+		this.messageBytes = this.rawBytes;
+		this.messageOffset = 0;
+		this.messageEnd = this.rawLength;
+		
+		if (this.messageEnd == 0 || this.messageBytes[0] != '<') {
+			return;
+		}
+		
+		int end = -1;
+		
+		for(int i=1; i<=4 && i<this.messageEnd; i++) {
+			if (this.messageBytes[i] == '>') {
+				end = i;
+				break;
+			}
+		}
+		
+		if (end == -1) {
+			return;
+		}
+		
+		int priority = parsePriorityBytes(end);
+		
+		if (priority == Integer.MIN_VALUE) {
+			parseHostBytes();
+			return;
+		}
+		
+		this.facility = priority >> 3;
+		this.level = priority - (this.facility << 3);
+		
+		this.messageOffset = end + 1;
+		
+		parseDateBytes();
+	}
+	
+	/**
+	 * @return Returns the value between '<' and end, as Integer.parseInt(..)
+	 *     would, or Integer.MIN_VALUE if it is not a number
+	 */
+	protected int parsePriorityBytes(int end) {
+		int i = 1;
+		boolean negative = false;
+		
+		if (i < end && (this.messageBytes[i] == '-' || this.messageBytes[i] == '+')) {
+			negative = this.messageBytes[i] == '-';
+			i++;
+		}
+		
+		if (i == end) {
+			return Integer.MIN_VALUE;
+		}
+		
+		int priority = 0;
+		
+		for(; i<end; i++) {
+			int digit = digit(this.messageBytes[i]);
+			
+			if (digit < 0) {
+				return Integer.MIN_VALUE;
+			}
+			
+			priority = priority * 10 + digit;
+		}
+		
+		return negative ? -priority : priority;
+	}
+	
+	protected void parseDateBytes() {
+		byte[] bytes = this.messageBytes;
+		int offset = this.messageOffset;
+		
+		if (this.messageEnd - offset < 16) {
+			parseHostBytes();
+			return;
+		}
+		
+		if (!isAscii(bytes,offset,offset + 16)) {
+			parseDateString();
+			return;
+		}
+		
+		if (bytes[offset + 3] != ' ' || bytes[offset + 6] != ' ') {
+			parseHostBytes();
+			return;
+		}
+		
+		Date parsedDate = parseTimestamp(bytes,offset);
+		
+		if (parsedDate == null) {
+			parseDateString();
+			return;
+		}
+		
+		this.date = parsedDate;
+		this.messageOffset += 16;
+		
+		parseHostBytes();
+	}
+	
+	/**
+	 * @return Returns the "MMM dd HH:mm:ss" timestamp at offset in the current
+	 *     year, or null if it is not a valid date in that form
+	 */
+	protected static Date parseTimestamp(byte[] bytes, int offset) {
+		int month = -1;
+		
+		for(int i=0; i<MONTHS.length; i++) {
+			String name = MONTHS[i];
+			
+			if ((bytes[offset] | 0x20) == name.charAt(0) && (bytes[offset + 1] | 0x20) == name.charAt(1) && (bytes[offset + 2] | 0x20) == name.charAt(2)) {
+				month = i + 1;
+				break;
+			}
+		}
+		
+		int day = bytes[offset + 4] == ' ' ? digit(bytes[offset + 5]) : twoDigits(bytes,offset + 4);
+		int hour = twoDigits(bytes,offset + 7);
+		int minute = twoDigits(bytes,offset + 10);
+		int second = twoDigits(bytes,offset + 13);
+		
+		if (month < 0 || day < 1 || hour < 0 || hour > 23 || bytes[offset + 9] != ':' || minute < 0 || minute > 59 || bytes[offset + 12] != ':' || second < 0 || second > 59) {
+			return null;
+		}
+		
+		CurrentYear _currentYear = getCurrentYear();
+		
+		try {
+			LocalDateTime dateTime = LocalDateTime.of(_currentYear.year,month,day,hour,minute,second);
+			
+			return new Date(dateTime.atZone(_currentYear.zone).toInstant().toEpochMilli());
+			
+		} catch (DateTimeException dte) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Parses the date and host of the remaining message with parseDate().
+	 */
+	protected void parseDateString() {
+		this.message = SyslogUtility.newString(this,this.messageBytes,this.messageOffset,this.messageEnd - this.messageOffset);
+		this.messageBytes = null;
+		
+		parseDate();
+	}
+	
+	protected void parseHostBytes() {
+		byte[] bytes = this.messageBytes;
+		
+		int i = this.messageOffset;
+		
+		while(i < this.messageEnd && bytes[i] != ' ') {
+			i++;
+		}
+		
+		if (i == this.messageEnd) {
+			return;
+		}
+		
+		int start = this.messageOffset;
+		int end = i;
+		
+		while(start < end && (bytes[start] & 0xff) <= ' ') {
+			start++;
+		}
+		
+		while(end > start && (bytes[end - 1] & 0xff) <= ' ') {
+			end--;
+		}
+		
+		String hostName = null;
+		String hostAddress = this.inetAddress.getHostAddress();
+		
+		if (equalsIgnoreCase(bytes,start,end,hostAddress)) {
+			this.host = hostAddress;
+			this.messageOffset = i + 1;
+			this.isHostStrippedFromMessage = true;
+		}
+		
+		if (this.host == null) {
+			SyslogServerHostNameCache.HostName lookedUpHostName = lookupHostName();
+			hostName = lookedUpHostName.getName();
+			
+			if (!hostName.equalsIgnoreCase(hostAddress)) {
+				if (equalsIgnoreCase(bytes,start,end,hostName)) {
+					this.host = hostName;
+					this.messageOffset = i + 1;
+					this.isHostStrippedFromMessage = true;
+				}
+				
+				if (this.host == null) {
+					hostName = lookedUpHostName.getShortName();
+					
+					if (equalsIgnoreCase(bytes,start,end,hostName)) {
+						this.host = hostName;
+						this.messageOffset = i + 1;
+						this.isHostStrippedFromMessage = true;
+					}
+				}
+			}
+		}
+		
+		if (this.host == null) {
+			this.host = hostName;
+		}
+	}
+	
+	/**
+	 * @return Returns true as String.equalsIgnoreCase(..) would for the bytes
+	 *     from start to end decoded
+	 */
+	protected boolean equalsIgnoreCase(byte[] bytes, int start, int end, String value) {
+		if (!isAscii(bytes,start,end)) {
+			return SyslogUtility.newString(this,bytes,start,end - start).equalsIgnoreCase(value);
+		}
+		
+		if (end - start != value.length()) {
+			return false;
+		}
+		
+		for(int i=0; i<value.length(); i++) {
+			char c1 = (char) bytes[start + i];
+			char c2 = value.charAt(i);
+			
+			if (c1 != c2 && Character.toUpperCase(c1) != Character.toUpperCase(c2) && Character.toLowerCase(c1) != Character.toLowerCase(c2)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
 	public int getFacility() {
 		return this.facility;
 	}
@@ -178,11 +541,56 @@ public class SyslogServerEvent implements SyslogServerEventIF {
 		this.facility = facility;
 	}
 
-	public byte[] getRaw() {
+	/**
+	 * Hands the reference to buffer, which holds the raw data of this event,
+	 * over to this event; the buffer is released with the last release().
+	 */
+	public void setBuffer(SyslogServerEventBuffer buffer) {
+		this.buffer = buffer;
+	}
+	
+	public synchronized SyslogServerEventIF retain() {
+		SyslogServerEventBuffer _buffer = this.buffer;
+		
+		if (_buffer != null) {
+			_buffer.retain();
+		}
+		
+		return this;
+	}
+	
+	public synchronized void release() {
+		if (this.buffer != null && this.buffer.getReferenceCount() == 1 && this.message == null && this.messageBytes == this.buffer.getData()) {
+			this.messageBytes = Arrays.copyOfRange(this.messageBytes,this.messageOffset,this.messageEnd);
+			this.messageEnd -= this.messageOffset;
+			this.messageOffset = 0;
+		}
+		
+		if (this.buffer != null && this.buffer.release()) {
+			if (this.rawBytes == this.buffer.getData()) {
+				this.rawBytes = null;
+			}
+			
+			this.buffer = null;
+		}
+	}
+	
+	public synchronized byte[] getRaw() {
 		if (this.rawString != null) {
 
             return SyslogUtility.getBytes(this, this.rawString);
 			
+		} else if (this.rawBytes == null) {
+			throw new SyslogRuntimeException("Event has been released; call retain() to use getRaw() after the event handlers return");
+			
+		} else if (this.buffer != null && this.rawBytes == this.buffer.getData()) {
+			byte[] newRawBytes = new byte[this.rawLength];
+			System.arraycopy(this.rawBytes,0,newRawBytes,0,this.rawLength);
+			
+			this.rawBytes = newRawBytes;
+			
+			return newRawBytes;
+			
 		} else if (this.rawBytes.length == this.rawLength) {
 			return this.rawBytes;
 			
@@ -226,12 +634,17 @@ public class SyslogServerEvent implements SyslogServerEventIF {
 		return isHostStrippedFromMessage;
 	}
 
-	public String getMessage() {
+	public synchronized String getMessage() {
+		if (this.message == null && this.messageBytes != null) {
+			this.message = SyslogUtility.newString(this,this.messageBytes,this.messageOffset,this.messageEnd - this.messageOffset);
+		}
+		
 		return this.message;
 	}
 	
-	public void setMessage(String message) {
+	public synchronized void setMessage(String message) {
 		this.message = message;
+		this.messageBytes = null;
 	}
 
 	public String getCharSet() {
@@ -0,0 +1,69 @@
+package org.productivity.java.syslog4j.server.impl.event;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+
+/**
+* SyslogServerEventBuffer is a reference-counted receive buffer borrowed from
+* a SyslogServerEventBufferPool.
+*
+* <p>The buffer is acquired with one reference; it returns to its pool when
+* release() has been called once for the acquire() and once for every
+* retain().</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class SyslogServerEventBuffer {
+	protected final SyslogServerEventBufferPool pool;
+	protected final byte[] data;
+
+	protected final AtomicInteger referenceCount = new AtomicInteger();
+
+	protected SyslogServerEventBuffer(SyslogServerEventBufferPool pool, int size) {
+		this.pool = pool;
+		this.data = new byte[size];
+	}
+
+	public byte[] getData() {
+		return this.data;
+	}
+
+	public int getReferenceCount() {
+		return this.referenceCount.get();
+	}
+
+	public void retain() throws SyslogRuntimeException {
+		if (this.referenceCount.getAndIncrement() < 1) {
+			this.referenceCount.decrementAndGet();
+
+			throw new SyslogRuntimeException("Buffer has already been released");
+		}
+	}
+
+	/**
+	 * @return Returns true if this was the last reference, and the buffer was
+	 *     returned to its pool
+	 */
+	public boolean release() throws SyslogRuntimeException {
+		int references = this.referenceCount.decrementAndGet();
+
+		if (references < 0) {
+			this.referenceCount.incrementAndGet();
+
+			throw new SyslogRuntimeException("Buffer has already been released");
+		}
+
+		if (references == 0) {
+			this.pool.recycle(this);
+
+			return true;
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,87 @@
+package org.productivity.java.syslog4j.server.impl.event;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+* SyslogServerEventBufferPool keeps up to maxPooled receive buffers of one
+* size for reuse, so that a server need not allocate a buffer per message
+* nor share one buffer between events.
+*
+* <p>A buffer is allocated when the pool is empty; a released buffer is
+* discarded when the pool already holds maxPooled buffers.  Pooled buffers
+* are kept in a fixed array used as a stack, so that neither acquire() nor
+* a release() allocates.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class SyslogServerEventBufferPool {
+	protected final int bufferSize;
+	protected final int maxPooled;
+
+	protected final SyslogServerEventBuffer[] buffers;
+	protected volatile int pooled = 0;
+
+	protected final LongAdder allocatedCount = new LongAdder();
+
+	public SyslogServerEventBufferPool(int bufferSize, int maxPooled) {
+		this.bufferSize = bufferSize;
+		this.maxPooled = maxPooled;
+		this.buffers = new SyslogServerEventBuffer[Math.max(maxPooled,0)];
+	}
+
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * @return Returns the number of buffers allocated by this pool
+	 */
+	public long getAllocatedCount() {
+		return this.allocatedCount.sum();
+	}
+
+	/**
+	 * @return Returns the number of buffers available for reuse
+	 */
+	public int getPooledCount() {
+		return this.pooled;
+	}
+
+	/**
+	 * @return Returns a buffer holding one reference
+	 */
+	public SyslogServerEventBuffer acquire() {
+		SyslogServerEventBuffer buffer = null;
+
+		synchronized(this.buffers) {
+			if (this.pooled > 0) {
+				int i = --this.pooled;
+
+				buffer = this.buffers[i];
+				this.buffers[i] = null;
+			}
+		}
+
+		if (buffer == null) {
+			buffer = new SyslogServerEventBuffer(this,this.bufferSize);
+
+			this.allocatedCount.increment();
+		}
+
+		buffer.referenceCount.set(1);
+
+		return buffer;
+	}
+
+	protected void recycle(SyslogServerEventBuffer buffer) {
+		synchronized(this.buffers) {
+			if (this.pooled < this.buffers.length) {
+				this.buffers[this.pooled++] = buffer;
+			}
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package org.productivity.java.syslog4j.server.impl.event;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogExecutorIF;
+
+/**
+* SyslogServerHostNameCache caches the host names of client addresses, so
+* that parsing the host of an event does not block the receiving Thread on
+* a reverse DNS lookup.
+*
+* <p>Host names are looked up on a small pool of lookup Threads.  Until the
+* first lookup of an address completes, and for negativeCacheTime after a
+* lookup finds no name, the address itself is returned as its host name.
+* An entry older than cacheTime is still returned while it is looked up
+* again.  When maxSize addresses are cached, expired entries and then
+* arbitrary entries are evicted.</p>
+*
+* <p>With reverseLookup false, no lookups are made and the address is
+* always returned.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class SyslogServerHostNameCache {
+	public static class HostName {
+		protected final String name;
+		protected final String shortName;
+
+		public HostName(String name) {
+			this.name = name;
+
+			int i = name.indexOf('.');
+
+			this.shortName = i > -1 ? name.substring(0,i) : name;
+		}
+
+		/**
+		 * @return Returns the host name, or the address if it has none
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * @return Returns the host name up to the first '.'
+		 */
+		public String getShortName() {
+			return this.shortName;
+		}
+	}
+
+	protected static class Entry {
+		protected final HostName hostName;
+		protected final long expires;
+
+		protected final AtomicBoolean lookingUp = new AtomicBoolean();
+
+		protected Entry(HostName hostName, long expires) {
+			this.hostName = hostName;
+			this.expires = expires;
+		}
+	}
+
+	protected final boolean reverseLookup;
+	protected final long cacheTime;
+	protected final long negativeCacheTime;
+	protected final int maxSize;
+	protected final SyslogExecutorIF executor;
+
+	protected final Map<InetAddress,Entry> entries = new ConcurrentHashMap<>();
+
+	protected ThreadPoolExecutor lookupExecutor = null;
+
+	protected final LongAdder hitCount = new LongAdder();
+	protected final LongAdder missCount = new LongAdder();
+	protected final LongAdder lookupCount = new LongAdder();
+
+	public SyslogServerHostNameCache(boolean reverseLookup, long cacheTime, long negativeCacheTime, int maxSize, SyslogExecutorIF executor) {
+		this.reverseLookup = reverseLookup;
+		this.cacheTime = cacheTime;
+		this.negativeCacheTime = negativeCacheTime;
+		this.maxSize = Math.max(maxSize,1);
+		this.executor = executor;
+	}
+
+	public boolean isReverseLookup() {
+		return this.reverseLookup;
+	}
+
+	/**
+	 * @return Returns the number of requests answered from the cache, including expired entries
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * @return Returns the number of requests for an address not cached
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * @return Returns the number of reverse lookups made
+	 */
+	public long getLookupCount() {
+		return this.lookupCount.sum();
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * @return Returns the cached host name of inetAddress, or its address while
+	 *     the host name is looked up; never blocks on a lookup
+	 */
+	public HostName getHostName(InetAddress inetAddress) {
+		if (!this.reverseLookup) {
+			return new HostName(inetAddress.getHostAddress());
+		}
+
+		Entry entry = this.entries.get(inetAddress);
+
+		if (entry == null) {
+			this.missCount.increment();
+
+			if (this.entries.size() >= this.maxSize) {
+				evict();
+			}
+
+			Entry newEntry = new Entry(new HostName(inetAddress.getHostAddress()),0);
+
+			entry = this.entries.putIfAbsent(inetAddress,newEntry);
+
+			if (entry == null) {
+				lookUp(inetAddress,newEntry);
+
+				return newEntry.hostName;
+			}
+		}
+
+		this.hitCount.increment();
+
+		if (System.currentTimeMillis() >= entry.expires) {
+			lookUp(inetAddress,entry);
+		}
+
+		return entry.hostName;
+	}
+
+	protected void lookUp(final InetAddress inetAddress, final Entry entry) {
+		if (!entry.lookingUp.compareAndSet(false,true)) {
+			return;
+		}
+
+		try {
+			getLookupExecutor().execute(() -> {
+				String name = null;
+
+				try {
+					name = lookup(inetAddress);
+
+				} catch (UnknownHostException uhe) {
+					//
+				}
+
+				if (name == null) {
+					name = inetAddress.getHostAddress();
+				}
+
+				long time = name.equals(inetAddress.getHostAddress()) ? this.negativeCacheTime : this.cacheTime;
+
+				this.entries.replace(inetAddress,entry,new Entry(new HostName(name),System.currentTimeMillis() + time));
+			});
+
+		} catch (RejectedExecutionException ree) {
+			entry.lookingUp.set(false);
+		}
+	}
+
+	/**
+	 * @return Returns the host name of inetAddress from a reverse DNS lookup,
+	 *     or its address if it has none
+	 */
+	protected String lookup(InetAddress inetAddress) throws UnknownHostException {
+		this.lookupCount.increment();
+
+		return InetAddress.getByAddress(inetAddress.getAddress()).getHostName();
+	}
+
+	protected synchronized ThreadPoolExecutor getLookupExecutor() {
+		if (this.lookupExecutor == null) {
+			this.lookupExecutor = new ThreadPoolExecutor(SyslogConstants.SERVER_HOST_NAME_LOOKUP_THREADS,SyslogConstants.SERVER_HOST_NAME_LOOKUP_THREADS,
+				SyslogConstants.SERVER_HOST_NAME_LOOKUP_KEEP_ALIVE,TimeUnit.MILLISECONDS,new ArrayBlockingQueue<>(this.maxSize),
+				runnable -> this.executor.createThread(runnable,"SyslogServerHostNameLookup",true,-1));
+
+			this.lookupExecutor.allowCoreThreadTimeOut(true);
+		}
+
+		return this.lookupExecutor;
+	}
+
+	protected void evict() {
+		long now = System.currentTimeMillis();
+
+		this.entries.values().removeIf(entry -> now >= entry.expires && !entry.lookingUp.get());
+
+		Iterator<Entry> i = this.entries.values().iterator();
+
+		while(this.entries.size() >= this.maxSize && i.hasNext()) {
+			i.next();
+			i.remove();
+		}
+	}
+
+	public void clear() {
+		this.entries.clear();
+	}
+}
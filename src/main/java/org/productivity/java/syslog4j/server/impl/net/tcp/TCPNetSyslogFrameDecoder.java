@@ -0,0 +1,241 @@
+package org.productivity.java.syslog4j.server.impl.net.tcp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.productivity.java.syslog4j.SyslogConstants;
+
+/**
+* TCPNetSyslogFrameDecoder splits the bytes of a TCP connection into syslog
+* messages (see TCPNetSyslogFrameReader for the framing rules); it is used
+* by TCPNetSyslogFrameReader and by the non-blocking NIO TCP server.
+*
+* <p>Bytes are appended as they are read, and nextFrame() returns the
+* complete frames.  If no bytes are buffered, append(..) uses the array of
+* the caller without copying it; detach() then copies the bytes of an
+* incomplete frame, so that idle connections hold no buffer.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class TCPNetSyslogFrameDecoder {
+	protected static final int MAX_HEADER_DIGITS = 10;
+
+	protected final int maxFrameLength;
+
+	protected byte[] buffer = null;
+	protected int position = 0;
+	protected int limit = 0;
+	protected int scanned = 0;
+	protected boolean borrowed = false;
+
+	public TCPNetSyslogFrameDecoder(int maxFrameLength) {
+		this.maxFrameLength = maxFrameLength;
+	}
+
+	/**
+	 * Appends length bytes of data; if no bytes are buffered, data is used
+	 * until detach() is called.
+	 */
+	public void append(byte[] data, int offset, int length) {
+		if (this.limit == this.position) {
+			this.buffer = data;
+			this.position = offset;
+			this.limit = offset + length;
+			this.scanned = 0;
+			this.borrowed = true;
+
+			return;
+		}
+
+		detach();
+
+		ensureCapacity(length);
+
+		System.arraycopy(data,offset,this.buffer,this.limit,length);
+
+		this.limit += length;
+	}
+
+	/**
+	 * Copies the bytes not yet returned as a frame, so that the array passed
+	 * to append(..) may be reused.
+	 */
+	public void detach() {
+		if (!this.borrowed) {
+			return;
+		}
+
+		int unread = this.limit - this.position;
+
+		if (unread == 0) {
+			this.buffer = null;
+			this.position = 0;
+			this.limit = 0;
+
+		} else {
+			byte[] target = new byte[Math.max(unread,SyslogConstants.SYSLOG_BUFFER_SIZE)];
+
+			System.arraycopy(this.buffer,this.position,target,0,unread);
+
+			this.buffer = target;
+			this.position = 0;
+			this.limit = unread;
+		}
+
+		this.borrowed = false;
+	}
+
+	protected void ensureCapacity(int length) {
+		if (this.buffer == null) {
+			this.buffer = new byte[Math.max(length,SyslogConstants.SYSLOG_BUFFER_SIZE)];
+			return;
+		}
+
+		if (this.limit + length <= this.buffer.length) {
+			return;
+		}
+
+		int unread = this.limit - this.position;
+
+		byte[] target = this.buffer;
+
+		if (unread + length > this.buffer.length) {
+			target = new byte[Math.max(unread + length,this.buffer.length << 1)];
+		}
+
+		System.arraycopy(this.buffer,this.position,target,0,unread);
+
+		this.buffer = target;
+		this.position = 0;
+		this.limit = unread;
+	}
+
+	/**
+	 * @return Returns the number of buffered bytes not yet returned as a frame
+	 */
+	public int remaining() {
+		return this.limit - this.position;
+	}
+
+	/**
+	 * @return Returns the next complete message, or null if more bytes are needed
+	 * @throws IOException if an octet-counting header is invalid, or a frame is
+	 *     longer than maxFrameLength
+	 */
+	public byte[] nextFrame() throws IOException {
+		if (this.limit == this.position) {
+			release();
+			return null;
+		}
+
+		byte first = this.buffer[this.position];
+
+		if (first >= '1' && first <= '9') {
+			return nextOctetCounted();
+		}
+
+		return nextDelimited();
+	}
+
+	protected byte[] nextOctetCounted() throws IOException {
+		long length = 0;
+		int digits = 0;
+
+		while(true) {
+			if (this.position + digits == this.limit) {
+				return null;
+			}
+
+			byte b = this.buffer[this.position + digits];
+
+			if (b == ' ') {
+				break;
+			}
+
+			if (b < '0' || b > '9' || digits == MAX_HEADER_DIGITS) {
+				throw new IOException("Invalid octet-counting header");
+			}
+
+			length = length * 10 + (b - '0');
+			digits++;
+		}
+
+		if (length > this.maxFrameLength) {
+			throw new IOException("Frame length " + length + " exceeds maxFrameLength (" + this.maxFrameLength + ")");
+		}
+
+		if (this.limit - this.position - digits - 1 < length) {
+			return null;
+		}
+
+		this.position += digits + 1;
+
+		return take((int) length,(int) length);
+	}
+
+	protected byte[] nextDelimited() throws IOException {
+		for(int i=this.position + this.scanned; i<this.limit; i++) {
+			if (this.buffer[i] == '\n') {
+				int length = i - this.position;
+
+				if (length > 0 && this.buffer[i - 1] == '\r') {
+					return take(length - 1,length + 1);
+				}
+
+				return take(length,length + 1);
+			}
+		}
+
+		this.scanned = this.limit - this.position;
+
+		if (this.scanned > this.maxFrameLength) {
+			throw new IOException("Frame length exceeds maxFrameLength (" + this.maxFrameLength + ")");
+		}
+
+		return null;
+	}
+
+	/**
+	 * Called when the connection is closed by the client.
+	 *
+	 * @return Returns the last message if it is not terminated by LF, or null
+	 * @throws EOFException if the connection ended within an octet-counted frame
+	 */
+	public byte[] endOfStream() throws IOException {
+		if (this.limit == this.position) {
+			return null;
+		}
+
+		byte first = this.buffer[this.position];
+
+		if (first >= '1' && first <= '9') {
+			throw new EOFException("Stream ended within an octet-counted frame");
+		}
+
+		return take(this.limit - this.position,this.limit - this.position);
+	}
+
+	protected byte[] take(int length, int consumed) {
+		byte[] frame = Arrays.copyOfRange(this.buffer,this.position,this.position + length);
+
+		this.position += consumed;
+		this.scanned = 0;
+
+		return frame;
+	}
+
+	protected void release() {
+		if (!this.borrowed) {
+			this.buffer = null;
+			this.position = 0;
+			this.limit = 0;
+		}
+
+		this.scanned = 0;
+	}
+}
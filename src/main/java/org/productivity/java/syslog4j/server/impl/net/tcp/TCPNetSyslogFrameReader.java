@@ -0,0 +1,76 @@
+package org.productivity.java.syslog4j.server.impl.net.tcp;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.productivity.java.syslog4j.SyslogConstants;
+
+/**
+* TCPNetSyslogFrameReader splits the byte stream of a TCP connection into
+* syslog messages.
+*
+* <p>The framing is detected for every frame (RFC 6587): a frame starting
+* with a digit other than 0 is octet-counted ("MSG-LEN SP SYSLOG-MSG") and is
+* sliced by its length without looking at its content; any other frame ends
+* with LF, and a CR before the LF is removed.</p>
+*
+* <p>The bytes read from the stream are split by a TCPNetSyslogFrameDecoder,
+* which the non-blocking NIO TCP server uses as well.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class TCPNetSyslogFrameReader {
+	protected final InputStream inputStream;
+	protected final TCPNetSyslogFrameDecoder decoder;
+
+	protected byte[] buffer = new byte[SyslogConstants.SYSLOG_BUFFER_SIZE * 8];
+	protected boolean endOfStream = false;
+
+	public TCPNetSyslogFrameReader(InputStream inputStream, int maxFrameLength) {
+		this.inputStream = inputStream;
+		this.decoder = new TCPNetSyslogFrameDecoder(maxFrameLength);
+	}
+
+	/**
+	 * @return Returns the next message, or null at the end of the stream
+	 * @throws IOException if reading fails, or the stream ends within an
+	 *     octet-counted frame, or a frame is longer than maxFrameLength
+	 */
+	public byte[] readFrame() throws IOException {
+		while(true) {
+			byte[] frame = this.decoder.nextFrame();
+
+			if (frame != null) {
+				return frame;
+			}
+
+			if (this.endOfStream) {
+				return this.decoder.endOfStream();
+			}
+
+			fill();
+		}
+	}
+
+	/**
+	 * Reads the next bytes of the stream and appends them to the decoder;
+	 * bytes of an incomplete frame are copied out of the buffer first, as
+	 * it is reused.
+	 */
+	protected void fill() throws IOException {
+		this.decoder.detach();
+
+		int read = this.inputStream.read(this.buffer,0,this.buffer.length);
+
+		if (read < 0) {
+			this.endOfStream = true;
+			return;
+		}
+
+		this.decoder.append(this.buffer,0,read);
+	}
+}
@@ -1,14 +1,15 @@
 package org.productivity.java.syslog4j.server.impl.net.tcp;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.util.Iterator;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import javax.net.ServerSocketFactory;
 
@@ -48,21 +49,32 @@ public class TCPNetSyslogServer extends AbstractSyslogServer {
 		public void run() {
 			boolean timeout = false;
 			
+			Inflater inflater = null;
+			
 			try {
-				BufferedReader br = new BufferedReader(new InputStreamReader(this.socket.getInputStream()));
+				TCPNetSyslogServerConfigIF config = (TCPNetSyslogServerConfigIF) this.server.getConfig();
+				
+				InputStream inputStream = this.socket.getInputStream();
+				
+				if (config.isCompression()) {
+					inflater = new Inflater();
+					inputStream = new InflaterInputStream(inputStream,inflater,SyslogConstants.SYSLOG_BUFFER_SIZE);
+				}
+				
+				TCPNetSyslogFrameReader reader = new TCPNetSyslogFrameReader(inputStream,config.getMaxFrameLength());
 
-				String line = br.readLine();
+				byte[] frame = reader.readFrame();
 				
-				if (line != null) {
+				if (frame != null) {
 					AbstractSyslogServer.handleSessionOpen(this.sessions,this.server,this.socket);
 				}
 				
-				while (line != null && !line.isEmpty()) {
-					SyslogServerEventIF event = createEvent(this.server.getConfig(),line,this.socket.getInetAddress());
+				while (frame != null && frame.length > 0) {
+					SyslogServerEventIF event = createEvent(this.server.getConfig(),frame,frame.length,this.socket.getInetAddress());
 					
 					AbstractSyslogServer.handleEvent(this.sessions,this.server,this.socket,event);
 
-					line = br.readLine();
+					frame = reader.readFrame();
 				}
 				
 			} catch (SocketTimeoutException ste) {
@@ -81,7 +93,11 @@ public class TCPNetSyslogServer extends AbstractSyslogServer {
 			} catch (IOException ioe) {
 				AbstractSyslogServer.handleException(this.sessions,this.server,this.socket.getRemoteSocketAddress(),ioe);
 			}
-			
+
+			if (inflater != null) {
+				inflater.end();
+			}
+
 			try {
 				AbstractSyslogServer.handleSessionClosed(this.sessions,this.server,this.socket,timeout);
 				
@@ -224,7 +240,7 @@ public class TCPNetSyslogServer extends AbstractSyslogServer {
 				if (socket != null) {
 					TCPNetSyslogSocketHandler handler = new TCPNetSyslogSocketHandler(this.sessions,this,socket);
 					
-					Thread t = new Thread(handler);
+					Thread t = this.syslogServerConfig.getExecutor().createThread(handler,"SyslogServerSession: " + socket.getRemoteSocketAddress(),Thread.currentThread().isDaemon(),-1);
 					
 					t.start();
 				}
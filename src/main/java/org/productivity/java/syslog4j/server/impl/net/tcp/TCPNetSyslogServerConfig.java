@@ -21,6 +21,8 @@ public class TCPNetSyslogServerConfig extends AbstractNetSyslogServerConfig impl
 	protected int backlog = 0;
 	protected int maxActiveSockets = TCP_MAX_ACTIVE_SOCKETS_DEFAULT;
 	protected byte maxActiveSocketsBehavior = TCP_MAX_ACTIVE_SOCKETS_BEHAVIOR_DEFAULT;
+	protected int maxFrameLength = TCP_MAX_FRAME_LENGTH_DEFAULT;
+	protected boolean compression = TCP_COMPRESSION_DEFAULT;
 
 	public TCPNetSyslogServerConfig() {
 		//
@@ -85,4 +87,20 @@ public class TCPNetSyslogServerConfig extends AbstractNetSyslogServerConfig impl
 	public void setMaxActiveSocketsBehavior(byte maxActiveSocketsBehavior) {
 		this.maxActiveSocketsBehavior = maxActiveSocketsBehavior;
 	}
+
+	public int getMaxFrameLength() {
+		return this.maxFrameLength;
+	}
+
+	public void setMaxFrameLength(int maxFrameLength) {
+		this.maxFrameLength = maxFrameLength;
+	}
+
+	public boolean isCompression() {
+		return this.compression;
+	}
+
+	public void setCompression(boolean compression) {
+		this.compression = compression;
+	}
 }
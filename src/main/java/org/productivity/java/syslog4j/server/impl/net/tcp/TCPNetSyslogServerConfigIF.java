@@ -27,4 +27,18 @@ public interface TCPNetSyslogServerConfigIF extends SyslogServerConfigIF {
 	
 	byte getMaxActiveSocketsBehavior();
 	void setMaxActiveSocketsBehavior(byte maxActiveSocketsBehavior);
+	
+	/**
+	 * @return Returns the longest frame (in bytes) accepted from a client; a longer
+	 *     frame closes the connection
+	 */
+	int getMaxFrameLength();
+	void setMaxFrameLength(int maxFrameLength);
+	
+	/**
+	 * @return Returns true if clients send a deflate (zlib) stream (see
+	 *     TCPNetSyslogConfigIF.isCompression())
+	 */
+	boolean isCompression();
+	void setCompression(boolean compression);
 }
@@ -0,0 +1,514 @@
+package org.productivity.java.syslog4j.server.impl.net.tcp.nio;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.server.SyslogServerEventIF;
+import org.productivity.java.syslog4j.server.impl.AbstractSyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogFrameDecoder;
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfigIF;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+/**
+* NioTCPNetSyslogServer provides a TCP/IP server implementation which reads
+* all connections with a small number of selector Threads, instead of one
+* Thread per connection as TCPNetSyslogServer.
+*
+* <p>The server Thread accepts the connections and hands them round-robin
+* to the selector Threads (selectorThreads, or one per available processor
+* with a plain TCPNetSyslogServerConfig).  Each selector Thread reads into
+* one buffer of its own and frames the messages with a
+* TCPNetSyslogFrameDecoder; event handlers are called on the selector
+* Thread.  A connection idle for longer than timeout is closed as timed
+* out.</p>
+*
+* <p>With MAX_ACTIVE_SOCKETS_BEHAVIOR_BLOCK, no further connections are
+* accepted until an active one is closed; waiting connections are held in
+* the backlog of the server socket.  Empty frames are ignored.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NioTCPNetSyslogServer extends AbstractSyslogServer {
+	protected static final int READ_BUFFER_SIZE = SyslogConstants.SYSLOG_BUFFER_SIZE * 64;
+	protected static final long IDLE_CHECK_INTERVAL = 1000;
+
+	protected static class Connection {
+		protected final SocketChannel channel;
+		protected final Socket socket;
+		protected final TCPNetSyslogFrameDecoder decoder;
+		protected final Inflater inflater;
+
+		protected long lastReadTime = System.currentTimeMillis();
+		protected boolean sessionOpened = false;
+
+		protected Connection(SocketChannel channel, TCPNetSyslogServerConfigIF config) {
+			this.channel = channel;
+			this.socket = channel.socket();
+			this.decoder = new TCPNetSyslogFrameDecoder(config.getMaxFrameLength());
+			this.inflater = config.isCompression() ? new Inflater() : null;
+		}
+	}
+
+	protected class SelectorLoop implements Runnable {
+		protected final Selector selector;
+		protected final Queue<SocketChannel> acceptedChannels = new ConcurrentLinkedQueue<>();
+
+		protected final byte[] readArray = new byte[READ_BUFFER_SIZE];
+		protected final ByteBuffer readBuffer = ByteBuffer.wrap(this.readArray);
+		protected byte[] inflateArray = null;
+
+		protected Thread thread = null;
+
+		protected SelectorLoop() throws IOException {
+			this.selector = Selector.open();
+		}
+
+		protected void register(SocketChannel channel) {
+			this.acceptedChannels.add(channel);
+			this.selector.wakeup();
+		}
+
+		public void run() {
+			int timeout = NioTCPNetSyslogServer.this.tcpNetSyslogServerConfig.getTimeout();
+
+			try {
+				while(!NioTCPNetSyslogServer.this.shutdown) {
+					this.selector.select(timeout > 0 ? Math.min(timeout,IDLE_CHECK_INTERVAL) : 0);
+
+					registerAcceptedChannels();
+
+					Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+
+					while(keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+
+						if (key.isValid() && key.isReadable()) {
+							read(key,(Connection) key.attachment());
+						}
+					}
+
+					if (timeout > 0) {
+						closeIdleConnections(timeout);
+					}
+				}
+
+			} catch (IOException ioe) {
+				handleException(NioTCPNetSyslogServer.this.sessions,NioTCPNetSyslogServer.this,null,ioe);
+
+			} finally {
+				closeAll();
+			}
+		}
+
+		protected void registerAcceptedChannels() {
+			SocketChannel channel;
+
+			while((channel = this.acceptedChannels.poll()) != null) {
+				Connection connection = new Connection(channel,NioTCPNetSyslogServer.this.tcpNetSyslogServerConfig);
+
+				NioTCPNetSyslogServer.this.sessions.addSocket(connection.socket);
+
+				try {
+					channel.register(this.selector,SelectionKey.OP_READ,connection);
+
+				} catch (ClosedChannelException cce) {
+					close(null,connection,false);
+				}
+			}
+		}
+
+		protected void read(SelectionKey key, Connection connection) {
+			try {
+				this.readBuffer.clear();
+
+				int read = connection.channel.read(this.readBuffer);
+
+				if (read < 0) {
+					byte[] frame = connection.decoder.endOfStream();
+
+					if (frame != null && frame.length > 0) {
+						handleFrame(connection,frame);
+					}
+
+					close(key,connection,false);
+					return;
+				}
+
+				if (read == 0) {
+					return;
+				}
+
+				connection.lastReadTime = System.currentTimeMillis();
+
+				if (connection.inflater != null) {
+					inflate(connection,read);
+
+				} else {
+					decode(connection,this.readArray,read);
+				}
+
+			} catch (IOException ioe) {
+				handleException(NioTCPNetSyslogServer.this.sessions,NioTCPNetSyslogServer.this,connection.socket.getRemoteSocketAddress(),ioe);
+
+				close(key,connection,false);
+			}
+		}
+
+		/**
+		 * Inflates until an inflate(..) call no longer fills inflateArray, as the
+		 * inflater may still hold output once needsInput() is true.
+		 */
+		protected void inflate(Connection connection, int length) throws IOException {
+			if (this.inflateArray == null) {
+				this.inflateArray = new byte[READ_BUFFER_SIZE];
+			}
+
+			connection.inflater.setInput(this.readArray,0,length);
+
+			try {
+				int inflated;
+
+				do {
+					inflated = connection.inflater.inflate(this.inflateArray);
+
+					if (inflated == 0 && connection.inflater.needsDictionary()) {
+						throw new IOException("Compressed stream requires a preset dictionary");
+					}
+
+					if (inflated > 0) {
+						decode(connection,this.inflateArray,inflated);
+					}
+
+				} while(inflated == this.inflateArray.length || (inflated > 0 && !connection.inflater.needsInput() && !connection.inflater.finished()));
+
+			} catch (DataFormatException dfe) {
+				throw new IOException(dfe);
+			}
+		}
+
+		protected void decode(Connection connection, byte[] data, int length) throws IOException {
+			connection.decoder.append(data,0,length);
+
+			try {
+				byte[] frame;
+
+				while((frame = connection.decoder.nextFrame()) != null) {
+					if (frame.length > 0) {
+						handleFrame(connection,frame);
+					}
+				}
+
+			} finally {
+				connection.decoder.detach();
+			}
+		}
+
+		protected void handleFrame(Connection connection, byte[] frame) {
+			if (!connection.sessionOpened) {
+				connection.sessionOpened = true;
+
+				handleSessionOpen(NioTCPNetSyslogServer.this.sessions,NioTCPNetSyslogServer.this,connection.socket);
+			}
+
+			SyslogServerEventIF event = createEvent(NioTCPNetSyslogServer.this.getConfig(),frame,frame.length,connection.socket.getInetAddress());
+
+			handleEvent(NioTCPNetSyslogServer.this.sessions,NioTCPNetSyslogServer.this,connection.socket,event);
+		}
+
+		protected void closeIdleConnections(int timeout) {
+			long now = System.currentTimeMillis();
+
+			for (SelectionKey key : this.selector.keys()) {
+				Connection connection = (Connection) key.attachment();
+
+				if (key.isValid() && now - connection.lastReadTime > timeout) {
+					close(key,connection,true);
+				}
+			}
+		}
+
+		protected void closeAll() {
+			registerAcceptedChannels();
+
+			for (SelectionKey key : this.selector.keys()) {
+				if (key.isValid()) {
+					close(key,(Connection) key.attachment(),false);
+				}
+			}
+
+			try {
+				this.selector.close();
+
+			} catch (IOException ioe) {
+				//
+			}
+		}
+
+		protected void close(SelectionKey key, Connection connection, boolean timeout) {
+			if (key != null) {
+				key.cancel();
+			}
+
+			if (connection.inflater != null) {
+				connection.inflater.end();
+			}
+
+			handleSessionClosed(NioTCPNetSyslogServer.this.sessions,NioTCPNetSyslogServer.this,connection.socket,timeout);
+
+			synchronized(Sessions.syncObject) {
+				NioTCPNetSyslogServer.this.sessions.removeSocket(connection.socket);
+				NioTCPNetSyslogServer.this.sessions.remove(connection.socket);
+			}
+
+			try {
+				connection.channel.close();
+
+			} catch (IOException ioe) {
+				handleException(NioTCPNetSyslogServer.this.sessions,NioTCPNetSyslogServer.this,connection.socket.getRemoteSocketAddress(),ioe);
+			}
+
+			connectionClosed();
+		}
+	}
+
+	protected ServerSocketChannel serverChannel = null;
+
+	protected SelectorLoop[] selectorLoops = null;
+
+	protected final Sessions sessions = new Sessions();
+
+	protected final AtomicInteger activeConnections = new AtomicInteger();
+	protected final Object capacitySyncObject = new Object();
+
+	protected TCPNetSyslogServerConfigIF tcpNetSyslogServerConfig = null;
+
+	public void initialize() throws SyslogRuntimeException {
+		try {
+			this.tcpNetSyslogServerConfig = (TCPNetSyslogServerConfigIF) this.syslogServerConfig;
+
+		} catch (ClassCastException cce) {
+			throw new SyslogRuntimeException("config must be of type TCPNetSyslogServerConfig");
+		}
+
+		if (this.tcpNetSyslogServerConfig.getBacklog() < 1) {
+			this.tcpNetSyslogServerConfig.setBacklog(SyslogConstants.SERVER_SOCKET_BACKLOG_DEFAULT);
+		}
+	}
+
+	public Sessions getSessions() {
+		return this.sessions;
+	}
+
+	/**
+	 * @return Returns the number of open connections
+	 */
+	public int getActiveConnections() {
+		return this.activeConnections.get();
+	}
+
+	public synchronized void shutdown() {
+		super.shutdown();
+
+		try {
+			if (this.serverChannel != null) {
+				if (this.syslogServerConfig.getShutdownWait() > 0) {
+					SyslogUtility.sleep(this.syslogServerConfig.getShutdownWait());
+				}
+
+				this.serverChannel.close();
+			}
+
+		} catch (IOException ioe) {
+			//
+		}
+
+		synchronized(this.capacitySyncObject) {
+			this.capacitySyncObject.notifyAll();
+		}
+
+		SelectorLoop[] _selectorLoops = this.selectorLoops;
+
+		if (_selectorLoops != null) {
+			for (SelectorLoop selectorLoop : _selectorLoops) {
+				selectorLoop.selector.wakeup();
+			}
+		}
+
+		this.thread = null;
+	}
+
+	protected int getSelectorThreads() {
+		int selectorThreads = 0;
+
+		if (this.tcpNetSyslogServerConfig instanceof NioTCPNetSyslogServerConfigIF) {
+			selectorThreads = ((NioTCPNetSyslogServerConfigIF) this.tcpNetSyslogServerConfig).getSelectorThreads();
+		}
+
+		if (selectorThreads < 1) {
+			selectorThreads = Runtime.getRuntime().availableProcessors();
+		}
+
+		return selectorThreads;
+	}
+
+	protected ServerSocketChannel createServerSocketChannel() throws IOException {
+		InetSocketAddress address;
+
+		if (this.syslogServerConfig.getHost() != null) {
+			address = new InetSocketAddress(InetAddress.getByName(this.syslogServerConfig.getHost()),this.syslogServerConfig.getPort());
+
+		} else {
+			address = new InetSocketAddress(this.syslogServerConfig.getPort());
+		}
+
+		ServerSocketChannel newServerChannel = ServerSocketChannel.open();
+
+		try {
+			newServerChannel.setOption(StandardSocketOptions.SO_REUSEADDR,true);
+			newServerChannel.bind(address,this.tcpNetSyslogServerConfig.getBacklog());
+
+		} catch (IOException ioe) {
+			newServerChannel.close();
+
+			throw ioe;
+		}
+
+		return newServerChannel;
+	}
+
+	protected SelectorLoop[] createSelectorLoops() throws IOException {
+		SelectorLoop[] newSelectorLoops = new SelectorLoop[getSelectorThreads()];
+
+		for(int i=0; i<newSelectorLoops.length; i++) {
+			newSelectorLoops[i] = new SelectorLoop();
+		}
+
+		return newSelectorLoops;
+	}
+
+	protected void connectionClosed() {
+		this.activeConnections.decrementAndGet();
+
+		synchronized(this.capacitySyncObject) {
+			this.capacitySyncObject.notifyAll();
+		}
+	}
+
+	/**
+	 * Waits while maxActiveSockets connections are open, if maxActiveSocketsBehavior is BLOCK.
+	 */
+	protected void awaitCapacity() {
+		int maxActiveSockets = this.tcpNetSyslogServerConfig.getMaxActiveSockets();
+
+		if (maxActiveSockets < 1 || this.tcpNetSyslogServerConfig.getMaxActiveSocketsBehavior() != TCPNetSyslogServerConfigIF.MAX_ACTIVE_SOCKETS_BEHAVIOR_BLOCK) {
+			return;
+		}
+
+		synchronized(this.capacitySyncObject) {
+			while(!this.shutdown && this.activeConnections.get() >= maxActiveSockets) {
+				try {
+					this.capacitySyncObject.wait(SyslogConstants.THREAD_LOOP_INTERVAL_DEFAULT);
+
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Returns true if the connection must be closed, as maxActiveSockets
+	 *     connections are open and maxActiveSocketsBehavior is REJECT
+	 */
+	protected boolean isRejected() {
+		int maxActiveSockets = this.tcpNetSyslogServerConfig.getMaxActiveSockets();
+
+		return maxActiveSockets > 0 &&
+			this.tcpNetSyslogServerConfig.getMaxActiveSocketsBehavior() == TCPNetSyslogServerConfigIF.MAX_ACTIVE_SOCKETS_BEHAVIOR_REJECT &&
+			this.activeConnections.get() >= maxActiveSockets;
+	}
+
+	public void run() {
+		try {
+			this.serverChannel = createServerSocketChannel();
+			this.selectorLoops = createSelectorLoops();
+			this.shutdown = false;
+
+		} catch (IOException ioe) {
+			throw new SyslogRuntimeException(ioe);
+		}
+
+		for(int i=0; i<this.selectorLoops.length; i++) {
+			SelectorLoop selectorLoop = this.selectorLoops[i];
+
+			selectorLoop.thread = this.syslogServerConfig.getExecutor().createThread(selectorLoop,"SyslogServerSelector: " + this.syslogServerConfig.getPort() + "-" + i,Thread.currentThread().isDaemon(),-1);
+			selectorLoop.thread.start();
+		}
+
+		handleInitialize(this);
+
+		int next = 0;
+
+		while(!this.shutdown) {
+			try {
+				awaitCapacity();
+
+				SocketChannel channel = this.serverChannel.accept();
+
+				if (isRejected()) {
+					channel.close();
+					continue;
+				}
+
+				channel.configureBlocking(false);
+
+				this.activeConnections.incrementAndGet();
+
+				this.selectorLoops[next].register(channel);
+				next = (next + 1) % this.selectorLoops.length;
+
+			} catch (ClosedChannelException cce) {
+				this.shutdown = true;
+
+			} catch (IOException ioe) {
+				//
+			}
+		}
+
+		for (SelectorLoop selectorLoop : this.selectorLoops) {
+			selectorLoop.selector.wakeup();
+
+			try {
+				selectorLoop.thread.join(this.syslogServerConfig.getShutdownWait() + SyslogConstants.THREAD_LOOP_INTERVAL_DEFAULT);
+
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		handleDestroy(this);
+	}
+}
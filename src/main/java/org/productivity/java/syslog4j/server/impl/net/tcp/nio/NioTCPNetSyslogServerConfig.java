@@ -0,0 +1,56 @@
+package org.productivity.java.syslog4j.server.impl.net.tcp.nio;
+
+import java.io.Serial;
+import org.productivity.java.syslog4j.server.SyslogServerIF;
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfig;
+
+/**
+* NioTCPNetSyslogServerConfig provides configuration for NioTCPNetSyslogServer.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public class NioTCPNetSyslogServerConfig extends TCPNetSyslogServerConfig implements NioTCPNetSyslogServerConfigIF {
+	@Serial private static final long serialVersionUID = 2866214573925016347L;
+	
+	protected int selectorThreads = TCP_NIO_SERVER_SELECTOR_THREADS_DEFAULT;
+
+	public NioTCPNetSyslogServerConfig() {
+		//
+	}
+
+	public NioTCPNetSyslogServerConfig(int port) {
+		super(port);
+	}
+
+	public NioTCPNetSyslogServerConfig(int port, int backlog) {
+		super(port,backlog);
+	}
+
+	public NioTCPNetSyslogServerConfig(String host) {
+		super(host);
+	}
+
+	public NioTCPNetSyslogServerConfig(String host, int port) {
+		super(host,port);
+	}
+
+	public NioTCPNetSyslogServerConfig(String host, int port, int backlog) {
+		super(host,port,backlog);
+	}
+
+	public Class<? extends SyslogServerIF> getSyslogServerClass() {
+		return NioTCPNetSyslogServer.class;
+	}
+	
+	public int getSelectorThreads() {
+		return this.selectorThreads;
+	}
+
+	public void setSelectorThreads(int selectorThreads) {
+		this.selectorThreads = selectorThreads;
+	}
+}
@@ -0,0 +1,21 @@
+package org.productivity.java.syslog4j.server.impl.net.tcp.nio;
+
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfigIF;
+
+/**
+* NioTCPNetSyslogServerConfigIF provides configuration for NioTCPNetSyslogServer.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public interface NioTCPNetSyslogServerConfigIF extends TCPNetSyslogServerConfigIF {
+	/**
+	 * @return Returns the number of selector Threads reading the connections,
+	 *     or 0 for one per available processor
+	 */
+	int getSelectorThreads();
+	void setSelectorThreads(int selectorThreads);
+}
@@ -4,18 +4,45 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketException;
+import java.net.StandardSocketOptions;
 import java.net.UnknownHostException;
 
 import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogExecutorIF;
 import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.executor.PlatformSyslogExecutor;
+import org.productivity.java.syslog4j.impl.executor.VirtualSyslogExecutor;
+import org.productivity.java.syslog4j.impl.net.udp.mmsg.MmsgSocket;
 import org.productivity.java.syslog4j.server.SyslogServerEventIF;
 import org.productivity.java.syslog4j.server.impl.AbstractSyslogServer;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEventBuffer;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEventBufferPool;
+import org.productivity.java.syslog4j.util.OSDetectUtility;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
 /**
 * UDPNetSyslogServer provides a simple non-threaded UDP/IP server implementation.
 * 
+* <p>With a receiveBatchSize greater than 1 on Linux (see
+* MmsgSocket.isSupported()), up to receiveBatchSize datagrams are received
+* per recvmmsg(2) call; elsewhere a DatagramSocket is used.  As a native
+* recvmmsg(2) call would pin the carrier of a virtual Thread, batched
+* receive loops always run in platform Threads.</p>
+* 
+* <p>With more than one receiveThreads, each receive Thread has a socket
+* of its own bound to the port with SO_REUSEPORT, so that the kernel
+* distributes the datagrams among them; where SO_REUSEPORT is not
+* supported, the receive Threads share one DatagramSocket.  Event handlers
+* are then called concurrently from the receive Threads.</p>
+* 
+* <p>Each datagram is received into a buffer of maxMessageLength bytes taken
+* from a SyslogServerEventBufferPool, which the event holds until it is
+* released after the event handlers return.  A handler which keeps the
+* event, e.g. to handle it on another Thread, must call retain() and later
+* release() on it, or call getRaw() before returning.</p>
+* 
 * <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
 * of the LGPL license is available in the META-INF folder in all
 * distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
@@ -24,10 +51,25 @@ import org.productivity.java.syslog4j.util.SyslogUtility;
 * @version $Id: UDPNetSyslogServer.java,v 1.16 2010/11/12 03:43:15 cvs Exp $
 */
 public class UDPNetSyslogServer extends AbstractSyslogServer {
-	protected DatagramSocket ds = null;
+	protected static final int MMSG_RECEIVE_TIMEOUT = 500;
+	
+	protected static Boolean reusePortSupported = null;
+	
+	protected volatile DatagramSocket[] datagramSockets = null;
+	
+	protected volatile MmsgSocket[] mmsgSockets = null;
+	
+	protected SyslogServerEventBufferPool bufferPool = null;
+	
+	protected UDPNetSyslogServerConfigIF udpNetSyslogServerConfig = null;
 
 	public void initialize() throws SyslogRuntimeException {
-		//
+		try {
+			this.udpNetSyslogServerConfig = (UDPNetSyslogServerConfigIF) this.syslogServerConfig;
+			
+		} catch (ClassCastException cce) {
+			throw new SyslogRuntimeException("config must be of type UDPNetSyslogServerConfig");
+		}
 	}
 	
 	public void shutdown() {
@@ -37,49 +79,267 @@ public class UDPNetSyslogServer extends AbstractSyslogServer {
 			SyslogUtility.sleep(this.syslogServerConfig.getShutdownWait());
 		}
 		
-		if (this.ds != null && !this.ds.isClosed()) {
-			this.ds.close();
+		closeSockets();
+	}
+	
+	protected void closeSockets() {
+		DatagramSocket[] _datagramSockets = this.datagramSockets;
+		
+		if (_datagramSockets != null) {
+			for (DatagramSocket datagramSocket : _datagramSockets) {
+				if (datagramSocket != null && !datagramSocket.isClosed()) {
+					datagramSocket.close();
+				}
+			}
+		}
+		
+		MmsgSocket[] _mmsgSockets = this.mmsgSockets;
+		
+		if (_mmsgSockets != null) {
+			for (MmsgSocket mmsgSocket : _mmsgSockets) {
+				if (mmsgSocket != null) {
+					mmsgSocket.shutdownInput();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return Returns true if datagrams are received with recvmmsg(2)
+	 */
+	protected boolean isReceiveBatched() {
+		return this.udpNetSyslogServerConfig.getReceiveBatchSize() > 1 &&
+			OSDetectUtility.isLinux() &&
+			SyslogUtility.isClassExists(SyslogConstants.JNA_NATIVE_CLASS) &&
+			MmsgSocket.isSupported();
+	}
+	
+	/**
+	 * @return Returns true if DatagramSocket supports SO_REUSEPORT on this platform
+	 */
+	public static synchronized boolean isReusePortSupported() {
+		if (reusePortSupported == null) {
+			try (DatagramSocket datagramSocket = new DatagramSocket(null)) {
+				reusePortSupported = datagramSocket.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+				
+			} catch (SocketException se) {
+				reusePortSupported = Boolean.FALSE;
+			}
 		}
+		
+		return reusePortSupported;
+	}
+	
+	/**
+	 * @return Returns the pool of receive buffers, or null before the server is started
+	 */
+	public SyslogServerEventBufferPool getBufferPool() {
+		return this.bufferPool;
 	}
 	
-	protected DatagramSocket createDatagramSocket() throws SocketException, UnknownHostException {
-		DatagramSocket datagramSocket;
+	protected int getMaxMessageLength() {
+		int maxMessageLength = this.udpNetSyslogServerConfig.getMaxMessageLength();
 		
+		if (maxMessageLength < 1) {
+			return SyslogConstants.UDP_MAX_MESSAGE_LENGTH_DEFAULT;
+		}
+		
+		return Math.min(maxMessageLength,SyslogConstants.UDP_MAX_MESSAGE_LENGTH_LIMIT);
+	}
+	
+	protected int getReceiveThreads() {
+		return Math.max(this.udpNetSyslogServerConfig.getReceiveThreads(),1);
+	}
+	
+	protected InetSocketAddress getBindAddress() throws UnknownHostException {
 		if (this.syslogServerConfig.getHost() != null) {
 			InetAddress inetAddress = InetAddress.getByName(this.syslogServerConfig.getHost());
 			
-			datagramSocket = new DatagramSocket(this.syslogServerConfig.getPort(),inetAddress);
+			return new InetSocketAddress(inetAddress,this.syslogServerConfig.getPort());
+		}
+		
+		return new InetSocketAddress(this.syslogServerConfig.getPort());
+	}
+	
+	protected MmsgSocket createMmsgSocket(boolean reusePort) throws IOException {
+		MmsgSocket newMmsgSocket = new MmsgSocket(this.udpNetSyslogServerConfig.getReceiveBatchSize());
+		
+		try {
+			InetAddress inetAddress = null;
 			
-		} else {
-			datagramSocket = new DatagramSocket(this.syslogServerConfig.getPort());
+			if (this.syslogServerConfig.getHost() != null) {
+				inetAddress = InetAddress.getByName(this.syslogServerConfig.getHost());
+			}
+			
+			if (reusePort) {
+				newMmsgSocket.setReusePort(true);
+			}
+			
+			if (this.udpNetSyslogServerConfig.getReceiveBufferSize() > 0) {
+				newMmsgSocket.setReceiveBufferSize(this.udpNetSyslogServerConfig.getReceiveBufferSize());
+			}
+			
+			newMmsgSocket.bind(inetAddress,this.syslogServerConfig.getPort());
+			newMmsgSocket.setReceiveTimeout(MMSG_RECEIVE_TIMEOUT);
+			
+		} catch (IOException ioe) {
+			newMmsgSocket.close();
+			
+			throw ioe;
+		}
+		
+		return newMmsgSocket;
+	}
+	
+	protected DatagramSocket createDatagramSocket(boolean reusePort) throws IOException {
+		DatagramSocket datagramSocket = new DatagramSocket(null);
+		
+		try {
+			if (reusePort) {
+				datagramSocket.setOption(StandardSocketOptions.SO_REUSEPORT,Boolean.TRUE);
+			}
+			
+			if (this.udpNetSyslogServerConfig.getReceiveBufferSize() > 0) {
+				datagramSocket.setReceiveBufferSize(this.udpNetSyslogServerConfig.getReceiveBufferSize());
+			}
+			
+			datagramSocket.bind(getBindAddress());
+			
+		} catch (IOException ioe) {
+			datagramSocket.close();
+			
+			throw ioe;
 		}
 		
 		return datagramSocket;
 	}
+	
+	/**
+	 * @return Returns one receive loop per receive Thread
+	 */
+	protected Runnable[] createReceivers() throws IOException {
+		int receiveThreads = getReceiveThreads();
+		
+		Runnable[] receivers = new Runnable[receiveThreads];
+		
+		if (this.bufferPool == null || this.bufferPool.getBufferSize() != getMaxMessageLength()) {
+			this.bufferPool = new SyslogServerEventBufferPool(getMaxMessageLength(),Math.max(SyslogConstants.UDP_EVENT_BUFFER_POOL_SIZE_DEFAULT,receiveThreads));
+		}
+		
+		if (isReceiveBatched()) {
+			MmsgSocket[] newMmsgSockets = new MmsgSocket[receiveThreads];
+			this.mmsgSockets = newMmsgSockets;
+			
+			for(int i=0; i<receiveThreads; i++) {
+				MmsgSocket mmsgSocket = createMmsgSocket(receiveThreads > 1);
+				
+				newMmsgSockets[i] = mmsgSocket;
+				receivers[i] = () -> receive(mmsgSocket);
+			}
+			
+		} else {
+			boolean reusePort = receiveThreads > 1 && isReusePortSupported();
+			
+			DatagramSocket[] newDatagramSockets = new DatagramSocket[reusePort ? receiveThreads : 1];
+			this.datagramSockets = newDatagramSockets;
+			
+			for(int i=0; i<newDatagramSockets.length; i++) {
+				newDatagramSockets[i] = createDatagramSocket(reusePort);
+			}
+			
+			for(int i=0; i<receiveThreads; i++) {
+				DatagramSocket datagramSocket = newDatagramSockets[i % newDatagramSockets.length];
+				
+				receivers[i] = () -> receive(datagramSocket);
+			}
+		}
+		
+		return receivers;
+	}
 
 	public void run() {
+		Runnable[] receivers;
+		
 		try {
-			this.ds = createDatagramSocket();
+			receivers = createReceivers();
 			this.shutdown = false;
 			
-		} catch (SocketException | UnknownHostException se) {
+		} catch (IOException ioe) {
+			closeSockets();
+			closeMmsgSockets();
 			return;
-			
 		}
-
-        byte[] receiveData = new byte[SyslogConstants.SYSLOG_BUFFER_SIZE];
 		
 		handleInitialize(this);
+		
+		SyslogExecutorIF executor = this.syslogServerConfig.getExecutor();
+		
+		int first = 1;
+		
+		if (isReceiveBatched()) {
+			executor = PlatformSyslogExecutor.INSTANCE;
+			
+			if (VirtualSyslogExecutor.isVirtual(Thread.currentThread())) {
+				first = 0;
+			}
+		}
+		
+		Thread[] receiveThreads = new Thread[receivers.length - first];
+		
+		for(int i=0; i<receiveThreads.length; i++) {
+			receiveThreads[i] = executor.createThread(receivers[i + first],"SyslogServerReceiver: " + this.syslogServerConfig.getPort() + "-" + (i + first),Thread.currentThread().isDaemon(),-1);
+			receiveThreads[i].start();
+		}
+		
+		try {
+			if (first == 1) {
+				receivers[0].run();
+			}
+			
+			for (Thread receiveThread : receiveThreads) {
+				try {
+					receiveThread.join();
 					
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			
+		} finally {
+			closeSockets();
+			closeMmsgSockets();
+		}
+		
+		handleDestroy(this);
+	}
+	
+	protected void closeMmsgSockets() {
+		MmsgSocket[] _mmsgSockets = this.mmsgSockets;
+		
+		this.mmsgSockets = null;
+		
+		if (_mmsgSockets != null) {
+			for (MmsgSocket mmsgSocket : _mmsgSockets) {
+				if (mmsgSocket != null) {
+					mmsgSocket.close();
+				}
+			}
+		}
+	}
+	
+	protected void receive(DatagramSocket datagramSocket) {
 		while(!this.shutdown) {
+			SyslogServerEventBuffer buffer = this.bufferPool.acquire();
+			SyslogServerEventIF event = null;
+			
 			DatagramPacket dp = null;
 			
 			try {
-				dp = new DatagramPacket(receiveData,receiveData.length);
+				dp = new DatagramPacket(buffer.getData(),buffer.getData().length);
 				
-				this.ds.receive(dp);
+				datagramSocket.receive(dp);
 				
-				SyslogServerEventIF event = createEvent(this.getConfig(),receiveData,dp.getLength(),dp.getAddress());
+				event = createEvent(this.getConfig(),buffer,dp.getLength(),dp.getAddress());
 								
 				handleEvent(null,this,dp,event);
 				
@@ -90,11 +350,72 @@ public class UDPNetSyslogServer extends AbstractSyslogServer {
 					handleException(null,this,dp.getSocketAddress(),se);
 				}
 				
+				if (datagramSocket.isClosed()) {
+					break;
+				}
+				
 			} catch (IOException ioe) {
 				handleException(null,this,dp.getSocketAddress(),ioe);
+				
+			} finally {
+				if (event != null) {
+					event.release();
+					
+				} else {
+					buffer.release();
+				}
 			}
 		}
+	}
+	
+	protected void receive(MmsgSocket mmsgSocket) {
+		int maxMessageLength = this.bufferPool.getBufferSize();
 		
-		handleDestroy(this);
+		while(!this.shutdown) {
+			int received;
+			
+			try {
+				received = mmsgSocket.receive(maxMessageLength);
+				
+			} catch (IOException ioe) {
+				handleException(null,this,null,ioe);
+				continue;
+			}
+			
+			for(int i=0; i<received; i++) {
+				InetSocketAddress socketAddress = mmsgSocket.getSocketAddress(i);
+				
+				if (socketAddress == null) {
+					continue;
+				}
+				
+				SyslogServerEventBuffer buffer = this.bufferPool.acquire();
+				SyslogServerEventIF event = null;
+				
+				try {
+					int length = mmsgSocket.read(i,buffer.getData());
+					
+					DatagramPacket dp = new DatagramPacket(buffer.getData(),length,socketAddress);
+					
+					try {
+						event = createEvent(this.getConfig(),buffer,length,socketAddress.getAddress());
+						
+					} catch (RuntimeException re) {
+						handleException(null,this,socketAddress,re);
+						continue;
+					}
+					
+					handleEvent(null,this,dp,event);
+					
+				} finally {
+					if (event != null) {
+						event.release();
+						
+					} else {
+						buffer.release();
+					}
+				}
+			}
+		}
 	}
 }
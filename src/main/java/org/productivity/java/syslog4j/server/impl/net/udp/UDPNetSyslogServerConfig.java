@@ -14,9 +14,14 @@ import org.productivity.java.syslog4j.server.impl.net.AbstractNetSyslogServerCon
 * @author &lt;syslog4j@productivity.org&gt;
 * @version $Id: UDPNetSyslogServerConfig.java,v 1.6 2010/10/28 05:10:57 cvs Exp $
 */
-public class UDPNetSyslogServerConfig extends AbstractNetSyslogServerConfig {
+public class UDPNetSyslogServerConfig extends AbstractNetSyslogServerConfig implements UDPNetSyslogServerConfigIF {
 	@Serial private static final long serialVersionUID = -2005919161187055486L;
 
+	protected int receiveBatchSize = UDP_RECEIVE_BATCH_SIZE_DEFAULT;
+	protected int receiveThreads = UDP_RECEIVE_THREADS_DEFAULT;
+	protected int receiveBufferSize = UDP_RECEIVE_BUFFER_SIZE_DEFAULT;
+	protected int maxMessageLength = UDP_MAX_MESSAGE_LENGTH_DEFAULT;
+
 	public UDPNetSyslogServerConfig() {
 		//
 	}
@@ -34,6 +39,38 @@ public class UDPNetSyslogServerConfig extends AbstractNetSyslogServerConfig {
 		this.port = port;
 	}
 
+	public int getReceiveBatchSize() {
+		return this.receiveBatchSize;
+	}
+
+	public void setReceiveBatchSize(int receiveBatchSize) {
+		this.receiveBatchSize = receiveBatchSize;
+	}
+
+	public int getReceiveThreads() {
+		return this.receiveThreads;
+	}
+
+	public void setReceiveThreads(int receiveThreads) {
+		this.receiveThreads = receiveThreads;
+	}
+
+	public int getReceiveBufferSize() {
+		return this.receiveBufferSize;
+	}
+
+	public void setReceiveBufferSize(int receiveBufferSize) {
+		this.receiveBufferSize = receiveBufferSize;
+	}
+
+	public int getMaxMessageLength() {
+		return this.maxMessageLength;
+	}
+
+	public void setMaxMessageLength(int maxMessageLength) {
+		this.maxMessageLength = maxMessageLength;
+	}
+
 	public Class<? extends SyslogServerIF> getSyslogServerClass() {
 		return UDPNetSyslogServer.class;
 	}
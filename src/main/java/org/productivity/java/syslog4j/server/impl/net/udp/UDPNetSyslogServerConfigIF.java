@@ -0,0 +1,41 @@
+package org.productivity.java.syslog4j.server.impl.net.udp;
+
+import org.productivity.java.syslog4j.server.SyslogServerConfigIF;
+
+/**
+* UDPNetSyslogServerConfigIF provides configuration for UDPNetSyslogServer.
+* 
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+* 
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public interface UDPNetSyslogServerConfigIF extends SyslogServerConfigIF {
+	/**
+	 * @return Returns the most datagrams received per recvmmsg(2) call on
+	 *     Linux (see MmsgSocket); 1 receives through a DatagramSocket
+	 */
+	int getReceiveBatchSize();
+	void setReceiveBatchSize(int receiveBatchSize);
+
+	/**
+	 * @return Returns the number of receive Threads; with more than one, each
+	 *     Thread has its own socket bound with SO_REUSEPORT where supported
+	 */
+	int getReceiveThreads();
+	void setReceiveThreads(int receiveThreads);
+
+	/**
+	 * @return Returns the SO_RCVBUF size of each socket, or 0 for the OS default
+	 */
+	int getReceiveBufferSize();
+	void setReceiveBufferSize(int receiveBufferSize);
+
+	/**
+	 * @return Returns the size of the buffer each datagram is received into, at
+	 *     most 65535; longer datagrams are truncated
+	 */
+	int getMaxMessageLength();
+	void setMaxMessageLength(int maxMessageLength);
+}
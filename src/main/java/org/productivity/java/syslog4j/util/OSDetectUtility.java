@@ -34,8 +34,13 @@ public final class OSDetectUtility {
 		"OS/2"
 	};
 	
+	private final static String[] LINUX_PLATFORMS = {
+		"Linux"
+	};
+	
 	private static final boolean UNIX;
 	private static final boolean WINDOWS;
+	private static final boolean LINUX;
 	
 	private OSDetectUtility() {
 		//
@@ -65,6 +70,7 @@ public final class OSDetectUtility {
 	static {
 		UNIX = isMatch(UNIX_PLATFORMS);
 		WINDOWS = isMatch(WINDOWS_PLATFORMS);
+		LINUX = isMatch(LINUX_PLATFORMS);
 	}
 	
 	public static boolean isUnix() {
@@ -74,4 +80,8 @@ public final class OSDetectUtility {
 	public static boolean isWindows() {
 		return WINDOWS;
 	}
+
+	public static boolean isLinux() {
+		return LINUX;
+	}
 }
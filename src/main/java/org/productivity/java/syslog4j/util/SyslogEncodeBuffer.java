@@ -0,0 +1,304 @@
+package org.productivity.java.syslog4j.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import org.productivity.java.syslog4j.SyslogCharSetIF;
+
+/**
+* SyslogEncodeBuffer is a growable, reusable byte buffer into which a syslog
+* packet (header and message) can be encoded directly, without building
+* intermediate Strings or byte arrays.
+*
+* <p>One buffer (and one CharsetEncoder) is kept per thread; use acquire(..)
+* and release() around each packet.  A nested acquire(..) on the same thread
+* (e.g. a backLog handler logging to another Syslog instance) receives a
+* temporary buffer instead of the thread's own.</p>
+*
+* <p>Syslog4j is licensed under the Lesser GNU Public License v2.1.  A copy
+* of the LGPL license is available in the META-INF folder in all
+* distributions of Syslog4j and in the base directory of the "doc" ZIP.</p>
+*
+* @author &lt;syslog4j@productivity.org&gt;
+*/
+public final class SyslogEncodeBuffer {
+	public static final int INITIAL_CAPACITY = 1024;
+	public static final int MAX_RETAINED_CAPACITY = 65536;
+
+	private static final ThreadLocal<SyslogEncodeBuffer> threadBuffer = ThreadLocal.withInitial(SyslogEncodeBuffer::new);
+
+	private byte[] data = new byte[INITIAL_CAPACITY];
+	private ByteBuffer byteBuffer = ByteBuffer.wrap(this.data);
+	private int length = 0;
+
+	private String charSetName = null;
+	private CharsetEncoder encoder = null;
+	private boolean asciiCompatible = false;
+
+	private boolean inUse = false;
+
+	private SyslogEncodeBuffer() {
+		//
+	}
+
+	/**
+	 * @param syslogCharSet - provides the character set used by putString(..)
+	 * @return Returns an empty buffer for the current thread
+	 */
+	public static SyslogEncodeBuffer acquire(SyslogCharSetIF syslogCharSet) {
+		SyslogEncodeBuffer buffer = threadBuffer.get();
+
+		if (buffer.inUse) {
+			buffer = new SyslogEncodeBuffer();
+		}
+
+		buffer.inUse = true;
+		buffer.length = 0;
+		buffer.setCharSet(syslogCharSet.getCharSet());
+
+		return buffer;
+	}
+
+	public void release() {
+		if (this.data.length > MAX_RETAINED_CAPACITY) {
+			this.data = new byte[INITIAL_CAPACITY];
+			this.byteBuffer = ByteBuffer.wrap(this.data);
+		}
+
+		this.length = 0;
+		this.inUse = false;
+	}
+
+	private void setCharSet(String charSetName) {
+		if (this.encoder != null && charSetName != null && charSetName.equals(this.charSetName)) {
+			return;
+		}
+
+		Charset charset;
+
+		try {
+			charset = Charset.forName(charSetName);
+
+		} catch (IllegalArgumentException iae) {
+			charset = Charset.defaultCharset();
+		}
+
+		this.charSetName = charSetName;
+		this.encoder = charset.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.asciiCompatible = StandardCharsets.UTF_8.equals(charset)
+			|| StandardCharsets.US_ASCII.equals(charset)
+			|| StandardCharsets.ISO_8859_1.equals(charset);
+	}
+
+	private void ensureCapacity(int additional) {
+		int required = this.length + additional;
+
+		if (required > this.data.length) {
+			byte[] newData = new byte[Math.max(required,this.data.length << 1)];
+			System.arraycopy(this.data,0,newData,0,this.length);
+
+			this.data = newData;
+			this.byteBuffer = ByteBuffer.wrap(this.data);
+		}
+	}
+
+	public SyslogEncodeBuffer put(byte b) {
+		ensureCapacity(1);
+		this.data[this.length++] = b;
+
+		return this;
+	}
+
+	public SyslogEncodeBuffer put(byte[] bytes) {
+		return put(bytes,0,bytes.length);
+	}
+
+	public SyslogEncodeBuffer put(byte[] bytes, int offset, int count) {
+		ensureCapacity(count);
+		System.arraycopy(bytes,offset,this.data,this.length,count);
+		this.length += count;
+
+		return this;
+	}
+
+	/**
+	 * Appends the decimal representation of a non-negative number.
+	 */
+	public SyslogEncodeBuffer putNumber(int number) {
+		if (number < 0) {
+			return putString(Integer.toString(number));
+		}
+
+		int digits = 1;
+		for (int n = number; n >= 10; n /= 10) {
+			digits++;
+		}
+
+		ensureCapacity(digits);
+
+		int pos = this.length + digits;
+		int n = number;
+		do {
+			this.data[--pos] = (byte) ('0' + (n % 10));
+			n /= 10;
+		} while (n > 0);
+
+		this.length += digits;
+
+		return this;
+	}
+
+	/**
+	 * Appends a String using the buffer's character set.  Plain ASCII text is
+	 * copied without invoking the CharsetEncoder when the character set is
+	 * an ASCII superset.
+	 */
+	public SyslogEncodeBuffer putString(String string) {
+		if (string == null) {
+			return this;
+		}
+
+		int stringLength = string.length();
+		int i = 0;
+
+		if (this.asciiCompatible) {
+			ensureCapacity(stringLength);
+
+			for (; i < stringLength; i++) {
+				char c = string.charAt(i);
+
+				if (c >= 0x80) {
+					break;
+				}
+
+				this.data[this.length++] = (byte) c;
+			}
+		}
+
+		if (i < stringLength) {
+			encode(string,i,stringLength);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Appends a String whose ASCII encoding was computed ahead of time with
+	 * toAsciiBytes(..); the bytes are copied as-is when the buffer's character
+	 * set is an ASCII superset, otherwise the String is encoded.
+	 */
+	public SyslogEncodeBuffer putString(String string, byte[] asciiBytes) {
+		if (asciiBytes != null && this.asciiCompatible) {
+			return put(asciiBytes);
+		}
+
+		return putString(string);
+	}
+
+	/**
+	 * @return Returns the ASCII bytes of the String, or null if it contains non-ASCII characters
+	 */
+	public static byte[] toAsciiBytes(String string) {
+		if (string == null) {
+			return null;
+		}
+
+		byte[] bytes = new byte[string.length()];
+
+		for (int i = 0; i < bytes.length; i++) {
+			char c = string.charAt(i);
+
+			if (c >= 0x80) {
+				return null;
+			}
+
+			bytes[i] = (byte) c;
+		}
+
+		return bytes;
+	}
+
+	private void encode(String string, int start, int end) {
+		CharBuffer in = CharBuffer.wrap(string,start,end);
+
+		ensureCapacity((int) ((end - start) * this.encoder.maxBytesPerChar()));
+
+		this.encoder.reset();
+
+		while (true) {
+			this.byteBuffer.limit(this.data.length).position(this.length);
+
+			CoderResult result = this.encoder.encode(in,this.byteBuffer,true);
+			if (!result.isOverflow()) {
+				result = this.encoder.flush(this.byteBuffer);
+			}
+
+			this.length = this.byteBuffer.position();
+
+			if (!result.isOverflow()) {
+				break;
+			}
+
+			ensureCapacity(Math.max(16,in.remaining() * 2));
+		}
+	}
+
+	/**
+	 * Replaces the byte at the given position (e.g. to adjust a formatted field in place).
+	 */
+	public void set(int position, byte b) {
+		if (position < 0 || position >= this.length) {
+			throw new IndexOutOfBoundsException("position " + position + " is outside of the buffer length " + this.length);
+		}
+
+		this.data[position] = b;
+	}
+
+	public byte get(int position) {
+		if (position < 0 || position >= this.length) {
+			throw new IndexOutOfBoundsException("position " + position + " is outside of the buffer length " + this.length);
+		}
+
+		return this.data[position];
+	}
+
+	public void setLength(int length) {
+		if (length < 0 || length > this.length) {
+			throw new IndexOutOfBoundsException("length " + length + " is outside of the buffer length " + this.length);
+		}
+
+		this.length = length;
+	}
+
+	/**
+	 * @return Returns true if ASCII text (header fields, digits) may be put as raw bytes
+	 */
+	public boolean isAsciiCompatible() {
+		return this.asciiCompatible;
+	}
+
+	/**
+	 * @return Returns the backing array; only the first length() bytes are valid
+	 */
+	public byte[] getData() {
+		return this.data;
+	}
+
+	public int length() {
+		return this.length;
+	}
+
+	public byte[] toByteArray() {
+		byte[] copy = new byte[this.length];
+		System.arraycopy(this.data,0,copy,0,this.length);
+
+		return copy;
+	}
+}
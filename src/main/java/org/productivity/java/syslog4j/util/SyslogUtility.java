@@ -1,9 +1,15 @@
 package org.productivity.java.syslog4j.util;
 
+import java.io.IOException;
 import java.io.Serial;
 import java.io.UnsupportedEncodingException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.UnknownHostException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.productivity.java.syslog4j.SyslogCharSetIF;
 import org.productivity.java.syslog4j.SyslogConstants;
@@ -40,6 +46,36 @@ public final class SyslogUtility implements SyslogConstants {
 		return address;
 	}
 	
+	/**
+	 * @return Returns true if a TCP connection to address and port could be opened (and was
+	 *     closed again) within timeout milliseconds
+	 */
+	public static boolean isReachable(InetAddress address, int port, int timeout) {
+		try (Socket socket = new Socket()) {
+			socket.connect(new InetSocketAddress(address,port),timeout);
+			
+			return true;
+			
+		} catch (IOException ioe) {
+			return false;
+		}
+	}
+	
+	/**
+	 * @return Returns the delay before retry number attempt (starting at 0):
+	 *     backoffMin doubled per attempt up to backoffMax, of which a random
+	 *     half is taken off, so that clients do not retry in lockstep
+	 */
+	public static long getBackoff(long backoffMin, long backoffMax, int attempt) {
+		long backoff = Math.min(backoffMax,Math.max(0,backoffMin) << Math.min(attempt,20));
+		
+		if (backoff <= 1) {
+			return Math.max(0,backoff);
+		}
+		
+		return backoff - ThreadLocalRandom.current().nextLong(backoff / 2);
+	}
+	
 	public static String getFacilityString(int syslogFacility) {
         return switch (syslogFacility) {
             case FACILITY_KERN -> "kern";
@@ -177,6 +213,75 @@ public final class SyslogUtility implements SyslogConstants {
 		return data;
 	}
 
+	public static String newString(SyslogCharSetIF syslogCharSet, byte[] dataBytes, int dataOffset, int dataLength) {
+		String data;
+		
+		try {
+			data = new String(dataBytes,dataOffset,dataLength,syslogCharSet.getCharSet());
+			
+		} catch (UnsupportedEncodingException uee) {
+			data = new String(dataBytes,dataOffset,dataLength);
+		}
+		
+		return data;
+	}
+
+	/**
+	 * Formats a java.text.MessageFormat pattern; an invalid pattern does not
+	 * throw, but yields the pattern followed by the arguments.
+	 */
+	public static String format(String pattern, Object[] args) {
+		if (pattern == null) {
+			return null;
+		}
+		
+		if (args == null || args.length == 0) {
+			return pattern;
+		}
+		
+		try {
+			return MessageFormat.format(pattern,args);
+			
+		} catch (IllegalArgumentException iae) {
+			return pattern + " " + Arrays.toString(args);
+		}
+	}
+
+	/**
+	 * @return Returns the length of the RFC 6587 octet-counting header ("MSG-LEN SP")
+	 *     of a message of length bytes
+	 */
+	public static int getOctetCountingHeaderLength(int length) {
+		int digits = 1;
+		
+		for(int i=length; i >= 10; i /= 10) {
+			digits++;
+		}
+		
+		return digits + 1;
+	}
+	
+	/**
+	 * Writes the RFC 6587 octet-counting header ("MSG-LEN SP") of a message of
+	 * length bytes into target.
+	 * 
+	 * @return Returns the length of the header
+	 */
+	public static int putOctetCountingHeader(int length, byte[] target, int offset) {
+		int headerLength = getOctetCountingHeaderLength(length);
+		
+		target[offset + headerLength - 1] = ' ';
+		
+		int i = length;
+		
+		for(int pos = offset + headerLength - 2; pos >= offset; pos--) {
+			target[pos] = (byte) ('0' + (i % 10));
+			i /= 10;
+		}
+		
+		return headerLength;
+	}
+
 	public static String getLevelString(int level) {
         return switch (level) {
             case SyslogConstants.LEVEL_DEBUG -> "DEBUG";
@@ -0,0 +1,119 @@
+package org.productivity.java.syslog4j.test.backlog;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+import org.productivity.java.syslog4j.impl.backlog.journal.JournalSyslogBackLogHandler;
+import org.productivity.java.syslog4j.impl.backlog.journal.SyslogJournal;
+import org.productivity.java.syslog4j.test.split.base.SplitSyslog;
+import org.productivity.java.syslog4j.test.split.base.SplitSyslogConfig;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class JournalSyslogBackLogHandlerTest extends TestCase {
+	protected File directory = null;
+
+	public void setUp() throws Exception {
+		this.directory = Files.createTempDirectory("syslog4j-journal").toFile();
+	}
+
+	public void tearDown() {
+		if (Syslog.exists("journal")) {
+			Syslog.destroyInstance("journal");
+		}
+
+		File[] files = this.directory.listFiles();
+
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+
+		this.directory.delete();
+	}
+
+	protected static String poll(SyslogJournal journal) {
+		QueuedSyslogMessage message = journal.poll();
+
+		return message != null ? message.getLevel() + ":" + new String(message.getData()) : null;
+	}
+
+	public void testJournal() {
+		SyslogJournal journal = new SyslogJournal(this.directory,"test",32,3);
+		journal.open();
+
+		assertTrue(journal.isEmpty());
+		assertNull(journal.poll());
+
+		for(int i=0; i<6; i++) {
+			assertTrue(journal.append(i,("message" + i).getBytes()));
+		}
+
+		assertEquals(3,journal.getSegmentCount());
+		assertFalse(journal.append(6,"message6".getBytes()));
+		assertFalse(journal.append(6,new byte[32]));
+
+		assertEquals("0:message0",poll(journal));
+		assertEquals("1:message1",poll(journal));
+		assertEquals("2:message2",poll(journal));
+
+		assertEquals(2,journal.getSegmentCount());
+		assertTrue(journal.append(6,"message6".getBytes()));
+
+		journal.close();
+
+		SyslogJournal reopened = new SyslogJournal(this.directory,"test",32,3);
+		reopened.open();
+
+		assertEquals(3,reopened.getSegmentCount());
+
+		for(int i=3; i<7; i++) {
+			assertEquals(i + ":message" + i,poll(reopened));
+		}
+
+		assertNull(reopened.poll());
+		assertTrue(reopened.isEmpty());
+		assertEquals(1,reopened.getSegmentCount());
+
+		reopened.close();
+	}
+
+	public void testReplayOnUp() {
+		SplitSyslogConfig config = new SplitSyslogConfig();
+		config.setIdent("");
+
+		JournalSyslogBackLogHandler handler = new JournalSyslogBackLogHandler(this.directory,"replay");
+		handler.setSegmentSize(1024);
+		handler.setReplayRate(0);
+		config.addBackLogHandler(handler);
+
+		SplitSyslog syslog = (SplitSyslog) Syslog.createInstance("journal",config);
+
+		String encoded = "<11>Oct 18 12:00:00 localhost already encoded";
+
+		syslog.backLog(SyslogConstants.LEVEL_ERROR,encoded,"down");
+		syslog.backLog(SyslogConstants.LEVEL_INFO,"not encoded","down");
+
+		assertEquals(0,syslog.getLastMessages().size());
+
+		syslog.setBackLogStatus(false);
+
+		long start = System.currentTimeMillis();
+
+		while (syslog.getLastMessages().size() < 2 && System.currentTimeMillis() - start < 5000) {
+			SyslogUtility.sleep(10);
+		}
+
+		assertEquals(2,syslog.getLastMessages().size());
+		assertEquals(encoded,syslog.getLastMessages().get(0));
+		assertTrue(syslog.getLastMessages().get(1).startsWith("<14>"));
+		assertTrue(syslog.getLastMessages().get(1).endsWith(" not encoded"));
+
+		handler.close();
+	}
+}
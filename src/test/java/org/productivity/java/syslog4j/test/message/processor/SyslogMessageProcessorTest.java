@@ -1,5 +1,8 @@
 package org.productivity.java.syslog4j.test.message.processor;
 
+import java.util.Calendar;
+
+import org.productivity.java.syslog4j.SyslogConstants;
 import org.productivity.java.syslog4j.SyslogMessageProcessorIF;
 import org.productivity.java.syslog4j.impl.message.processor.SyslogMessageProcessor;
 import org.productivity.java.syslog4j.test.base.AbstractBaseTest;
@@ -7,6 +10,12 @@ import org.productivity.java.syslog4j.test.base.AbstractBaseTest;
 public class SyslogMessageProcessorTest extends AbstractBaseTest {
 	protected static final SyslogMessageProcessorIF syslogMessageProcessor = new SyslogMessageProcessor();
 
+	public static class TimestampSyslogMessageProcessor extends SyslogMessageProcessor {
+		public static String format(long timeMillis) {
+			return formatLocalTimestamp(timeMillis);
+		}
+	}
+
 	public void testCreatingDefault() {
 		SyslogMessageProcessor origMessageProcessor = SyslogMessageProcessor.getDefault();
 		
@@ -43,4 +52,18 @@ public class SyslogMessageProcessorTest extends AbstractBaseTest {
 		d = syslogMessageProcessor.createPacketData(h,m,8,6,"..".getBytes(),"..".getBytes());
 		System.out.println(new String(d));
 	}
+
+	public void testLocalTimestamp() {
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(2010,Calendar.JANUARY,5,7,8,9);
+		
+		assertEquals("Jan  5 07:08:09 ",TimestampSyslogMessageProcessor.format(calendar.getTimeInMillis()));
+		
+		calendar.set(Calendar.DAY_OF_MONTH,15);
+		assertEquals("Jan 15 07:08:09 ",TimestampSyslogMessageProcessor.format(calendar.getTimeInMillis()));
+		
+		String header = syslogMessageProcessor.createSyslogHeader(SyslogConstants.FACILITY_USER,SyslogConstants.LEVEL_INFO,"localhost",true,true);
+		assertTrue(header,header.matches("<14>[A-Z][a-z]{2} [ 1-3][0-9] [0-9]{2}:[0-9]{2}:[0-9]{2} localhost "));
+	}
 }
@@ -1,7 +1,10 @@
 package org.productivity.java.syslog4j.test.message.processor.structured;
 
+import java.time.format.DateTimeFormatter;
+
 import junit.framework.TestCase;
 
+import org.productivity.java.syslog4j.SyslogConstants;
 import org.productivity.java.syslog4j.impl.message.processor.structured.StructuredSyslogMessageProcessor;
 
 public class StructuredSyslogMessageProcessorTest extends TestCase {
@@ -22,4 +25,45 @@ public class StructuredSyslogMessageProcessorTest extends TestCase {
 		StructuredSyslogMessageProcessor.setDefault(origMessageProcessor);
 		assertEquals(origMessageProcessor,StructuredSyslogMessageProcessor.getDefault());
 	}
+	
+	public void testCachedHeader() {
+		StructuredSyslogMessageProcessor messageProcessor = new StructuredSyslogMessageProcessor("app1");
+		
+		String header = messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_LOCAL7,SyslogConstants.LEVEL_DEBUG,"host1",true,true);
+		assertTrue(header,header.matches("<191>1 [0-9]{4}-[0-9]{2}-[0-9]{2}T[0-9]{2}:[0-9]{2}:[0-9]{2}\\S* host1 app1 - "));
+		
+		header = messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_KERN,SyslogConstants.LEVEL_EMERGENCY,"host2",true,true);
+		assertTrue(header,header.matches("<0>1 \\S+ host2 app1 - "));
+		
+		messageProcessor.setApplicationName("app2");
+		messageProcessor.setProcessId("42");
+		header = messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_USER,SyslogConstants.LEVEL_INFO,"host2",true,true);
+		assertTrue(header,header.matches("<14>1 \\S+ host2 app2 42 "));
+		
+		messageProcessor.setApplicationName(null);
+		header = messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_USER,SyslogConstants.LEVEL_INFO,"host2",true,true);
+		assertTrue(header,header.matches("<14>1 \\S+ host2 - 42 "));
+		
+		header = messageProcessor.createSyslogHeader(1 << 10,SyslogConstants.LEVEL_INFO,"host2",true,true);
+		assertTrue(header,header.startsWith("<1030>1 "));
+	}
+	
+	public void testTimestampGranularity() {
+		StructuredSyslogMessageProcessor messageProcessor = new StructuredSyslogMessageProcessor();
+		assertEquals(SyslogConstants.STRUCTURED_TIMESTAMP_GRANULARITY_SECOND,messageProcessor.getTimestampGranularity());
+		
+		messageProcessor.setDateTimeFormatter(DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSxxx"));
+		
+		messageProcessor.setTimestampGranularity(SyslogConstants.STRUCTURED_TIMESTAMP_GRANULARITY_SECOND);
+		String header = messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_USER,SyslogConstants.LEVEL_INFO,"host",true,true);
+		assertTrue(header,header.matches("<14>1 \\S+T[0-9:]{8}\\.000\\S+ host unknown - "));
+		
+		messageProcessor.setTimestampGranularity(SyslogConstants.STRUCTURED_TIMESTAMP_GRANULARITY_MILLISECOND);
+		header = messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_USER,SyslogConstants.LEVEL_INFO,"host",true,true);
+		assertTrue(header,header.matches("<14>1 \\S+T[0-9:]{8}\\.[0-9]{3}\\S+ host unknown - "));
+		
+		messageProcessor.setTimestampGranularity(SyslogConstants.STRUCTURED_TIMESTAMP_GRANULARITY_NONE);
+		header = messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_USER,SyslogConstants.LEVEL_INFO,"host",true,true);
+		assertTrue(header,header.matches("<14>1 \\S+T[0-9:]{8}\\.[0-9]{3}\\S+ host unknown - "));
+	}
 }
@@ -0,0 +1,110 @@
+package org.productivity.java.syslog4j.test.misc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.SyslogMessageIF;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslogConfigIF;
+import org.productivity.java.syslog4j.impl.multiple.MultipleSyslogConfig;
+import org.productivity.java.syslog4j.test.split.base.SplitSyslog;
+import org.productivity.java.syslog4j.test.split.base.SplitSyslogConfig;
+
+public class LevelThresholdTest extends TestCase {
+	protected static SplitSyslog createSyslog(String protocol, int levelThreshold) {
+		SplitSyslogConfig config = new SplitSyslogConfig();
+		config.setLevelThreshold(levelThreshold);
+
+		return (SplitSyslog) Syslog.createInstance(protocol,config);
+	}
+
+	public void tearDown() {
+		String[] protocols = { "threshold_multiple", "threshold_warn", "threshold_info" };
+
+		for (String protocol : protocols) {
+			if (Syslog.exists(protocol)) {
+				Syslog.destroyInstance(protocol);
+			}
+		}
+	}
+
+	public void testLevelThreshold() {
+		SplitSyslog syslog = createSyslog("threshold_warn",SyslogConstants.LEVEL_WARN);
+
+		assertTrue(syslog.isEnabled(SyslogConstants.LEVEL_ERROR));
+		assertTrue(syslog.isEnabled(SyslogConstants.LEVEL_WARN));
+		assertFalse(syslog.isEnabled(SyslogConstants.LEVEL_NOTICE));
+
+		syslog.debug("debug");
+		syslog.info("info");
+		syslog.warn("warn");
+		syslog.error("error");
+
+		assertEquals(2,syslog.getLastMessages().size());
+		assertTrue(syslog.getLastMessages().get(0).endsWith("warn"));
+		assertTrue(syslog.getLastMessages().get(1).endsWith("error"));
+
+		final AtomicInteger created = new AtomicInteger();
+
+		syslog.logLazy(SyslogConstants.LEVEL_DEBUG,() -> "lazy debug " + created.incrementAndGet());
+		syslog.debug((SyslogMessageIF) () -> "message debug " + created.incrementAndGet());
+		assertEquals(0,created.get());
+
+		syslog.logLazy(SyslogConstants.LEVEL_CRITICAL,() -> "lazy critical " + created.incrementAndGet());
+		assertEquals(1,created.get());
+		assertEquals(3,syslog.getLastMessages().size());
+		assertTrue(syslog.getLastMessages().get(2).endsWith("lazy critical 1"));
+	}
+
+	public void testLogAsyncFiltered() throws Exception {
+		SplitSyslog syslog = createSyslog("threshold_warn",SyslogConstants.LEVEL_WARN);
+
+		assertEquals(SyslogDeliveryResult.FILTERED,syslog.logAsync(SyslogConstants.LEVEL_INFO,"info").get());
+		assertEquals(SyslogDeliveryResult.WRITTEN,syslog.logAsync(SyslogConstants.LEVEL_ERROR,"error").get());
+
+		assertEquals(1,syslog.getLastMessages().size());
+		assertTrue(syslog.getLastMessages().get(0).endsWith("error"));
+	}
+
+	public void testLevelThresholdName() {
+		AbstractSyslogConfigIF config = new SplitSyslogConfig();
+		assertEquals(SyslogConstants.LEVEL_DEBUG,config.getLevelThreshold());
+
+		config.setLevelThreshold("notice");
+		assertEquals(SyslogConstants.LEVEL_NOTICE,config.getLevelThreshold());
+
+		try {
+			config.setLevelThreshold("verbose");
+			fail("Unknown level names should be rejected");
+
+		} catch (SyslogRuntimeException sre) {
+			//
+		}
+	}
+
+	public void testMultipleLevelThreshold() {
+		SplitSyslog warnSyslog = createSyslog("threshold_warn",SyslogConstants.LEVEL_WARN);
+		SplitSyslog infoSyslog = createSyslog("threshold_info",SyslogConstants.LEVEL_INFO);
+
+		SyslogIF syslog = Syslog.createInstance("threshold_multiple",new MultipleSyslogConfig(new String[] { "threshold_warn", "threshold_info" }));
+
+		assertTrue(syslog.isEnabled(SyslogConstants.LEVEL_INFO));
+		assertFalse(syslog.isEnabled(SyslogConstants.LEVEL_DEBUG));
+
+		final AtomicInteger created = new AtomicInteger();
+
+		syslog.logLazy(SyslogConstants.LEVEL_DEBUG,() -> "debug " + created.incrementAndGet());
+		assertEquals(0,created.get());
+
+		syslog.logLazy(SyslogConstants.LEVEL_INFO,() -> "info " + created.incrementAndGet());
+		assertEquals(1,created.get());
+
+		assertEquals(0,warnSyslog.getLastMessages().size());
+		assertEquals(1,infoSyslog.getLastMessages().size());
+	}
+}
@@ -0,0 +1,72 @@
+package org.productivity.java.syslog4j.test.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.SyslogExecutorIF;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.executor.PlatformSyslogExecutor;
+import org.productivity.java.syslog4j.impl.executor.VirtualSyslogExecutor;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslog;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+
+public class SyslogExecutorTest extends TestCase {
+	public static class RecordingExecutor implements SyslogExecutorIF {
+		public final List<String> names = new ArrayList<>();
+		
+		public Thread createThread(Runnable runnable, String name, boolean daemon, int priority) {
+			this.names.add(name);
+			
+			return PlatformSyslogExecutor.INSTANCE.createThread(runnable,name,daemon,priority);
+		}
+	}
+	
+	public void testVirtualAvailable() {
+		assertEquals(Runtime.version().feature() >= 21,VirtualSyslogExecutor.isAvailable());
+	}
+	
+	public void testPlatformFallback() {
+		Thread thread = VirtualSyslogExecutor.INSTANCE.createThread(() -> {},"fallback",false,Thread.MAX_PRIORITY);
+		
+		assertEquals("fallback",thread.getName());
+		assertFalse(thread.isDaemon());
+		assertEquals(Thread.MAX_PRIORITY,thread.getPriority());
+		
+		Thread daemon = VirtualSyslogExecutor.INSTANCE.createThread(() -> {},"daemon",true,-1);
+		
+		assertEquals("daemon",daemon.getName());
+		assertTrue(daemon.isDaemon());
+		assertEquals(Thread.State.NEW,daemon.getState());
+	}
+	
+	public void testIsVirtual() {
+		assertFalse(VirtualSyslogExecutor.isVirtual(Thread.currentThread()));
+		assertFalse(VirtualSyslogExecutor.isVirtual(PlatformSyslogExecutor.INSTANCE.createThread(() -> {},"platform",true,-1)));
+		
+		Thread thread = VirtualSyslogExecutor.INSTANCE.createThread(() -> {},"virtual",true,-1);
+		
+		assertEquals(VirtualSyslogExecutor.isAvailable(),VirtualSyslogExecutor.isVirtual(thread));
+	}
+	
+	public void testWriterThread() {
+		RecordingExecutor executor = new RecordingExecutor();
+		
+		TCPNetSyslogConfig config = new TCPNetSyslogConfig();
+		config.setExecutor(executor);
+		
+		TCPNetSyslog syslog = (TCPNetSyslog) Syslog.createInstance("executor_tcp",config);
+		
+		try {
+			AbstractSyslogWriter writer = syslog.getWriter();
+			
+			assertTrue(writer.hasThread());
+			assertEquals("[SyslogWriter: executor_tcp]",executor.names.toString());
+			
+		} finally {
+			Syslog.destroyInstance("executor_tcp");
+		}
+	}
+}
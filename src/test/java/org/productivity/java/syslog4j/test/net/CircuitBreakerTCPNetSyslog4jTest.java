@@ -0,0 +1,130 @@
+package org.productivity.java.syslog4j.test.net;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.impl.net.NetSyslogCircuitBreaker;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslog;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogWriter;
+import org.productivity.java.syslog4j.test.net.BackLogTCPNetSyslog4jTest.TestBackLogHandler;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class CircuitBreakerTCPNetSyslog4jTest extends TestCase {
+	protected static int getUnusedPort() throws Exception {
+		try (ServerSocket serverSocket = new ServerSocket(0)) {
+			return serverSocket.getLocalPort();
+		}
+	}
+	
+	protected TCPNetSyslog createSyslog(String protocol, int port, boolean threaded, List<String> backLogEvents) {
+		TCPNetSyslogConfig config = new TCPNetSyslogConfig();
+		config.setHost("127.0.0.1");
+		config.setPort(port);
+		config.setThreaded(threaded);
+		config.setCircuitBreakerThreshold(1);
+		config.setReconnectBackoffMin(20);
+		config.setReconnectBackoffMax(100);
+		config.setThrowExceptionOnWrite(false);
+		config.addBackLogHandler(new TestBackLogHandler(backLogEvents));
+		
+		return (TCPNetSyslog) Syslog.createInstance(protocol,config);
+	}
+	
+	protected static NetSyslogCircuitBreaker getCircuitBreaker(SyslogIF syslog) {
+		return ((TCPNetSyslogWriter) ((TCPNetSyslog) syslog).getWriter()).getCircuitBreaker();
+	}
+	
+	public void testOpen() throws Exception {
+		List<String> backLogEvents = Collections.synchronizedList(new ArrayList<String>());
+		
+		TCPNetSyslog syslog = createSyslog("tcpCircuitOpen",getUnusedPort(),false,backLogEvents);
+		
+		try {
+			syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] 1");
+			assertEquals(NetSyslogCircuitBreaker.STATE_OPEN,getCircuitBreaker(syslog).getState());
+			
+			syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] 2");
+			syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] 3");
+			
+			assertEquals(3,backLogEvents.size());
+			
+		} finally {
+			Syslog.destroyInstance("tcpCircuitOpen");
+		}
+	}
+	
+	public void testThreadedReconnect() throws Exception {
+		List<String> backLogEvents = Collections.synchronizedList(new ArrayList<String>());
+		List<String> received = Collections.synchronizedList(new ArrayList<String>());
+		
+		int port = getUnusedPort();
+		
+		TCPNetSyslog syslog = createSyslog("tcpCircuitReconnect",port,true,backLogEvents);
+		
+		try (ServerSocket serverSocket = new ServerSocket()) {
+			syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] 0");
+			
+			for(int i=0; i<100 && backLogEvents.isEmpty(); i++) {
+				SyslogUtility.sleep(20);
+			}
+			
+			assertEquals(1,backLogEvents.size());
+			assertEquals(NetSyslogCircuitBreaker.STATE_OPEN,getCircuitBreaker(syslog).getState());
+			
+			for(int i=1; i<=4; i++) {
+				syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] " + i);
+			}
+			
+			SyslogUtility.sleep(100);
+			
+			assertEquals(1,backLogEvents.size());
+			
+			serverSocket.setReuseAddress(true);
+			serverSocket.bind(new InetSocketAddress("127.0.0.1",port));
+			
+			Thread reader = new Thread(() -> {
+				// the first connection is the reconnect probe
+				while (!serverSocket.isClosed()) {
+					try (Socket socket = serverSocket.accept()) {
+						BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+						
+						String line = in.readLine();
+						
+						while (line != null) {
+							received.add(line);
+							line = in.readLine();
+						}
+						
+					} catch (Exception e) {
+						//
+					}
+				}
+			});
+			reader.setDaemon(true);
+			reader.start();
+			
+			for(int i=0; i<250 && received.size() < 4; i++) {
+				SyslogUtility.sleep(20);
+			}
+			
+			assertEquals(4,received.size());
+			assertEquals(1,backLogEvents.size());
+			assertEquals(NetSyslogCircuitBreaker.STATE_CLOSED,getCircuitBreaker(syslog).getState());
+			
+		} finally {
+			Syslog.destroyInstance("tcpCircuitReconnect");
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.productivity.java.syslog4j.test.net;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfigIF;
+import org.productivity.java.syslog4j.impl.net.tcp.nio.NioTCPNetSyslogConfig;
+import org.productivity.java.syslog4j.server.SyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfig;
+import org.productivity.java.syslog4j.test.net.base.AbstractNetSyslog4jTest;
+
+public class CompressedTCPNetSyslog4jTest extends AbstractNetSyslog4jTest {
+	protected TCPNetSyslogConfigIF setupClientConfig(boolean threaded, byte compressionFlush) {
+		TCPNetSyslogConfig config = new TCPNetSyslogConfig();
+		
+		config.setThreaded(threaded);
+		config.setCompression(true);
+		config.setCompressionFlush(compressionFlush);
+		config.setThrowExceptionOnWrite(true);
+		config.setThrowExceptionOnInitialize(true);
+		
+		Syslog.createInstance("compressedTcp",config);
+		
+		return config;
+	}
+	
+	protected int getMessageCount() {
+		return 100;
+	}
+
+	protected String getClientProtocol() {
+		return "compressedTcp";
+	}
+
+	protected String getServerProtocol() {
+		TCPNetSyslogServerConfig serverConfig = new TCPNetSyslogServerConfig();
+		serverConfig.setPort(TEST_PORT);
+		serverConfig.setCompression(true);
+		
+		SyslogServer.createThreadedInstance("compressedTcp", serverConfig);
+		
+		return "compressedTcp";
+	}
+
+	public void testSendReceive() {
+		setupClientConfig(false,TCPNetSyslogConfigIF.COMPRESSION_FLUSH_SYNC);
+		
+		super._testSendReceive(true,true);
+	}
+
+	public void testSendReceiveOctetCounting() {
+		TCPNetSyslogConfigIF config = setupClientConfig(false,TCPNetSyslogConfigIF.COMPRESSION_FLUSH_FULL);
+		config.setFraming(TCPNetSyslogConfigIF.FRAMING_OCTET_COUNTING);
+		
+		super._testSendReceive(true,true);
+	}
+
+	public void testThreadedSendReceiveBatched() {
+		TCPNetSyslogConfigIF config = setupClientConfig(true,TCPNetSyslogConfigIF.COMPRESSION_FLUSH_SYNC);
+		config.setMaxBatchBytes(512);
+		config.setMaxLingerTime(20);
+		
+		super._testThreadedSendReceive(10,true,true);
+	}
+
+	public void testNioUnsupported() {
+		NioTCPNetSyslogConfig config = new NioTCPNetSyslogConfig();
+		config.setPort(TEST_PORT);
+		config.setCompression(true);
+		config.setThrowExceptionOnWrite(true);
+		
+		try {
+			Syslog.createInstance("compressedNioTcp",config).info("test");
+			fail();
+			
+		} catch (SyslogRuntimeException sre) {
+			//
+			
+		} finally {
+			Syslog.destroyInstance("compressedNioTcp");
+		}
+	}
+}
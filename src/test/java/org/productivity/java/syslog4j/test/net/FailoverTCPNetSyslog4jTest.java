@@ -0,0 +1,80 @@
+package org.productivity.java.syslog4j.test.net;
+
+import java.net.ServerSocket;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.impl.net.AbstractNetSyslogConfigIF;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestination;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestinations;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslog;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.tcp.shard.ShardedTCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.tcp.shard.ShardedTCPNetSyslogConfigIF;
+import org.productivity.java.syslog4j.server.SyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfig;
+import org.productivity.java.syslog4j.test.net.base.AbstractNetSyslog4jTest;
+
+public class FailoverTCPNetSyslog4jTest extends AbstractNetSyslog4jTest {
+	protected static int getUnusedPort() throws Exception {
+		try (ServerSocket serverSocket = new ServerSocket(0)) {
+			return serverSocket.getLocalPort();
+		}
+	}
+	
+	protected int getMessageCount() {
+		return 100;
+	}
+
+	protected String getClientProtocol() {
+		return "failoverTcp";
+	}
+
+	protected String getServerProtocol() {
+		TCPNetSyslogServerConfig serverConfig = new TCPNetSyslogServerConfig();
+		serverConfig.setPort(TEST_PORT);
+		
+		SyslogServer.createThreadedInstance("failoverTcp", serverConfig);
+		
+		return "failoverTcp";
+	}
+	
+	public void testFailover() throws Exception {
+		TCPNetSyslogConfig config = new TCPNetSyslogConfig();
+		config.setThreaded(false);
+		config.setHealthCheckInterval(0);
+		config.setDestinationSelection(AbstractNetSyslogConfigIF.DESTINATION_SELECTION_FAILOVER);
+		config.addDestination("127.0.0.1:" + getUnusedPort());
+		config.addDestination("127.0.0.1:" + TEST_PORT);
+		config.setThrowExceptionOnWrite(true);
+		
+		TCPNetSyslog syslog = (TCPNetSyslog) Syslog.createInstance("failoverTcp",config);
+		
+		super._testSendReceive(true,true);
+		
+		NetSyslogDestination[] destinations = syslog.getDestinations().getDestinations();
+		
+		assertFalse(destinations[0].isUp());
+		assertTrue(destinations[1].isUp());
+	}
+	
+	public void testThreadedLeastOutstandingBytes() {
+		ShardedTCPNetSyslogConfig config = new ShardedTCPNetSyslogConfig();
+		config.setShardCount(4);
+		config.setShardSelection(ShardedTCPNetSyslogConfigIF.SHARD_SELECTION_ROUND_ROBIN);
+		config.setDestinationSelection(AbstractNetSyslogConfigIF.DESTINATION_SELECTION_LEAST_OUTSTANDING_BYTES);
+		config.addDestination("127.0.0.1:" + TEST_PORT);
+		config.addDestination("localhost:" + TEST_PORT);
+		config.setThrowExceptionOnWrite(true);
+		
+		TCPNetSyslog syslog = (TCPNetSyslog) Syslog.createInstance("failoverTcp",config);
+		
+		super._testThreadedSendReceive(10,true,true);
+		
+		NetSyslogDestinations destinations = syslog.getDestinations();
+		
+		for (NetSyslogDestination destination : destinations.getDestinations()) {
+			assertTrue(destination.isUp());
+			assertEquals(0,destination.getOutstandingBytes());
+		}
+	}
+}
@@ -66,9 +66,11 @@ public class FreshConnectionIntervalTest extends TestCase {
 		
 		SyslogIF syslog = Syslog.createInstance("tcp_8888",config);
 
+		// messages are written as soon as they are queued; three bursts
+		// separated by more than the fresh connection interval use three connections
 		for(int i=0; i<10; i++) {
 			syslog.info("message " + i);
-			SyslogUtility.sleep(100);
+			SyslogUtility.sleep(i == 3 || i == 6 ? 400 : 10);
 		}
 		
 		SyslogUtility.sleep(100);
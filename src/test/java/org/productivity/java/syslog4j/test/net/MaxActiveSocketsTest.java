@@ -14,6 +14,7 @@ import org.productivity.java.syslog4j.server.SyslogServerIF;
 import org.productivity.java.syslog4j.server.SyslogServerSessionlessEventHandlerIF;
 import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfig;
 import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfigIF;
+import org.productivity.java.syslog4j.server.impl.net.tcp.nio.NioTCPNetSyslogServerConfig;
 import org.productivity.java.syslog4j.util.SyslogUtility;
 
 public class MaxActiveSocketsTest extends TestCase {
@@ -44,6 +45,7 @@ public class MaxActiveSocketsTest extends TestCase {
 		serverConfig.addEventHandler(c);
 		
 		SyslogServer.createThreadedInstance("tcp_maxactivesockets",serverConfig);
+		SyslogUtility.sleep(100);
 		
 		TCPNetSyslogConfigIF config = new TCPNetSyslogConfig();
 		config.setPort(8888);
@@ -90,4 +92,20 @@ public class MaxActiveSocketsTest extends TestCase {
 
 		assertEquals(2,count);
 	}
+
+	public void testNioMaxActiveSocketsWithBlock() {
+		TCPNetSyslogServerConfigIF serverConfig = new NioTCPNetSyslogServerConfig(8888);
+		serverConfig.setMaxActiveSocketsBehavior(TCPNetSyslogServerConfigIF.MAX_ACTIVE_SOCKETS_BEHAVIOR_BLOCK);
+		int count = _testMaxActiveSockets(serverConfig);
+		
+		assertEquals(3,count);
+	}
+
+	public void testNioMaxActiveSocketsWithReject() {
+		TCPNetSyslogServerConfigIF serverConfig = new NioTCPNetSyslogServerConfig(8888);
+		serverConfig.setMaxActiveSocketsBehavior(TCPNetSyslogServerConfigIF.MAX_ACTIVE_SOCKETS_BEHAVIOR_REJECT);
+		int count = _testMaxActiveSockets(serverConfig);		
+
+		assertEquals(2,count);
+	}
 }
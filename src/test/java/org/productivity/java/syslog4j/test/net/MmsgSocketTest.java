@@ -0,0 +1,106 @@
+package org.productivity.java.syslog4j.test.net;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.impl.net.udp.mmsg.MmsgSocket;
+
+public class MmsgSocketTest extends TestCase {
+	protected static final int PORT = 10515;
+	
+	public void testSendReceive() throws Exception {
+		if (!MmsgSocket.isSupported()) {
+			return;
+		}
+		
+		MmsgSocket receiver = new MmsgSocket(4);
+		MmsgSocket sender = new MmsgSocket(4);
+		
+		try {
+			InetAddress localhost = InetAddress.getByName("127.0.0.1");
+			
+			receiver.bind(localhost,PORT);
+			receiver.setReceiveTimeout(1000);
+			
+			List<byte[]> packets = new ArrayList<>();
+			List<InetSocketAddress> addresses = new ArrayList<>();
+			
+			for(int i=0; i<10; i++) {
+				packets.add(("packet " + i).getBytes());
+				addresses.add(new InetSocketAddress(localhost,PORT));
+			}
+			
+			int sent = 0;
+			
+			while(sent < packets.size()) {
+				int count = sender.send(packets,addresses,sent,packets.size() - sent);
+				
+				assertTrue(count > 0 && count <= 4);
+				
+				sent += count;
+			}
+			
+			List<String> received = new ArrayList<>();
+			byte[] buffer = new byte[16];
+			
+			while(received.size() < packets.size()) {
+				int count = receiver.receive(buffer.length);
+				
+				assertTrue(count > 0 && count <= 4);
+				
+				for(int i=0; i<count; i++) {
+					int length = receiver.read(i,buffer);
+					
+					received.add(new String(buffer,0,length));
+					
+					assertEquals(localhost,receiver.getSocketAddress(i).getAddress());
+				}
+			}
+			
+			for(int i=0; i<packets.size(); i++) {
+				assertEquals("packet " + i,received.get(i));
+			}
+			
+		} finally {
+			sender.close();
+			receiver.close();
+		}
+	}
+	
+	public void testShutdownInput() throws Exception {
+		if (!MmsgSocket.isSupported()) {
+			return;
+		}
+		
+		final MmsgSocket receiver = new MmsgSocket(4);
+		
+		try {
+			receiver.bind(null,PORT);
+			
+			Thread shutdownThread = new Thread(() -> {
+				try {
+					Thread.sleep(200);
+					
+				} catch (InterruptedException ie) {
+					//
+				}
+				
+				receiver.shutdownInput();
+			});
+			
+			shutdownThread.start();
+			
+			long start = System.currentTimeMillis();
+			
+			assertEquals(0,receiver.receive(1024));
+			assertTrue(System.currentTimeMillis() - start < 5000);
+			
+		} finally {
+			receiver.close();
+		}
+	}
+}
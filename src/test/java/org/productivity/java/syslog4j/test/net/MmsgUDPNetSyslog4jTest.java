@@ -0,0 +1,49 @@
+package org.productivity.java.syslog4j.test.net;
+
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.impl.net.udp.mmsg.MmsgSocket;
+import org.productivity.java.syslog4j.impl.net.udp.mmsg.MmsgUDPNetSyslog;
+import org.productivity.java.syslog4j.impl.net.udp.mmsg.MmsgUDPNetSyslogWriter;
+import org.productivity.java.syslog4j.server.SyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.udp.UDPNetSyslogServerConfigIF;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class MmsgUDPNetSyslog4jTest extends UDPNetSyslog4jTest {
+	public void setUp() throws Exception {
+		UDPNetSyslogServerConfigIF serverConfig = (UDPNetSyslogServerConfigIF) SyslogServer.getInstance(getServerProtocol()).getConfig();
+		
+		serverConfig.setReceiveBatchSize(16);
+		
+		super.setUp();
+	}
+	
+	protected int getMessageCount() {
+		return 50;
+	}
+
+	protected String getClientProtocol() {
+		return "mmsg_udp";
+	}
+	
+	public void testSendCallCount() {
+		SyslogIF syslog = getSyslog(getClientProtocol());
+		
+		for(int i=0; i<10; i++) {
+			syslog.info("[TEST] " + i);
+		}
+		
+		MmsgUDPNetSyslogWriter writer = (MmsgUDPNetSyslogWriter) ((MmsgUDPNetSyslog) syslog).getWriter();
+		
+		SyslogUtility.sleep(500);
+		
+		if (MmsgSocket.isSupported()) {
+			assertTrue(writer.getSendCallCount() > 0);
+			assertTrue(writer.getSendCallCount() <= 10);
+			
+		} else {
+			assertEquals(0,writer.getSendCallCount());
+		}
+		
+		assertEquals(10,this.recorderEventHandler.getRecordedEvents().size());
+	}
+}
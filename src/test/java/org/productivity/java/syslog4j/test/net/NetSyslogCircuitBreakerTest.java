@@ -0,0 +1,79 @@
+package org.productivity.java.syslog4j.test.net;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.impl.net.NetSyslogCircuitBreaker;
+
+public class NetSyslogCircuitBreakerTest extends TestCase {
+	public void testOpenAfterThreshold() {
+		NetSyslogCircuitBreaker breaker = new NetSyslogCircuitBreaker(3);
+		
+		assertEquals(NetSyslogCircuitBreaker.STATE_CLOSED,breaker.getState());
+		
+		assertFalse(breaker.recordFailure());
+		assertFalse(breaker.recordFailure());
+		breaker.recordSuccess();
+		
+		assertFalse(breaker.recordFailure());
+		assertFalse(breaker.recordFailure());
+		assertTrue(breaker.allowRequest());
+		
+		assertTrue(breaker.recordFailure());
+		assertEquals(NetSyslogCircuitBreaker.STATE_OPEN,breaker.getState());
+		assertFalse(breaker.allowRequest());
+	}
+	
+	public void testHalfOpen() {
+		NetSyslogCircuitBreaker breaker = new NetSyslogCircuitBreaker(1);
+		
+		breaker.halfOpen();
+		assertEquals(NetSyslogCircuitBreaker.STATE_CLOSED,breaker.getState());
+		
+		assertTrue(breaker.recordFailure());
+		
+		breaker.halfOpen();
+		assertEquals(NetSyslogCircuitBreaker.STATE_HALF_OPEN,breaker.getState());
+		assertTrue(breaker.allowRequest());
+		
+		assertTrue(breaker.recordFailure());
+		assertEquals(NetSyslogCircuitBreaker.STATE_OPEN,breaker.getState());
+		
+		breaker.halfOpen();
+		breaker.recordSuccess();
+		assertEquals(NetSyslogCircuitBreaker.STATE_CLOSED,breaker.getState());
+	}
+	
+	public void testStartReconnect() {
+		NetSyslogCircuitBreaker breaker = new NetSyslogCircuitBreaker(1);
+		
+		assertFalse(breaker.startReconnect());
+		
+		breaker.recordFailure();
+		
+		assertTrue(breaker.startReconnect());
+		assertFalse(breaker.startReconnect());
+		
+		breaker.reconnectCompleted();
+		
+		assertTrue(breaker.startReconnect());
+	}
+	
+	public void testReconnectBackoff() {
+		NetSyslogCircuitBreaker breaker = new NetSyslogCircuitBreaker(1);
+		
+		long first = breaker.nextReconnectBackoff(100,1000);
+		assertTrue(first >= 50 && first <= 100);
+		
+		breaker.nextReconnectBackoff(100,1000);
+		breaker.nextReconnectBackoff(100,1000);
+		breaker.nextReconnectBackoff(100,1000);
+		
+		long capped = breaker.nextReconnectBackoff(100,1000);
+		assertTrue(capped >= 500 && capped <= 1000);
+		
+		breaker.recordSuccess();
+		
+		first = breaker.nextReconnectBackoff(100,1000);
+		assertTrue(first >= 50 && first <= 100);
+	}
+}
@@ -0,0 +1,173 @@
+package org.productivity.java.syslog4j.test.net;
+
+import java.net.ServerSocket;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.executor.PlatformSyslogExecutor;
+import org.productivity.java.syslog4j.impl.net.AbstractNetSyslogConfigIF;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestination;
+import org.productivity.java.syslog4j.impl.net.NetSyslogDestinations;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class NetSyslogDestinationsTest extends TestCase {
+	protected TCPNetSyslogConfig createConfig(byte destinationSelection, String... destinations) {
+		TCPNetSyslogConfig config = new TCPNetSyslogConfig();
+		
+		config.setPort(1514);
+		config.setDestinationSelection(destinationSelection);
+		config.setHealthCheckInterval(0);
+		config.setReconnectBackoffMin(100000);
+		config.setReconnectBackoffMax(400000);
+		
+		for (String destination : destinations) {
+			config.addDestination(destination);
+		}
+		
+		return config;
+	}
+	
+	public void testParse() {
+		NetSyslogDestination destination = NetSyslogDestination.parse("syslog.example.com",514);
+		assertEquals("syslog.example.com",destination.getHost());
+		assertEquals(514,destination.getPort());
+		
+		destination = NetSyslogDestination.parse(" 10.0.0.1:6514 ",514);
+		assertEquals("10.0.0.1",destination.getHost());
+		assertEquals(6514,destination.getPort());
+		
+		destination = NetSyslogDestination.parse("[::1]:6514",514);
+		assertEquals("::1",destination.getHost());
+		assertEquals(6514,destination.getPort());
+		assertEquals("[::1]:6514",destination.toString());
+		
+		destination = NetSyslogDestination.parse("fe80::1",514);
+		assertEquals("fe80::1",destination.getHost());
+		assertEquals(514,destination.getPort());
+		
+		try {
+			NetSyslogDestination.parse("host:port",514);
+			fail();
+			
+		} catch (SyslogRuntimeException sre) {
+			//
+		}
+	}
+	
+	public void testFailover() {
+		NetSyslogDestinations destinations = new NetSyslogDestinations(createConfig(AbstractNetSyslogConfigIF.DESTINATION_SELECTION_FAILOVER,"a","b:1515","c"));
+		
+		NetSyslogDestination[] all = destinations.getDestinations();
+		assertEquals(1514,all[0].getPort());
+		assertEquals(1515,all[1].getPort());
+		
+		assertSame(all[0],destinations.select());
+		assertTrue(destinations.isPreferred(all[0]));
+		
+		destinations.failed(all[0]);
+		assertSame(all[1],destinations.select());
+		assertFalse(destinations.isPreferred(all[0]));
+		assertTrue(destinations.isPreferred(all[1]));
+		
+		destinations.failed(all[1]);
+		destinations.failed(all[2]);
+		assertNull(destinations.select());
+		
+		destinations.succeeded(all[2]);
+		assertSame(all[2],destinations.select());
+		
+		destinations.succeeded(all[0]);
+		assertFalse(destinations.isPreferred(all[2]));
+		assertSame(all[0],destinations.select());
+	}
+	
+	public void testRoundRobin() {
+		NetSyslogDestinations destinations = new NetSyslogDestinations(createConfig(AbstractNetSyslogConfigIF.DESTINATION_SELECTION_ROUND_ROBIN,"a","b","c"));
+		
+		NetSyslogDestination[] all = destinations.getDestinations();
+		
+		assertSame(all[0],destinations.select());
+		assertSame(all[1],destinations.select());
+		assertSame(all[2],destinations.select());
+		assertSame(all[0],destinations.select());
+		
+		destinations.failed(all[1]);
+		assertTrue(destinations.isPreferred(all[2]));
+		assertFalse(destinations.isPreferred(all[1]));
+		
+		assertSame(all[2],destinations.select());
+		assertSame(all[2],destinations.select());
+		assertSame(all[0],destinations.select());
+	}
+	
+	public void testLeastOutstandingBytes() {
+		NetSyslogDestinations destinations = new NetSyslogDestinations(createConfig(AbstractNetSyslogConfigIF.DESTINATION_SELECTION_LEAST_OUTSTANDING_BYTES,"a","b"));
+		
+		NetSyslogDestination[] all = destinations.getDestinations();
+		
+		assertSame(all[0],destinations.select());
+		
+		all[0].connectionOpened();
+		assertSame(all[1],destinations.select());
+		
+		all[1].connectionOpened();
+		all[1].addOutstandingBytes(1000);
+		assertSame(all[0],destinations.select());
+		
+		all[0].addOutstandingBytes(2000);
+		assertSame(all[1],destinations.select());
+	}
+	
+	public void testBackoff() {
+		NetSyslogDestination destination = new NetSyslogDestination("a",514);
+		
+		long now = System.currentTimeMillis();
+		
+		destination.markDown(1000,3000);
+		assertFalse(destination.isUp());
+		assertFalse(destination.isAvailable(now + 400));
+		assertTrue(destination.isAvailable(now + 1000 + 500));
+		
+		destination.markDown(1000,3000);
+		assertFalse(destination.isAvailable(now + 900));
+		assertTrue(destination.isAvailable(now + 2000 + 500));
+		
+		destination.markDown(1000,3000);
+		destination.markDown(1000,3000);
+		assertEquals(4,destination.getFailures());
+		assertFalse(destination.isAvailable(now + 1400));
+		assertTrue(destination.isAvailable(now + 3000 + 500));
+		
+		destination.markUp();
+		assertTrue(destination.isAvailable(now));
+		assertEquals(0,destination.getFailures());
+	}
+	
+	public void testHealthCheck() throws Exception {
+		try (ServerSocket serverSocket = new ServerSocket(0)) {
+			TCPNetSyslogConfig config = createConfig(AbstractNetSyslogConfigIF.DESTINATION_SELECTION_FAILOVER,"127.0.0.1:" + serverSocket.getLocalPort());
+			config.setHealthCheckInterval(20);
+			config.setReconnectBackoffMin(10);
+			
+			NetSyslogDestinations destinations = new NetSyslogDestinations(config);
+			
+			NetSyslogDestination destination = destinations.getDestinations()[0];
+			destinations.failed(destination);
+			
+			destinations.startHealthCheck(PlatformSyslogExecutor.INSTANCE,"SyslogHealthCheckTest");
+			
+			try {
+				for(int i=0; i<100 && !destination.isUp(); i++) {
+					SyslogUtility.sleep(20);
+				}
+				
+				assertTrue(destination.isUp());
+				
+			} finally {
+				destinations.shutdown();
+			}
+		}
+	}
+}
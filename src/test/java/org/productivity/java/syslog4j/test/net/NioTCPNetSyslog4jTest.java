@@ -0,0 +1,154 @@
+package org.productivity.java.syslog4j.test.net;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.SyslogBackLogHandlerIF;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.impl.AbstractSyslog;
+import org.productivity.java.syslog4j.impl.net.tcp.nio.NioTCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.tcp.nio.NioTCPNetSyslogConfigIF;
+import org.productivity.java.syslog4j.impl.net.tcp.nio.NioTCPNetSyslogWriter;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+import org.productivity.java.syslog4j.test.net.BackLogTCPNetSyslog4jTest.TestBackLogHandler;
+import org.productivity.java.syslog4j.test.net.base.AbstractNetSyslog4jTest;
+
+public class NioTCPNetSyslog4jTest extends AbstractNetSyslog4jTest {
+	protected int getMessageCount() {
+		return 100;
+	}
+
+	protected String getClientProtocol() {
+		return "nio_tcp";
+	}
+
+	protected String getServerProtocol() {
+		return "tcp";
+	}
+
+	public void testSendReceive() {
+		super._testSendReceive(true,true);
+	}
+
+	public void testThreadedSendReceive() {
+		super._testThreadedSendReceive(50,true,true);
+	}
+
+	public void testSendReceiveAsync() throws Exception {
+		List<String> events = new ArrayList<>();
+		List<CompletableFuture<SyslogDeliveryResult>> deliveries = new ArrayList<>();
+		
+		SyslogIF syslog = getSyslog(getClientProtocol());
+		
+		for (int i = 0; i < getMessageCount(); i++) {
+			String message = "[TEST] " + i + " / " + System.currentTimeMillis();
+			
+			deliveries.add(syslog.logAsync(SyslogConstants.LEVEL_INFO,message));
+			events.add(message);
+		}
+		
+		for (CompletableFuture<SyslogDeliveryResult> delivery : deliveries) {
+			assertEquals(SyslogDeliveryResult.WRITTEN,delivery.get(10,TimeUnit.SECONDS));
+		}
+		
+		verifySendReceive(events,true,true);
+	}
+	
+	protected SyslogIF createSyslog(String protocol, NioTCPNetSyslogConfigIF config, List<String> backLogEvents) {
+		config.setPort(TEST_PORT);
+		config.setIdent(APP_ID);
+		config.setThrowExceptionOnWrite(false);
+		config.addBackLogHandler(new TestBackLogHandler(backLogEvents));
+		
+		return Syslog.createInstance(protocol,config);
+	}
+
+	public void testMaxPendingBytes() throws Exception {
+		List<String> backLogEvents = new ArrayList<>();
+		
+		NioTCPNetSyslogConfig config = new NioTCPNetSyslogConfig();
+		config.setMaxPendingBytes(1);
+		
+		SyslogIF syslog = createSyslog("nio_tcp_pending",config,backLogEvents);
+		
+		try {
+			assertEquals(SyslogDeliveryResult.BACKLOGGED,syslog.logAsync(SyslogConstants.LEVEL_INFO,"[TEST] pending").get(10,TimeUnit.SECONDS));
+			assertEquals("[[TEST] pending]",backLogEvents.toString());
+			
+		} finally {
+			Syslog.destroyInstance("nio_tcp_pending");
+		}
+	}
+
+	public void testConnectFailure() throws Exception {
+		List<String> backLogEvents = new ArrayList<>();
+		
+		NioTCPNetSyslogConfig config = new NioTCPNetSyslogConfig();
+		
+		SyslogIF syslog = createSyslog("nio_tcp_refused",config,backLogEvents);
+		syslog.getConfig().setPort(TEST_PORT + 1);
+		
+		try {
+			assertEquals(SyslogDeliveryResult.BACKLOGGED,syslog.logAsync(SyslogConstants.LEVEL_INFO,"[TEST] refused").get(10,TimeUnit.SECONDS));
+			assertEquals("[[TEST] refused]",backLogEvents.toString());
+			
+		} finally {
+			Syslog.destroyInstance("nio_tcp_refused");
+		}
+	}
+
+	public static class LevelBackLogHandler implements SyslogBackLogHandlerIF {
+		public final List<Integer> levels = new ArrayList<>();
+		
+		public void initialize() throws SyslogRuntimeException {
+			//
+		}
+		
+		public void down(SyslogIF syslog, String reason) {
+			//
+		}
+		
+		public void up(SyslogIF syslog) {
+			//
+		}
+		
+		public synchronized void log(SyslogIF syslog, int level, String message, String reason) throws SyslogRuntimeException {
+			this.levels.add(level);
+		}
+		
+		public synchronized int size() {
+			return this.levels.size();
+		}
+	}
+
+	public void testBackLogLevel() throws Exception {
+		LevelBackLogHandler handler = new LevelBackLogHandler();
+		
+		NioTCPNetSyslogConfig config = new NioTCPNetSyslogConfig();
+		config.setPort(TEST_PORT + 1);
+		config.setThrowExceptionOnWrite(false);
+		config.addBackLogHandler(handler);
+		
+		SyslogIF syslog = Syslog.createInstance("nio_tcp_level",config);
+		
+		try {
+			syslog.error("[TEST] error");
+			((NioTCPNetSyslogWriter) ((AbstractSyslog) syslog).getWriter()).write("<132>[TEST] warn".getBytes());
+			
+			for(int i=0; i<100 && handler.size() < 2; i++) {
+				SyslogUtility.sleep(50);
+			}
+			
+			assertEquals("[" + SyslogConstants.LEVEL_ERROR + ", " + SyslogConstants.LEVEL_WARN + "]",handler.levels.toString());
+			
+		} finally {
+			Syslog.destroyInstance("nio_tcp_level");
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package org.productivity.java.syslog4j.test.net;
+
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfigIF;
+import org.productivity.java.syslog4j.server.SyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.tcp.nio.NioTCPNetSyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.tcp.nio.NioTCPNetSyslogServerConfig;
+import org.productivity.java.syslog4j.test.net.base.AbstractNetSyslog4jTest;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class NioTCPNetSyslogServer4jTest extends AbstractNetSyslog4jTest {
+	protected String clientProtocol = "tcp";
+	protected String serverProtocol = "nio_tcp";
+	
+	protected int getMessageCount() {
+		return 100;
+	}
+
+	protected String getClientProtocol() {
+		return this.clientProtocol;
+	}
+
+	protected String getServerProtocol() {
+		return this.serverProtocol;
+	}
+
+	public void setUp() throws Exception {
+		if (getName().startsWith("testCompressed")) {
+			NioTCPNetSyslogServerConfig serverConfig = new NioTCPNetSyslogServerConfig();
+			serverConfig.setPort(TEST_PORT);
+			serverConfig.setCompression(true);
+			serverConfig.setSelectorThreads(2);
+			
+			SyslogServer.createInstance("compressedNioTcpServer",serverConfig);
+			
+			this.serverProtocol = "compressedNioTcpServer";
+			
+			TCPNetSyslogConfig config = new TCPNetSyslogConfig();
+			config.setCompression(true);
+			config.setCompressionFlush(TCPNetSyslogConfigIF.COMPRESSION_FLUSH_SYNC);
+			config.setThrowExceptionOnWrite(true);
+			
+			Syslog.createInstance("compressedTcpClient",config);
+			
+			this.clientProtocol = "compressedTcpClient";
+		}
+		
+		super.setUp();
+	}
+	
+	public void testSendReceive() {
+		super._testSendReceive(true,true);
+	}
+
+	public void testThreadedSendReceive() {
+		super._testThreadedSendReceive(50,true,true);
+	}
+
+	public void testSendReceiveOctetCounting() {
+		TCPNetSyslogConfigIF config = (TCPNetSyslogConfigIF) getSyslog(getClientProtocol()).getConfig();
+		config.setFraming(TCPNetSyslogConfigIF.FRAMING_OCTET_COUNTING);
+		
+		try {
+			super._testSendReceive(true,true);
+			
+		} finally {
+			config.setFraming(TCPNetSyslogConfigIF.FRAMING_NON_TRANSPARENT);
+		}
+	}
+
+	public void testCompressedSendReceive() {
+		super._testSendReceive(true,true);
+	}
+
+	public void testCompressedLargeOutput() throws Exception {
+		String padding = "x".repeat(1000);
+		
+		try (Socket socket = new Socket("127.0.0.1",TEST_PORT)) {
+			DeflaterOutputStream out = new DeflaterOutputStream(socket.getOutputStream(),true);
+			
+			for(int i=0; i<200; i++) {
+				out.write(("<14>[TEST] " + i + " " + padding + "\n").getBytes(StandardCharsets.US_ASCII));
+			}
+			
+			out.flush();
+			
+			for(int i=0; i<100 && this.recorderEventHandler.getRecordedEvents().size() < 200; i++) {
+				SyslogUtility.sleep(10);
+			}
+			
+			assertEquals(200,this.recorderEventHandler.getRecordedEvents().size());
+		}
+	}
+	
+	public void testSessionsClosed() {
+		super._testSendReceive(true,true);
+		
+		Syslog.getInstance(getClientProtocol()).shutdown();
+		
+		SyslogUtility.sleep(500);
+		
+		NioTCPNetSyslogServer nioServer = (NioTCPNetSyslogServer) this.server;
+		
+		assertEquals(0,nioServer.getActiveConnections());
+		assertTrue(nioServer.getSessions().isEmpty());
+	}
+}
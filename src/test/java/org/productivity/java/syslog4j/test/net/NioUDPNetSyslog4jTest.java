@@ -0,0 +1,21 @@
+package org.productivity.java.syslog4j.test.net;
+
+import org.productivity.java.syslog4j.impl.net.udp.nio.NioUDPNetSyslogConfigIF;
+
+public class NioUDPNetSyslog4jTest extends UDPNetSyslog4jTest {
+	protected int getMessageCount() {
+		return 50;
+	}
+
+	protected String getClientProtocol() {
+		return "nio_udp";
+	}
+	
+	public void testThreadedSendReceiveStriped() {
+		NioUDPNetSyslogConfigIF config = (NioUDPNetSyslogConfigIF) getSyslog(getClientProtocol()).getConfig();
+		
+		config.setChannelStripes(4);
+		
+		super._testThreadedSendReceive(3,true,true);
+	}
+}
@@ -0,0 +1,107 @@
+package org.productivity.java.syslog4j.test.net;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.productivity.java.syslog4j.SyslogConfigIF;
+import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.server.SyslogServer;
+import org.productivity.java.syslog4j.server.SyslogServerEventIF;
+import org.productivity.java.syslog4j.server.SyslogServerIF;
+import org.productivity.java.syslog4j.server.SyslogServerSessionlessEventHandlerIF;
+import org.productivity.java.syslog4j.server.impl.net.udp.UDPNetSyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.udp.UDPNetSyslogServerConfigIF;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class PooledBufferUDPNetSyslog4jTest extends UDPNetSyslog4jTest {
+	public static class RetainingHandler implements SyslogServerSessionlessEventHandlerIF {
+		public final List<SyslogServerEventIF> events = new ArrayList<>();
+
+		public void initialize(SyslogServerIF syslogServer) {
+			//
+		}
+
+		public void event(SyslogServerIF syslogServer, SocketAddress socketAddress, SyslogServerEventIF event) {
+			synchronized(this.events) {
+				this.events.add(event.retain());
+			}
+		}
+
+		public void exception(SyslogServerIF syslogServer, SocketAddress socketAddress, Exception exception) {
+			//
+		}
+
+		public void destroy(SyslogServerIF syslogServer) {
+			//
+		}
+	}
+
+	public void setUp() throws Exception {
+		UDPNetSyslogServerConfigIF serverConfig = (UDPNetSyslogServerConfigIF) SyslogServer.getInstance(getServerProtocol()).getConfig();
+		
+		serverConfig.setMaxMessageLength(8192);
+		
+		super.setUp();
+	}
+	
+	public void testLargeMessage() {
+		SyslogConfigIF config = getSyslog(getClientProtocol()).getConfig();
+		
+		int maxMessageLength = config.getMaxMessageLength();
+		config.setMaxMessageLength(8192);
+		
+		try {
+			SyslogIF syslog = getSyslog(getClientProtocol());
+			
+			String message = "[TEST] " + "x".repeat(4000);
+			
+			syslog.info(message);
+			
+			SyslogUtility.sleep(500);
+			
+			assertEquals(1,this.recorderEventHandler.getRecordedEvents().size());
+			assertEquals(message,this.recorderEventHandler.getRecordedEvents().get(0));
+			
+		} finally {
+			config.setMaxMessageLength(maxMessageLength);
+		}
+	}
+	
+	public void testRetainedEvents() {
+		RetainingHandler handler = new RetainingHandler();
+		
+		this.server.getConfig().addEventHandler(handler);
+		
+		SyslogIF syslog = getSyslog(getClientProtocol());
+		
+		for(int i=0; i<20; i++) {
+			syslog.info("[TEST] retained " + i);
+			SyslogUtility.sleep(10);
+		}
+		
+		SyslogUtility.sleep(500);
+		
+		List<String> retained = new ArrayList<>();
+		
+		synchronized(handler.events) {
+			for (SyslogServerEventIF event : handler.events) {
+				retained.add(SyslogUtility.newString(this.server.getConfig(),event.getRaw()));
+				
+				event.release();
+			}
+		}
+		
+		assertEquals(20,retained.size());
+		
+		for(int i=0; i<20; i++) {
+			assertTrue(retained.get(i),retained.get(i).endsWith("[TEST] retained " + i));
+		}
+		
+		UDPNetSyslogServer udpServer = (UDPNetSyslogServer) this.server;
+		
+		assertTrue(udpServer.getBufferPool().getAllocatedCount() <= 21 + 4);
+		
+		this.server.getConfig().removeEventHandler(handler);
+	}
+}
@@ -36,6 +36,7 @@ public class PooledSSLTCPNetSyslog4jTest extends AbstractNetSyslog4jTest {
 
 	protected String getServerProtocol() throws Exception {
 		SSLTCPNetSyslogServerConfigIF config = new SSLTCPNetSyslogServerConfig();
+		config.setPort(TEST_PORT);
 		SSLConfigUtil.configure(config);
 		SyslogServer.createThreadedInstance("pooledSslTcp", config);
 		
@@ -35,6 +35,7 @@ public class PooledTCPNetSyslog4jTest extends AbstractNetSyslog4jTest {
 
 	protected String getServerProtocol() {
 		TCPNetSyslogServerConfig serverConfig = new TCPNetSyslogServerConfig();
+		serverConfig.setPort(TEST_PORT);
 		
 		SyslogServer.createThreadedInstance("pooledTcp", serverConfig);
 		
@@ -0,0 +1,25 @@
+package org.productivity.java.syslog4j.test.net;
+
+import org.productivity.java.syslog4j.server.SyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.udp.UDPNetSyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.udp.UDPNetSyslogServerConfigIF;
+import org.productivity.java.syslog4j.util.OSDetectUtility;
+
+public class ReusePortUDPNetSyslog4jTest extends UDPNetSyslog4jTest {
+	public void setUp() throws Exception {
+		UDPNetSyslogServerConfigIF serverConfig = (UDPNetSyslogServerConfigIF) SyslogServer.getInstance(getServerProtocol()).getConfig();
+		
+		serverConfig.setReceiveThreads(4);
+		serverConfig.setReceiveBufferSize(1024 * 1024);
+		
+		super.setUp();
+	}
+	
+	public void testReusePortSupported() {
+		if (OSDetectUtility.isLinux()) {
+			assertTrue(UDPNetSyslogServer.isReusePortSupported());
+		}
+		
+		super._testSendReceive(true,true);
+	}
+}
@@ -0,0 +1,67 @@
+package org.productivity.java.syslog4j.test.net;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.net.tcp.shard.ShardedTCPNetSyslog;
+import org.productivity.java.syslog4j.impl.net.tcp.shard.ShardedTCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.net.tcp.shard.ShardedTCPNetSyslogConfigIF;
+import org.productivity.java.syslog4j.server.SyslogServer;
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogServerConfig;
+import org.productivity.java.syslog4j.test.net.base.AbstractNetSyslog4jTest;
+
+public class ShardedTCPNetSyslog4jTest extends AbstractNetSyslog4jTest {
+	protected ShardedTCPNetSyslog setupShardConfig(boolean threaded, byte shardSelection) {
+		ShardedTCPNetSyslogConfig config = new ShardedTCPNetSyslogConfig();
+		
+		config.setThreaded(threaded);
+		config.setShardCount(4);
+		config.setShardSelection(shardSelection);
+		config.setThrowExceptionOnWrite(true);
+		config.setThrowExceptionOnInitialize(true);
+		
+		return (ShardedTCPNetSyslog) Syslog.createInstance("shardedTcp",config);
+	}
+	
+	protected int getMessageCount() {
+		return 250;
+	}
+
+	protected String getClientProtocol() {
+		return "shardedTcp";
+	}
+
+	protected String getServerProtocol() {
+		TCPNetSyslogServerConfig serverConfig = new TCPNetSyslogServerConfig();
+		serverConfig.setPort(TEST_PORT);
+		
+		SyslogServer.createThreadedInstance("shardedTcp", serverConfig);
+		
+		return "shardedTcp";
+	}
+	
+	protected void assertShards(ShardedTCPNetSyslog syslog, boolean threaded) {
+		AbstractSyslogWriter[] writers = syslog.getWriters();
+		
+		assertEquals(4,writers.length);
+		
+		for (AbstractSyslogWriter writer : writers) {
+			assertEquals(threaded,writer.hasThread());
+		}
+	}
+
+	public void testThreadedSendReceive_affinity_threaded() {
+		ShardedTCPNetSyslog syslog = setupShardConfig(true,ShardedTCPNetSyslogConfigIF.SHARD_SELECTION_THREAD_AFFINITY);
+		
+		super._testThreadedSendReceive(50,true,true);
+		
+		assertShards(syslog,true);
+	}
+
+	public void testThreadedSendReceive_roundRobin() {
+		ShardedTCPNetSyslog syslog = setupShardConfig(false,ShardedTCPNetSyslogConfigIF.SHARD_SELECTION_ROUND_ROBIN);
+		
+		super._testThreadedSendReceive(50,true,true);
+		
+		assertShards(syslog,false);
+	}
+}
@@ -1,9 +1,16 @@
 package org.productivity.java.syslog4j.test.net;
 
 import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
 import org.productivity.java.syslog4j.SyslogIF;
+import org.productivity.java.syslog4j.impl.AbstractSyslogConfigIF;
 import org.productivity.java.syslog4j.impl.message.processor.SyslogMessageProcessor;
 import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfig;
 import org.productivity.java.syslog4j.impl.net.tcp.TCPNetSyslogConfigIF;
@@ -78,6 +85,88 @@ public class TCPNetSyslog4jTest extends AbstractNetSyslog4jTest {
 	public void testSendReceive() {
 		super._testSendReceive(true,true);
 	}
+
+	public void testSendReceiveEncodeBuffer() {
+		AbstractSyslogConfigIF config = (AbstractSyslogConfigIF) getSyslog(getClientProtocol()).getConfig();
+		
+		config.setUseEncodeBuffer(true);
+		
+		try {
+			super._testSendReceive(true,true);
+			
+		} finally {
+			config.setUseEncodeBuffer(false);
+		}
+	}
+	
+	public void testSendReceivePattern() {
+		List<String> events = new ArrayList<>();
+		
+		SyslogIF syslog = getSyslog(getClientProtocol());
+		
+		for (int i = 0; i < getMessageCount(); i++) {
+			String time = String.valueOf(System.currentTimeMillis());
+			
+			syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] {0} / {1}",String.valueOf(i),time);
+			events.add("[TEST] " + i + " / " + time);
+		}
+		
+		SyslogUtility.sleep(200);
+		
+		syslog.flush();
+		
+		verifySendReceive(events,true,true);
+	}
+	
+	public void testSendReceiveAsync() throws Exception {
+		List<String> events = new ArrayList<>();
+		List<CompletableFuture<SyslogDeliveryResult>> deliveries = new ArrayList<>();
+		
+		SyslogIF syslog = getSyslog(getClientProtocol());
+		
+		for (int i = 0; i < getMessageCount(); i++) {
+			String message = "[TEST] " + i + " / " + System.currentTimeMillis();
+			
+			deliveries.add(syslog.logAsync(SyslogConstants.LEVEL_INFO,message));
+			events.add(message);
+		}
+		
+		for (CompletableFuture<SyslogDeliveryResult> delivery : deliveries) {
+			assertEquals(SyslogDeliveryResult.WRITTEN,delivery.get(10,TimeUnit.SECONDS));
+		}
+		
+		syslog.flush();
+		
+		verifySendReceive(events,true,true);
+	}
+	
+	public void testPatternFailure() {
+		List<String> events = new ArrayList<>();
+		
+		SyslogIF syslog = getSyslog(getClientProtocol());
+		
+		Object failing = new Object() {
+			public String toString() {
+				throw new IllegalStateException("toString");
+			}
+		};
+		
+		syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] {0",String.valueOf(0));
+		events.add("[TEST] {0 [0]");
+		
+		syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] {0}",failing);
+		
+		String time = String.valueOf(System.currentTimeMillis());
+		
+		syslog.log(SyslogConstants.LEVEL_INFO,"[TEST] after {0}",time);
+		events.add("[TEST] after " + time);
+		
+		SyslogUtility.sleep(200);
+		
+		syslog.flush();
+		
+		verifySendReceive(events,true,true);
+	}
 	
 	public void testThreadedSendReceive() {
 		Syslog.getInstance("tcp").setMessageProcessor(SyslogMessageProcessor.getDefault());
@@ -85,6 +174,51 @@ public class TCPNetSyslog4jTest extends AbstractNetSyslog4jTest {
 		super._testThreadedSendReceive(50,true,true);
 	}
 	
+	public void testThreadedSendReceiveBatched() {
+		TCPNetSyslogConfigIF config = (TCPNetSyslogConfigIF) getSyslog(getClientProtocol()).getConfig();
+
+		config.setMaxBatchBytes(512);
+		config.setMaxLingerTime(20);
+
+		try {
+			super._testThreadedSendReceive(10,true,true);
+
+		} finally {
+			config.setMaxBatchBytes(SyslogConstants.TCP_MAX_BATCH_BYTES_DEFAULT);
+			config.setMaxLingerTime(SyslogConstants.TCP_MAX_LINGER_TIME_DEFAULT);
+		}
+	}
+
+	public void testSendReceiveOctetCounting() {
+		TCPNetSyslogConfigIF config = (TCPNetSyslogConfigIF) getSyslog(getClientProtocol()).getConfig();
+
+		config.setFraming(TCPNetSyslogConfigIF.FRAMING_OCTET_COUNTING);
+
+		try {
+			super._testSendReceive(true,true);
+
+		} finally {
+			config.setFraming(TCPNetSyslogConfigIF.FRAMING_NON_TRANSPARENT);
+		}
+	}
+
+	public void testThreadedSendReceiveBatchedOctetCounting() {
+		TCPNetSyslogConfigIF config = (TCPNetSyslogConfigIF) getSyslog(getClientProtocol()).getConfig();
+
+		config.setFraming(TCPNetSyslogConfigIF.FRAMING_OCTET_COUNTING);
+		config.setMaxBatchBytes(512);
+		config.setMaxLingerTime(20);
+
+		try {
+			super._testThreadedSendReceive(10,true,true);
+
+		} finally {
+			config.setFraming(TCPNetSyslogConfigIF.FRAMING_NON_TRANSPARENT);
+			config.setMaxBatchBytes(SyslogConstants.TCP_MAX_BATCH_BYTES_DEFAULT);
+			config.setMaxLingerTime(SyslogConstants.TCP_MAX_LINGER_TIME_DEFAULT);
+		}
+	}
+
 	public void testStructuredMessage() {
 		_testSendReceiveStructuredMessages(true,true);
 	}
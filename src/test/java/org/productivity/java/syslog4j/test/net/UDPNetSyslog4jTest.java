@@ -1,5 +1,6 @@
 package org.productivity.java.syslog4j.test.net;
 
+import org.productivity.java.syslog4j.impl.AbstractSyslogConfigIF;
 import org.productivity.java.syslog4j.server.SyslogServer;
 import org.productivity.java.syslog4j.test.net.base.AbstractNetSyslog4jTest;
 
@@ -33,6 +34,19 @@ public class UDPNetSyslog4jTest extends AbstractNetSyslog4jTest {
 		super._testSendReceive(true,true);
 	}
 
+	public void testSendReceiveEncodeBuffer() {
+		AbstractSyslogConfigIF config = (AbstractSyslogConfigIF) getSyslog(getClientProtocol()).getConfig();
+		
+		config.setUseEncodeBuffer(true);
+		
+		try {
+			super._testSendReceive(true,true);
+			
+		} finally {
+			config.setUseEncodeBuffer(false);
+		}
+	}
+
     public void testPCIMessages() {
 		super._testSendReceivePCIMessages(true,true);
 	}
@@ -0,0 +1,167 @@
+package org.productivity.java.syslog4j.test.pool;
+
+import java.net.ServerSocket;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.net.tcp.pool.PooledTCPNetSyslog;
+import org.productivity.java.syslog4j.impl.net.tcp.pool.PooledTCPNetSyslogConfig;
+import org.productivity.java.syslog4j.impl.pool.lockfree.LockFreeSyslogPoolFactory;
+import org.productivity.java.syslog4j.impl.pool.lockfree.LockFreeSyslogWriterPool;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class LockFreeSyslogWriterPoolTest extends TestCase {
+	protected static int getUnusedPort() throws Exception {
+		try (ServerSocket serverSocket = new ServerSocket(0)) {
+			return serverSocket.getLocalPort();
+		}
+	}
+	
+	protected PooledTCPNetSyslogConfig createConfig(int maxActive, int minIdle) throws Exception {
+		PooledTCPNetSyslogConfig config = new PooledTCPNetSyslogConfig("127.0.0.1",getUnusedPort());
+		
+		config.setThreaded(false);
+		config.setMaxActive(maxActive);
+		config.setMinIdle(minIdle);
+		
+		return config;
+	}
+	
+	protected LockFreeSyslogWriterPool createPool(String protocol, PooledTCPNetSyslogConfig config) {
+		PooledTCPNetSyslog syslog = (PooledTCPNetSyslog) Syslog.createInstance(protocol,config);
+		
+		return ((LockFreeSyslogPoolFactory) syslog.getPoolFactory()).getWriterPool();
+	}
+	
+	public void tearDown() {
+		Syslog.shutdown();
+		Syslog.initialize();
+	}
+	
+	public void testBorrowReturn() throws Exception {
+		LockFreeSyslogWriterPool pool = createPool("lockFreePool",createConfig(4,0));
+		
+		AbstractSyslogWriter writer = pool.borrowObject();
+		
+		assertEquals(1,pool.getNumActive());
+		assertEquals(0,pool.getNumIdle());
+		
+		pool.returnObject(writer);
+		
+		assertEquals(0,pool.getNumActive());
+		assertEquals(1,pool.getNumIdle());
+		
+		assertSame(writer,pool.borrowObject());
+		assertEquals(2,pool.getBorrowCount());
+		assertEquals(0,pool.getBorrowWaitCount());
+	}
+	
+	public void testExhausted() throws Exception {
+		PooledTCPNetSyslogConfig config = createConfig(1,0);
+		config.setMaxWait(50);
+		
+		LockFreeSyslogWriterPool pool = createPool("lockFreePoolExhausted",config);
+		
+		pool.borrowObject();
+		
+		try {
+			pool.borrowObject();
+			fail();
+			
+		} catch (NoSuchElementException nsee) {
+			assertEquals(1,pool.getExhaustedCount());
+		}
+		
+		config.setWhenExhaustedAction(GenericObjectPool.WHEN_EXHAUSTED_GROW);
+		
+		assertNotNull(pool.borrowObject());
+		assertEquals(2,pool.getNumActive());
+	}
+	
+	public void testWaitForReturn() throws Exception {
+		PooledTCPNetSyslogConfig config = createConfig(1,0);
+		config.setMaxWait(5000);
+		
+		final LockFreeSyslogWriterPool pool = createPool("lockFreePoolWait",config);
+		
+		AbstractSyslogWriter writer = pool.borrowObject();
+		
+		final AtomicReference<AbstractSyslogWriter> borrowed = new AtomicReference<>();
+		
+		Thread t = new Thread(() -> {
+			try {
+				borrowed.set(pool.borrowObject());
+				
+			} catch (Exception e) {
+				//
+			}
+		});
+		t.start();
+		
+		SyslogUtility.sleep(100);
+		
+		assertNull(borrowed.get());
+		
+		pool.returnObject(writer);
+		t.join(5000);
+		
+		assertSame(writer,borrowed.get());
+		assertEquals(1,pool.getBorrowWaitCount());
+		assertTrue(pool.getBorrowWaitTimeNanos() > 0);
+		assertEquals(pool.getBorrowWaitTimeNanos(),pool.getMaxBorrowWaitTimeNanos());
+	}
+	
+	public void testMaintenance() throws Exception {
+		PooledTCPNetSyslogConfig config = createConfig(2,2);
+		config.setTimeBetweenEvictionRunsMillis(20);
+		
+		LockFreeSyslogWriterPool pool = createPool("lockFreePoolMaintenance",config);
+		
+		for(int i=0; i<100 && pool.getNumIdle() < 2; i++) {
+			SyslogUtility.sleep(10);
+		}
+		
+		assertEquals(2,pool.getNumIdle());
+		
+		AbstractSyslogWriter writer = pool.borrowObject();
+		writer.shutdown();
+		pool.returnObject(writer);
+		
+		SyslogUtility.sleep(200);
+		
+		assertEquals(2,pool.getNumIdle());
+		
+		AbstractSyslogWriter first = pool.borrowObject();
+		AbstractSyslogWriter second = pool.borrowObject();
+		
+		assertNotSame(writer,first);
+		assertNotSame(writer,second);
+		assertFalse(first.isShutdown());
+		assertFalse(second.isShutdown());
+	}
+	
+	public void testClose() throws Exception {
+		PooledTCPNetSyslogConfig config = createConfig(2,0);
+		
+		LockFreeSyslogWriterPool pool = createPool("lockFreePoolClose",config);
+		
+		pool.returnObject(pool.borrowObject());
+		
+		pool.close();
+		
+		assertEquals(0,pool.getNumIdle());
+		
+		try {
+			pool.borrowObject();
+			fail();
+			
+		} catch (IllegalStateException ise) {
+			//
+		}
+	}
+}
@@ -0,0 +1,376 @@
+package org.productivity.java.syslog4j.test.queue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.Syslog;
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
+import org.productivity.java.syslog4j.impl.AbstractSyslog;
+import org.productivity.java.syslog4j.impl.AbstractSyslogConfigIF;
+import org.productivity.java.syslog4j.impl.AbstractSyslogWriter;
+import org.productivity.java.syslog4j.impl.QueuedSyslogMessage;
+import org.productivity.java.syslog4j.impl.queue.SyslogSpillFile;
+import org.productivity.java.syslog4j.test.split.base.SplitSyslogConfig;
+
+public class QueueOverflowPolicyTest extends TestCase {
+	public static class QueueSyslogConfig extends SplitSyslogConfig {
+		protected int maxQueueSize = -1;
+
+		public int getMaxQueueSize() {
+			return this.maxQueueSize;
+		}
+
+		public void setMaxQueueSize(int maxQueueSize) {
+			this.maxQueueSize = maxQueueSize;
+		}
+	}
+
+	public static class QueueSyslogWriter extends AbstractSyslogWriter {
+		public volatile boolean paused = false;
+
+		protected boolean isPaused() {
+			return this.paused;
+		}
+
+		public void write(byte[] message) {
+			//
+		}
+
+		public void flush() {
+			//
+		}
+
+		public void shutdown() {
+			//
+		}
+
+		protected void runCompleted() {
+			//
+		}
+
+		public List<String> drain() {
+			List<QueuedSyslogMessage> batch = new ArrayList<>();
+			drainTo(batch);
+
+			List<String> messages = new ArrayList<>();
+
+			for (QueuedSyslogMessage message : batch) {
+				messages.add(new String(message.getData()));
+			}
+
+			return messages;
+		}
+
+		public File getSpillFileName() {
+			return this.spillFile != null ? this.spillFile.getFile() : null;
+		}
+
+		public void close() {
+			closeSpillFile();
+		}
+	}
+
+	protected QueueSyslogConfig config = null;
+
+	protected QueueSyslogWriter createWriter(int maxQueueSize, byte overflowPolicy) {
+		return createWriter(maxQueueSize,overflowPolicy,SyslogConstants.QUEUE_CAPACITY_DEFAULT);
+	}
+
+	protected QueueSyslogWriter createWriter(int maxQueueSize, byte overflowPolicy, int queueCapacity) {
+		this.config = new QueueSyslogConfig();
+		this.config.setMaxQueueSize(maxQueueSize);
+		this.config.setQueueOverflowPolicy(overflowPolicy);
+		this.config.setQueueCapacity(queueCapacity);
+
+		AbstractSyslog syslog = (AbstractSyslog) Syslog.createInstance("queue_overflow",this.config);
+
+		QueueSyslogWriter writer = new QueueSyslogWriter();
+		writer.initialize(syslog);
+		writer.setThread(null);
+
+		return writer;
+	}
+
+	protected static void queue(AbstractSyslogWriter writer, int level, String message) {
+		writer.queue(level,message.getBytes());
+	}
+
+	public void tearDown() {
+		if (Syslog.exists("queue_overflow")) {
+			Syslog.destroyInstance("queue_overflow");
+		}
+	}
+
+	public void testBackLog() {
+		QueueSyslogWriter writer = createWriter(2,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_BACKLOG);
+
+		for(int i=0; i<3; i++) {
+			queue(writer,SyslogConstants.LEVEL_INFO,"m" + i);
+		}
+
+		assertEquals(1,writer.getBackLoggedCount());
+		assertEquals(0,writer.getDroppedCount());
+		assertEquals("[m0, m1]",writer.drain().toString());
+	}
+
+	public void testDropNewest() {
+		QueueSyslogWriter writer = createWriter(3,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_DROP_NEWEST);
+
+		for(int i=0; i<5; i++) {
+			queue(writer,SyslogConstants.LEVEL_INFO,"m" + i);
+		}
+
+		assertEquals(2,writer.getDroppedNewestCount());
+		assertEquals(2,writer.getDroppedCount());
+		assertEquals("[m0, m1, m2]",writer.drain().toString());
+	}
+
+	public void testDropOldest() {
+		QueueSyslogWriter writer = createWriter(3,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_DROP_OLDEST);
+
+		for(int i=0; i<5; i++) {
+			queue(writer,SyslogConstants.LEVEL_INFO,"m" + i);
+		}
+
+		assertEquals(2,writer.getDroppedOldestCount());
+		assertEquals("[m2, m3, m4]",writer.drain().toString());
+	}
+
+	public void testDropBySeverity() {
+		QueueSyslogWriter writer = createWriter(4,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_DROP_BY_SEVERITY);
+		this.config.setQueueOverflowHighWaterMark(50);
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"i0");
+		queue(writer,SyslogConstants.LEVEL_DEBUG,"d1");
+		queue(writer,SyslogConstants.LEVEL_WARN,"w2");
+		queue(writer,SyslogConstants.LEVEL_ERROR,"e3");
+		queue(writer,SyslogConstants.LEVEL_CRITICAL,"c4");
+		queue(writer,SyslogConstants.LEVEL_EMERGENCY,"x5");
+
+		assertEquals(1,writer.getDroppedBySeverityCount());
+		assertEquals(1,writer.getBackLoggedCount());
+		assertEquals("[i0, d1, e3, c4]",writer.drain().toString());
+	}
+
+	public void testBlock() throws Exception {
+		final QueueSyslogWriter writer = createWriter(1,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_BLOCK);
+		this.config.setQueueOverflowBlockTimeout(100);
+		writer.setThread(Thread.currentThread());
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"m0");
+
+		long start = System.currentTimeMillis();
+		queue(writer,SyslogConstants.LEVEL_INFO,"m1");
+		assertTrue(System.currentTimeMillis() - start >= 100);
+
+		assertEquals(1,writer.getBlockTimeoutCount());
+
+		this.config.setQueueOverflowBlockTimeout(10000);
+
+		final List<String> drained = new ArrayList<>();
+
+		Thread consumer = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+
+			} catch (InterruptedException ie) {
+				//
+			}
+
+			drained.addAll(writer.drain());
+		});
+		consumer.start();
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"m2");
+		consumer.join();
+
+		assertEquals(1,writer.getBlockTimeoutCount());
+		assertEquals("[m0]",drained.toString());
+		assertEquals("[m2]",writer.drain().toString());
+	}
+
+	public void testUnbounded() {
+		QueueSyslogWriter writer = createWriter(-1,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_BLOCK,2);
+		writer.setThread(Thread.currentThread());
+
+		long start = System.currentTimeMillis();
+
+		for(int i=0; i<5; i++) {
+			queue(writer,SyslogConstants.LEVEL_INFO,"m" + i);
+		}
+
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		assertEquals(0,writer.getBackLoggedCount());
+		assertEquals(0,writer.getDroppedCount());
+
+		assertEquals("[m0, m1]",writer.drain().toString());
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"m5");
+
+		assertEquals("[m2, m3]",writer.drain().toString());
+		assertEquals("[m4, m5]",writer.drain().toString());
+		assertEquals("[]",writer.drain().toString());
+
+		writer.setThread(null);
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"m6");
+		queue(writer,SyslogConstants.LEVEL_INFO,"m7");
+		queue(writer,SyslogConstants.LEVEL_INFO,"m8");
+
+		assertEquals(1,writer.getBackLoggedCount());
+		assertEquals("[m6, m7]",writer.drain().toString());
+	}
+
+	public void testPaused() {
+		QueueSyslogWriter writer = createWriter(-1,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_BACKLOG,2);
+		writer.setThread(Thread.currentThread());
+		writer.paused = true;
+
+		for(int i=0; i<4; i++) {
+			queue(writer,SyslogConstants.LEVEL_INFO,"m" + i);
+		}
+
+		assertEquals(2,writer.getBackLoggedCount());
+		assertEquals("[m0, m1]",writer.drain().toString());
+		assertEquals("[]",writer.drain().toString());
+
+		Syslog.destroyInstance("queue_overflow");
+
+		writer = createWriter(1,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_BLOCK);
+		this.config.setQueueOverflowBlockTimeout(10000);
+		writer.setThread(Thread.currentThread());
+		writer.paused = true;
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"m0");
+
+		long start = System.currentTimeMillis();
+		queue(writer,SyslogConstants.LEVEL_INFO,"m1");
+		assertTrue(System.currentTimeMillis() - start < 5000);
+
+		assertEquals(1,writer.getBackLoggedCount());
+		assertEquals(0,writer.getBlockTimeoutCount());
+		assertEquals("[m0]",writer.drain().toString());
+	}
+
+	public void testSpillToDisk() {
+		QueueSyslogWriter writer = createWriter(2,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK);
+		this.config.setQueueSpillMaxBytes(3 * (8 + 2));
+
+		for(int i=0; i<6; i++) {
+			queue(writer,SyslogConstants.LEVEL_INFO,"m" + i);
+		}
+
+		assertEquals(3,writer.getSpilledCount());
+		assertEquals(1,writer.getDroppedNewestCount());
+
+		File file = writer.getSpillFileName();
+		assertTrue(file.exists());
+
+		assertEquals("[m0, m1]",writer.drain().toString());
+		assertEquals("[m2, m3]",writer.drain().toString());
+		assertEquals("[m4]",writer.drain().toString());
+		assertEquals(0,file.length());
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"m6");
+		queue(writer,SyslogConstants.LEVEL_INFO,"m7");
+		queue(writer,SyslogConstants.LEVEL_INFO,"m8");
+		assertEquals(4,writer.getSpilledCount());
+
+		assertEquals("[m6, m7]",writer.drain().toString());
+		assertEquals("[m8]",writer.drain().toString());
+
+		writer.close();
+		assertFalse(file.exists());
+	}
+
+	public void testSpillToDiskOrder() {
+		QueueSyslogWriter writer = createWriter(2,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK);
+
+		for(int i=0; i<4; i++) {
+			queue(writer,SyslogConstants.LEVEL_INFO,"m" + i);
+		}
+
+		assertEquals("[m0, m1]",writer.drain().toString());
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"m4");
+		assertEquals(3,writer.getSpilledCount());
+
+		assertEquals("[m2, m3]",writer.drain().toString());
+		assertEquals("[m4]",writer.drain().toString());
+
+		queue(writer,SyslogConstants.LEVEL_INFO,"m5");
+		assertEquals(3,writer.getSpilledCount());
+		assertEquals("[m5]",writer.drain().toString());
+
+		writer.close();
+	}
+
+	public void testSpillFile() throws Exception {
+		File file = File.createTempFile("syslog4j-test",".spill");
+		SyslogSpillFile spillFile = new SyslogSpillFile(file,-1);
+
+		byte[] large = new byte[100000];
+		Arrays.fill(large,(byte) 'x');
+
+		List<QueuedSyslogMessage> messages = new ArrayList<>();
+
+		for(int i=0; i<1000; i++) {
+			assertTrue(spillFile.append(i % 8,("m" + i).getBytes()));
+
+			if (i == 500) {
+				assertTrue(spillFile.append(SyslogConstants.LEVEL_ERROR,large));
+			}
+		}
+
+		assertEquals(512,spillFile.drainTo(messages,512));
+		assertEquals(489,spillFile.drainTo(messages,512));
+		assertTrue(spillFile.isEmpty());
+		assertEquals(0,file.length());
+
+		assertEquals("m0",new String(messages.get(0).getData()));
+		assertEquals("m500",new String(messages.get(500).getData()));
+		assertEquals(SyslogConstants.LEVEL_ERROR,messages.get(501).getLevel());
+		assertTrue(Arrays.equals(large,messages.get(501).getData()));
+		assertEquals("m501",new String(messages.get(502).getData()));
+		assertEquals(999 % 8,messages.get(1000).getLevel());
+		assertEquals("m999",new String(messages.get(1000).getData()));
+
+		spillFile.close();
+		assertFalse(file.exists());
+	}
+
+	protected static CompletableFuture<SyslogDeliveryResult> queueAsync(AbstractSyslogWriter writer, String message) {
+		CompletableFuture<SyslogDeliveryResult> delivery = new CompletableFuture<>();
+
+		writer.queue(new QueuedSyslogMessage(SyslogConstants.LEVEL_INFO,message.getBytes(),delivery,true));
+
+		return delivery;
+	}
+
+	public void testDeliveryResult() throws Exception {
+		QueueSyslogWriter writer = createWriter(1,AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_DROP_OLDEST);
+
+		CompletableFuture<SyslogDeliveryResult> oldest = queueAsync(writer,"m0");
+		CompletableFuture<SyslogDeliveryResult> newest = queueAsync(writer,"m1");
+
+		assertEquals(SyslogDeliveryResult.DROPPED,oldest.getNow(null));
+		assertFalse(newest.isDone());
+
+		this.config.setQueueOverflowPolicy(AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_DROP_NEWEST);
+		assertEquals(SyslogDeliveryResult.DROPPED,queueAsync(writer,"m2").getNow(null));
+
+		this.config.setQueueOverflowPolicy(AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_BACKLOG);
+		assertEquals(SyslogDeliveryResult.BACKLOGGED,queueAsync(writer,"m3").getNow(null));
+
+		this.config.setQueueOverflowPolicy(AbstractSyslogConfigIF.QUEUE_OVERFLOW_POLICY_SPILL_TO_DISK);
+		assertEquals(SyslogDeliveryResult.SPILLED,queueAsync(writer,"m4").getNow(null));
+
+		writer.close();
+	}
+}
@@ -0,0 +1,141 @@
+package org.productivity.java.syslog4j.test.queue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.impl.queue.SyslogRingBuffer;
+
+public class SyslogRingBufferTest extends TestCase {
+	public void testOfferPoll() {
+		SyslogRingBuffer<Integer> buffer = new SyslogRingBuffer<>(3);
+
+		assertTrue(buffer.isEmpty());
+		assertNull(buffer.poll());
+
+		for (int round = 0; round < 5; round++) {
+			assertTrue(buffer.offer(round));
+			assertTrue(buffer.offer(round + 100));
+			assertTrue(buffer.offer(round + 200));
+			assertFalse(buffer.offer(-1));
+			assertEquals(3,buffer.size());
+
+			assertEquals(Integer.valueOf(round),buffer.poll());
+			assertTrue(buffer.offer(round + 300));
+
+			List<Integer> drained = new ArrayList<>();
+			assertEquals(2,buffer.drainTo(drained,2));
+			assertEquals(Integer.valueOf(round + 100),drained.get(0));
+			assertEquals(Integer.valueOf(round + 200),drained.get(1));
+
+			assertEquals(Integer.valueOf(round + 300),buffer.poll());
+			assertTrue(buffer.isEmpty());
+		}
+	}
+
+	public void testMultipleProducers() throws Exception {
+		final int producers = 8;
+		final int perProducer = 20000;
+
+		final SyslogRingBuffer<long[]> buffer = new SyslogRingBuffer<>(64);
+
+		List<Thread> threads = new ArrayList<>();
+
+		for (int p = 0; p < producers; p++) {
+			final int producer = p;
+
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					long[] element = new long[] { producer, i };
+
+					while (!buffer.offer(element)) {
+						Thread.yield();
+					}
+				}
+			});
+
+			threads.add(thread);
+			thread.start();
+		}
+
+		int[] next = new int[producers];
+		int received = 0;
+
+		long start = System.currentTimeMillis();
+
+		while (received < producers * perProducer) {
+			long[] element = buffer.poll();
+
+			if (element == null) {
+				assertTrue("Timed out",System.currentTimeMillis() - start < 60000);
+				Thread.yield();
+				continue;
+			}
+
+			int producer = (int) element[0];
+			assertEquals(next[producer],(int) element[1]);
+			next[producer]++;
+			received++;
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertTrue(buffer.isEmpty());
+	}
+
+	public void testMultipleConsumers() throws Exception {
+		final int total = 100000;
+
+		final SyslogRingBuffer<Integer> buffer = new SyslogRingBuffer<>(16);
+		final AtomicIntegerArray seen = new AtomicIntegerArray(total);
+
+		List<Thread> consumers = new ArrayList<>();
+
+		for (int c = 0; c < 2; c++) {
+			Thread thread = new Thread(() -> {
+				long start = System.currentTimeMillis();
+
+				while (System.currentTimeMillis() - start < 60000) {
+					Integer element = buffer.poll();
+
+					if (element == null) {
+						Thread.yield();
+
+					} else if (element < 0) {
+						return;
+
+					} else {
+						seen.incrementAndGet(element);
+					}
+				}
+			});
+
+			consumers.add(thread);
+			thread.start();
+		}
+
+		for (int i = 0; i < total; i++) {
+			while (!buffer.offer(i)) {
+				Thread.yield();
+			}
+		}
+
+		for (int c = 0; c < consumers.size(); c++) {
+			while (!buffer.offer(-1)) {
+				Thread.yield();
+			}
+		}
+
+		for (Thread thread : consumers) {
+			thread.join();
+		}
+
+		for (int i = 0; i < total; i++) {
+			assertEquals(1,seen.get(i));
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package org.productivity.java.syslog4j.test.server.event;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.SyslogRuntimeException;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEvent;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEventBuffer;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEventBufferPool;
+
+public class SyslogServerEventBufferTest extends TestCase {
+	protected static SyslogServerEvent createEvent(SyslogServerEventBufferPool pool, String message) throws Exception {
+		SyslogServerEventBuffer buffer = pool.acquire();
+
+		byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+		System.arraycopy(bytes,0,buffer.getData(),0,bytes.length);
+
+		SyslogServerEvent event = new SyslogServerEvent(buffer.getData(),bytes.length,InetAddress.getLoopbackAddress());
+		event.setBuffer(buffer);
+
+		return event;
+	}
+
+	public void testReuse() throws Exception {
+		SyslogServerEventBufferPool pool = new SyslogServerEventBufferPool(1024,2);
+
+		for(int i=0; i<100; i++) {
+			SyslogServerEvent event = createEvent(pool,"<14>message " + i);
+
+			assertEquals("message " + i,event.getMessage());
+
+			event.release();
+		}
+
+		assertEquals(1,pool.getAllocatedCount());
+		assertEquals(1,pool.getPooledCount());
+	}
+
+	public void testMaxPooled() {
+		SyslogServerEventBufferPool pool = new SyslogServerEventBufferPool(16,2);
+
+		SyslogServerEventBuffer[] buffers = new SyslogServerEventBuffer[4];
+
+		for(int i=0; i<buffers.length; i++) {
+			buffers[i] = pool.acquire();
+		}
+
+		for (SyslogServerEventBuffer buffer : buffers) {
+			assertTrue(buffer.release());
+		}
+
+		assertEquals(4,pool.getAllocatedCount());
+		assertEquals(2,pool.getPooledCount());
+
+		try {
+			buffers[0].release();
+			fail();
+
+		} catch (SyslogRuntimeException sre) {
+			//
+		}
+	}
+
+	public void testRetain() throws Exception {
+		SyslogServerEventBufferPool pool = new SyslogServerEventBufferPool(1024,2);
+
+		SyslogServerEvent event = createEvent(pool,"<14>retained");
+		event.retain();
+		event.release();
+
+		SyslogServerEvent other = createEvent(pool,"<14>other");
+
+		assertEquals("<14>retained",new String(event.getRaw(),StandardCharsets.UTF_8));
+		assertEquals(2,pool.getAllocatedCount());
+
+		event.release();
+		other.release();
+
+		assertEquals(2,pool.getPooledCount());
+	}
+
+	public void testGetRawCopy() throws Exception {
+		SyslogServerEventBufferPool pool = new SyslogServerEventBufferPool(1024,2);
+
+		SyslogServerEvent event = createEvent(pool,"<14>copied");
+		byte[] raw = event.getRaw();
+		event.release();
+
+		createEvent(pool,"<14>overwritten").release();
+
+		assertEquals("<14>copied",new String(raw,StandardCharsets.UTF_8));
+		assertSame(raw,event.getRaw());
+	}
+
+	public void testGetRawAfterRelease() throws Exception {
+		SyslogServerEventBufferPool pool = new SyslogServerEventBufferPool(1024,2);
+
+		SyslogServerEvent event = createEvent(pool,"<14>released");
+		event.release();
+
+		createEvent(pool,"<14>overwritten").release();
+
+		assertEquals("released",event.getMessage());
+
+		try {
+			event.getRaw();
+			fail();
+
+		} catch (SyslogRuntimeException sre) {
+			//
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package org.productivity.java.syslog4j.test.server.event;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEvent;
+
+public class SyslogServerEventParseTest extends TestCase {
+	protected static final String[] MESSAGES = {
+		"<14>Oct 18 14:45:41 localhost message text",
+		"<14>Oct  8 14:45:41 127.0.0.1 message",
+		"<14>oct 18 14:45:41 LOCALHOST message",
+		"<0>Jan  1 00:00:00 test",
+		"<191>Dec 31 23:59:59 localhost.localdomain message",
+		"<14>Feb 30 10:00:00 host message",
+		"<14>Oct 18 24:00:00 host message",
+		"<14>Oct 18 14:45:4x host message",
+		"<14>Xan  1 00:00:00 test",
+		"<x>Jan  1 00:00:00 test",
+		"<>localhost message",
+		"<12345>message",
+		"no priority here",
+		"<14>short",
+		"<14>Oct 18 14:45:41",
+		"<14>Oct 18 14:45:41 ",
+		"<-1>Oct 18 14:45:41 localhost message",
+		"<+5>Oct 18 14:45:41 localhost message",
+		"<14>J\u00e4n 18 14:45:41 localhost message",
+		"<14>Oct 18 14:45:41 h\u00f4st m\u00e9ssage",
+		"<14>Oct 18 14:45:41 \tlocalhost message",
+		"<14>Oct 18 14:45:41 localhost",
+		"<14>Oct 18 14:45:41 localhost ",
+		"<14> localhost message"
+	};
+
+	protected static void assertSameEvent(String message, SyslogServerEvent expected, SyslogServerEvent actual) {
+		assertEquals(message,expected.getFacility(),actual.getFacility());
+		assertEquals(message,expected.getLevel(),actual.getLevel());
+		assertEquals(message,expected.getHost(),actual.getHost());
+		assertEquals(message,expected.isHostStrippedFromMessage(),actual.isHostStrippedFromMessage());
+		assertEquals(message,expected.getMessage(),actual.getMessage());
+
+		if (expected.getDate() == null) {
+			assertNull(message,actual.getDate());
+
+		} else {
+			assertTrue(message,Math.abs(expected.getDate().getTime() - actual.getDate().getTime()) < 5000);
+		}
+	}
+
+	public void testSameAsStringParser() {
+		InetAddress inetAddress = InetAddress.getLoopbackAddress();
+
+		for (String message : MESSAGES) {
+			byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+
+			SyslogServerEvent expected = new SyslogServerEvent(message,inetAddress);
+			SyslogServerEvent actual = new SyslogServerEvent(bytes,bytes.length,inetAddress);
+
+			assertSameEvent(message,expected,actual);
+			assertEquals(message,new String(actual.getRaw(),StandardCharsets.UTF_8));
+		}
+	}
+
+	public void testOffset() {
+		byte[] bytes = "<14>Oct 18 14:45:41 localhost message xxxxxxxx".getBytes(StandardCharsets.UTF_8);
+
+		SyslogServerEvent event = new SyslogServerEvent(bytes,bytes.length - 9,InetAddress.getLoopbackAddress());
+
+		assertEquals(1,event.getFacility());
+		assertEquals(6,event.getLevel());
+		assertEquals("localhost",event.getHost());
+		assertEquals("message",event.getMessage());
+
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(event.getDate());
+
+		assertEquals(Calendar.getInstance().get(Calendar.YEAR),calendar.get(Calendar.YEAR));
+		assertEquals(Calendar.OCTOBER,calendar.get(Calendar.MONTH));
+		assertEquals(18,calendar.get(Calendar.DAY_OF_MONTH));
+		assertEquals(14,calendar.get(Calendar.HOUR_OF_DAY));
+		assertEquals(45,calendar.get(Calendar.MINUTE));
+		assertEquals(41,calendar.get(Calendar.SECOND));
+	}
+
+	public void testSetMessage() {
+		byte[] bytes = "<14>Oct 18 14:45:41 localhost message".getBytes(StandardCharsets.UTF_8);
+
+		SyslogServerEvent event = new SyslogServerEvent(bytes,bytes.length,InetAddress.getLoopbackAddress());
+		event.setMessage("replaced");
+
+		assertEquals("replaced",event.getMessage());
+	}
+}
@@ -0,0 +1,161 @@
+package org.productivity.java.syslog4j.test.server.event;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.impl.executor.PlatformSyslogExecutor;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerEvent;
+import org.productivity.java.syslog4j.server.impl.event.SyslogServerHostNameCache;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class SyslogServerHostNameCacheTest extends TestCase {
+	public static class TestHostNameCache extends SyslogServerHostNameCache {
+		public final Map<InetAddress,String> names = new ConcurrentHashMap<>();
+
+		public TestHostNameCache(boolean reverseLookup, long cacheTime, long negativeCacheTime, int maxSize) {
+			super(reverseLookup,cacheTime,negativeCacheTime,maxSize,PlatformSyslogExecutor.INSTANCE);
+		}
+
+		protected String lookup(InetAddress inetAddress) throws UnknownHostException {
+			this.lookupCount.increment();
+
+			return this.names.getOrDefault(inetAddress,inetAddress.getHostAddress());
+		}
+	}
+
+	protected static InetAddress address(int i) throws UnknownHostException {
+		return InetAddress.getByAddress(new byte[] { 10, 0, 0, (byte) i });
+	}
+
+	protected static String awaitName(SyslogServerHostNameCache cache, InetAddress inetAddress, String name) {
+		for(int i=0; i<100 && !cache.getHostName(inetAddress).getName().equals(name); i++) {
+			SyslogUtility.sleep(10);
+		}
+
+		return cache.getHostName(inetAddress).getName();
+	}
+
+	public void testLookup() throws Exception {
+		TestHostNameCache cache = new TestHostNameCache(true,60000,60000,16);
+		cache.names.put(address(1),"host1.example.com");
+
+		assertEquals("10.0.0.1",cache.getHostName(address(1)).getName());
+		assertEquals("host1.example.com",awaitName(cache,address(1),"host1.example.com"));
+		assertEquals("host1",cache.getHostName(address(1)).getShortName());
+
+		for(int i=0; i<100; i++) {
+			cache.getHostName(address(1));
+		}
+
+		assertEquals(1,cache.getLookupCount());
+		assertEquals(1,cache.getMissCount());
+	}
+
+	public void testNegativeCache() throws Exception {
+		TestHostNameCache cache = new TestHostNameCache(true,60000,50,16);
+
+		cache.getHostName(address(2));
+		SyslogUtility.sleep(100);
+
+		assertEquals("10.0.0.2",cache.getHostName(address(2)).getName());
+		assertEquals(1,cache.getLookupCount());
+
+		cache.names.put(address(2),"host2");
+
+		SyslogUtility.sleep(100);
+
+		assertEquals("host2",awaitName(cache,address(2),"host2"));
+		assertEquals(2,cache.getLookupCount());
+	}
+
+	public void testRefresh() throws Exception {
+		TestHostNameCache cache = new TestHostNameCache(true,50,60000,16);
+		cache.names.put(address(3),"old");
+
+		assertEquals("old",awaitName(cache,address(3),"old"));
+
+		cache.names.put(address(3),"new");
+		SyslogUtility.sleep(100);
+
+		assertEquals("old",cache.getHostName(address(3)).getName());
+		assertEquals("new",awaitName(cache,address(3),"new"));
+	}
+
+	public void testMaxSize() throws Exception {
+		TestHostNameCache cache = new TestHostNameCache(true,60000,60000,8);
+
+		for(int i=1; i<=100; i++) {
+			cache.getHostName(address(i));
+		}
+
+		SyslogUtility.sleep(200);
+
+		assertTrue(cache.size() <= 8);
+	}
+
+	public void testReverseLookupDisabled() throws Exception {
+		TestHostNameCache cache = new TestHostNameCache(false,60000,60000,8);
+		cache.names.put(address(4),"host4");
+
+		byte[] message = "<14>Oct 18 14:45:41 host4 message".getBytes(StandardCharsets.UTF_8);
+
+		SyslogServerEvent event = new SyslogServerEvent(message,message.length,address(4),cache);
+
+		assertEquals("10.0.0.4",event.getHost());
+		assertEquals("host4 message",event.getMessage());
+		assertFalse(event.isHostStrippedFromMessage());
+		assertEquals(0,cache.getLookupCount());
+	}
+
+	public void testEventMiss() throws Exception {
+		TestHostNameCache cache = new TestHostNameCache(true,60000,60000,8);
+		cache.names.put(address(6),"host6.example.com");
+
+		byte[] message = "<14>Oct 18 14:45:41 host6 message".getBytes(StandardCharsets.UTF_8);
+
+		SyslogServerEvent event = new SyslogServerEvent(message,message.length,address(6),cache);
+
+		assertEquals("10.0.0.6",event.getHost());
+		assertEquals("host6 message",event.getMessage());
+		assertFalse(event.isHostStrippedFromMessage());
+
+		event = new SyslogServerEvent("<14>Oct 18 14:45:41 10.0.0.7 message",address(7),cache);
+
+		assertEquals("10.0.0.7",event.getHost());
+		assertEquals("message",event.getMessage());
+		assertTrue(event.isHostStrippedFromMessage());
+
+		awaitName(cache,address(6),"host6.example.com");
+
+		event = new SyslogServerEvent(message,message.length,address(6),cache);
+
+		assertEquals("host6",event.getHost());
+		assertEquals("message",event.getMessage());
+		assertTrue(event.isHostStrippedFromMessage());
+	}
+
+	public void testEvent() throws Exception {
+		TestHostNameCache cache = new TestHostNameCache(true,60000,60000,8);
+		cache.names.put(address(5),"host5.example.com");
+
+		awaitName(cache,address(5),"host5.example.com");
+
+		byte[] message = "<14>Oct 18 14:45:41 host5 message".getBytes(StandardCharsets.UTF_8);
+
+		SyslogServerEvent event = new SyslogServerEvent(message,message.length,address(5),cache);
+
+		assertEquals("host5",event.getHost());
+		assertEquals("message",event.getMessage());
+		assertTrue(event.isHostStrippedFromMessage());
+
+		event = new SyslogServerEvent("<14>Oct 18 14:45:41 host5.example.com message",address(5),cache);
+
+		assertEquals("host5.example.com",event.getHost());
+		assertEquals("message",event.getMessage());
+	}
+}
@@ -0,0 +1,138 @@
+package org.productivity.java.syslog4j.test.server.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogFrameDecoder;
+
+public class TCPNetSyslogFrameDecoderTest extends TestCase {
+	protected static TCPNetSyslogFrameDecoder decoder(String data, int maxFrameLength) {
+		TCPNetSyslogFrameDecoder decoder = new TCPNetSyslogFrameDecoder(maxFrameLength);
+
+		byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+		decoder.append(bytes,0,bytes.length);
+
+		return decoder;
+	}
+
+	protected static String next(TCPNetSyslogFrameDecoder decoder) throws IOException {
+		byte[] frame = decoder.nextFrame();
+
+		return frame == null ? null : new String(frame,StandardCharsets.UTF_8);
+	}
+
+	public void testMixedFraming() throws IOException {
+		TCPNetSyslogFrameDecoder decoder = decoder("<14>one\n11 <14>two\nxyz<14>three\r\n5 <14>4<14>tail",1024);
+
+		assertEquals("<14>one",next(decoder));
+		assertEquals("<14>two\nxyz",next(decoder));
+		assertEquals("<14>three",next(decoder));
+		assertEquals("<14>4",next(decoder));
+		assertNull(next(decoder));
+		assertEquals(8,decoder.remaining());
+		assertEquals("<14>tail",new String(decoder.endOfStream(),StandardCharsets.UTF_8));
+		assertNull(decoder.endOfStream());
+	}
+
+	public void testSmallReads() throws IOException {
+		StringBuilder data = new StringBuilder();
+
+		for(int i=0; i<1000; i++) {
+			String message = "<14>message " + i;
+
+			if (i % 2 == 0) {
+				data.append(message.length()).append(' ').append(message);
+
+			} else {
+				data.append(message).append('\n');
+			}
+		}
+
+		byte[] bytes = data.toString().getBytes(StandardCharsets.UTF_8);
+
+		TCPNetSyslogFrameDecoder decoder = new TCPNetSyslogFrameDecoder(1024);
+
+		byte[] readBuffer = new byte[1];
+		int count = 0;
+
+		for(int i=0; i<bytes.length; i++) {
+			readBuffer[0] = bytes[i];
+			decoder.append(readBuffer,0,1);
+
+			String frame;
+
+			while((frame = next(decoder)) != null) {
+				assertEquals("<14>message " + count++,frame);
+			}
+
+			decoder.detach();
+		}
+
+		assertEquals(1000,count);
+		assertEquals(0,decoder.remaining());
+	}
+
+	public void testDetach() throws IOException {
+		byte[] readBuffer = "<14>one\n<14>tw".getBytes(StandardCharsets.UTF_8);
+
+		TCPNetSyslogFrameDecoder decoder = new TCPNetSyslogFrameDecoder(1024);
+		decoder.append(readBuffer,0,readBuffer.length);
+
+		assertEquals("<14>one",next(decoder));
+		assertNull(next(decoder));
+
+		decoder.detach();
+
+		Arrays.fill(readBuffer,(byte) 'x');
+		System.arraycopy("o\n".getBytes(StandardCharsets.UTF_8),0,readBuffer,0,2);
+
+		decoder.append(readBuffer,0,2);
+
+		assertEquals("<14>two",next(decoder));
+		assertNull(next(decoder));
+	}
+
+	public void testMaxFrameLength() throws IOException {
+		try {
+			decoder("65 <14>",64).nextFrame();
+			fail();
+
+		} catch (IOException ioe) {
+			//
+		}
+
+		try {
+			decoder("<14>" + "x".repeat(10000),64).nextFrame();
+			fail();
+
+		} catch (IOException ioe) {
+			//
+		}
+
+		try {
+			decoder("1x <14>",64).nextFrame();
+			fail();
+
+		} catch (IOException ioe) {
+			//
+		}
+	}
+
+	public void testTruncatedFrame() throws IOException {
+		TCPNetSyslogFrameDecoder decoder = decoder("10 <14>",1024);
+
+		assertNull(decoder.nextFrame());
+
+		try {
+			decoder.endOfStream();
+			fail();
+
+		} catch (EOFException eofe) {
+			//
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package org.productivity.java.syslog4j.test.server.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.server.impl.net.tcp.TCPNetSyslogFrameReader;
+
+public class TCPNetSyslogFrameReaderTest extends TestCase {
+	protected static TCPNetSyslogFrameReader reader(String data, int maxFrameLength) {
+		return new TCPNetSyslogFrameReader(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),maxFrameLength);
+	}
+
+	protected static String read(TCPNetSyslogFrameReader reader) throws IOException {
+		byte[] frame = reader.readFrame();
+
+		return frame == null ? null : new String(frame,StandardCharsets.UTF_8);
+	}
+
+	public void testMixedFraming() throws IOException {
+		TCPNetSyslogFrameReader reader = reader("<14>one\n11 <14>two\nxyz<14>three\r\n5 <14>4<14>tail",1024);
+
+		assertEquals("<14>one",read(reader));
+		assertEquals("<14>two\nxyz",read(reader));
+		assertEquals("<14>three",read(reader));
+		assertEquals("<14>4",read(reader));
+		assertEquals("<14>tail",read(reader));
+		assertNull(read(reader));
+	}
+
+	public void testSmallReads() throws IOException {
+		StringBuilder data = new StringBuilder();
+
+		for(int i=0; i<1000; i++) {
+			String message = "<14>message " + i;
+
+			if (i % 2 == 0) {
+				data.append(message.length()).append(' ').append(message);
+
+			} else {
+				data.append(message).append('\n');
+			}
+		}
+
+		final byte[] bytes = data.toString().getBytes(StandardCharsets.UTF_8);
+
+		InputStream oneByteAtATime = new ByteArrayInputStream(bytes) {
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b,off,Math.min(len,1));
+			}
+		};
+
+		TCPNetSyslogFrameReader reader = new TCPNetSyslogFrameReader(oneByteAtATime,1024);
+
+		for(int i=0; i<1000; i++) {
+			assertEquals("<14>message " + i,read(reader));
+		}
+
+		assertNull(read(reader));
+	}
+
+	public void testLargeFrame() throws IOException {
+		StringBuilder message = new StringBuilder();
+
+		while (message.length() < 100000) {
+			message.append("0123456789");
+		}
+
+		TCPNetSyslogFrameReader reader = reader(message.length() + " " + message + message + "\n",200000);
+
+		assertEquals(message.toString(),read(reader));
+		assertEquals(message.toString(),read(reader));
+		assertNull(read(reader));
+	}
+
+	public void testMaxFrameLength() throws IOException {
+		try {
+			reader("65 <14>",64).readFrame();
+			fail();
+
+		} catch (EOFException eofe) {
+			fail();
+
+		} catch (IOException ioe) {
+			//
+		}
+
+		try {
+			read(reader("<14>" + "x".repeat(10000) + "\n",64));
+			fail();
+
+		} catch (IOException ioe) {
+			//
+		}
+	}
+
+	public void testTruncatedFrame() throws IOException {
+		try {
+			reader("10 <14>",1024).readFrame();
+			fail();
+
+		} catch (EOFException eofe) {
+			//
+		}
+	}
+}
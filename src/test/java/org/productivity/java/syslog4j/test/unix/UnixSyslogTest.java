@@ -1,14 +1,50 @@
 package org.productivity.java.syslog4j.test.unix;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.jna.Memory;
+
 import junit.framework.TestCase;
 
 import org.productivity.java.syslog4j.Syslog;
 import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogDeliveryResult;
 import org.productivity.java.syslog4j.SyslogIF;
 import org.productivity.java.syslog4j.impl.AbstractSyslog;
+import org.productivity.java.syslog4j.impl.unix.UnixSyslog;
 import org.productivity.java.syslog4j.impl.unix.UnixSyslogConfig;
 
 public class UnixSyslogTest extends TestCase {
+	public static class RecordingUnixSyslog extends UnixSyslog {
+		public static class RecordingLibrary implements CLibrary {
+			public final List<String> messages = new ArrayList<>();
+			
+			public void openlog(Memory ident, int option, int facility) {
+				//
+			}
+			
+			public void syslog(int priority, String format, String message) {
+				this.messages.add(priority + " " + message);
+			}
+			
+			public void closelog() {
+				//
+			}
+		}
+		
+		public static Object install(RecordingLibrary library) {
+			Object previous = libraryInstance;
+			libraryInstance = library;
+			
+			return previous;
+		}
+		
+		public static void restore(Object library) {
+			libraryInstance = (CLibrary) library;
+		}
+	}
+	
 	public void testUnixSyslogConfig() {
 		if (Boolean.getBoolean(SyslogConstants.DISABLE_UNIX_PROPERTY)) {
 			assertTrue(true);
@@ -83,4 +119,29 @@ public class UnixSyslogTest extends TestCase {
 		assertNull(abstractSyslog.getWriter());
 		abstractSyslog.returnWriter(null);
 	}
+	
+	public void testUnixSyslogLogAsyncAndReplay() throws Exception {
+		if (Boolean.getBoolean(SyslogConstants.DISABLE_UNIX_PROPERTY)) {
+			assertTrue(true);
+			return;
+		}
+
+		SyslogIF syslog = Syslog.getInstance(SyslogConstants.UNIX_SYSLOG);
+		syslog.getConfig().setFacility(SyslogIF.FACILITY_USER);
+		
+		RecordingUnixSyslog.RecordingLibrary library = new RecordingUnixSyslog.RecordingLibrary();
+		Object previous = RecordingUnixSyslog.install(library);
+		
+		try {
+			assertEquals(SyslogDeliveryResult.WRITTEN,syslog.logAsync(SyslogIF.LEVEL_ERROR,"async").get());
+			assertTrue(((AbstractSyslog) syslog).replay(SyslogIF.LEVEL_WARN,"replayed"));
+			
+		} finally {
+			RecordingUnixSyslog.restore(previous);
+			
+			syslog.flush();
+		}
+		
+		assertEquals("[" + (SyslogIF.FACILITY_USER | SyslogIF.LEVEL_ERROR) + " async, " + (SyslogIF.FACILITY_USER | SyslogIF.LEVEL_WARN) + " replayed]",library.messages.toString());
+	}
 }
@@ -0,0 +1,115 @@
+package org.productivity.java.syslog4j.test.util;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.productivity.java.syslog4j.SyslogConstants;
+import org.productivity.java.syslog4j.SyslogMessageProcessorIF;
+import org.productivity.java.syslog4j.impl.message.processor.SyslogMessageProcessor;
+import org.productivity.java.syslog4j.impl.message.processor.structured.StructuredSyslogMessageProcessor;
+import org.productivity.java.syslog4j.test.util.SyslogUtilityTest.CharSet;
+import org.productivity.java.syslog4j.util.SyslogEncodeBuffer;
+import org.productivity.java.syslog4j.util.SyslogUtility;
+
+public class SyslogEncodeBufferTest extends TestCase {
+	protected static CharSet createCharSet(String charSetName) {
+		CharSet charSet = new CharSet();
+		charSet.setCharSet(charSetName);
+
+		return charSet;
+	}
+
+	protected static void assertEncoded(CharSet charSet, String data) {
+		SyslogEncodeBuffer buffer = SyslogEncodeBuffer.acquire(charSet);
+
+		try {
+			buffer.putString(data);
+
+			assertTrue(data,Arrays.equals(SyslogUtility.getBytes(charSet,data),buffer.toByteArray()));
+
+		} finally {
+			buffer.release();
+		}
+	}
+
+	public void testPutString() {
+		CharSet utf8 = createCharSet("UTF-8");
+
+		assertEncoded(utf8,"");
+		assertEncoded(utf8,"plain ascii text");
+		assertEncoded(utf8,"caf\u00e9 \u65e5\u672c\u8a9e \ud83d\ude00 after");
+
+		StringBuilder large = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			large.append(i % 2 == 0 ? 'x' : '\u00fc');
+		}
+		assertEncoded(utf8,large.toString());
+
+		assertEncoded(createCharSet("UTF-16"),"caf\u00e9");
+		assertEncoded(createCharSet("US-ASCII"),"caf\u00e9");
+	}
+
+	public void testPutNumber() {
+		SyslogEncodeBuffer buffer = SyslogEncodeBuffer.acquire(createCharSet("UTF-8"));
+
+		try {
+			buffer.putNumber(0).put((byte) ' ').putNumber(7).put((byte) ' ').putNumber(191).put((byte) ' ').putNumber(-12);
+
+			assertEquals("0 7 191 -12",new String(buffer.toByteArray()));
+
+		} finally {
+			buffer.release();
+		}
+	}
+
+	public void testNestedAcquire() {
+		CharSet charSet = createCharSet("UTF-8");
+
+		SyslogEncodeBuffer outer = SyslogEncodeBuffer.acquire(charSet);
+		outer.putString("outer");
+
+		SyslogEncodeBuffer inner = SyslogEncodeBuffer.acquire(charSet);
+		assertNotSame(outer,inner);
+		inner.putString("inner");
+		inner.release();
+
+		assertEquals("outer",new String(outer.toByteArray()));
+		outer.release();
+
+		SyslogEncodeBuffer again = SyslogEncodeBuffer.acquire(charSet);
+		assertSame(outer,again);
+		assertEquals(0,again.length());
+		again.release();
+	}
+
+	protected static void assertHeader(SyslogMessageProcessorIF messageProcessor, boolean sendLocalTimestamp) {
+		CharSet charSet = createCharSet("UTF-8");
+
+		for (int attempt = 0; attempt < 3; attempt++) {
+			String header = messageProcessor.createSyslogHeader(SyslogConstants.FACILITY_LOCAL3,SyslogConstants.LEVEL_WARN,"host\u00e9",sendLocalTimestamp,true);
+
+			SyslogEncodeBuffer buffer = SyslogEncodeBuffer.acquire(charSet);
+
+			try {
+				messageProcessor.encodeSyslogHeader(buffer,SyslogConstants.FACILITY_LOCAL3,SyslogConstants.LEVEL_WARN,"host\u00e9",sendLocalTimestamp,true);
+
+				// the timestamp may have ticked over between the two calls
+				if (header.equals(SyslogUtility.newString(charSet,buffer.toByteArray()))) {
+					return;
+				}
+
+			} finally {
+				buffer.release();
+			}
+		}
+
+		fail("Encoded header does not match created header");
+	}
+
+	public void testEncodeSyslogHeader() {
+		assertHeader(new SyslogMessageProcessor(),false);
+		assertHeader(new SyslogMessageProcessor(),true);
+		assertHeader(new StructuredSyslogMessageProcessor(),true);
+	}
+}
@@ -113,4 +113,26 @@ public class SyslogUtilityTest extends TestCase {
 			assertTrue(true);
 		}
 	}
+
+	public void testFormat() {
+		assertNull(SyslogUtility.format(null,new Object[] { "a" }));
+		assertEquals("it's {0}",SyslogUtility.format("it's {0}",null));
+		assertEquals("user bob failed 3 times",SyslogUtility.format("user {0} failed {1} times",new Object[] { "bob", 3 }));
+		assertEquals("bad {0 [x]",SyslogUtility.format("bad {0",new Object[] { "x" }));
+	}
+
+	public void testBackoff() {
+		for(int i=0; i<100; i++) {
+			long backoff = SyslogUtility.getBackoff(100,1000,0);
+			assertTrue(backoff > 50 && backoff <= 100);
+			
+			backoff = SyslogUtility.getBackoff(100,1000,2);
+			assertTrue(backoff > 200 && backoff <= 400);
+			
+			backoff = SyslogUtility.getBackoff(100,1000,40);
+			assertTrue(backoff > 500 && backoff <= 1000);
+		}
+		
+		assertEquals(0,SyslogUtility.getBackoff(0,1000,3));
+	}
 }